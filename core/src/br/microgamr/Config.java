@@ -53,6 +53,36 @@ public class Config {
      */
     public static final long TIME_ON_SPLASH_SCREEN = 3750;
 
+    /**
+     * Tempo mínimo em que a tela de splash fica sendo mostrada. Depois dele,
+     * a splash termina assim que os assets das próximas telas tiverem sido
+     * carregados (veja {@link br.microgamr.assets.AssetCache}).
+     */
+    public static final long MINIMUM_TIME_ON_SPLASH_SCREEN = 1500;
+
+    /**
+     * Quantos microgames têm seus assets carregados já durante a splash: os
+     * primeiros da sequência sorteada de antemão pelo menu.
+     */
+    public static final int MICROGAMES_TO_WARM_UP = 2;
+
+    /**
+     * Em quantos microgames consecutivos um mesmo microgame não pode se
+     * repetir (veja {@link br.microgamr.logic.WeightedGameSequencer}).
+     */
+    public static final int MICROGAMES_NO_REPEAT_WINDOW = 3;
+
+    /**
+     * No modo sem fim, quantos microgames são sorteados (e têm seus assets
+     * carregados) antes de serem jogados.
+     */
+    public static final int ENDLESS_LOOKAHEAD = 2;
+
+    /**
+     * No modo sem fim, em quantos microgames a dificuldade chega ao máximo.
+     */
+    public static final int ENDLESS_GAMES_TO_MAX_DIFFICULTY = 30;
+
     /**
      * Número de vidas do jogador.
      */
@@ -63,10 +93,179 @@ public class Config {
      */
     public static final float TIME_SHOWING_MICROGAME_INSTRUCTIONS = 4f;
 
+    /**
+     * Quanto tempo (em nanossegundos) de cada quadro das instruções pode ser
+     * usado para preparar o microgame.
+     */
+    public static final long MICROGAME_PREPARATION_BUDGET_PER_FRAME = 4000000;
+
+    /**
+     * Quanto tempo (em nanossegundos) a ativação de um microgame (onStart)
+     * pode demorar sem que se perceba um engasgo.
+     */
+    public static final long MICROGAME_ACTIVATION_BUDGET = 2000000;
+
+    /**
+     * Se o gravador de eventos (veja
+     * {@link br.microgamr.diagnostics.FlightRecorder}) está ligado. Deve ser
+     * ligado apenas para investigar engasgos.
+     */
+    public static final boolean FLIGHT_RECORDER_ENABLED = false;
+
+    /**
+     * Quantos eventos o gravador guarda (os mais antigos são descartados).
+     */
+    public static final int FLIGHT_RECORDER_CAPACITY = 4096;
+
+    /**
+     * Quantos intervalos de vsync um quadro pode demorar antes de ser
+     * considerado um engasgo.
+     */
+    public static final int HITCH_BUDGET_IN_VSYNC_INTERVALS = 2;
+
+    /**
+     * Quantos quadros depois de um engasgo também são gravados no arquivo.
+     */
+    public static final int FLIGHT_RECORDER_FRAMES_AFTER_HITCH = 30;
+
+    /**
+     * Intervalo mínimo (em ms) entre dois arquivos de engasgo.
+     */
+    public static final long FLIGHT_RECORDER_MIN_MILLIS_BETWEEN_DUMPS = 10000;
+
     /**
      * A quantos milissegundos faltando para o término do microgame deve aparecer
      * o contador regressivo na HUD.
      */
     public static final float MICROGAME_COUNTDOWN_ON_HUD_BEGIN_AT = 3f;
 
+    /**
+     * Quantos pixels do mundo de jogo há em um metro do Box2D (veja
+     * {@link br.microgamr.microgames.PhysicsMicroGame}).
+     */
+    public static final float PHYSICS_PIXELS_PER_METER = 64f;
+
+    /**
+     * A duração (em segundos) de cada passo da simulação física.
+     */
+    public static final float PHYSICS_TIME_STEP = 1f / 60f;
+
+    /**
+     * Quantos passos da simulação física podem ser dados em um quadro. Se o
+     * quadro demorar mais do que isso, a simulação fica para trás em vez de
+     * demorar ainda mais para alcançar o tempo real.
+     */
+    public static final int PHYSICS_MAX_STEPS_PER_FRAME = 5;
+
+    /**
+     * Quanto (em unidades do mundo) além da área visível uma sprite pode
+     * estar e ainda ser desenhada (veja
+     * {@link br.microgamr.graphics.RenderQueue}).
+     */
+    public static final float CULLING_MARGIN = 32f;
+
+    /**
+     * Quantas threads executam os jobs dos microgames (veja
+     * {@link br.microgamr.microgames.util.JobSystem}). Com 0, uma por núcleo
+     * do processador; com 1, os jobs rodam na própria thread do jogo.
+     */
+    public static final int JOB_THREADS = 0;
+
+    /**
+     * Se os recursos nativos criados pelas telas são rastreados para que
+     * vazamentos apareçam no log quando elas são descartadas (veja
+     * {@link br.microgamr.diagnostics.LeakTracker}). Como guarda o ponto de
+     * criação de cada recurso, fica desligado, a não ser que a propriedade
+     * de sistema {@code microgamr.leakTracker} seja {@code true} (como nas
+     * tarefas {@code debug} e {@code checkLeaks} do Gradle).
+     */
+    public static final boolean LEAK_TRACKER_ENABLED
+            = Boolean.getBoolean("microgamr.leakTracker");
+
+    /**
+     * Se a renderização contínua é desligada enquanto o jogo está ocioso
+     * (pausado, sem foco ou em uma tela estática; veja
+     * {@link br.microgamr.graphics.IdleRendering}).
+     */
+    public static final boolean IDLE_RENDERING_ENABLED = true;
+
+    /**
+     * Quantos quadros por segundo são desenhados, no máximo, enquanto o jogo
+     * está ocioso e não há <em>input</em>. Com 0, só o <em>input</em> faz
+     * um quadro ser desenhado.
+     */
+    public static final float IDLE_FRAMES_PER_SECOND = 4f;
+
+    /**
+     * O maior intervalo (em segundos) passado às telas em um quadro desenhado
+     * durante a ociosidade, para que o tempo parado não conte como tempo de
+     * jogo.
+     */
+    public static final float IDLE_MAX_FRAME_DELTA = 1f / 30f;
+
+    /**
+     * Quantos quadros por segundo o ajuste de qualidade tenta manter (veja
+     * {@link br.microgamr.graphics.QualityManager}).
+     */
+    public static final int QUALITY_TARGET_FPS = 60;
+
+    /**
+     * De quantos em quantos quadros a qualidade é reavaliada.
+     */
+    public static final int QUALITY_WINDOW_FRAMES = 120;
+
+    /**
+     * Qual percentil dos tempos de quadro de cada janela é comparado com o
+     * orçamento.
+     */
+    public static final float QUALITY_PERCENTILE = 0.9f;
+
+    /**
+     * A partir de que fração do orçamento o intervalo entre quadros faz a
+     * qualidade descer um nível.
+     */
+    public static final float QUALITY_STEP_DOWN_THRESHOLD = 1.2f;
+
+    /**
+     * Abaixo de que fração do orçamento o trabalho de cada quadro conta como
+     * folga para subir um nível.
+     */
+    public static final float QUALITY_STEP_UP_THRESHOLD = 0.5f;
+
+    /**
+     * Quantas janelas seguidas com folga são necessárias para subir um nível
+     * (o número dobra a cada subida que não se sustenta).
+     */
+    public static final int QUALITY_GOOD_WINDOWS_TO_STEP_UP = 4;
+
+    /**
+     * Se o resultado de cada microgame é gravado no registro de telemetria
+     * (veja {@link br.microgamr.diagnostics.TelemetryLog}).
+     */
+    public static final boolean TELEMETRY_ENABLED = true;
+
+    /**
+     * O tamanho (em bytes) de cada segmento do registro de telemetria. Com
+     * 1 MB, cabem cerca de 10 mil resultados.
+     */
+    public static final int TELEMETRY_SEGMENT_BYTES = 1024 * 1024;
+
+    /**
+     * Quantos segmentos do registro de telemetria são mantidos (os mais
+     * antigos são apagados).
+     */
+    public static final int TELEMETRY_MAX_SEGMENTS = 64;
+
+    /**
+     * Quantos bytes os assets de uma sequência de microgames podem manter
+     * residentes (texturas, sons, buffers de música etc.).
+     */
+    public static final long SEQUENCE_MEMORY_BUDGET = 128L * 1024 * 1024;
+
+    /**
+     * Se uma sequência que ultrapassa {@link #SEQUENCE_MEMORY_BUDGET} deve
+     * ser recusada (true) ou apenas gerar um aviso no log (false).
+     */
+    public static final boolean REFUSE_SEQUENCES_OVER_MEMORY_BUDGET = false;
+
 }
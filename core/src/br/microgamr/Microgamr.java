@@ -1,9 +1,15 @@
 package br.microgamr;
 
+import br.microgamr.assets.AssetCache;
+import br.microgamr.diagnostics.TelemetryLog;
+import br.microgamr.graphics.IdleRendering;
+import br.microgamr.graphics.QualityManager;
+import br.microgamr.screens.BaseScreen;
 import br.microgamr.screens.SplashScreen;
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input.Keys;
+import com.badlogic.gdx.Screen;
 
 /**
  * Classe de inicialização do jogo. Um game, na LibGDX, é um ApplicationListener
@@ -16,6 +22,7 @@ public class Microgamr extends Game {
 
     @Override
     public void create() {
+        QualityManager.initialize();
         this.setScreen(new SplashScreen(this, null));
     }
 
@@ -28,7 +35,26 @@ public class Microgamr extends Game {
     @Override
     public void render() {
         handleInput();
-        super.render();
+        float dt = IdleRendering.beginFrame(Gdx.graphics.getDeltaTime());
+        if (screen != null) {
+            screen.render(dt);
+        }
+        // a tela pode ter mudado durante o quadro
+        Screen current = getScreen();
+        IdleRendering.endFrame(current instanceof BaseScreen
+                && ((BaseScreen) current).isStatic());
+    }
+
+    @Override
+    public void pause() {
+        IdleRendering.setUnfocused(true);
+        super.pause();
+    }
+
+    @Override
+    public void resume() {
+        IdleRendering.setUnfocused(false);
+        super.resume();
     }
 
     @Override
@@ -36,5 +62,7 @@ public class Microgamr extends Game {
         if (this.getScreen() != null) {
             this.getScreen().dispose();
         }
+        AssetCache.dispose();
+        TelemetryLog.closeShared();
     }
 }
@@ -0,0 +1,174 @@
+package br.microgamr.assets;
+
+import br.microgamr.screens.BaseScreen;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.utils.Array;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Um conjunto de <em>assets</em> declarado uma única vez e carregado como uma
+ * unidade no {@link AssetCache} (e.g., os assets da HUD).
+ *
+ * Um pacote pode ficar residente (veja {@link #keepResident()}): o cache
+ * mantém uma referência a cada um dos seus assets até que o jogo termine,
+ * então eles são carregados (de forma assíncrona) apenas uma vez e reusados
+ * por todas as telas que os pedirem, mesmo depois que elas forem descartadas.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class AssetBundle {
+
+    /**
+     * Um asset do pacote, com os parâmetros do mesmo tipo que ele.
+     */
+    private static final class Entry<T> {
+
+        final String path;
+        final Class<T> type;
+        final AssetLoaderParameters<T> parameters;
+
+        Entry(String path, Class<T> type,
+                AssetLoaderParameters<T> parameters) {
+            this.path = path;
+            this.type = type;
+            this.parameters = parameters;
+        }
+
+        void loadInto(AssetManager manager) {
+            manager.load(path, type, parameters);
+        }
+
+        void loadInto(BaseScreen screen) {
+            screen.loadAsset(path, type, parameters);
+        }
+
+        void warmUp() {
+            AssetCache.warmUp(path, type, parameters);
+        }
+    }
+
+    private final String name;
+    private final Array<Entry<?>> entries = new Array<Entry<?>>();
+    private AssetManager residentIn;
+
+    /**
+     * Cria um pacote vazio.
+     *
+     * @param name o nome do pacote, usado apenas para depuração.
+     */
+    public AssetBundle(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Declara um asset do pacote, carregado com os parâmetros padrão (veja
+     * {@link AssetCache#defaultParameters(String, Class)}).
+     *
+     * @param path o caminho do asset.
+     * @param type o tipo do asset.
+     * @return este pacote.
+     */
+    public <T> AssetBundle add(String path, Class<T> type) {
+        return add(path, type, AssetCache.defaultParameters(path, type));
+    }
+
+    /**
+     * Declara um asset do pacote, carregado com os parâmetros
+     * {@code parameters}.
+     *
+     * @param path o caminho do asset.
+     * @param type o tipo do asset.
+     * @param parameters os parâmetros de carregamento.
+     * @return este pacote.
+     */
+    public <T> AssetBundle add(String path, Class<T> type,
+            AssetLoaderParameters<T> parameters) {
+        entries.add(new Entry<T>(path, type, parameters));
+        return this;
+    }
+
+    /**
+     * Pede ao {@link AssetCache} que carregue os assets do pacote e os
+     * mantenha carregados até que o jogo termine. Chamadas seguintes não têm
+     * efeito enquanto o mesmo cache estiver em uso.
+     */
+    public void keepResident() {
+        AssetManager manager = AssetCache.getManager();
+        if (residentIn == manager) {
+            return;
+        }
+        for (int i = 0; i < entries.size; i++) {
+            entries.get(i).loadInto(manager);
+        }
+        residentIn = manager;
+    }
+
+    /**
+     * Pede os assets do pacote como assets da tela {@code screen}, para que
+     * ela só comece a ser executada quando eles estiverem carregados. Se o
+     * pacote estiver residente, isso custa apenas o incremento das contagens
+     * de referência.
+     *
+     * @param screen a tela que usa o pacote.
+     */
+    public void loadInto(BaseScreen screen) {
+        for (int i = 0; i < entries.size; i++) {
+            entries.get(i).loadInto(screen);
+        }
+    }
+
+    /**
+     * Pede ao {@link AssetCache} que comece a carregar os assets do pacote
+     * para uma próxima tela (veja {@link AssetCache#warmUp(String, Class,
+     * AssetLoaderParameters)}).
+     */
+    public void warmUp() {
+        for (int i = 0; i < entries.size; i++) {
+            entries.get(i).warmUp();
+        }
+    }
+
+    /**
+     * Retorna os formatos declarados para as texturas do pacote (nos
+     * parâmetros de carregamento, veja {@link TextureFormat.Parameter}).
+     *
+     * @return um mapa (caminho -> formato).
+     */
+    public Map<String, TextureFormat> getTextureFormats() {
+        Map<String, TextureFormat> formats
+                = new LinkedHashMap<String, TextureFormat>();
+        for (int i = 0; i < entries.size; i++) {
+            Entry<?> entry = entries.get(i);
+            if (entry.parameters instanceof TextureFormat.Parameter) {
+                formats.put(entry.path, ((TextureFormat.Parameter)
+                        entry.parameters).textureFormat);
+            }
+        }
+        return formats;
+    }
+
+    /**
+     * Retorna se todos os assets do pacote já foram carregados.
+     *
+     * @return true se todos estão carregados.
+     */
+    public boolean isLoaded() {
+        AssetManager manager = AssetCache.getManager();
+        for (int i = 0; i < entries.size; i++) {
+            if (!manager.isLoaded(entries.get(i).path, entries.get(i).type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return entries.size;
+    }
+}
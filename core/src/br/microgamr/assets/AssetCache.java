@@ -0,0 +1,258 @@
+package br.microgamr.assets;
+
+import br.microgamr.diagnostics.GameEvents;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGeneratorLoader;
+import com.badlogic.gdx.graphics.g2d.freetype.FreetypeFontLoader;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import java.util.Map;
+
+/**
+ * O {@link AssetManager} compartilhado por todas as telas do jogo.
+ *
+ * Cada tela carrega e descarrega os seus <em>assets</em> neste gerenciador,
+ * que conta as referências: um asset usado por duas telas seguidas (e.g., a
+ * fonte de mensagens) não é descarregado e recarregado na transição entre
+ * elas.
+ *
+ * Além disso, uma tela pode "esquentar" o cache, pedindo o carregamento de
+ * assets que só serão usados pelas próximas telas (veja
+ * {@link #warmUp(String, Class)}). É isso que a
+ * {@link br.microgamr.screens.SplashScreen} faz enquanto mostra a logo. Um
+ * asset esquentado fica preso no cache apenas até que
+ * {@link #WARM_UP_SCREENS} telas tenham sido mostradas depois daquela que o
+ * esquentou (e.g., o menu e a primeira partida), qualquer que seja o
+ * caminho do jogador.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class AssetCache {
+
+    /**
+     * Por quantas telas, depois da que os pediu, os assets esquentados são
+     * mantidos carregados.
+     */
+    public static final int WARM_UP_SCREENS = 2;
+
+    private static AssetManager manager;
+    private static final Array<String> warmedAssets = new Array<String>();
+    private static final IntArray warmedOnScreen = new IntArray();
+    private static int screensShown;
+
+    private AssetCache() {
+    }
+
+    /**
+     * Retorna o gerenciador compartilhado, criando-o na primeira chamada.
+     *
+     * @return o <code>AssetManager</code> compartilhado.
+     */
+    public static AssetManager getManager() {
+        if (manager == null) {
+            manager = new AssetManager() {
+                private boolean queueing;
+
+                // o load só enfileira o asset: o carregamento começa quando
+                // o update cria a tarefa dele (e busca o carregador)
+                @Override
+                public synchronized <T> void load(String fileName,
+                        Class<T> type, AssetLoaderParameters<T> parameter) {
+                    queueing = true;
+                    try {
+                        super.load(fileName, type, parameter);
+                    } finally {
+                        queueing = false;
+                    }
+                }
+
+                // a assinatura (com o tipo cru) vem de AssetManager
+                @Override
+                @SuppressWarnings("rawtypes")
+                public <T> AssetLoader getLoader(Class<T> type,
+                        String fileName) {
+                    if (!queueing && fileName != null) {
+                        GameEvents.assetLoadStarted(fileName, type);
+                    }
+                    return super.getLoader(type, fileName);
+                }
+
+                @Override
+                protected <T> void addAsset(String fileName, Class<T> type,
+                        T asset) {
+                    super.addAsset(fileName, type, asset);
+                    GameEvents.assetLoadFinished(fileName, type);
+                }
+            };
+
+            FileHandleResolver resolver = new InternalFileHandleResolver();
+            manager.setLoader(FreeTypeFontGenerator.class,
+                    new FreeTypeFontGeneratorLoader(resolver));
+            manager.setLoader(BitmapFont.class, ".ttf",
+                    new FreetypeFontLoader(resolver));
+            // sons comprimidos são decodificados apenas uma vez (cache de PCM)
+            manager.setLoader(Sound.class, new CachedSoundLoader(resolver));
+            // máscaras de colisão vêm prontas do build (ou da imagem)
+            manager.setLoader(CollisionMask.class,
+                    new CollisionMaskLoader(resolver));
+            // texturas declaradas com formato reduzido usam a versão convertida
+            manager.setLoader(Texture.class,
+                    new ConvertedTextureLoader(resolver));
+        }
+        return manager;
+    }
+
+    /**
+     * Retorna os parâmetros de carregamento usados quando nenhum é
+     * informado: texturas mantêm o formato do PNG.
+     *
+     * @param path o caminho do asset.
+     * @param type o tipo do asset.
+     * @return os parâmetros, ou null para usar os do carregador.
+     */
+    public static <T> AssetLoaderParameters<T> defaultParameters(String path,
+            Class<T> type) {
+        if (type == Texture.class) {
+            return textureParameter(TextureFormat.RGBA8888);
+        }
+        return null;
+    }
+
+    /**
+     * Os parâmetros de uma textura, como parâmetros de um asset do tipo T
+     * (quem chama garante que T é {@link Texture}).
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> AssetLoaderParameters<T> textureParameter(
+            TextureFormat format) {
+        return (AssetLoaderParameters<T>) (AssetLoaderParameters<?>)
+                format.parameter(TextureFilter.Nearest);
+    }
+
+    /**
+     * Retorna os parâmetros de carregamento de um dos assets de um ou mais
+     * microgames: texturas usam o formato declarado junto delas (veja
+     * {@link PreloadAssets}).
+     *
+     * @param assets os assets (caminho -> tipo).
+     * @param path o caminho do asset.
+     * @param type o tipo do asset.
+     * @return os parâmetros, ou null para usar os do carregador.
+     */
+    public static <T> AssetLoaderParameters<T> parametersFor(
+            Map<String, Class<?>> assets, String path, Class<T> type) {
+        if (type == Texture.class) {
+            return textureParameter(PreloadAssets.formatOf(assets, path));
+        }
+        return null;
+    }
+
+    /**
+     * Pede o carregamento de um asset que será usado por uma próxima tela. O
+     * cache mantém uma referência a ele pelas próximas
+     * {@link #WARM_UP_SCREENS} telas (ou até que
+     * {@link #releaseWarmedAssets()} seja chamado).
+     *
+     * @param path o caminho do asset.
+     * @param type o tipo do asset.
+     */
+    public static <T> void warmUp(String path, Class<T> type) {
+        warmUp(path, type, defaultParameters(path, type));
+    }
+
+    /**
+     * Pede o carregamento de um asset que será usado por uma próxima tela,
+     * com os parâmetros {@code parameters}.
+     *
+     * @param path o caminho do asset.
+     * @param type o tipo do asset.
+     * @param parameters os parâmetros de carregamento.
+     */
+    public static <T> void warmUp(String path, Class<T> type,
+            AssetLoaderParameters<T> parameters) {
+        getManager().load(path, type, parameters);
+        warmedAssets.add(path);
+        warmedOnScreen.add(screensShown);
+    }
+
+    /**
+     * Pede o carregamento dos assets de um ou mais microgames, que serão
+     * usados por uma próxima tela (veja
+     * {@link #parametersFor(Map, String, Class)}).
+     *
+     * @param assets os assets (caminho -> tipo).
+     */
+    public static void warmUp(Map<String, Class<?>> assets) {
+        for (Map.Entry<String, Class<?>> asset : assets.entrySet()) {
+            warmUp(assets, asset.getKey(), asset.getValue());
+        }
+    }
+
+    private static <T> void warmUp(Map<String, Class<?>> assets, String path,
+            Class<T> type) {
+        warmUp(path, type, parametersFor(assets, path, type));
+    }
+
+    /**
+     * Avisa que uma nova tela está sendo mostrada. Chamado pela
+     * {@link br.microgamr.screens.BaseScreen} antes de a tela pedir os seus
+     * assets.
+     */
+    public static void screenShowing() {
+        screensShown++;
+    }
+
+    /**
+     * Avisa que a nova tela já pediu os seus assets (e a anterior já foi
+     * descartada): libera os assets esquentados há {@link #WARM_UP_SCREENS}
+     * telas ou mais. Os que a nova tela usa continuam carregados.
+     */
+    public static void screenShown() {
+        int kept = 0;
+        for (int i = 0; i < warmedAssets.size; i++) {
+            if (screensShown - warmedOnScreen.get(i) >= WARM_UP_SCREENS) {
+                manager.unload(warmedAssets.get(i));
+            } else {
+                warmedAssets.set(kept, warmedAssets.get(i));
+                warmedOnScreen.set(kept, warmedOnScreen.get(i));
+                kept++;
+            }
+        }
+        warmedAssets.truncate(kept);
+        warmedOnScreen.truncate(kept);
+    }
+
+    /**
+     * Libera as referências que o cache mantém aos assets esquentados. Os que
+     * já foram carregados também pelas telas continuam carregados.
+     */
+    public static void releaseWarmedAssets() {
+        for (int i = 0; i < warmedAssets.size; i++) {
+            manager.unload(warmedAssets.get(i));
+        }
+        warmedAssets.clear();
+        warmedOnScreen.clear();
+    }
+
+    /**
+     * Descarrega todos os assets. Deve ser chamado quando o jogo termina.
+     */
+    public static void dispose() {
+        if (manager != null) {
+            manager.dispose();
+            manager = null;
+        }
+        warmedAssets.clear();
+        warmedOnScreen.clear();
+        screensShown = 0;
+    }
+}
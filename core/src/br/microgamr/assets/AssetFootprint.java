@@ -0,0 +1,196 @@
+package br.microgamr.assets;
+
+import br.microgamr.microgames.factories.MicroGameFactory;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.StreamUtils;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Calcula quantos bytes cada <em>asset</em> mantém residente na memória
+ * (de vídeo, no caso de texturas, ou de áudio, no caso de sons).
+ *
+ * <ul>
+ * <li>Texturas: largura x altura x bytes por pixel do formato.</li>
+ * <li>Sons: tamanho do PCM decodificado.</li>
+ * <li>Músicas: apenas os buffers de <em>streaming</em>.</li>
+ * <li>Fontes: as texturas das páginas que a própria fonte criou.</li>
+ * </ul>
+ *
+ * Os valores podem ser medidos a partir de um asset já carregado
+ * ({@link #measure(AssetManager, String)}) ou estimados apenas a partir dos
+ * arquivos ({@link #estimate(String, Class)}), o que permite saber o custo de
+ * um microgame antes de carregá-lo.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class AssetFootprint {
+
+    /**
+     * Tamanho dos buffers de <em>streaming</em> de uma {@link Music} no
+     * <em>backend</em> OpenAL (3 buffers de 40 KB).
+     */
+    public static final long MUSIC_STREAM_BUFFER_BYTES = 3 * 4096 * 10;
+
+    /**
+     * Razão aproximada entre o PCM (16 bits, 44,1 kHz, estéreo) e um mp3 de
+     * 128 kbps. Usada apenas quando o PCM ainda não está no cache.
+     */
+    private static final int MP3_EXPANSION_RATIO = 11;
+    private static final int WAV_HEADER_SIZE = 44;
+
+    private AssetFootprint() {
+    }
+
+    /**
+     * Mede os bytes mantidos por um asset já carregado.
+     *
+     * @param assets o gerenciador que carregou o asset.
+     * @param path o nome do asset.
+     * @return o tamanho em bytes.
+     */
+    public static long measure(AssetManager assets, String path) {
+        Class<?> type = assets.getAssetType(path);
+        if (type == Texture.class) {
+            return TextureFormat.residentBytes(
+                    assets.get(path, Texture.class));
+        }
+        if (type == BitmapFont.class) {
+            BitmapFont font = assets.get(path, BitmapFont.class);
+            // páginas carregadas como dependência já são contadas como Texture
+            if (!font.ownsTexture()) {
+                return 0;
+            }
+            ObjectSet<Texture> pages = new ObjectSet<Texture>();
+            for (TextureRegion region : font.getRegions()) {
+                pages.add(region.getTexture());
+            }
+            long bytes = 0;
+            for (Texture page : pages) {
+                bytes += TextureFormat.residentBytes(page);
+            }
+            return bytes;
+        }
+        if (type == Sound.class || type == Music.class) {
+            return estimate(path, type);
+        }
+        if (type == CollisionMask.class) {
+            return assets.get(path, CollisionMask.class).getMemoryBytes();
+        }
+        // atlas, skins etc. apontam para texturas já contabilizadas
+        return 0;
+    }
+
+    /**
+     * Estima os bytes que um asset manterá residente, sem carregá-lo.
+     * Texturas são consideradas no formato do PNG.
+     *
+     * @param path o nome do asset.
+     * @param type o tipo do asset.
+     * @return o tamanho estimado em bytes.
+     */
+    public static long estimate(String path, Class<?> type) {
+        return estimate(path, type, TextureFormat.RGBA8888);
+    }
+
+    /**
+     * Estima os bytes que um asset manterá residente, sem carregá-lo.
+     *
+     * @param path o nome do asset.
+     * @param type o tipo do asset.
+     * @param format o formato com que o asset será carregado, se for uma
+     * textura.
+     * @return o tamanho estimado em bytes.
+     */
+    public static long estimate(String path, Class<?> type,
+            TextureFormat format) {
+        FileHandle file = Gdx.files.internal(path);
+        if (type == Music.class) {
+            return MUSIC_STREAM_BUFFER_BYTES;
+        }
+        if (type == CollisionMask.class && !file.exists()) {
+            // ainda não gerada: um bit por pixel da imagem
+            FileHandle image = Gdx.files.internal(path.substring(0,
+                    path.length() - CollisionMask.EXTENSION.length()));
+            int[] size = image.exists() ? readPngSize(image) : null;
+            return size == null ? 0 : (size[0] + 63) / 64 * 8L * size[1];
+        }
+        if (!file.exists()) {
+            return 0;
+        }
+        if (type == Texture.class) {
+            int[] size = readPngSize(file);
+            if (size != null) {
+                return format.residentBytes(size[0], size[1]);
+            }
+        }
+        if (type == Sound.class) {
+            String extension = file.extension().toLowerCase();
+            if ("wav".equals(extension)) {
+                return Math.max(0, file.length() - WAV_HEADER_SIZE);
+            }
+            if (PcmSoundCache.canCache(file)) {
+                FileHandle cached = PcmSoundCache.find(file);
+                if (cached != null) {
+                    return cached.length() - WAV_HEADER_SIZE;
+                }
+            }
+            return file.length() * MP3_EXPANSION_RATIO;
+        }
+        return file.length();
+    }
+
+    /**
+     * Estima os bytes que os assets de um microgame manterão residentes.
+     *
+     * @param factory a fábrica do microgame.
+     * @return o tamanho estimado em bytes.
+     */
+    public static long estimate(MicroGameFactory factory) {
+        return estimate(factory.getAssetsToPreload());
+    }
+
+    /**
+     * Estima os bytes que um conjunto de assets manterá residente.
+     *
+     * @param assets os assets (caminho -> tipo).
+     * @return o tamanho estimado em bytes.
+     */
+    public static long estimate(Map<String, Class<?>> assets) {
+        long bytes = 0;
+        for (Map.Entry<String, Class<?>> asset : assets.entrySet()) {
+            bytes += estimate(asset.getKey(), asset.getValue(),
+                    PreloadAssets.formatOf(assets, asset.getKey()));
+        }
+        return bytes;
+    }
+
+    /**
+     * Lê a largura e a altura de um PNG a partir do seu cabeçalho (IHDR).
+     */
+    private static int[] readPngSize(FileHandle file) {
+        if (!"png".equals(file.extension().toLowerCase())) {
+            return null;
+        }
+        DataInputStream input = null;
+        try {
+            input = new DataInputStream(file.read());
+            // assinatura (8 bytes), tamanho e tipo do bloco IHDR (8 bytes)
+            input.skipBytes(16);
+            return new int[]{input.readInt(), input.readInt()};
+        } catch (IOException ex) {
+            return null;
+        } finally {
+            StreamUtils.closeQuietly(input);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package br.microgamr.assets;
+
+import br.microgamr.diagnostics.RecordedSound;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.SoundLoader.SoundParameter;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Carregador de {@link Sound} que passa pelo {@link PcmSoundCache}: sons
+ * comprimidos (e.g., mp3) são decodificados apenas na primeira vez e, depois,
+ * carregados a partir do PCM já decodificado.
+ *
+ * Sons que não podem passar pelo cache (e.g., .wav ou plataformas sem
+ * {@link PcmDecoder}) são carregados como no
+ * {@link com.badlogic.gdx.assets.loaders.SoundLoader} original.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class CachedSoundLoader
+        extends AsynchronousAssetLoader<Sound, SoundParameter> {
+
+    private Sound sound;
+
+    public CachedSoundLoader(FileHandleResolver resolver) {
+        super(resolver);
+    }
+
+    @Override
+    public void loadAsync(AssetManager manager, String fileName,
+            FileHandle file, SoundParameter parameter) {
+        FileHandle source = file;
+        if (PcmSoundCache.canCache(file)) {
+            source = PcmSoundCache.resolve(file);
+        }
+        // toda vez que o som é tocado, isso é gravado no FlightRecorder
+        sound = new RecordedSound(fileName, Gdx.audio.newSound(source));
+    }
+
+    @Override
+    public Sound loadSync(AssetManager manager, String fileName,
+            FileHandle file, SoundParameter parameter) {
+        Sound loaded = sound;
+        sound = null;
+        return loaded;
+    }
+
+    // a assinatura (com o tipo cru) vem de AssetLoader
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Array<AssetDescriptor> getDependencies(String fileName,
+            FileHandle file, SoundParameter parameter) {
+        return null;
+    }
+}
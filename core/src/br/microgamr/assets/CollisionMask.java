@@ -0,0 +1,308 @@
+package br.microgamr.assets;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.zip.CRC32;
+
+/**
+ * A máscara de colisão de uma imagem: um bit por pixel, ligado onde o pixel
+ * é opaco (alfa maior ou igual a um limiar). Os bits de cada linha ficam
+ * empacotados em {@code long}s (o bit {@code i} da palavra {@code j} é a
+ * coluna {@code 64 * j + i}), então testar a sobreposição de duas máscaras
+ * custa uma operação por 64 pixels (veja
+ * {@link #overlaps(CollisionMask, int, int)}).
+ *
+ * As linhas são numeradas de cima para baixo, como nas imagens. As máscaras
+ * são carregadas pelo {@link CollisionMaskLoader} a partir de um arquivo
+ * gerado em tempo de build ao lado da imagem (veja {@link #pathFor(String)}),
+ * e os testes com sprites ficam em
+ * {@link br.microgamr.microgames.util.PixelCollision}.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class CollisionMask {
+
+    /**
+     * A extensão acrescentada ao caminho da imagem para formar o caminho da
+     * sua máscara.
+     */
+    public static final String EXTENSION = ".mask";
+
+    /**
+     * O alfa (0 a 255) a partir do qual um pixel é considerado opaco.
+     */
+    public static final int DEFAULT_ALPHA_THRESHOLD = 128;
+
+    private static final int MAGIC = 0x4D534B31; // "MSK1"
+
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+    private final long[] words;
+
+    private CollisionMask(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.words = new long[wordsPerRow * height];
+    }
+
+    /**
+     * Retorna o caminho do asset da máscara de uma imagem.
+     *
+     * @param imagePath o caminho da imagem (e.g., "monstro.png").
+     * @return o caminho da máscara (e.g., "monstro.png.mask").
+     */
+    public static String pathFor(String imagePath) {
+        return imagePath + EXTENSION;
+    }
+
+    /**
+     * Cria a máscara de uma imagem a partir do alfa dos seus pixels.
+     *
+     * @param pixmap a imagem.
+     * @param alphaThreshold o alfa (0 a 255) a partir do qual um pixel é
+     * opaco.
+     * @return a máscara.
+     */
+    public static CollisionMask fromPixmap(Pixmap pixmap, int alphaThreshold) {
+        CollisionMask mask = new CollisionMask(pixmap.getWidth(),
+                pixmap.getHeight());
+        for (int y = 0; y < mask.height; y++) {
+            int row = y * mask.wordsPerRow;
+            for (int x = 0; x < mask.width; x++) {
+                // getPixel retorna RGBA8888, com o alfa no byte de baixo
+                if ((pixmap.getPixel(x, y) & 0xFF) >= alphaThreshold) {
+                    mask.words[row + (x >>> 6)] |= 1L << (x & 63);
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Retorna a máscara de uma parte desta (e.g., um quadro de uma
+     * spritesheet).
+     *
+     * @param x a coluna do canto superior esquerdo.
+     * @param y a linha do canto superior esquerdo.
+     * @param width a largura.
+     * @param height a altura.
+     * @return uma nova máscara.
+     */
+    public CollisionMask region(int x, int y, int width, int height) {
+        if (x < 0 || y < 0 || x + width > this.width
+                || y + height > this.height) {
+            throw new IllegalArgumentException("A região (" + x + ", " + y
+                    + ", " + width + ", " + height + ") está fora da máscara "
+                    + this.width + "x" + this.height + ".");
+        }
+        CollisionMask region = new CollisionMask(width, height);
+        for (int row = 0; row < height; row++) {
+            int target = row * region.wordsPerRow;
+            for (int word = 0; word < region.wordsPerRow; word++) {
+                region.words[target + word] = bits(y + row, x + word * 64);
+            }
+            // limpa o que passou da largura da região
+            int extra = region.wordsPerRow * 64 - width;
+            if (extra > 0) {
+                region.words[target + region.wordsPerRow - 1]
+                        &= -1L >>> extra;
+            }
+        }
+        return region;
+    }
+
+    /**
+     * Retorna a máscara de uma região de textura desta imagem.
+     *
+     * @param textureRegion a região (e.g., um quadro de
+     * {@link TextureRegion#split(int, int)}).
+     * @return uma nova máscara.
+     */
+    public CollisionMask region(TextureRegion textureRegion) {
+        return region(textureRegion.getRegionX(), textureRegion.getRegionY(),
+                textureRegion.getRegionWidth(),
+                textureRegion.getRegionHeight());
+    }
+
+    /**
+     * Retorna 64 bits de uma linha, a partir de uma coluna (não negativa).
+     * Colunas depois da largura da máscara são 0.
+     */
+    private long bits(int row, int column) {
+        int word = column >>> 6;
+        if (word >= wordsPerRow) {
+            return 0;
+        }
+        int index = row * wordsPerRow + word;
+        int offset = column & 63;
+        long value = words[index] >>> offset;
+        if (offset != 0 && word + 1 < wordsPerRow) {
+            value |= words[index + 1] << (64 - offset);
+        }
+        return value;
+    }
+
+    /**
+     * Retorna se um pixel é opaco.
+     *
+     * @param x a coluna.
+     * @param y a linha (0 é a de cima).
+     * @return true se o pixel existe e é opaco.
+     */
+    public boolean get(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return false;
+        }
+        return (words[y * wordsPerRow + (x >>> 6)] & (1L << (x & 63))) != 0;
+    }
+
+    /**
+     * Retorna se esta máscara tem algum pixel opaco em comum com outra,
+     * colocada com o seu canto superior esquerdo na coluna {@code dx} e na
+     * linha {@code dy} desta. Compara 64 pixels por operação.
+     *
+     * @param other a outra máscara.
+     * @param dx a coluna desta máscara onde fica a coluna 0 da outra.
+     * @param dy a linha desta máscara onde fica a linha 0 da outra.
+     * @return true se há sobreposição de pixels opacos.
+     */
+    public boolean overlaps(CollisionMask other, int dx, int dy) {
+        int firstRow = Math.max(0, dy);
+        int lastRow = Math.min(height, dy + other.height);
+        int firstColumn = Math.max(0, dx);
+        int lastColumn = Math.min(width, dx + other.width);
+        for (int row = firstRow; row < lastRow; row++) {
+            for (int column = firstColumn; column < lastColumn;
+                    column += 64) {
+                if ((bits(row, column)
+                        & other.bits(row - dy, column - dx)) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Grava a máscara, com o CRC32 da imagem de origem e o limiar usado, para
+     * que uma máscara desatualizada seja reconhecida.
+     *
+     * @param target o arquivo.
+     * @param sourceCrc o CRC32 do arquivo da imagem.
+     * @param alphaThreshold o limiar de alfa usado.
+     */
+    public void write(FileHandle target, long sourceCrc, int alphaThreshold) {
+        DataOutputStream out = new DataOutputStream(target.write(false,
+                8192));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt((int) sourceCrc);
+            out.writeInt(alphaThreshold);
+            out.writeInt(width);
+            out.writeInt(height);
+            for (long word : words) {
+                out.writeLong(word);
+            }
+        } catch (IOException ex) {
+            throw new GdxRuntimeException("Não foi possível gravar a máscara "
+                    + target.path() + ".", ex);
+        } finally {
+            try {
+                out.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Lê uma máscara gravada por
+     * {@link #write(FileHandle, long, int)}, se ela corresponder à imagem e
+     * ao limiar.
+     *
+     * @param file o arquivo da máscara.
+     * @param sourceCrc o CRC32 atual do arquivo da imagem.
+     * @param alphaThreshold o limiar de alfa esperado.
+     * @return a máscara, ou null se o arquivo não existe ou está
+     * desatualizado.
+     */
+    public static CollisionMask read(FileHandle file, long sourceCrc,
+            int alphaThreshold) {
+        if (!file.exists()) {
+            return null;
+        }
+        DataInputStream in = new DataInputStream(file.read(8192));
+        try {
+            if (in.readInt() != MAGIC || in.readInt() != (int) sourceCrc
+                    || in.readInt() != alphaThreshold) {
+                return null;
+            }
+            CollisionMask mask = new CollisionMask(in.readInt(),
+                    in.readInt());
+            for (int i = 0; i < mask.words.length; i++) {
+                mask.words[i] = in.readLong();
+            }
+            return mask;
+        } catch (IOException ex) {
+            throw new GdxRuntimeException("Não foi possível ler a máscara "
+                    + file.path() + ".", ex);
+        } finally {
+            try {
+                in.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Retorna o CRC32 do conteúdo de um arquivo.
+     *
+     * @param file o arquivo.
+     * @return o CRC32.
+     */
+    public static long crcOf(FileHandle file) {
+        CRC32 crc = new CRC32();
+        crc.update(file.readBytes());
+        return crc.getValue();
+    }
+
+    /**
+     * Retorna 64 pixels de uma linha, a partir da coluna {@code 64 * word}
+     * (veja {@link #getWordsPerRow()}). Útil para percorrer só os pixels
+     * opacos, pulando palavras vazias.
+     *
+     * @param row a linha (0 é a de cima).
+     * @param word o índice da palavra na linha.
+     * @return os bits, com a coluna {@code 64 * word} no bit 0.
+     */
+    public long getWord(int row, int word) {
+        return words[row * wordsPerRow + word];
+    }
+
+    public int getWordsPerRow() {
+        return wordsPerRow;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Retorna quantos bytes os bits da máscara ocupam.
+     *
+     * @return o tamanho em bytes.
+     */
+    public int getMemoryBytes() {
+        return words.length * 8;
+    }
+}
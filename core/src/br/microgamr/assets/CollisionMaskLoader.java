@@ -0,0 +1,93 @@
+package br.microgamr.assets;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * Carregador de {@link CollisionMask}. O nome do asset é o caminho da imagem
+ * mais {@link CollisionMask#EXTENSION} (veja
+ * {@link CollisionMask#pathFor(String)}).
+ *
+ * A máscara é lida do arquivo gerado pela tarefa de build
+ * {@code buildCollisionMasks}, ao lado da imagem. Se ele não existir ou
+ * tiver sido gerado a partir de outra versão da imagem (ou com outro
+ * limiar), a máscara é calculada a partir da imagem original (e não da
+ * versão com formato reduzido, veja {@link TextureFormat}), na thread de
+ * carregamento.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class CollisionMaskLoader extends AsynchronousAssetLoader<
+        CollisionMask, CollisionMaskLoader.CollisionMaskParameters> {
+
+    /**
+     * Parâmetros de carregamento de uma máscara.
+     */
+    public static class CollisionMaskParameters
+            extends AssetLoaderParameters<CollisionMask> {
+
+        /**
+         * O alfa (0 a 255) a partir do qual um pixel é opaco.
+         */
+        public int alphaThreshold = CollisionMask.DEFAULT_ALPHA_THRESHOLD;
+    }
+
+    private CollisionMask mask;
+
+    public CollisionMaskLoader(FileHandleResolver resolver) {
+        super(resolver);
+    }
+
+    @Override
+    public void loadAsync(AssetManager manager, String fileName,
+            FileHandle file, CollisionMaskParameters parameter) {
+        if (!fileName.endsWith(CollisionMask.EXTENSION)) {
+            throw new GdxRuntimeException("O nome de uma máscara de colisão "
+                    + "deve terminar com " + CollisionMask.EXTENSION
+                    + ", mas foi " + fileName + ".");
+        }
+        int alphaThreshold = parameter != null
+                ? parameter.alphaThreshold
+                : CollisionMask.DEFAULT_ALPHA_THRESHOLD;
+        FileHandle image = resolve(fileName.substring(0,
+                fileName.length() - CollisionMask.EXTENSION.length()));
+        long crc = CollisionMask.crcOf(image);
+
+        mask = CollisionMask.read(file, crc, alphaThreshold);
+        if (mask == null) {
+            Gdx.app.log("CollisionMaskLoader", "Calculando a máscara de "
+                    + image.path() + " (rode a tarefa buildCollisionMasks "
+                    + "para distribuí-la pronta).");
+            Pixmap pixmap = new Pixmap(image);
+            try {
+                mask = CollisionMask.fromPixmap(pixmap, alphaThreshold);
+            } finally {
+                pixmap.dispose();
+            }
+        }
+    }
+
+    @Override
+    public CollisionMask loadSync(AssetManager manager, String fileName,
+            FileHandle file, CollisionMaskParameters parameter) {
+        CollisionMask loaded = mask;
+        mask = null;
+        return loaded;
+    }
+
+    // a assinatura (com o tipo cru) vem de AssetLoader
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Array<AssetDescriptor> getDependencies(String fileName,
+            FileHandle file, CollisionMaskParameters parameter) {
+        return null;
+    }
+}
@@ -0,0 +1,71 @@
+package br.microgamr.assets;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.files.FileHandle;
+
+/**
+ * Carregador de texturas que usa a versão convertida pela tarefa de build
+ * {@code convertTextures}, caso ela exista e a textura tenha sido pedida com
+ * um {@link TextureFormat} reduzido (veja {@link TextureFormat.Parameter}).
+ *
+ * O nome do asset continua sendo o do PNG (e.g., "hud/countdown.png"), de
+ * forma que os microgames não precisam saber se a textura foi convertida. Um
+ * arquivo convertido mais antigo que o PNG (i.e., a imagem foi editada
+ * depois da conversão) é ignorado.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class ConvertedTextureLoader extends TextureLoader {
+
+    public ConvertedTextureLoader(FileHandleResolver resolver) {
+        super(resolver);
+    }
+
+    @Override
+    public void loadAsync(AssetManager manager, String fileName,
+            FileHandle file, TextureParameter parameter) {
+        if (parameter instanceof TextureFormat.Parameter) {
+            file = converted(fileName, file,
+                    ((TextureFormat.Parameter) parameter).textureFormat);
+        }
+        super.loadAsync(manager, fileName, file, parameter);
+    }
+
+    private FileHandle converted(String fileName, FileHandle source,
+            TextureFormat format) {
+        if (format.getConvertedExtension() == null) {
+            return source;
+        }
+        FileHandle converted = resolve(fileName
+                + format.getConvertedExtension());
+        if (isUpToDate(converted, source)) {
+            return converted;
+        }
+        // imagens com transparência declaradas como ETC1 são convertidas
+        // para RGBA4444 (.cim)
+        if (format == TextureFormat.ETC1) {
+            converted = resolve(fileName
+                    + TextureFormat.RGBA4444.getConvertedExtension());
+            if (isUpToDate(converted, source)) {
+                return converted;
+            }
+        }
+        return source;
+    }
+
+    /**
+     * Retorna se um arquivo convertido existe e não é mais antigo que a
+     * imagem de origem. Arquivos sem data (e.g., dentro de um jar) são
+     * considerados atualizados.
+     *
+     * @param converted o arquivo convertido.
+     * @param source a imagem de origem.
+     * @return true se o arquivo convertido pode ser usado.
+     */
+    public static boolean isUpToDate(FileHandle converted, FileHandle source) {
+        return converted.exists()
+                && converted.lastModified() >= source.lastModified();
+    }
+}
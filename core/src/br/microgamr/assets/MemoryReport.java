@@ -0,0 +1,165 @@
+package br.microgamr.assets;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonWriter;
+import com.badlogic.gdx.utils.StreamUtils;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Relatório da memória mantida pelos <em>assets</em> carregados em uma tela,
+ * agrupados pelo "dono" de cada um: a fábrica do microgame que declarou o
+ * asset em {@code getAssetsToPreload} ou, se nenhuma o declarou, a própria
+ * tela.
+ *
+ * Pode ser visto no <em>overlay</em> de depuração (F9) ou gravado como JSON
+ * (F10). Veja {@link br.microgamr.screens.BaseScreen}.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class MemoryReport {
+
+    private final String screenName;
+    private final Map<String, Map<String, Long>> groups;
+    private long totalBytes;
+
+    /**
+     * Mede os assets carregados em {@code assets}.
+     *
+     * @param screenName o nome da tela dona do <code>AssetManager</code>.
+     * @param assets o <code>AssetManager</code> da tela.
+     * @param owners os assets declarados por cada dono (nome do dono ->
+     * assets), tipicamente as fábricas dos microgames.
+     */
+    public MemoryReport(String screenName, AssetManager assets,
+            Map<String, Map<String, Class<?>>> owners) {
+        this.screenName = screenName;
+        this.groups = new LinkedHashMap<String, Map<String, Long>>();
+
+        Array<String> names = assets.getAssetNames();
+        for (int i = 0; i < names.size; i++) {
+            String name = names.get(i);
+            if (!assets.isLoaded(name)) {
+                continue;
+            }
+            long bytes = AssetFootprint.measure(assets, name);
+            groupFor(ownerOf(name, owners)).put(name, bytes);
+            totalBytes += bytes;
+        }
+    }
+
+    private String ownerOf(String asset,
+            Map<String, Map<String, Class<?>>> owners) {
+        for (Map.Entry<String, Map<String, Class<?>>> owner
+                : owners.entrySet()) {
+            if (owner.getValue().containsKey(asset)) {
+                return owner.getKey();
+            }
+        }
+        return screenName;
+    }
+
+    private Map<String, Long> groupFor(String owner) {
+        Map<String, Long> group = groups.get(owner);
+        if (group == null) {
+            group = new LinkedHashMap<String, Long>();
+            groups.put(owner, group);
+        }
+        return group;
+    }
+
+    /**
+     * Retorna o total de bytes mantidos pelos assets da tela.
+     *
+     * @return o total em bytes.
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Retorna o total de bytes de cada grupo (dono -> bytes).
+     *
+     * @return o total de cada grupo.
+     */
+    public Map<String, Long> getGroupTotals() {
+        Map<String, Long> totals = new LinkedHashMap<String, Long>();
+        for (Map.Entry<String, Map<String, Long>> group : groups.entrySet()) {
+            long bytes = 0;
+            for (Long assetBytes : group.getValue().values()) {
+                bytes += assetBytes;
+            }
+            totals.put(group.getKey(), bytes);
+        }
+        return totals;
+    }
+
+    /**
+     * Retorna um resumo em texto, com uma linha por grupo, usado no
+     * <em>overlay</em> de depuração.
+     *
+     * @return o resumo.
+     */
+    public String toSummary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append(screenName).append(": ")
+                .append(totalBytes / 1024).append(" KB");
+        for (Map.Entry<String, Long> group : getGroupTotals().entrySet()) {
+            summary.append('\n').append("  ").append(group.getKey())
+                    .append(": ").append(group.getValue() / 1024)
+                    .append(" KB");
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Retorna o relatório completo em JSON.
+     *
+     * @return o JSON do relatório.
+     */
+    public String toJson() {
+        StringWriter buffer = new StringWriter();
+        JsonWriter json = new JsonWriter(buffer);
+        json.setOutputType(JsonWriter.OutputType.json);
+        try {
+            json.object()
+                    .set("screen", screenName)
+                    .set("totalBytes", totalBytes)
+                    .array("groups");
+            for (Map.Entry<String, Map<String, Long>> group
+                    : groups.entrySet()) {
+                long groupBytes = 0;
+                json.object().set("owner", group.getKey()).array("assets");
+                for (Map.Entry<String, Long> asset
+                        : group.getValue().entrySet()) {
+                    json.object()
+                            .set("name", asset.getKey())
+                            .set("bytes", asset.getValue())
+                            .pop();
+                    groupBytes += asset.getValue();
+                }
+                json.pop().set("totalBytes", groupBytes).pop();
+            }
+            json.pop().pop();
+        } catch (IOException ex) {
+            throw new GdxRuntimeException(ex);
+        } finally {
+            StreamUtils.closeQuietly(json);
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Grava o relatório em JSON no arquivo {@code file}.
+     *
+     * @param file onde gravar o relatório.
+     */
+    public void writeTo(FileHandle file) {
+        file.writeString(toJson(), false, "UTF-8");
+    }
+}
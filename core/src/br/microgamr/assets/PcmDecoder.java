@@ -0,0 +1,50 @@
+package br.microgamr.assets;
+
+import com.badlogic.gdx.files.FileHandle;
+
+/**
+ * Um decodificador de áudio comprimido (e.g., mp3) para PCM de 16 bits
+ * <em>little-endian</em>.
+ *
+ * A decodificação depende de bibliotecas que existem apenas em alguns
+ * <em>backends</em> (e.g., o desktop usa o jlayer), por isso a implementação é
+ * fornecida pelo lançador de cada plataforma por meio de
+ * {@link PcmSoundCache#setDecoder(PcmDecoder)}.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public interface PcmDecoder {
+
+    /**
+     * Retorna se este decodificador sabe lidar com arquivos com a extensão
+     * {@code extension}.
+     *
+     * @param extension a extensão do arquivo, sem o ponto (e.g., "mp3").
+     * @return true se o arquivo pode ser decodificado, false do contrário.
+     */
+    boolean accepts(String extension);
+
+    /**
+     * Decodifica o arquivo inteiro para PCM.
+     *
+     * @param file o arquivo de áudio comprimido.
+     * @return as amostras decodificadas.
+     */
+    Pcm decode(FileHandle file);
+
+    /**
+     * Amostras PCM de 16 bits <em>little-endian</em> já decodificadas.
+     */
+    public static class Pcm {
+
+        public final byte[] samples;
+        public final int channels;
+        public final int sampleRate;
+
+        public Pcm(byte[] samples, int channels, int sampleRate) {
+            this.samples = samples;
+            this.channels = channels;
+            this.sampleRate = sampleRate;
+        }
+    }
+}
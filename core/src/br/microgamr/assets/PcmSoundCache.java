@@ -0,0 +1,207 @@
+package br.microgamr.assets;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Cache em disco de efeitos sonoros já decodificados para PCM.
+ *
+ * Decodificar um mp3 é caro e, mesmo com o {@link AssetCache}
+ * compartilhado, aconteceria a cada execução do jogo e de novo sempre que
+ * um som descarregado (por não estar mais em uso) voltasse a ser
+ * carregado. Este cache guarda o resultado da primeira decodificação em um
+ * arquivo .wav (cabeçalho RIFF + PCM cru), que o <em>backend</em> carrega
+ * sem passar pelo decodificador.
+ *
+ * A chave de cada entrada é formada pelo caminho, tamanho e data de
+ * modificação do arquivo original, mais o seu formato, de forma que alterar
+ * um asset invalida sua entrada sem que o arquivo precise ser lido. As
+ * entradas são procuradas primeiro em {@link #SHIPPED_CACHE_DIR}
+ * (pré-decodificadas em tempo de build, ao lado dos assets) e depois em
+ * {@link #RUNTIME_CACHE_DIR} (criadas durante a execução). As entradas
+ * distribuídas não levam a data na chave, já que ela muda ao copiar ou
+ * empacotar os assets, e sim o CRC do conteúdo do original (como as
+ * máscaras de colisão, veja {@link CollisionMaskLoader}): um som alterado
+ * depois da tarefa de build, mesmo com o mesmo tamanho, não encontra a
+ * entrada antiga e passa a usar o cache de execução.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class PcmSoundCache {
+
+    /**
+     * Pasta (interna, dentro de assets) com as entradas pré-decodificadas pela
+     * tarefa de build {@code predecodeSounds}.
+     */
+    public static final String SHIPPED_CACHE_DIR = "pcm-cache";
+
+    /**
+     * Pasta (externa, na pasta do usuário) com as entradas decodificadas
+     * durante a execução do jogo.
+     */
+    public static final String RUNTIME_CACHE_DIR = ".microgamr/pcm-cache";
+
+    /**
+     * Formato das amostras guardadas no cache. Faz parte da chave para que
+     * uma mudança de formato não reaproveite entradas antigas.
+     */
+    private static final String PCM_FORMAT = "s16le";
+    private static final int WAV_HEADER_SIZE = 44;
+
+    private static PcmDecoder decoder;
+
+    private PcmSoundCache() {
+    }
+
+    /**
+     * Define o decodificador usado para preencher o cache. Sem um
+     * decodificador, os sons são carregados diretamente pelo <em>backend</em>.
+     *
+     * @param pcmDecoder o decodificador da plataforma, ou null.
+     */
+    public static void setDecoder(PcmDecoder pcmDecoder) {
+        decoder = pcmDecoder;
+    }
+
+    /**
+     * Retorna se o arquivo pode passar pelo cache.
+     *
+     * @param source o arquivo de áudio original.
+     * @return true se há um decodificador que aceite o arquivo.
+     */
+    public static boolean canCache(FileHandle source) {
+        return decoder != null
+                && decoder.accepts(source.extension().toLowerCase());
+    }
+
+    /**
+     * Retorna o nome do arquivo da entrada do cache de execução para
+     * {@code source}: caminho, tamanho, data de modificação, formato de
+     * origem e formato decodificado. Não lê o conteúdo do arquivo.
+     *
+     * @param source o arquivo de áudio original.
+     * @return o nome do arquivo .wav da entrada no cache.
+     */
+    public static String keyOf(FileHandle source) {
+        return key(source.path(), source.length(), source.lastModified());
+    }
+
+    /**
+     * Retorna o nome do arquivo da entrada distribuída (em
+     * {@link #SHIPPED_CACHE_DIR}) de um som: igual a
+     * {@link #keyOf(FileHandle)}, mas com o CRC do conteúdo no lugar da
+     * data de modificação.
+     *
+     * @param path o caminho do som, relativo à pasta de assets.
+     * @param source o arquivo original (é lido por inteiro).
+     * @return o nome do arquivo .wav da entrada distribuída.
+     */
+    public static String shippedKeyOf(String path, FileHandle source) {
+        return key(path, source.length(),
+                "crc" + Long.toHexString(CollisionMask.crcOf(source)));
+    }
+
+    private static String key(String path, long length, long lastModified) {
+        // arquivos dentro de um jar não têm data de modificação (0)
+        return key(path, length, lastModified != 0
+                ? Long.toHexString(lastModified) : null);
+    }
+
+    private static String key(String path, long length, String version) {
+        String normalized = path.replace('\\', '/');
+        StringBuilder key = new StringBuilder(normalized.length() + 40);
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            key.append(Character.isLetterOrDigit(c) || c == '-' || c == '.'
+                    ? c : '_');
+        }
+        key.append('-').append(length);
+        if (version != null) {
+            key.append('-').append(version);
+        }
+        key.append('-').append(PCM_FORMAT).append(".wav");
+        return key.toString();
+    }
+
+    /**
+     * Retorna o arquivo .wav já decodificado de {@code source}, decodificando
+     * e gravando-o no cache de execução caso ainda não exista.
+     *
+     * @param source o arquivo de áudio original.
+     * @return o arquivo .wav equivalente.
+     */
+    public static FileHandle resolve(FileHandle source) {
+        FileHandle cached = find(source);
+        if (cached == null) {
+            cached = Gdx.files.external(RUNTIME_CACHE_DIR)
+                    .child(keyOf(source));
+            decodeTo(source, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * Procura a entrada de {@code source} no cache, sem decodificar nada. A
+     * entrada distribuída só é usada se foi gerada a partir deste mesmo
+     * conteúdo (o que exige ler o original, bem mais barato que decodificá-lo).
+     *
+     * @param source o arquivo de áudio original.
+     * @return o arquivo .wav da entrada, ou null se ele não existe.
+     */
+    public static FileHandle find(FileHandle source) {
+        FileHandle shipped = Gdx.files.internal(SHIPPED_CACHE_DIR)
+                .child(shippedKeyOf(source.path(), source));
+        if (shipped.exists()) {
+            return shipped;
+        }
+        FileHandle cached = Gdx.files.external(RUNTIME_CACHE_DIR)
+                .child(keyOf(source));
+        return cached.exists() ? cached : null;
+    }
+
+    /**
+     * Decodifica {@code source} e grava o resultado em {@code target}, no
+     * formato .wav. A escrita é feita em um arquivo temporário que depois é
+     * renomeado, para que uma execução interrompida não deixe uma entrada
+     * corrompida no cache.
+     *
+     * @param source o arquivo de áudio original.
+     * @param target onde gravar o arquivo .wav.
+     */
+    public static void decodeTo(FileHandle source, FileHandle target) {
+        if (decoder == null) {
+            throw new GdxRuntimeException("Não há um PcmDecoder definido "
+                    + "para decodificar " + source.path() + ".");
+        }
+        PcmDecoder.Pcm pcm = decoder.decode(source);
+
+        FileHandle temporary = target.sibling(target.name() + ".tmp");
+        temporary.writeBytes(wavHeader(pcm), false);
+        temporary.writeBytes(pcm.samples, true);
+        temporary.moveTo(target);
+    }
+
+    private static byte[] wavHeader(PcmDecoder.Pcm pcm) {
+        final int bitsPerSample = 16;
+        int blockAlign = pcm.channels * bitsPerSample / 8;
+        ByteBuffer header = ByteBuffer.allocate(WAV_HEADER_SIZE)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        header.put(new byte[]{'R', 'I', 'F', 'F'});
+        header.putInt(WAV_HEADER_SIZE - 8 + pcm.samples.length);
+        header.put(new byte[]{'W', 'A', 'V', 'E'});
+        header.put(new byte[]{'f', 'm', 't', ' '});
+        header.putInt(16);
+        header.putShort((short) 1);
+        header.putShort((short) pcm.channels);
+        header.putInt(pcm.sampleRate);
+        header.putInt(pcm.sampleRate * blockAlign);
+        header.putShort((short) blockAlign);
+        header.putShort((short) bitsPerSample);
+        header.put(new byte[]{'d', 'a', 't', 'a'});
+        header.putInt(pcm.samples.length);
+        return header.array();
+    }
+}
@@ -0,0 +1,94 @@
+package br.microgamr.assets;
+
+import com.badlogic.gdx.graphics.Texture;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Os <em>assets</em> que um microgame pede para serem pré-carregados
+ * (caminho -> tipo), com o {@link TextureFormat} de cada textura declarado
+ * junto dela:
+ *
+ * <pre>
+ * PreloadAssets assets = new PreloadAssets();
+ * assets.texture("super-micro-jogo/personagem.png", TextureFormat.RGBA4444);
+ * assets.put("super-micro-jogo/fundo.png", Texture.class);
+ * assets.put("super-micro-jogo/pulo.mp3", Sound.class);
+ * </pre>
+ *
+ * Texturas colocadas apenas com {@code put} (ou vindas de um {@link Map}
+ * comum) mantêm o formato do PNG ({@link TextureFormat#RGBA8888}). Ao juntar
+ * os assets de vários microgames com {@link #putAll(Map)}, os formatos vêm
+ * junto.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class PreloadAssets extends LinkedHashMap<String, Class<?>> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final HashMap<String, TextureFormat> textureFormats
+            = new HashMap<String, TextureFormat>();
+
+    public PreloadAssets() {
+    }
+
+    /**
+     * Cria uma cópia de {@code assets}, com os formatos das texturas (se
+     * houver).
+     *
+     * @param assets os assets (caminho -> tipo).
+     */
+    public PreloadAssets(Map<String, Class<?>> assets) {
+        putAll(assets);
+    }
+
+    /**
+     * Declara uma textura que deve ficar residente no formato
+     * {@code format}.
+     *
+     * @param path o caminho da textura.
+     * @param format o formato desejado.
+     * @return estes assets.
+     */
+    public PreloadAssets texture(String path, TextureFormat format) {
+        put(path, Texture.class);
+        textureFormats.put(path, format);
+        return this;
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ? extends Class<?>> assets) {
+        super.putAll(assets);
+        if (assets instanceof PreloadAssets) {
+            textureFormats.putAll(((PreloadAssets) assets).textureFormats);
+        }
+    }
+
+    /**
+     * Retorna os formatos declarados para as texturas.
+     *
+     * @return um mapa (caminho -> formato) não modificável.
+     */
+    public Map<String, TextureFormat> getTextureFormats() {
+        return Collections.unmodifiableMap(textureFormats);
+    }
+
+    /**
+     * Retorna o formato declarado para a textura {@code path} em
+     * {@code assets}.
+     *
+     * @param assets os assets de um ou mais microgames.
+     * @param path o caminho da textura.
+     * @return o formato declarado, ou {@link TextureFormat#RGBA8888} se
+     * nenhum foi declarado.
+     */
+    public static TextureFormat formatOf(Map<String, Class<?>> assets,
+            String path) {
+        TextureFormat format = assets instanceof PreloadAssets
+                ? ((PreloadAssets) assets).textureFormats.get(path) : null;
+        return format == null ? TextureFormat.RGBA8888 : format;
+    }
+}
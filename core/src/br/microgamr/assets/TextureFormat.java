@@ -0,0 +1,166 @@
+package br.microgamr.assets;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.loaders.TextureLoader.TextureParameter;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.glutils.ETC1TextureData;
+
+/**
+ * Formato com que uma textura fica residente na memória de vídeo.
+ *
+ * Por padrão, as texturas são carregadas com o formato do PNG de origem
+ * (tipicamente RGBA8888, 4 bytes por pixel). Texturas grandes que não
+ * precisam de tanta precisão de cor podem ser declaradas com um formato
+ * reduzido, o que permite manter uma sequência inteira de microgames
+ * residente mesmo em máquinas com pouca memória.
+ *
+ * O formato é declarado junto do asset: nas fábricas dos microgames, com
+ * {@link PreloadAssets#texture(String, TextureFormat)}, e nas telas, com os
+ * parâmetros de carregamento ({@link #parameter(TextureFilter)}):
+ *
+ * <pre>
+ * assets.texture("super-micro-jogo/personagem.png", TextureFormat.RGBA4444);
+ * </pre>
+ *
+ * A tarefa de build {@code convertTextures} converte os PNGs declarados para
+ * o formato já pronto para ser enviado à GPU (.cim ou .etc1, ao lado do
+ * original) e o {@link ConvertedTextureLoader} passa a carregá-los no lugar
+ * do PNG, desde que não sejam mais antigos que ele. Sem a conversão, o PNG é
+ * convertido ao ser carregado.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public enum TextureFormat {
+
+    /**
+     * Mantém o formato do PNG de origem, sem conversão.
+     */
+    RGBA8888(null, 32, null),
+    /**
+     * 4 bits por canal, com transparência. Bom para sprites e HUD.
+     */
+    RGBA4444(Pixmap.Format.RGBA4444, 16, ".cim"),
+    /**
+     * 16 bits sem transparência. Bom para fundos opacos.
+     */
+    RGB565(Pixmap.Format.RGB565, 16, ".cim"),
+    /**
+     * Compressão ETC1 (4 bits por pixel na GPU), que não possui canal alfa.
+     *
+     * Estratégia para o alfa: apenas imagens totalmente opacas são
+     * comprimidas; as que possuem transparência são convertidas para
+     * {@link #RGBA4444}, que é também o formato usado enquanto a conversão
+     * não tiver sido feita.
+     */
+    ETC1(Pixmap.Format.RGBA4444, 4, ".etc1");
+
+    private static final String ETC1_EXTENSION
+            = "GL_OES_compressed_ETC1_RGB8_texture";
+
+    private final Pixmap.Format pixmapFormat;
+    private final int bitsPerPixel;
+    private final String convertedExtension;
+
+    private TextureFormat(Pixmap.Format pixmapFormat, int bitsPerPixel,
+            String convertedExtension) {
+        this.pixmapFormat = pixmapFormat;
+        this.bitsPerPixel = bitsPerPixel;
+        this.convertedExtension = convertedExtension;
+    }
+
+    /**
+     * Os parâmetros de carregamento de uma textura que deve ficar residente
+     * com um certo formato (veja {@link ConvertedTextureLoader}).
+     */
+    public static class Parameter extends TextureParameter {
+
+        public final TextureFormat textureFormat;
+
+        public Parameter(TextureFormat textureFormat, TextureFilter filter) {
+            this.textureFormat = textureFormat;
+            format = textureFormat.pixmapFormat;
+            minFilter = filter;
+            magFilter = filter;
+        }
+    }
+
+    /**
+     * Cria os parâmetros de carregamento de uma textura que deve ficar
+     * residente neste formato.
+     *
+     * @param filter o filtro de minificação e magnificação.
+     * @return os parâmetros para o {@code AssetManager}.
+     */
+    public Parameter parameter(TextureFilter filter) {
+        return new Parameter(this, filter);
+    }
+
+    /**
+     * Formato do {@link Pixmap} usado quando a textura não está comprimida,
+     * ou null para manter o do arquivo.
+     *
+     * @return o formato do {@code Pixmap}.
+     */
+    public Pixmap.Format getPixmapFormat() {
+        return pixmapFormat;
+    }
+
+    /**
+     * Extensão do arquivo convertido pela tarefa de build, que fica ao lado
+     * do original (e.g., "hud/countdown.png.cim"), ou null se não há
+     * conversão.
+     *
+     * @return a extensão, com o ponto.
+     */
+    public String getConvertedExtension() {
+        return convertedExtension;
+    }
+
+    /**
+     * Quantos bytes uma textura {@code width}x{@code height} ocupa neste
+     * formato.
+     *
+     * @param width a largura, em pixels.
+     * @param height a altura, em pixels.
+     * @return o tamanho em bytes.
+     */
+    public long residentBytes(int width, int height) {
+        return (long) width * height * bitsPerPixel / 8;
+    }
+
+    /**
+     * Quantos bytes uma textura já carregada ocupa na memória de vídeo, de
+     * acordo com seu formato efetivo.
+     *
+     * @param texture a textura.
+     * @return o tamanho em bytes.
+     */
+    public static long residentBytes(Texture texture) {
+        long pixels = (long) texture.getWidth() * texture.getHeight();
+        // o formato de uma textura ETC1 é sempre RGB565: é nele que ela é
+        // descomprimida quando a GPU não aceita ETC1
+        if (texture.getTextureData() instanceof ETC1TextureData
+                && Gdx.graphics.supportsExtension(ETC1_EXTENSION)) {
+            return pixels * ETC1.bitsPerPixel / 8;
+        }
+        return pixels * bytesPerPixel(texture.getTextureData().getFormat());
+    }
+
+    private static int bytesPerPixel(Pixmap.Format format) {
+        switch (format) {
+            case Alpha:
+            case Intensity:
+                return 1;
+            case LuminanceAlpha:
+            case RGB565:
+            case RGBA4444:
+                return 2;
+            case RGB888:
+                return 3;
+            default:
+                return 4;
+        }
+    }
+}
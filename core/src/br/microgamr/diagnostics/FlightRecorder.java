@@ -0,0 +1,301 @@
+package br.microgamr.diagnostics;
+
+import br.microgamr.Config;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.TimeUtils;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Um "gravador de voo": guarda os últimos eventos do jogo (duração dos
+ * quadros, coletas de lixo, assets carregados, mudanças de estado dos
+ * microgames, tarefas de timer e sons tocados) em um buffer circular alocado
+ * de antemão.
+ *
+ * Quando um quadro demora mais do que
+ * {@link Config#HITCH_BUDGET_IN_VSYNC_INTERVALS} intervalos de vsync, os
+ * eventos anteriores e os dos {@link Config#FLIGHT_RECORDER_FRAMES_AFTER_HITCH}
+ * quadros seguintes são gravados em um arquivo em
+ * {@code ~/.microgamr/hitches/}. Assim, engasgos intermitentes podem ser
+ * analisados mesmo que não seja possível reproduzi-los.
+ *
+ * Gravar um evento não aloca memória: os rótulos devem ser strings que já
+ * existem (e.g., o caminho de um asset ou o nome de uma constante). Os
+ * eventos devem ser gravados na thread do jogo (a de renderização), por isso
+ * o buffer não é sincronizado. Para gravar o arquivo, o buffer é copiado e
+ * o texto é formatado e escrito em outra thread.
+ *
+ * Fica desligado por padrão (veja {@link Config#FLIGHT_RECORDER_ENABLED}).
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class FlightRecorder {
+
+    /**
+     * Os tipos de evento gravados.
+     */
+    public enum EventType {
+        FRAME,
+        HITCH,
+        GC,
+        ASSET_LOADED,
+        MICROGAME_STATE,
+        TIMER_TASK,
+        SOUND_PLAYED
+    }
+
+    private static final int CAPACITY = Config.FLIGHT_RECORDER_CAPACITY;
+    private static final long[] times = new long[CAPACITY];
+    private static final long[] frames = new long[CAPACITY];
+    private static final EventType[] types = new EventType[CAPACITY];
+    private static final String[] labels = new String[CAPACITY];
+    private static final long[] values = new long[CAPACITY];
+    private static int next;
+    private static int size;
+
+    private static GcMonitor gcMonitor;
+    private static long frameNumber;
+    private static long frameStart;
+    private static long hitchBudgetNanos;
+    private static boolean ignoreNextFrame;
+    private static long hitchFrame;
+    private static long hitchTime;
+    private static long dumpAtFrame = -1;
+    private static long lastDumpTime;
+
+    private static final Snapshot snapshot = new Snapshot();
+    private static final AtomicBoolean writing = new AtomicBoolean();
+    private static ExecutorService io;
+
+    private FlightRecorder() {
+    }
+
+    /**
+     * Define quem informa as coletas de lixo, o que depende da plataforma
+     * (e.g., MXBeans no desktop).
+     *
+     * @param monitor o monitor de coletas de lixo.
+     */
+    public static void setGcMonitor(GcMonitor monitor) {
+        gcMonitor = monitor;
+    }
+
+    /**
+     * Grava um evento. Deve ser chamado na thread do jogo.
+     *
+     * @param type o tipo do evento.
+     * @param label um rótulo (e.g., o caminho do som), ou null.
+     * @param value um valor associado (e.g., uma duração em nanossegundos).
+     */
+    public static void record(EventType type, String label,
+            long value) {
+        if (!Config.FLIGHT_RECORDER_ENABLED) {
+            return;
+        }
+        times[next] = TimeUtils.nanoTime();
+        frames[next] = frameNumber;
+        types[next] = type;
+        labels[next] = label;
+        values[next] = value;
+        next = (next + 1) % CAPACITY;
+        size = Math.min(size + 1, CAPACITY);
+    }
+
+    /**
+     * Marca o início de um quadro. Deve ser chamado uma vez por quadro, no
+     * começo de render. Grava a duração do quadro anterior e as coletas de
+     * lixo que ocorreram desde então.
+     */
+    public static void beginFrame() {
+        long now = TimeUtils.nanoTime();
+        if (frameStart != 0) {
+            long duration = now - frameStart;
+            boolean hitch = !ignoreNextFrame && duration > getHitchBudget();
+            if (hitch) {
+                GameEvents.frameOverBudget(duration, getHitchBudget());
+            }
+            if (Config.FLIGHT_RECORDER_ENABLED) {
+                record(EventType.FRAME, null, duration);
+                if (hitch && dumpAtFrame < 0
+                        && TimeUtils.timeSinceMillis(lastDumpTime)
+                        > Config.FLIGHT_RECORDER_MIN_MILLIS_BETWEEN_DUMPS) {
+                    record(EventType.HITCH, null, duration);
+                    hitchFrame = frameNumber;
+                    hitchTime = now;
+                    dumpAtFrame = frameNumber
+                            + Config.FLIGHT_RECORDER_FRAMES_AFTER_HITCH;
+                }
+            }
+            ignoreNextFrame = false;
+        }
+        frameNumber++;
+        frameStart = now;
+        if (!Config.FLIGHT_RECORDER_ENABLED) {
+            return;
+        }
+
+        if (gcMonitor != null) {
+            gcMonitor.poll();
+        }
+
+        if (frameNumber == dumpAtFrame) {
+            dumpAtFrame = -1;
+            dump();
+        }
+    }
+
+    /**
+     * Faz com que a duração do quadro que termina no próximo
+     * {@link #beginFrame()} não seja considerada um engasgo (e.g., porque o
+     * jogo ficou ocioso, sem desenhar, veja
+     * {@link br.microgamr.graphics.IdleRendering}).
+     */
+    public static void ignoreNextFrame() {
+        ignoreNextFrame = true;
+    }
+
+    /**
+     * Retorna a partir de quantos nanossegundos um quadro é considerado um
+     * engasgo.
+     *
+     * @return o limite de duração de um quadro.
+     */
+    public static long getHitchBudget() {
+        if (hitchBudgetNanos == 0) {
+            int refreshRate = Gdx.graphics.getDisplayMode().refreshRate;
+            if (refreshRate <= 0) {
+                refreshRate = 60;
+            }
+            hitchBudgetNanos = Config.HITCH_BUDGET_IN_VSYNC_INTERVALS
+                    * 1000000000L / refreshRate;
+        }
+        return hitchBudgetNanos;
+    }
+
+    private static void dump() {
+        // se o arquivo anterior ainda está sendo escrito, este é descartado
+        if (!writing.compareAndSet(false, true)) {
+            return;
+        }
+        lastDumpTime = TimeUtils.millis();
+        snapshot.copy();
+        final FileHandle file = Gdx.files.external(
+                ".microgamr/hitches/hitch-" + lastDumpTime + ".txt");
+        getIo().execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    snapshot.writeTo(file);
+                    Gdx.app.error("FlightRecorder", "Engasgo no quadro "
+                            + snapshot.hitchFrame + " gravado em "
+                            + file.file().getAbsolutePath());
+                } finally {
+                    writing.set(false);
+                }
+            }
+        });
+    }
+
+    private static ExecutorService getIo() {
+        if (io == null) {
+            io = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "flight-recorder-io");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }
+            });
+        }
+        return io;
+    }
+
+    /**
+     * Grava os eventos do buffer em um arquivo de texto, um por linha, com o
+     * tempo relativo ao último engasgo. Ao contrário do despejo depois de um
+     * engasgo, escreve na própria thread (que deve ser a do jogo).
+     *
+     * @param file o arquivo de destino.
+     */
+    public static void writeTo(FileHandle file) {
+        if (!writing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            snapshot.copy();
+            snapshot.writeTo(file);
+        } finally {
+            writing.set(false);
+        }
+    }
+
+    private static String formatValue(EventType type, long value) {
+        switch (type) {
+            case FRAME:
+            case HITCH:
+                return String.format("%.2f ms", value / 1e6);
+            case GC:
+                return value + " ms";
+            default:
+                return Long.toString(value);
+        }
+    }
+
+    /**
+     * Uma cópia do buffer, que é formatada e gravada fora da thread do jogo
+     * enquanto novos eventos continuam sendo gravados no buffer original.
+     */
+    private static class Snapshot {
+
+        private final long[] times = new long[CAPACITY];
+        private final long[] frames = new long[CAPACITY];
+        private final EventType[] types = new EventType[CAPACITY];
+        private final String[] labels = new String[CAPACITY];
+        private final long[] values = new long[CAPACITY];
+        private int size;
+        private long hitchFrame;
+        private long hitchTime;
+        private long hitchBudget;
+
+        /**
+         * Copia os eventos, do mais antigo ao mais recente. Deve ser chamado
+         * na thread do jogo.
+         */
+        void copy() {
+            int count = FlightRecorder.size;
+            int first = (next - count + CAPACITY) % CAPACITY;
+            for (int i = 0; i < count; i++) {
+                int index = (first + i) % CAPACITY;
+                times[i] = FlightRecorder.times[index];
+                frames[i] = FlightRecorder.frames[index];
+                types[i] = FlightRecorder.types[index];
+                labels[i] = FlightRecorder.labels[index];
+                values[i] = FlightRecorder.values[index];
+            }
+            this.size = count;
+            this.hitchFrame = FlightRecorder.hitchFrame;
+            this.hitchTime = FlightRecorder.hitchTime;
+            this.hitchBudget = getHitchBudget();
+        }
+
+        void writeTo(FileHandle file) {
+            StringBuilder text = new StringBuilder();
+            text.append(String.format(
+                    "# engasgo no quadro %d (limite: %.2f ms)%n",
+                    hitchFrame, hitchBudget / 1e6));
+            text.append(String.format("# %-8s %10s  %-16s %12s  %s%n",
+                    "quadro", "tempo (ms)", "evento", "valor", "rótulo"));
+            for (int i = 0; i < size; i++) {
+                text.append(String.format("  %-8d %10.2f  %-16s %12s  %s%n",
+                        frames[i], (times[i] - hitchTime) / 1e6, types[i],
+                        formatValue(types[i], values[i]),
+                        labels[i] == null ? "" : labels[i]));
+            }
+            file.writeString(text.toString(), false, "UTF-8");
+        }
+    }
+}
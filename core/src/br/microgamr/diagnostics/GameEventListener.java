@@ -0,0 +1,83 @@
+package br.microgamr.diagnostics;
+
+import br.microgamr.microgames.util.MicroGameState;
+
+/**
+ * Alguém interessado nos acontecimentos do jogo para fins de diagnóstico
+ * (e.g., para emitir eventos do Java Flight Recorder no desktop). Veja
+ * {@link GameEvents}.
+ *
+ * Todos os métodos são chamados na thread de renderização, exceto os de
+ * carregamento de assets, que podem ser chamados pela thread do
+ * <code>AssetManager</code>.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public interface GameEventListener {
+
+    /**
+     * Um microgame mudou de estado.
+     *
+     * @param microGame a classe do microgame.
+     * @param state o novo estado.
+     * @param difficulty a dificuldade do microgame.
+     */
+    public void microGameStateChanged(Class<?> microGame, MicroGameState state,
+            float difficulty);
+
+    /**
+     * Uma tela foi mostrada.
+     *
+     * @param screen a classe da tela.
+     */
+    public void screenShown(Class<?> screen);
+
+    /**
+     * Uma tela foi descartada.
+     *
+     * @param screen a classe da tela.
+     */
+    public void screenDisposed(Class<?> screen);
+
+    /**
+     * O <code>AssetManager</code> começou a carregar um asset (não quando
+     * ele é apenas enfileirado).
+     *
+     * @param path o caminho do asset.
+     * @param type o tipo do asset.
+     */
+    public void assetLoadStarted(String path, Class<?> type);
+
+    /**
+     * Um asset terminou de ser carregado.
+     *
+     * @param path o caminho do asset.
+     * @param type o tipo do asset.
+     */
+    public void assetLoadFinished(String path, Class<?> type);
+
+    /**
+     * O sequenciador vai criar o próximo microgame.
+     *
+     * @param sequencer a classe do sequenciador.
+     */
+    public void nextGameStarted(Class<?> sequencer);
+
+    /**
+     * O sequenciador criou o próximo microgame.
+     *
+     * @param sequencer a classe do sequenciador.
+     * @param microGame a classe do microgame criado.
+     * @param gameNumber o número do jogo na sequência.
+     */
+    public void nextGameFinished(Class<?> sequencer, Class<?> microGame,
+            int gameNumber);
+
+    /**
+     * Um quadro demorou mais do que o limite.
+     *
+     * @param frameNanos a duração do quadro.
+     * @param budgetNanos o limite.
+     */
+    public void frameOverBudget(long frameNanos, long budgetNanos);
+}
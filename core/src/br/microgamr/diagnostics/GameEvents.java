@@ -0,0 +1,77 @@
+package br.microgamr.diagnostics;
+
+import br.microgamr.microgames.util.MicroGameState;
+
+/**
+ * Repassa os acontecimentos do jogo ao {@link GameEventListener} da
+ * plataforma, se houver um. Sem ouvinte, cada chamada custa apenas uma
+ * verificação de null.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class GameEvents {
+
+    private static GameEventListener listener;
+
+    private GameEvents() {
+    }
+
+    /**
+     * Define o ouvinte dos acontecimentos do jogo.
+     *
+     * @param listener o ouvinte, ou null para nenhum.
+     */
+    public static void setListener(GameEventListener listener) {
+        GameEvents.listener = listener;
+    }
+
+    public static void microGameStateChanged(Class<?> microGame,
+            MicroGameState state, float difficulty) {
+        if (listener != null) {
+            listener.microGameStateChanged(microGame, state, difficulty);
+        }
+    }
+
+    public static void screenShown(Class<?> screen) {
+        if (listener != null) {
+            listener.screenShown(screen);
+        }
+    }
+
+    public static void screenDisposed(Class<?> screen) {
+        if (listener != null) {
+            listener.screenDisposed(screen);
+        }
+    }
+
+    public static void assetLoadStarted(String path, Class<?> type) {
+        if (listener != null) {
+            listener.assetLoadStarted(path, type);
+        }
+    }
+
+    public static void assetLoadFinished(String path, Class<?> type) {
+        if (listener != null) {
+            listener.assetLoadFinished(path, type);
+        }
+    }
+
+    public static void nextGameStarted(Class<?> sequencer) {
+        if (listener != null) {
+            listener.nextGameStarted(sequencer);
+        }
+    }
+
+    public static void nextGameFinished(Class<?> sequencer, Class<?> microGame,
+            int gameNumber) {
+        if (listener != null) {
+            listener.nextGameFinished(sequencer, microGame, gameNumber);
+        }
+    }
+
+    public static void frameOverBudget(long frameNanos, long budgetNanos) {
+        if (listener != null) {
+            listener.frameOverBudget(frameNanos, budgetNanos);
+        }
+    }
+}
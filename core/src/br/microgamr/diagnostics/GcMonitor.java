@@ -0,0 +1,18 @@
+package br.microgamr.diagnostics;
+
+/**
+ * Informa ao {@link FlightRecorder} as coletas de lixo que ocorreram. Como
+ * isso depende da plataforma, cada <em>backend</em> fornece a sua
+ * implementação (veja {@link FlightRecorder#setGcMonitor(GcMonitor)}).
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public interface GcMonitor {
+
+    /**
+     * Verifica se houve coletas de lixo desde a última chamada e, caso sim,
+     * grava um evento {@link FlightRecorder.EventType#GC} para cada coletor,
+     * com o tempo gasto (em ms) como valor.
+     */
+    public void poll();
+}
@@ -0,0 +1,222 @@
+package br.microgamr.diagnostics;
+
+import br.microgamr.Config;
+import br.microgamr.assets.AssetCache;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Rastreia os recursos nativos ({@link Disposable}s como batches, stages,
+ * fontes, frame buffers e mundos do Box2D) criados fora do
+ * {@link AssetCache}, junto com a tela que os criou.
+ *
+ * Quem cria um recurso o registra com {@link #track(Object, Disposable)} e o
+ * libera com {@link #release(Disposable)} (ou avisa com
+ * {@link #untrack(Disposable)}, se ele for liberado de outra forma). Quando
+ * uma tela é descartada, {@link #reportLeaks(Object)} lista, com o ponto em
+ * que foram criados, os recursos dela que ainda não foram liberados.
+ *
+ * Os assets (texturas, sons, músicas, skins e fontes carregados de arquivos)
+ * são liberados pelo {@link AssetCache} por contagem de referências, então
+ * o que se verifica para eles é se o total carregado volta ao mesmo valor a
+ * cada ida e volta entre as telas (veja {@link #snapshot()}).
+ *
+ * Só funciona com {@link Config#LEAK_TRACKER_ENABLED}; do contrário, os
+ * métodos apenas liberam os recursos.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public final class LeakTracker {
+
+    private static final class Entry {
+
+        final String owner;
+        final Throwable creation;
+
+        Entry(String owner, Throwable creation) {
+            this.owner = owner;
+            this.creation = creation;
+        }
+    }
+
+    private static final Map<Disposable, Entry> live
+            = new IdentityHashMap<Disposable, Entry>();
+
+    private LeakTracker() {
+    }
+
+    /**
+     * Registra um recurso criado por {@code owner}.
+     *
+     * @param owner quem criou o recurso (normalmente, a tela).
+     * @param resource o recurso.
+     * @return o próprio recurso.
+     */
+    public static synchronized <T extends Disposable> T track(Object owner,
+            T resource) {
+        if (Config.LEAK_TRACKER_ENABLED) {
+            live.put(resource, new Entry(nameOf(owner),
+                    new Throwable(resource.getClass().getSimpleName()
+                            + " criado aqui")));
+        }
+        return resource;
+    }
+
+    /**
+     * Avisa que um recurso foi liberado por outro meio.
+     *
+     * @param resource o recurso.
+     */
+    public static synchronized void untrack(Disposable resource) {
+        live.remove(resource);
+    }
+
+    /**
+     * Libera um recurso e deixa de rastreá-lo.
+     *
+     * @param resource o recurso (pode ser null).
+     */
+    public static void release(Disposable resource) {
+        if (resource != null) {
+            untrack(resource);
+            resource.dispose();
+        }
+    }
+
+    /**
+     * Registra no log os recursos de {@code owner} que ainda não foram
+     * liberados. Deve ser chamado depois de {@code owner} ter sido
+     * descartado. Os recursos continuam sendo rastreados, para que
+     * vazamentos repetidos apareçam no total.
+     *
+     * @param owner quem criou os recursos.
+     * @return quantos recursos vazaram.
+     */
+    public static synchronized int reportLeaks(Object owner) {
+        if (!Config.LEAK_TRACKER_ENABLED) {
+            return 0;
+        }
+        String name = nameOf(owner);
+        int leaks = 0;
+        for (Map.Entry<Disposable, Entry> entry : live.entrySet()) {
+            if (entry.getValue().owner.equals(name)) {
+                leaks++;
+                Gdx.app.error("LeakTracker", name + " foi descartado, mas não "
+                        + "liberou " + entry.getKey(), entry.getValue().creation);
+            }
+        }
+        Gdx.app.log("LeakTracker", "Depois de descartar " + name + ": "
+                + snapshot());
+        return leaks;
+    }
+
+    /**
+     * Retorna um resumo dos recursos vivos agora.
+     *
+     * @return o resumo.
+     */
+    public static Snapshot snapshot() {
+        return new Snapshot();
+    }
+
+    private static String nameOf(Object owner) {
+        return owner.getClass().getSimpleName() + "@"
+                + Integer.toHexString(System.identityHashCode(owner));
+    }
+
+    /**
+     * Os recursos nativos vivos em um momento. Repetir as mesmas transições
+     * de tela não deve fazer nenhum dos números crescer.
+     */
+    public static final class Snapshot {
+
+        /**
+         * Os recursos rastreados ainda não liberados, por tipo.
+         */
+        public final Map<String, Integer> tracked
+                = new TreeMap<String, Integer>();
+
+        /**
+         * Quantos assets estão carregados no {@link AssetCache}.
+         */
+        public final int loadedAssets;
+
+        /**
+         * Quantas texturas gerenciadas (carregadas de arquivos) existem.
+         */
+        public final int managedTextures;
+
+        /**
+         * Quantos bytes estão alocados fora do heap pela LibGDX (e.g.,
+         * vértices das batches e buffers de Pixmap).
+         */
+        public final int nativeBufferBytes;
+
+        private Snapshot() {
+            synchronized (LeakTracker.class) {
+                for (Disposable resource : live.keySet()) {
+                    String type = resource.getClass().getSimpleName();
+                    Integer count = tracked.get(type);
+                    tracked.put(type, count == null ? 1 : count + 1);
+                }
+            }
+            loadedAssets = AssetCache.getManager().getLoadedAssets();
+            managedTextures = Texture.getNumManagedTextures();
+            nativeBufferBytes = BufferUtils.getAllocatedBytesUnsafe();
+        }
+
+        /**
+         * Retorna o total de recursos rastreados ainda não liberados.
+         *
+         * @return o total.
+         */
+        public int getTrackedCount() {
+            int total = 0;
+            for (Integer count : tracked.values()) {
+                total += count;
+            }
+            return total;
+        }
+
+        /**
+         * Lista o que cresceu de {@code before} para este resumo.
+         *
+         * @param before um resumo anterior.
+         * @return as diferenças (vazio se nada cresceu).
+         */
+        public List<String> growthSince(Snapshot before) {
+            List<String> growth = new ArrayList<String>();
+            if (getTrackedCount() > before.getTrackedCount()) {
+                growth.add("recursos rastreados: " + before.tracked
+                        + " -> " + tracked);
+            }
+            if (loadedAssets > before.loadedAssets) {
+                growth.add("assets carregados: " + before.loadedAssets
+                        + " -> " + loadedAssets);
+            }
+            if (managedTextures > before.managedTextures) {
+                growth.add("texturas: " + before.managedTextures
+                        + " -> " + managedTextures);
+            }
+            if (nativeBufferBytes > before.nativeBufferBytes) {
+                growth.add("bytes nativos: " + before.nativeBufferBytes
+                        + " -> " + nativeBufferBytes);
+            }
+            return growth;
+        }
+
+        @Override
+        public String toString() {
+            return "rastreados " + tracked + ", " + loadedAssets
+                    + " assets, " + managedTextures + " texturas, "
+                    + nativeBufferBytes + " bytes nativos";
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package br.microgamr.diagnostics;
+
+import br.microgamr.diagnostics.FlightRecorder.EventType;
+import com.badlogic.gdx.audio.Sound;
+
+/**
+ * Um {@link Sound} que grava no {@link FlightRecorder} toda vez que é tocado.
+ * Os demais métodos apenas repassam para o som original.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class RecordedSound implements Sound {
+
+    private final String path;
+    private final Sound sound;
+
+    /**
+     * Envolve um som.
+     *
+     * @param path o caminho do asset, usado como rótulo dos eventos.
+     * @param sound o som original.
+     */
+    public RecordedSound(String path, Sound sound) {
+        this.path = path;
+        this.sound = sound;
+    }
+
+    private long recorded(long id) {
+        FlightRecorder.record(EventType.SOUND_PLAYED, path, id);
+        return id;
+    }
+
+    @Override
+    public long play() {
+        return recorded(sound.play());
+    }
+
+    @Override
+    public long play(float volume) {
+        return recorded(sound.play(volume));
+    }
+
+    @Override
+    public long play(float volume, float pitch, float pan) {
+        return recorded(sound.play(volume, pitch, pan));
+    }
+
+    @Override
+    public long loop() {
+        return recorded(sound.loop());
+    }
+
+    @Override
+    public long loop(float volume) {
+        return recorded(sound.loop(volume));
+    }
+
+    @Override
+    public long loop(float volume, float pitch, float pan) {
+        return recorded(sound.loop(volume, pitch, pan));
+    }
+
+    @Override
+    public void stop() {
+        sound.stop();
+    }
+
+    @Override
+    public void pause() {
+        sound.pause();
+    }
+
+    @Override
+    public void resume() {
+        sound.resume();
+    }
+
+    @Override
+    public void dispose() {
+        sound.dispose();
+    }
+
+    @Override
+    public void stop(long soundId) {
+        sound.stop(soundId);
+    }
+
+    @Override
+    public void pause(long soundId) {
+        sound.pause(soundId);
+    }
+
+    @Override
+    public void resume(long soundId) {
+        sound.resume(soundId);
+    }
+
+    @Override
+    public void setLooping(long soundId, boolean looping) {
+        sound.setLooping(soundId, looping);
+    }
+
+    @Override
+    public void setPitch(long soundId, float pitch) {
+        sound.setPitch(soundId, pitch);
+    }
+
+    @Override
+    public void setVolume(long soundId, float volume) {
+        sound.setVolume(soundId, volume);
+    }
+
+    @Override
+    public void setPan(long soundId, float pan, float volume) {
+        sound.setPan(soundId, pan, volume);
+    }
+}
@@ -0,0 +1,518 @@
+package br.microgamr.diagnostics;
+
+import br.microgamr.Config;
+import com.badlogic.gdx.Gdx;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Um registro binário, só de acréscimo, dos resultados dos microgames
+ * ({@link TelemetryRecord}), para análises por microgame (veja
+ * {@link TelemetryReader}).
+ *
+ * O registro é dividido em segmentos de tamanho fixo
+ * ({@code telemetry-<criação>-<n>.mgt}), cada um com um cabeçalho de
+ * {@link #HEADER_SIZE} bytes seguido de registros de {@link #RECORD_SIZE}
+ * bytes. Os segmentos são mapeados em memória, então acrescentar um registro
+ * é só copiar bytes: quem chama (a thread de renderização) nunca espera por
+ * disco. Criar, mapear e pré-carregar o próximo segmento (quando metade do
+ * atual já foi usada), forçar a gravação do anterior e apagar os segmentos
+ * mais antigos (só ficam {@code maxSegments}) acontecem em uma thread
+ * própria, de antemão. Ao iniciar, o registro continua no segmento mais
+ * recente que já tem registros, se ainda houver espaço nele.
+ *
+ * Se um registro chega quando o próximo segmento ainda não está pronto, ele
+ * espera em um buffer fixo de {@link #PENDING_RECORDS} registros; se até
+ * esse buffer encher, o registro é descartado (e contado, veja
+ * {@link #getDroppedCount()}). A memória usada não cresce com o número de
+ * registros.
+ *
+ * O espaço ainda não usado do segmento é cheio de zeros (o arquivo é criado
+ * já com o tamanho final), e o primeiro campo de cada registro (o horário)
+ * nunca é zero. Cada registro termina com um CRC-32 dos seus campos: como o
+ * sistema operacional grava as páginas de um arquivo mapeado em qualquer
+ * ordem (e um registro pode ficar entre duas páginas), uma queda de energia
+ * pode deixar registros pela metade, e o leitor os descarta.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class TelemetryLog {
+
+    /**
+     * O número mágico no início de cada segmento ("MGTL").
+     */
+    public static final int MAGIC = 0x4D47544C;
+    public static final short VERSION = 2;
+    public static final int HEADER_SIZE = 32;
+    public static final int RECORD_SIZE = 96;
+    public static final int NAME_BYTES = 32;
+    public static final String EXTENSION = ".mgt";
+    public static final int PENDING_RECORDS = 16;
+
+    // posições dos campos dentro de um registro
+    static final int TIMESTAMP = 0;
+    static final int SESSION = 8;
+    static final int SEQUENCE_INDEX = 16;
+    static final int RESULT = 20;
+    static final int NAME_LENGTH = 21;
+    static final int DIFFICULTY = 24;
+    static final int SECONDS = 28;
+    static final int TOUCHES = 32;
+    static final int KEYS = 36;
+    static final int FRAMES = 40;
+    static final int MEAN_FRAME = 44;
+    static final int MAX_FRAME = 48;
+    static final int SLOW_FRAMES = 52;
+    static final int NAME = 56;
+    static final int CHECKSUM = 88;
+
+    private static final int PAGE_SIZE = 4096;
+
+    static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static TelemetryLog shared;
+
+    private final File directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final ExecutorService io;
+
+    private MappedByteBuffer segment;
+    private Future<MappedByteBuffer> nextSegment;
+    private int segmentCount;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+    private final byte[] pending = new byte[RECORD_SIZE * PENDING_RECORDS];
+    private int pendingCount;
+    private int droppedCount;
+    private int appendedCount;
+    private boolean closed;
+
+    /**
+     * Retorna o registro do jogo, em {@code ~/.microgamr/telemetry/}. O
+     * primeiro segmento começa a ser preparado já na primeira chamada, então
+     * convém chamá-lo antes do primeiro resultado (e.g., ao criar a tela de
+     * jogo).
+     *
+     * @return o registro, ou null se {@link Config#TELEMETRY_ENABLED} estiver
+     * desligado.
+     */
+    public static synchronized TelemetryLog getShared() {
+        if (shared == null && Config.TELEMETRY_ENABLED) {
+            shared = new TelemetryLog(
+                    Gdx.files.external(".microgamr/telemetry").file(),
+                    Config.TELEMETRY_SEGMENT_BYTES,
+                    Config.TELEMETRY_MAX_SEGMENTS);
+        }
+        return shared;
+    }
+
+    /**
+     * Fecha o registro do jogo, se ele tiver sido aberto.
+     */
+    public static synchronized void closeShared() {
+        if (shared != null) {
+            shared.close();
+            shared = null;
+        }
+    }
+
+    /**
+     * Cria um registro. Nenhum arquivo é tocado na thread de quem chama.
+     *
+     * @param directory o diretório dos segmentos.
+     * @param segmentBytes o tamanho de cada segmento.
+     * @param maxSegments quantos segmentos são mantidos.
+     */
+    public TelemetryLog(File directory, int segmentBytes, int maxSegments) {
+        if (segmentBytes < HEADER_SIZE + RECORD_SIZE) {
+            throw new IllegalArgumentException("Um segmento deve ter pelo "
+                    + "menos " + (HEADER_SIZE + RECORD_SIZE) + " bytes.");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = Math.max(1, maxSegments);
+        this.io = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "telemetry-io");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            }
+
+        });
+        prepareNextSegment(true);
+    }
+
+    /**
+     * Acrescenta um registro. Não bloqueia.
+     *
+     * @param data o registro.
+     */
+    public synchronized void append(TelemetryRecord data) {
+        if (closed) {
+            return;
+        }
+        encode(data, record, crc);
+        flushPending();
+        if (pendingCount == 0 && ensureSegment()) {
+            write(record);
+        } else if (pendingCount < PENDING_RECORDS) {
+            // o próximo segmento ainda não está pronto
+            System.arraycopy(record.array(), 0, pending,
+                    pendingCount * RECORD_SIZE, RECORD_SIZE);
+            pendingCount++;
+        } else {
+            droppedCount++;
+        }
+    }
+
+    /**
+     * Garante que há espaço para um registro no segmento atual, trocando-o
+     * pelo próximo (se já estiver pronto).
+     */
+    private boolean ensureSegment() {
+        if (segment != null && segment.remaining() >= RECORD_SIZE) {
+            return true;
+        }
+        if (nextSegment == null) {
+            // o segmento encheu antes de o próximo ser pedido (e.g., a
+            // preparação anterior falhou)
+            prepareNextSegment(false);
+            return false;
+        }
+        if (!nextSegment.isDone()) {
+            return false;
+        }
+        final MappedByteBuffer full = segment;
+        try {
+            segment = nextSegment.get();
+        } catch (Exception ex) {
+            // não foi possível criar o segmento: tenta de novo depois
+            segment = null;
+            prepareNextSegment(false);
+            return false;
+        }
+        nextSegment = null;
+        if (full != null) {
+            io.submit(new Runnable() {
+                @Override
+                public void run() {
+                    full.force();
+                }
+
+            });
+        }
+        return segment.remaining() >= RECORD_SIZE;
+    }
+
+    private void flushPending() {
+        int flushed = 0;
+        while (flushed < pendingCount && ensureSegment()) {
+            write(ByteBuffer.wrap(pending, flushed * RECORD_SIZE,
+                    RECORD_SIZE).slice());
+            flushed++;
+        }
+        if (flushed > 0) {
+            System.arraycopy(pending, flushed * RECORD_SIZE, pending, 0,
+                    (pendingCount - flushed) * RECORD_SIZE);
+            pendingCount -= flushed;
+        }
+    }
+
+    /**
+     * Copia um registro codificado para o segmento, escrevendo o horário por
+     * último.
+     */
+    private void write(ByteBuffer encoded) {
+        int start = segment.position();
+        encoded.position(TIMESTAMP + 8);
+        segment.position(start + TIMESTAMP + 8);
+        segment.put(encoded);
+        segment.putLong(start + TIMESTAMP, encoded.getLong(TIMESTAMP));
+        segment.position(start + RECORD_SIZE);
+        encoded.clear();
+        appendedCount++;
+        // o próximo segmento só é criado quando metade deste já foi usada:
+        // se o jogo fechar antes, nenhum segmento fica vazio
+        if (nextSegment == null
+                && segment.remaining() < (segmentBytes - HEADER_SIZE) / 2) {
+            prepareNextSegment(false);
+        }
+    }
+
+    /**
+     * Codifica um registro em {@code buffer} (com {@link #RECORD_SIZE} bytes
+     * e um array acessível), com o CRC-32 dos campos no fim.
+     */
+    static void encode(TelemetryRecord data, ByteBuffer buffer, CRC32 crc) {
+        buffer.clear();
+        byte[] name = data.microGame == null ? new byte[0]
+                : data.microGame.getBytes(UTF8);
+        int nameLength = Math.min(name.length, NAME_BYTES);
+        buffer.putLong(TIMESTAMP, Math.max(1, data.timestampMillis));
+        buffer.putLong(SESSION, data.sessionId);
+        buffer.putInt(SEQUENCE_INDEX, data.sequenceIndex);
+        buffer.put(RESULT, (byte) (data.result == null
+                ? -1 : data.result.ordinal()));
+        buffer.put(NAME_LENGTH, (byte) nameLength);
+        buffer.putFloat(DIFFICULTY, data.difficulty);
+        buffer.putFloat(SECONDS, data.seconds);
+        buffer.putInt(TOUCHES, data.touches);
+        buffer.putInt(KEYS, data.keys);
+        buffer.putInt(FRAMES, data.frames);
+        buffer.putFloat(MEAN_FRAME, data.meanFrameMillis);
+        buffer.putFloat(MAX_FRAME, data.maxFrameMillis);
+        buffer.putInt(SLOW_FRAMES, data.slowFrames);
+        for (int i = 0; i < NAME_BYTES; i++) {
+            buffer.put(NAME + i, i < nameLength ? name[i] : 0);
+        }
+        for (int i = NAME + NAME_BYTES; i < RECORD_SIZE; i++) {
+            buffer.put(i, (byte) 0);
+        }
+        buffer.putInt(CHECKSUM, checksum(buffer.array(),
+                buffer.arrayOffset(), crc));
+    }
+
+    /**
+     * Calcula o CRC-32 dos campos de um registro codificado (todos os bytes
+     * antes de {@link #CHECKSUM}).
+     */
+    static int checksum(byte[] encoded, int offset, CRC32 crc) {
+        crc.reset();
+        crc.update(encoded, offset, CHECKSUM);
+        return (int) crc.getValue();
+    }
+
+    private void prepareNextSegment(final boolean resume) {
+        nextSegment = io.submit(new Callable<MappedByteBuffer>() {
+            @Override
+            public MappedByteBuffer call() throws IOException {
+                return openSegment(resume);
+            }
+
+        });
+    }
+
+    /**
+     * Abre um segmento novo ou, ao iniciar, continua o mais recente, se
+     * ainda houver espaço nele. Roda na thread de E/S.
+     */
+    private MappedByteBuffer openSegment(boolean resume) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Não foi possível criar " + directory);
+        }
+        File[] existing = listSegments(directory);
+        if (resume) {
+            // um segmento vazio no fim (e.g., preparado pouco antes de o jogo
+            // fechar) é apagado, e o registro continua no anterior
+            int newest = existing.length - 1;
+            while (newest > 0 && isEmpty(existing[newest])) {
+                if (!existing[newest].delete()) {
+                    break;
+                }
+                newest--;
+            }
+            if (newest >= 0) {
+                MappedByteBuffer buffer = resume(existing[newest]);
+                if (buffer != null) {
+                    return buffer;
+                }
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        File file = new File(directory, String.format("telemetry-%013d-%06d%s",
+                now, segmentCount++ % 1000000, EXTENSION));
+        MappedByteBuffer buffer = map(file);
+        buffer.putInt(0, MAGIC);
+        buffer.putShort(4, VERSION);
+        buffer.putShort(6, (short) RECORD_SIZE);
+        buffer.putLong(8, now);
+        buffer.position(HEADER_SIZE);
+        touchPages(buffer, HEADER_SIZE);
+
+        // rotação: apaga os segmentos mais antigos
+        existing = listSegments(directory);
+        for (int i = 0; i < existing.length - maxSegments; i++) {
+            if (!existing[i].delete()) {
+                existing[i].deleteOnExit();
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Retorna se um arquivo é um segmento desta versão, ainda sem nenhum
+     * registro.
+     */
+    private boolean isEmpty(File file) throws IOException {
+        if (file.length() != segmentBytes) {
+            return false;
+        }
+        RandomAccessFile access = new RandomAccessFile(file, "r");
+        try {
+            if (access.readInt() != MAGIC || access.readShort() != VERSION
+                    || access.readShort() != RECORD_SIZE) {
+                return false;
+            }
+            access.seek(HEADER_SIZE + TIMESTAMP);
+            return access.readLong() == 0;
+        } finally {
+            access.close();
+        }
+    }
+
+    /**
+     * Mapeia um segmento existente, posicionado depois do último registro.
+     *
+     * @return o segmento, ou null se ele for de outra versão ou não tiver
+     * mais espaço.
+     */
+    private MappedByteBuffer resume(File file) throws IOException {
+        if (file.length() != segmentBytes) {
+            return null;
+        }
+        MappedByteBuffer buffer = map(file);
+        if (buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION
+                || buffer.getShort(6) != RECORD_SIZE) {
+            return null;
+        }
+        int position = HEADER_SIZE;
+        while (position + RECORD_SIZE <= buffer.limit()
+                && buffer.getLong(position + TIMESTAMP) != 0) {
+            position += RECORD_SIZE;
+        }
+        if (position + RECORD_SIZE > buffer.limit()) {
+            return null;
+        }
+        buffer.position(position);
+        touchPages(buffer, position);
+        return buffer;
+    }
+
+    /**
+     * Escreve (zeros) em cada página ainda livre do segmento. O arquivo é
+     * esparso, então a primeira escrita em uma página reserva espaço em
+     * disco, o que pode levar milissegundos: é melhor que isso aconteça aqui
+     * do que no primeiro registro da página. Só carregar as páginas
+     * ({@link MappedByteBuffer#load()}) não basta, porque elas continuam
+     * protegidas contra escrita.
+     */
+    private static void touchPages(MappedByteBuffer buffer, int from) {
+        for (int i = from; i < buffer.limit(); i += PAGE_SIZE) {
+            buffer.put(i, (byte) 0);
+        }
+    }
+
+    private MappedByteBuffer map(File file) throws IOException {
+        RandomAccessFile access = new RandomAccessFile(file, "rw");
+        try {
+            // o arquivo já nasce com o tamanho final (cheio de zeros)
+            access.setLength(segmentBytes);
+            // o mapeamento continua válido depois que o canal é fechado
+            return access.getChannel().map(FileChannel.MapMode.READ_WRITE, 0,
+                    segmentBytes);
+        } finally {
+            access.close();
+        }
+    }
+
+    /**
+     * Lista os segmentos de um diretório, do mais antigo para o mais novo.
+     *
+     * @param directory o diretório.
+     * @return os segmentos.
+     */
+    public static File[] listSegments(File directory) {
+        File[] files = directory.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.startsWith("telemetry-")
+                        && name.endsWith(EXTENSION);
+            }
+
+        });
+        if (files == null) {
+            return new File[0];
+        }
+        Arrays.sort(files);
+        return files;
+    }
+
+    /**
+     * Grava o que estiver em memória e encerra a thread de E/S. Registros
+     * ainda pendentes são gravados se os próximos segmentos ficarem prontos
+     * em até um segundo; os que não couberem a tempo são contados como
+     * descartados.
+     */
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        // os pendentes podem encher o próximo segmento e pedir mais um
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (pendingCount > 0 && nextSegment != null) {
+            try {
+                nextSegment.get(Math.max(0, deadline - System.nanoTime()),
+                        TimeUnit.NANOSECONDS);
+            } catch (Exception ex) {
+                break;
+            }
+            flushPending();
+        }
+        droppedCount += pendingCount;
+        pendingCount = 0;
+        final MappedByteBuffer last = segment;
+        if (last != null) {
+            io.submit(new Runnable() {
+                @Override
+                public void run() {
+                    last.force();
+                }
+
+            });
+        }
+        io.shutdown();
+        try {
+            io.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Retorna quantos registros foram descartados porque nem o próximo
+     * segmento nem o buffer de espera estavam disponíveis.
+     *
+     * @return o número de registros descartados.
+     */
+    public synchronized int getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Retorna quantos registros já foram escritos nos segmentos.
+     *
+     * @return o número de registros escritos.
+     */
+    public synchronized int getAppendedCount() {
+        return appendedCount;
+    }
+}
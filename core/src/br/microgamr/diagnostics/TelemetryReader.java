@@ -0,0 +1,262 @@
+package br.microgamr.diagnostics;
+
+import br.microgamr.microgames.util.MicroGameState;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Lê os segmentos gravados pelo {@link TelemetryLog} e resume os resultados
+ * por microgame. Não depende da LibGDX, então pode ser usado fora do jogo
+ * (e.g., em ferramentas de análise).
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class TelemetryReader {
+
+    /**
+     * Quem recebe os registros lidos, um a um.
+     */
+    public interface Visitor {
+
+        /**
+         * Recebe um registro. A instância é reaproveitada entre as chamadas.
+         *
+         * @param record o registro.
+         */
+        void visit(TelemetryRecord record);
+    }
+
+    private TelemetryReader() {
+    }
+
+    /**
+     * Lê todos os segmentos de um diretório, do mais antigo para o mais novo.
+     * Segmentos que não podem ser lidos (e.g., um arquivo cheio de zeros)
+     * são pulados.
+     *
+     * @param directory o diretório dos segmentos.
+     * @param visitor quem recebe os registros.
+     * @param problems recebe uma descrição de cada segmento pulado e de cada
+     * segmento com registros corrompidos (pode ser null).
+     * @return quantos registros foram lidos.
+     */
+    public static int readAll(File directory, Visitor visitor,
+            List<String> problems) {
+        int count = 0;
+        for (File segment : TelemetryLog.listSegments(directory)) {
+            try {
+                count += read(segment, visitor, problems);
+            } catch (IOException ex) {
+                if (problems != null) {
+                    problems.add(segment + " foi pulado: " + ex.getMessage());
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Lê um segmento. Registros corrompidos (cujo CRC-32 não confere, e.g.,
+     * gravados pela metade antes de uma queda de energia) são descartados.
+     *
+     * @param segment o arquivo do segmento.
+     * @param visitor quem recebe os registros.
+     * @param problems recebe uma descrição do segmento, se ele tiver
+     * registros corrompidos (pode ser null).
+     * @return quantos registros foram lidos.
+     * @throws IOException se o arquivo não puder ser lido ou não for um
+     * segmento.
+     */
+    public static int read(File segment, Visitor visitor,
+            List<String> problems) throws IOException {
+        RandomAccessFile access = new RandomAccessFile(segment, "r");
+        ByteBuffer buffer;
+        try {
+            buffer = access.getChannel().map(FileChannel.MapMode.READ_ONLY,
+                    0, access.length());
+        } finally {
+            access.close();
+        }
+        if (buffer.limit() < TelemetryLog.HEADER_SIZE
+                || buffer.getInt(0) != TelemetryLog.MAGIC) {
+            throw new IOException("não é um segmento de telemetria");
+        }
+        int version = buffer.getShort(4);
+        int recordSize = buffer.getShort(6);
+        if (version < 1 || version > TelemetryLog.VERSION
+                || recordSize < TelemetryLog.RECORD_SIZE) {
+            throw new IOException("versão " + version + ", com registros de "
+                    + recordSize + " bytes, não é suportada");
+        }
+        // a versão 1 não tinha CRC-32: o fim é o primeiro espaço vazio
+        boolean checked = version >= 2;
+
+        TelemetryRecord record = new TelemetryRecord();
+        MicroGameState[] states = MicroGameState.values();
+        byte[] name = new byte[TelemetryLog.NAME_BYTES];
+        byte[] encoded = new byte[TelemetryLog.RECORD_SIZE];
+        CRC32 crc = new CRC32();
+        int count = 0;
+        int corrupted = 0;
+        for (int start = TelemetryLog.HEADER_SIZE;
+                start + recordSize <= buffer.limit(); start += recordSize) {
+            long timestamp = buffer.getLong(start + TelemetryLog.TIMESTAMP);
+            ByteBuffer data = (ByteBuffer) buffer.duplicate()
+                    .position(start);
+            data = data.slice();
+            if (!checked) {
+                if (timestamp == 0) {
+                    break;
+                }
+            } else {
+                // as páginas podem ter sido gravadas fora de ordem: um
+                // espaço vazio não é necessariamente o fim
+                data.get(encoded);
+                if (timestamp == 0 && isZero(encoded)) {
+                    continue;
+                }
+                if (timestamp == 0 || data.getInt(TelemetryLog.CHECKSUM)
+                        != TelemetryLog.checksum(encoded, 0, crc)) {
+                    corrupted++;
+                    continue;
+                }
+            }
+            record.timestampMillis = timestamp;
+            record.sessionId = data.getLong(TelemetryLog.SESSION);
+            record.sequenceIndex = data.getInt(TelemetryLog.SEQUENCE_INDEX);
+            int result = data.get(TelemetryLog.RESULT);
+            record.result = result >= 0 && result < states.length
+                    ? states[result] : null;
+            int nameLength = Math.min(data.get(TelemetryLog.NAME_LENGTH)
+                    & 0xFF, TelemetryLog.NAME_BYTES);
+            for (int i = 0; i < nameLength; i++) {
+                name[i] = data.get(TelemetryLog.NAME + i);
+            }
+            record.microGame = new String(name, 0, nameLength,
+                    TelemetryLog.UTF8);
+            record.difficulty = data.getFloat(TelemetryLog.DIFFICULTY);
+            record.seconds = data.getFloat(TelemetryLog.SECONDS);
+            record.touches = data.getInt(TelemetryLog.TOUCHES);
+            record.keys = data.getInt(TelemetryLog.KEYS);
+            record.frames = data.getInt(TelemetryLog.FRAMES);
+            record.meanFrameMillis = data.getFloat(TelemetryLog.MEAN_FRAME);
+            record.maxFrameMillis = data.getFloat(TelemetryLog.MAX_FRAME);
+            record.slowFrames = data.getInt(TelemetryLog.SLOW_FRAMES);
+            visitor.visit(record);
+            count++;
+        }
+        if (corrupted > 0 && problems != null) {
+            problems.add(segment + ": " + corrupted + " registro(s) "
+                    + "corrompido(s) descartado(s)");
+        }
+        return count;
+    }
+
+    private static boolean isZero(byte[] bytes) {
+        for (byte b : bytes) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Resume os registros de um diretório por microgame.
+     *
+     * @param directory o diretório dos segmentos.
+     * @param problems recebe os segmentos pulados e os que tinham registros
+     * corrompidos (pode ser null; veja
+     * {@link #readAll(File, Visitor, List)}).
+     * @return o resumo de cada microgame, na ordem em que apareceram.
+     */
+    public static Map<String, Summary> summarize(File directory,
+            List<String> problems) {
+        final Map<String, Summary> summaries
+                = new LinkedHashMap<String, Summary>();
+        readAll(directory, new Visitor() {
+            @Override
+            public void visit(TelemetryRecord record) {
+                Summary summary = summaries.get(record.microGame);
+                if (summary == null) {
+                    summary = new Summary(record.microGame);
+                    summaries.put(record.microGame, summary);
+                }
+                summary.add(record);
+            }
+
+        }, problems);
+        return summaries;
+    }
+
+    /**
+     * O resumo das execuções de um microgame.
+     */
+    public static class Summary {
+
+        public final String microGame;
+        public int plays;
+        public int successes;
+        public double totalDifficulty;
+        public double totalSeconds;
+        public long totalTouches;
+        public long totalKeys;
+        public long totalFrames;
+        public double totalFrameMillis;
+        public float maxFrameMillis;
+        public long slowFrames;
+
+        Summary(String microGame) {
+            this.microGame = microGame;
+        }
+
+        void add(TelemetryRecord record) {
+            plays++;
+            if (record.succeeded()) {
+                successes++;
+            }
+            totalDifficulty += record.difficulty;
+            totalSeconds += record.seconds;
+            totalTouches += record.touches;
+            totalKeys += record.keys;
+            totalFrames += record.frames;
+            totalFrameMillis += (double) record.meanFrameMillis
+                    * record.frames;
+            maxFrameMillis = Math.max(maxFrameMillis, record.maxFrameMillis);
+            slowFrames += record.slowFrames;
+        }
+
+        public float getSuccessRate() {
+            return plays == 0 ? 0 : (float) successes / plays;
+        }
+
+        public float getMeanDifficulty() {
+            return plays == 0 ? 0 : (float) (totalDifficulty / plays);
+        }
+
+        public float getMeanSeconds() {
+            return plays == 0 ? 0 : (float) (totalSeconds / plays);
+        }
+
+        public float getMeanInputs() {
+            return plays == 0 ? 0
+                    : (float) (totalTouches + totalKeys) / plays;
+        }
+
+        public float getMeanFrameMillis() {
+            return totalFrames == 0 ? 0
+                    : (float) (totalFrameMillis / totalFrames);
+        }
+
+        public float getSlowFrameRate() {
+            return totalFrames == 0 ? 0 : (float) slowFrames / totalFrames;
+        }
+    }
+}
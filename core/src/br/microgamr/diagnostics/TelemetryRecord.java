@@ -0,0 +1,109 @@
+package br.microgamr.diagnostics;
+
+import br.microgamr.microgames.util.MicroGameState;
+
+/**
+ * O resultado de uma execução de um microgame, como gravado no
+ * {@link TelemetryLog}. Os campos são públicos e mutáveis para que a tela de
+ * jogo reaproveite a mesma instância a cada microgame.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class TelemetryRecord {
+
+    /**
+     * Quando o microgame terminou (em ms desde 1970).
+     */
+    public long timestampMillis;
+
+    /**
+     * A partida (tela de jogo) de que o microgame fez parte.
+     */
+    public long sessionId;
+
+    /**
+     * A posição do microgame na sequência da partida.
+     */
+    public int sequenceIndex;
+
+    /**
+     * O nome da fábrica do microgame (veja
+     * {@link br.microgamr.microgames.factories.MicroGameCatalog#getName}),
+     * truncado em {@link TelemetryLog#NAME_BYTES} bytes.
+     */
+    public String microGame;
+
+    public float difficulty;
+
+    /**
+     * {@link MicroGameState#PLAYER_SUCCEEDED} ou
+     * {@link MicroGameState#PLAYER_FAILED}.
+     */
+    public MicroGameState result;
+
+    /**
+     * Quanto tempo (em segundos, sem as pausas) o jogador teve o controle.
+     */
+    public float seconds;
+
+    /**
+     * Quantos toques/cliques e quantas teclas foram pressionados.
+     */
+    public int touches, keys;
+
+    /**
+     * Quantos quadros foram jogados e a duração média e máxima deles (em ms).
+     */
+    public int frames;
+    public float meanFrameMillis, maxFrameMillis;
+
+    /**
+     * Quantos quadros passaram do orçamento de engasgo (veja
+     * {@link FlightRecorder#getHitchBudget()}).
+     */
+    public int slowFrames;
+
+    /**
+     * Zera os contadores de uma nova execução.
+     */
+    public void reset() {
+        seconds = 0;
+        touches = 0;
+        keys = 0;
+        frames = 0;
+        meanFrameMillis = 0;
+        maxFrameMillis = 0;
+        slowFrames = 0;
+    }
+
+    /**
+     * Conta um quadro jogado.
+     *
+     * @param dt a duração do quadro, em segundos.
+     * @param slow se o quadro passou do orçamento.
+     */
+    public void addFrame(float dt, boolean slow) {
+        float millis = dt * 1000;
+        frames++;
+        seconds += dt;
+        meanFrameMillis += (millis - meanFrameMillis) / frames;
+        maxFrameMillis = Math.max(maxFrameMillis, millis);
+        if (slow) {
+            slowFrames++;
+        }
+    }
+
+    public boolean succeeded() {
+        return result == MicroGameState.PLAYER_SUCCEEDED;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%tF %<tT #%d.%d %s (%.2f): %s em %.1f s, "
+                + "%d toques, %d teclas, %d quadros (média %.1f ms, máximo "
+                + "%.1f ms, %d lentos)", timestampMillis, sessionId,
+                sequenceIndex, microGame, difficulty, result, seconds,
+                touches, keys, frames, meanFrameMillis, maxFrameMillis,
+                slowFrames);
+    }
+}
@@ -0,0 +1,125 @@
+package br.microgamr.graphics;
+
+import br.microgamr.Config;
+import br.microgamr.diagnostics.FlightRecorder;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Timer;
+import com.badlogic.gdx.utils.Timer.Task;
+
+/**
+ * Renderização sob demanda. Enquanto o jogo está ocioso (a janela perdeu o
+ * foco ou foi minimizada, ou a tela atual diz que está estática, e.g., o jogo
+ * foi pausado pela HUD), a renderização contínua é desligada: um quadro só é
+ * desenhado quando há <em>input</em> (os <em>backends</em> da LibGDX pedem um
+ * quadro a cada evento), quando algo chama {@link #wake()} ou, no máximo,
+ * {@link Config#IDLE_FRAMES_PER_SECOND} vezes por segundo, para que o
+ * carregamento dos assets e os timers continuem andando.
+ *
+ * Como o tempo ocioso não deve ser contado como tempo de jogo, o intervalo
+ * dos quadros desenhados durante a ociosidade (e do primeiro depois dela) é
+ * limitado a {@link Config#IDLE_MAX_FRAME_DELTA} e esses quadros não são
+ * medidos pelo {@link FlightRecorder} nem pelo {@link QualityManager}.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public final class IdleRendering {
+
+    private static boolean unfocused;
+    private static boolean idle;
+    private static boolean limitNextFrame;
+    private static Task heartbeat;
+
+    private IdleRendering() {
+    }
+
+    /**
+     * Informa se a janela do jogo perdeu o foco (ou foi minimizada), o que
+     * a LibGDX avisa por meio de pause/resume.
+     *
+     * @param value true se a janela perdeu o foco.
+     */
+    public static void setUnfocused(boolean value) {
+        unfocused = value;
+        if (!unfocused) {
+            wake();
+        }
+    }
+
+    /**
+     * Deve ser chamado no começo de cada quadro. Retorna o intervalo do
+     * quadro a ser passado às telas.
+     *
+     * @param dt o intervalo medido desde o quadro anterior.
+     * @return o intervalo, limitado se o jogo estava ocioso.
+     */
+    public static float beginFrame(float dt) {
+        if (!limitNextFrame) {
+            return dt;
+        }
+        FlightRecorder.ignoreNextFrame();
+        QualityManager.ignoreNextFrame();
+        return Math.min(dt, Config.IDLE_MAX_FRAME_DELTA);
+    }
+
+    /**
+     * Deve ser chamado no fim de cada quadro. Liga ou desliga a renderização
+     * contínua de acordo com o estado do jogo depois do quadro.
+     *
+     * @param screenIsStatic se a tela atual está estática.
+     */
+    public static void endFrame(boolean screenIsStatic) {
+        boolean shouldIdle = Config.IDLE_RENDERING_ENABLED
+                && (unfocused || screenIsStatic);
+        if (shouldIdle != idle) {
+            idle = shouldIdle;
+            Gdx.graphics.setContinuousRendering(!idle);
+            if (idle) {
+                startHeartbeat();
+            } else {
+                stopHeartbeat();
+            }
+        }
+        // o próximo quadro pode vir muito depois deste
+        limitNextFrame = idle;
+    }
+
+    /**
+     * Pede que um quadro seja desenhado mesmo que o jogo esteja ocioso
+     * (e.g., quando algo muda fora do laço de <em>input</em>).
+     */
+    public static void wake() {
+        if (Gdx.graphics != null) {
+            Gdx.graphics.requestRendering();
+        }
+    }
+
+    /**
+     * Retorna se a renderização contínua está desligada.
+     *
+     * @return true se o jogo está ocioso.
+     */
+    public static boolean isIdle() {
+        return idle;
+    }
+
+    private static void startHeartbeat() {
+        if (Config.IDLE_FRAMES_PER_SECOND <= 0) {
+            return;
+        }
+        float interval = 1f / Config.IDLE_FRAMES_PER_SECOND;
+        heartbeat = Timer.schedule(new Task() {
+            @Override
+            public void run() {
+                wake();
+            }
+
+        }, interval, interval);
+    }
+
+    private static void stopHeartbeat() {
+        if (heartbeat != null) {
+            heartbeat.cancel();
+            heartbeat = null;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package br.microgamr.graphics;
+
+import br.microgamr.Config;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Escolhe o nível de qualidade gráfica ({@link QualityTier}) a partir do
+ * tempo medido dos quadros, para que máquinas antigas e novas mantenham
+ * {@link Config#QUALITY_TARGET_FPS} quadros por segundo sem configuração
+ * manual.
+ *
+ * A cada {@link Config#QUALITY_WINDOW_FRAMES} quadros, olha o percentil
+ * {@link Config#QUALITY_PERCENTILE} de duas medidas:
+ * <ul>
+ * <li>o intervalo entre os quadros: se passar do orçamento (com uma folga),
+ * o nível desce um degrau;</li>
+ * <li>o trabalho de cada quadro (de {@link #beginFrame()} a
+ * {@link #endFrame()}, sem a espera pelo vsync): se ficar abaixo de uma
+ * fração do orçamento por várias janelas seguidas, o nível sobe um degrau.
+ * Cada subida que precisa ser desfeita logo em seguida dobra o número de
+ * janelas exigidas para a próxima (histerese).</li>
+ * </ul>
+ *
+ * O nível escolhido é gravado em um arquivo local, junto com a identificação
+ * da placa de vídeo, e reaproveitado nas próximas execuções na mesma máquina.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public final class QualityManager {
+
+    private static final String TIER_KEY = "tier";
+    private static final String RENDERER_KEY = "renderer";
+    private static final int MAX_GOOD_WINDOWS_TO_STEP_UP = 64;
+
+    private static QualityTier tier = QualityTier.HIGH;
+    private static FileHandle storage;
+    private static String savedRenderer;
+
+    private static final float[] intervals
+            = new float[Config.QUALITY_WINDOW_FRAMES];
+    private static final float[] workTimes
+            = new float[Config.QUALITY_WINDOW_FRAMES];
+    private static final float[] sorted
+            = new float[Config.QUALITY_WINDOW_FRAMES];
+    private static int sampleCount;
+    private static boolean measuring;
+    private static long frameStart;
+    private static float frameInterval;
+    private static boolean ignoreNextFrame = true;
+    private static int goodWindows;
+    private static int goodWindowsToStepUp
+            = Config.QUALITY_GOOD_WINDOWS_TO_STEP_UP;
+    private static boolean lastChangeWasStepUp;
+
+    private QualityManager() {
+    }
+
+    /**
+     * Lê o nível gravado em {@code file}, que passa a ser o nível atual. Pode
+     * ser chamado antes de a aplicação existir (e.g., pelo lançador, para
+     * escolher o número de amostras da janela).
+     *
+     * @param file o arquivo com o nível gravado (pode não existir).
+     * @return o nível gravado, ou o atual, se não houver um.
+     */
+    public static QualityTier load(FileHandle file) {
+        storage = file;
+        if (!file.exists()) {
+            return tier;
+        }
+        Properties properties = new Properties();
+        Reader reader = file.reader("UTF-8");
+        try {
+            properties.load(reader);
+            tier = QualityTier.valueOf(
+                    properties.getProperty(TIER_KEY, tier.name()));
+            savedRenderer = properties.getProperty(RENDERER_KEY);
+        } catch (IOException ex) {
+            // arquivo ilegível: fica com o nível atual (e ainda pode não
+            // haver Gdx.app para registrar o erro)
+        } catch (IllegalArgumentException ex) {
+            // um nível que não existe mais: começa do mais alto
+            tier = QualityTier.HIGH;
+        } finally {
+            try {
+                reader.close();
+            } catch (IOException ignored) {
+            }
+        }
+        return tier;
+    }
+
+    /**
+     * Deve ser chamado quando o contexto OpenGL já existe. Se o nível gravado
+     * foi escolhido com outra placa de vídeo, ele é descartado e o ajuste
+     * recomeça do nível mais alto.
+     */
+    public static void initialize() {
+        if (storage == null) {
+            load(Gdx.files.external(".microgamr/quality.properties"));
+        }
+        String renderer = currentRenderer();
+        if (savedRenderer != null && !savedRenderer.equals(renderer)) {
+            Gdx.app.log("QualityManager", "Placa de vídeo diferente ("
+                    + renderer + "), recomeçando do nível mais alto");
+            tier = QualityTier.HIGH;
+            save();
+        }
+        ignoreNextFrame = true;
+    }
+
+    private static String currentRenderer() {
+        return Gdx.gl.glGetString(GL20.GL_VENDOR) + " "
+                + Gdx.gl.glGetString(GL20.GL_RENDERER);
+    }
+
+    /**
+     * Marca o início do trabalho de um quadro. Deve ser chamado no começo de
+     * render.
+     */
+    public static void beginFrame() {
+        long now = TimeUtils.nanoTime();
+        measuring = frameStart != 0 && !ignoreNextFrame;
+        if (measuring) {
+            frameInterval = (now - frameStart) / 1e6f;
+        }
+        frameStart = now;
+        ignoreNextFrame = false;
+    }
+
+    /**
+     * Marca o fim do trabalho de um quadro (depois de tudo ter sido enviado à
+     * GPU). Pode mudar o nível de qualidade.
+     */
+    public static void endFrame() {
+        if (!measuring) {
+            return;
+        }
+        addSample(frameInterval, (TimeUtils.nanoTime() - frameStart) / 1e6f);
+    }
+
+    /**
+     * Acrescenta as medidas de um quadro à janela atual, avaliando-a quando
+     * ela se completa.
+     *
+     * @param interval o intervalo desde o quadro anterior, em ms.
+     * @param work o trabalho do quadro, em ms.
+     */
+    static void addSample(float interval, float work) {
+        intervals[sampleCount] = interval;
+        workTimes[sampleCount] = work;
+        sampleCount++;
+        if (sampleCount == intervals.length) {
+            sampleCount = 0;
+            evaluate();
+        }
+    }
+
+    /**
+     * Faz com que o próximo quadro não seja medido (e.g., porque a tela mudou
+     * ou o jogo ficou ocioso).
+     */
+    public static void ignoreNextFrame() {
+        ignoreNextFrame = true;
+    }
+
+    private static void evaluate() {
+        float budget = 1000f / Config.QUALITY_TARGET_FPS;
+        float interval = percentile(intervals);
+        float work = percentile(workTimes);
+        if (interval > budget * Config.QUALITY_STEP_DOWN_THRESHOLD) {
+            goodWindows = 0;
+            if (lastChangeWasStepUp) {
+                // a última subida não se sustentou: demora mais para tentar
+                // de novo
+                goodWindowsToStepUp = Math.min(goodWindowsToStepUp * 2,
+                        MAX_GOOD_WINDOWS_TO_STEP_UP);
+            }
+            change(tier.lower(), false, interval, work);
+        } else if (work < budget * Config.QUALITY_STEP_UP_THRESHOLD) {
+            goodWindows++;
+            if (goodWindows >= goodWindowsToStepUp) {
+                goodWindows = 0;
+                change(tier.higher(), true, interval, work);
+            }
+        } else {
+            goodWindows = 0;
+            lastChangeWasStepUp = false;
+        }
+    }
+
+    private static float percentile(float[] values) {
+        System.arraycopy(values, 0, sorted, 0, values.length);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(Config.QUALITY_PERCENTILE
+                * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static void change(QualityTier newTier, boolean stepUp,
+            float interval, float work) {
+        if (newTier == tier) {
+            return;
+        }
+        Gdx.app.log("QualityManager", String.format(
+                "%s -> %s (intervalo p%d: %.1f ms, trabalho: %.1f ms)",
+                tier, newTier, Math.round(Config.QUALITY_PERCENTILE * 100),
+                interval, work));
+        tier = newTier;
+        lastChangeWasStepUp = stepUp;
+        // recriar o alvo de desenho custa um quadro
+        ignoreNextFrame = true;
+        save();
+    }
+
+    /**
+     * Define o nível de qualidade manualmente (e.g., para testes). O ajuste
+     * recomeça do zero a partir dele.
+     *
+     * @param newTier o novo nível.
+     */
+    public static void setTier(QualityTier newTier) {
+        tier = newTier;
+        sampleCount = 0;
+        goodWindows = 0;
+        goodWindowsToStepUp = Config.QUALITY_GOOD_WINDOWS_TO_STEP_UP;
+        lastChangeWasStepUp = false;
+        ignoreNextFrame = true;
+    }
+
+    private static void save() {
+        if (storage == null) {
+            return;
+        }
+        Properties properties = new Properties();
+        properties.setProperty(TIER_KEY, tier.name());
+        properties.setProperty(RENDERER_KEY, currentRenderer());
+        savedRenderer = properties.getProperty(RENDERER_KEY);
+        try {
+            Writer writer = storage.writer(false, "UTF-8");
+            try {
+                properties.store(writer, "Nível de qualidade desta máquina");
+            } finally {
+                writer.close();
+            }
+        } catch (IOException ex) {
+            Gdx.app.error("QualityManager", "Não foi possível gravar "
+                    + storage.path(), ex);
+        } catch (GdxRuntimeException ex) {
+            Gdx.app.error("QualityManager", "Não foi possível gravar "
+                    + storage.path(), ex);
+        }
+    }
+
+    public static QualityTier getTier() {
+        return tier;
+    }
+
+    /**
+     * Retorna se o jogo deve ser desenhado fora da tela (e depois ampliado
+     * para ela), o que só acontece para reduzir a resolução. Um nível sem
+     * antisserrilhamento escolhido durante a execução continua desenhando
+     * direto na janela, com as amostras dela, até a próxima execução.
+     *
+     * @return true se deve desenhar fora da tela.
+     */
+    public static boolean shouldRenderOffscreen() {
+        return tier.renderScale < 1f;
+    }
+}
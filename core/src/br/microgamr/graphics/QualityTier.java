@@ -0,0 +1,72 @@
+package br.microgamr.graphics;
+
+/**
+ * Os níveis de qualidade gráfica, do mais alto para o mais baixo (veja
+ * {@link QualityManager}).
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public enum QualityTier {
+    /**
+     * Antisserrilhamento (MSAA 4x) e resolução total.
+     */
+    HIGH(4, 1f, true),
+    /**
+     * Sem antisserrilhamento.
+     */
+    MEDIUM(0, 1f, true),
+    /**
+     * Sem antisserrilhamento, com 75% da resolução e sem efeitos cosméticos.
+     */
+    LOW(0, 0.75f, false),
+    /**
+     * Sem antisserrilhamento, com metade da resolução e sem efeitos
+     * cosméticos.
+     */
+    LOWEST(0, 0.5f, false);
+
+    /**
+     * Quantas amostras por pixel (MSAA). Só pode ser aplicado ao criar a
+     * janela, então vale a partir da próxima execução; até lá, o jogo
+     * continua com as amostras da janela atual (desenhar fora da tela só
+     * para desligá-las custaria mais do que o antisserrilhamento).
+     */
+    public final int samples;
+
+    /**
+     * A fração da resolução da tela em que o jogo é desenhado.
+     */
+    public final float renderScale;
+
+    /**
+     * Se efeitos puramente cosméticos (e.g., a animação de uma vida sendo
+     * perdida) são mostrados.
+     */
+    public final boolean cosmeticEffects;
+
+    private QualityTier(int samples, float renderScale,
+            boolean cosmeticEffects) {
+        this.samples = samples;
+        this.renderScale = renderScale;
+        this.cosmeticEffects = cosmeticEffects;
+    }
+
+    /**
+     * Retorna o nível imediatamente abaixo deste.
+     *
+     * @return o nível abaixo, ou este, se já for o mais baixo.
+     */
+    public QualityTier lower() {
+        QualityTier[] tiers = values();
+        return tiers[Math.min(ordinal() + 1, tiers.length - 1)];
+    }
+
+    /**
+     * Retorna o nível imediatamente acima deste.
+     *
+     * @return o nível acima, ou este, se já for o mais alto.
+     */
+    public QualityTier higher() {
+        return values()[Math.max(ordinal() - 1, 0)];
+    }
+}
@@ -0,0 +1,155 @@
+package br.microgamr.graphics;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Matrix4;
+
+/**
+ * O passo de renderização de um quadro: tudo o que uma tela desenha (o
+ * microgame, os textos e a HUD) é enviado a uma única {@link SpriteBatch},
+ * entre um único par begin/end.
+ *
+ * O que é desenhado fica organizado em camadas ({@link Layer}), que devem ser
+ * visitadas em ordem. Trocar de camada não custa nada: a batch só é
+ * descarregada (<em>flush</em>) quando a textura ou o shader mudam, ou quando
+ * uma camada pede uma projeção diferente da atual.
+ *
+ * Além de desenhar direto na batch, pode-se enviar desenhos à
+ * {@link RenderQueue} do passo, que é ordenada e esvaziada ao fim de cada
+ * camada (depois do que foi desenhado direto na batch naquela camada).
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class RenderPass {
+
+    /**
+     * As camadas de um quadro, na ordem em que são desenhadas.
+     */
+    public enum Layer {
+        /**
+         * O mundo de jogo (e.g., o microgame).
+         */
+        WORLD,
+        /**
+         * Textos sobre o mundo (e.g., a mensagem de fim de jogo).
+         */
+        OVERLAY,
+        /**
+         * A HUD.
+         */
+        HUD,
+        /**
+         * Informações de depuração (e.g., o <em>overlay</em> de memória).
+         */
+        DEBUG
+    }
+
+    private final SpriteBatch batch;
+    private final RenderQueue queue;
+    private Layer currentLayer;
+    private int flushCount;
+
+    public RenderPass(SpriteBatch batch) {
+        this.batch = batch;
+        this.queue = new RenderQueue();
+    }
+
+    /**
+     * Inicia o passo na camada {@link Layer#WORLD}.
+     *
+     * @param projection a projeção do mundo de jogo.
+     */
+    public void begin(Matrix4 projection) {
+        batch.setProjectionMatrix(projection);
+        batch.begin();
+        queue.beginFrame();
+        currentLayer = Layer.WORLD;
+    }
+
+    /**
+     * Passa a desenhar na camada {@code layer}, mantendo a projeção atual.
+     *
+     * @param layer a camada, que não pode ser anterior à atual.
+     */
+    public void enter(Layer layer) {
+        if (currentLayer == null) {
+            throw new IllegalStateException("O passo de renderização não foi "
+                    + "iniciado.");
+        }
+        if (layer.ordinal() < currentLayer.ordinal()) {
+            throw new IllegalStateException("A camada " + layer + " deve ser "
+                    + "desenhada antes da camada " + currentLayer + ".");
+        }
+        queue.flush(batch);
+        currentLayer = layer;
+    }
+
+    /**
+     * Passa a desenhar na camada {@code layer}, com a projeção
+     * {@code projection}. A batch só é descarregada se a projeção for
+     * diferente da atual.
+     *
+     * @param layer a camada, que não pode ser anterior à atual.
+     * @param projection a projeção da camada.
+     */
+    public void enter(Layer layer, Matrix4 projection) {
+        enter(layer);
+        if (!sameValues(batch.getProjectionMatrix(), projection)) {
+            batch.setProjectionMatrix(projection);
+        }
+    }
+
+    private static boolean sameValues(Matrix4 a, Matrix4 b) {
+        for (int i = 0; i < 16; i++) {
+            if (a.val[i] != b.val[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Termina o passo, descarregando o que restou na batch.
+     */
+    public void end() {
+        queue.flush(batch);
+        batch.end();
+        flushCount = batch.renderCalls;
+        currentLayer = null;
+    }
+
+    /**
+     * Retorna se o passo está em andamento.
+     *
+     * @return true entre {@link #begin(Matrix4)} e {@link #end()}.
+     */
+    public boolean isActive() {
+        return currentLayer != null;
+    }
+
+    public Layer getCurrentLayer() {
+        return currentLayer;
+    }
+
+    /**
+     * Retorna quantas vezes a batch foi descarregada (i.e., quantas chamadas
+     * de desenho foram feitas à GPU) no último passo concluído.
+     *
+     * @return o número de <em>flushes</em> do último quadro.
+     */
+    public int getFlushCount() {
+        return flushCount;
+    }
+
+    /**
+     * Retorna a fila de desenhos ordenados da camada atual.
+     *
+     * @return a fila.
+     */
+    public RenderQueue getQueue() {
+        return queue;
+    }
+
+    public SpriteBatch getBatch() {
+        return batch;
+    }
+}
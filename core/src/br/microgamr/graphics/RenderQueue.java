@@ -0,0 +1,378 @@
+package br.microgamr.graphics;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+/**
+ * Uma fila de desenho ordenada. Em vez de desenhar direto na batch (na ordem
+ * em que os laços do microgame rodam), os desenhos são enviados à fila com
+ * uma camada e uma profundidade. Quando a fila é esvaziada (pelo
+ * {@link RenderPass}, ao trocar de camada do quadro ou ao terminá-lo), os
+ * desenhos são ordenados por (camada, textura, profundidade) e emitidos de
+ * forma que cada textura seja usada uma única vez por camada, o que mantém
+ * o número de chamadas de desenho baixo independentemente da ordem em que
+ * os desenhos foram enviados.
+ *
+ * Dentro de uma mesma camada, desenhos de texturas diferentes não têm ordem
+ * garantida entre si. Então, o que precisa ficar por cima de outra coisa
+ * (e.g., a escova sobre os monstros) deve ir para uma camada maior. Dentro
+ * de uma mesma camada e textura, o desenho de maior profundidade fica por
+ * cima e, em caso de empate, vale a ordem de envio.
+ *
+ * Desenhos que caem totalmente fora da área visível do mundo (mais uma
+ * margem, veja {@link #setCullingBounds(Rectangle, float)}) são descartados
+ * já no envio. Os microgames também podem consultar
+ * {@link #isVisible(float, float, float, float)} para, e.g., não atualizar a
+ * animação de quem está fora da tela.
+ *
+ * A chave de ordenação tem 64 bits: 8 da camada, 24 do identificador da
+ * textura (numeradas a cada quadro) e 32 da profundidade. A ordenação é um
+ * <em>radix sort</em> e os registros dos desenhos são reaproveitados de um
+ * quadro para o outro, então a fila não aloca memória depois que atinge o
+ * tamanho de trabalho.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class RenderQueue {
+
+    /**
+     * A maior camada possível.
+     */
+    public static final int MAX_LAYER = 255;
+
+    private static final int MAX_TEXTURE_ID = (1 << 24) - 1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Um desenho enviado à fila: uma sprite ou uma região de textura.
+     */
+    private static final class Command {
+
+        Sprite sprite;
+        TextureRegion region;
+        float x, y, width, height;
+        float color;
+    }
+
+    private Command[] commands = new Command[0];
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private long[] swapKeys = new long[INITIAL_CAPACITY];
+    private int[] order = new int[INITIAL_CAPACITY];
+    private int[] swapOrder = new int[INITIAL_CAPACITY];
+    private final int[] counts = new int[257];
+    private int size;
+
+    private final ObjectIntMap<Texture> textureIds = new ObjectIntMap<Texture>();
+
+    private int lastCommandCount;
+    private int lastTextureSwitches;
+
+    private final Rectangle cullingBounds = new Rectangle(
+            -Float.MAX_VALUE / 2, -Float.MAX_VALUE / 2,
+            Float.MAX_VALUE, Float.MAX_VALUE);
+    private int visibleCount;
+    private int culledCount;
+    private int lastFrameVisibleCount;
+    private int lastFrameCulledCount;
+
+    /**
+     * Define a área do mundo fora da qual os desenhos são descartados.
+     *
+     * @param visibleWorldBounds a área visível do mundo.
+     * @param margin quanto além da área visível ainda é desenhado.
+     */
+    public void setCullingBounds(Rectangle visibleWorldBounds, float margin) {
+        cullingBounds.set(
+                visibleWorldBounds.x - margin,
+                visibleWorldBounds.y - margin,
+                visibleWorldBounds.width + margin * 2,
+                visibleWorldBounds.height + margin * 2);
+    }
+
+    /**
+     * Retorna se um retângulo do mundo toca a área visível (mais a margem).
+     *
+     * @param x a posição x.
+     * @param y a posição y.
+     * @param width a largura.
+     * @param height a altura.
+     * @return true se deve ser desenhado.
+     */
+    public boolean isVisible(float x, float y, float width, float height) {
+        return x < cullingBounds.x + cullingBounds.width
+                && x + width > cullingBounds.x
+                && y < cullingBounds.y + cullingBounds.height
+                && y + height > cullingBounds.y;
+    }
+
+    private boolean countVisibility(boolean visible) {
+        if (visible) {
+            visibleCount++;
+        } else {
+            culledCount++;
+        }
+        return visible;
+    }
+
+    /**
+     * Começa a contar os desenhos visíveis e descartados de um novo quadro.
+     * Também esquece as texturas do quadro anterior, para que a fila não
+     * segure referências às de microgames que já acabaram.
+     */
+    public void beginFrame() {
+        lastFrameVisibleCount = visibleCount;
+        lastFrameCulledCount = culledCount;
+        visibleCount = 0;
+        culledCount = 0;
+        // os identificadores só precisam valer dentro de um esvaziamento
+        if (size == 0) {
+            textureIds.clear();
+        }
+    }
+
+    /**
+     * Envia uma sprite para ser desenhada.
+     *
+     * @param sprite a sprite (com posição, cor e escala já definidas).
+     * @param layer a camada, entre 0 e {@link #MAX_LAYER}.
+     * @param depth a profundidade dentro da camada (maior fica por cima).
+     */
+    public void submit(Sprite sprite, int layer, float depth) {
+        Rectangle bounds = sprite.getBoundingRectangle();
+        if (!countVisibility(isVisible(bounds.x, bounds.y,
+                bounds.width, bounds.height))) {
+            return;
+        }
+        Command command = nextCommand(layer, sprite.getTexture(), depth);
+        command.sprite = sprite;
+        command.region = null;
+    }
+
+    /**
+     * Envia uma região de textura para ser desenhada.
+     *
+     * @param region a região.
+     * @param x a posição x.
+     * @param y a posição y.
+     * @param width a largura.
+     * @param height a altura.
+     * @param layer a camada, entre 0 e {@link #MAX_LAYER}.
+     * @param depth a profundidade dentro da camada (maior fica por cima).
+     */
+    public void submit(TextureRegion region, float x, float y, float width,
+            float height, int layer, float depth) {
+        submit(region, x, y, width, height, Color.WHITE_FLOAT_BITS, layer,
+                depth);
+    }
+
+    /**
+     * Envia uma região de textura para ser desenhada com uma cor.
+     *
+     * @param region a região.
+     * @param x a posição x.
+     * @param y a posição y.
+     * @param width a largura.
+     * @param height a altura.
+     * @param packedColor a cor, empacotada (veja {@link Color#toFloatBits()}).
+     * @param layer a camada, entre 0 e {@link #MAX_LAYER}.
+     * @param depth a profundidade dentro da camada (maior fica por cima).
+     */
+    public void submit(TextureRegion region, float x, float y, float width,
+            float height, float packedColor, int layer, float depth) {
+        if (!countVisibility(isVisible(x, y, width, height))) {
+            return;
+        }
+        Command command = nextCommand(layer, region.getTexture(), depth);
+        command.sprite = null;
+        command.region = region;
+        command.x = x;
+        command.y = y;
+        command.width = width;
+        command.height = height;
+        command.color = packedColor;
+    }
+
+    private Command nextCommand(int layer, Texture texture, float depth) {
+        if (layer < 0 || layer > MAX_LAYER) {
+            throw new IllegalArgumentException("A camada deve estar entre 0 e "
+                    + MAX_LAYER + ", mas foi " + layer + ".");
+        }
+        if (size == commands.length) {
+            grow();
+        }
+        keys[size] = ((long) layer << 56)
+                | ((long) textureId(texture) << 32)
+                | (sortableBits(depth) & 0xFFFFFFFFL);
+        return commands[size++];
+    }
+
+    private void grow() {
+        int capacity = Math.max(INITIAL_CAPACITY, commands.length * 2);
+        Command[] newCommands = new Command[capacity];
+        System.arraycopy(commands, 0, newCommands, 0, commands.length);
+        for (int i = commands.length; i < capacity; i++) {
+            newCommands[i] = new Command();
+        }
+        commands = newCommands;
+        keys = copyOf(keys, capacity);
+        swapKeys = new long[capacity];
+        order = new int[capacity];
+        swapOrder = new int[capacity];
+    }
+
+    private static long[] copyOf(long[] array, int capacity) {
+        long[] copy = new long[capacity];
+        System.arraycopy(array, 0, copy, 0, Math.min(array.length, capacity));
+        return copy;
+    }
+
+    private int textureId(Texture texture) {
+        int id = textureIds.get(texture, -1);
+        if (id == -1) {
+            if (textureIds.size > MAX_TEXTURE_ID) {
+                throw new IllegalStateException("Mais de " + MAX_TEXTURE_ID
+                        + " texturas em um mesmo quadro.");
+            }
+            id = textureIds.size;
+            textureIds.put(texture, id);
+        }
+        return id;
+    }
+
+    /**
+     * Converte um float em bits que, comparados como inteiros sem sinal,
+     * mantêm a ordem dos floats.
+     */
+    private static int sortableBits(float value) {
+        int bits = Float.floatToIntBits(value);
+        return bits ^ ((bits >> 31) | 0x80000000);
+    }
+
+    /**
+     * Ordena os desenhos enviados e os emite na batch, esvaziando a fila.
+     *
+     * @param batch a batch, já iniciada.
+     */
+    public void flush(Batch batch) {
+        if (size == 0) {
+            return;
+        }
+        lastCommandCount = size;
+        lastTextureSwitches = 0;
+        sort();
+
+        float batchColor = batch.getPackedColor();
+        long previousTexture = -1;
+        for (int i = 0; i < size; i++) {
+            int index = order[i];
+            long texture = (keys[i] >>> 32) & MAX_TEXTURE_ID;
+            if (texture != previousTexture) {
+                lastTextureSwitches++;
+                previousTexture = texture;
+            }
+            Command command = commands[index];
+            if (command.sprite != null) {
+                command.sprite.draw(batch);
+            } else {
+                batch.setPackedColor(command.color);
+                batch.draw(command.region, command.x, command.y,
+                        command.width, command.height);
+            }
+            command.sprite = null;
+            command.region = null;
+        }
+        batch.setPackedColor(batchColor);
+        size = 0;
+    }
+
+    /**
+     * Ordena as chaves (e os índices dos desenhos) com um <em>radix sort</em>
+     * estável de 8 bits por passada. Passadas em que todas as chaves têm o
+     * mesmo byte (e.g., quando há uma só camada) são puladas.
+     */
+    private void sort() {
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        for (int shift = 0; shift < 64; shift += 8) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = 0;
+            }
+            for (int i = 0; i < size; i++) {
+                counts[(int) ((keys[i] >>> shift) & 0xFF) + 1]++;
+            }
+            if (counts[(int) ((keys[0] >>> shift) & 0xFF) + 1] == size) {
+                continue;
+            }
+            for (int i = 1; i < counts.length; i++) {
+                counts[i] += counts[i - 1];
+            }
+            for (int i = 0; i < size; i++) {
+                int destination = counts[(int) ((keys[i] >>> shift) & 0xFF)]++;
+                swapKeys[destination] = keys[i];
+                swapOrder[destination] = order[i];
+            }
+            long[] k = keys;
+            keys = swapKeys;
+            swapKeys = k;
+            int[] o = order;
+            order = swapOrder;
+            swapOrder = o;
+        }
+    }
+
+    /**
+     * Descarta os desenhos enviados sem emiti-los.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            commands[i].sprite = null;
+            commands[i].region = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * Retorna quantos desenhos foram emitidos no último esvaziamento (que não
+     * estava vazio).
+     *
+     * @return o número de desenhos.
+     */
+    public int getLastCommandCount() {
+        return lastCommandCount;
+    }
+
+    /**
+     * Retorna quantos desenhos enviados no último quadro estavam visíveis.
+     *
+     * @return o número de desenhos visíveis.
+     */
+    public int getLastFrameVisibleCount() {
+        return lastFrameVisibleCount;
+    }
+
+    /**
+     * Retorna quantos desenhos enviados no último quadro foram descartados
+     * por estarem fora da área visível.
+     *
+     * @return o número de desenhos descartados.
+     */
+    public int getLastFrameCulledCount() {
+        return lastFrameCulledCount;
+    }
+
+    /**
+     * Retorna quantas vezes a textura mudou no último esvaziamento, i.e.,
+     * quantas chamadas de desenho a fila causou no mínimo.
+     *
+     * @return o número de trocas de textura.
+     */
+    public int getLastTextureSwitches() {
+        return lastTextureSwitches;
+    }
+}
@@ -0,0 +1,86 @@
+package br.microgamr.graphics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.viewport.Viewport;
+
+/**
+ * Um alvo de desenho fora da tela, com uma fração da resolução da viewport.
+ * O quadro é desenhado nele e depois ampliado para a tela, o que reduz o
+ * custo de preenchimento em máquinas mais fracas (veja
+ * {@link QualityTier#renderScale}).
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class ScaledRenderTarget implements Disposable {
+
+    private FrameBuffer frameBuffer;
+    private final TextureRegion region = new TextureRegion();
+
+    /**
+     * Passa a desenhar no alvo, recriando-o se o tamanho mudou.
+     *
+     * @param viewport a viewport da tela.
+     * @param scale a fração da resolução da viewport.
+     */
+    public void begin(Viewport viewport, float scale) {
+        int width = Math.max(1,
+                Math.round(viewport.getScreenWidth() * scale));
+        int height = Math.max(1,
+                Math.round(viewport.getScreenHeight() * scale));
+        if (frameBuffer == null || frameBuffer.getWidth() != width
+                || frameBuffer.getHeight() != height) {
+            dispose();
+            frameBuffer = new FrameBuffer(Pixmap.Format.RGB888, width,
+                    height, false);
+            Texture texture = frameBuffer.getColorBufferTexture();
+            texture.setFilter(Texture.TextureFilter.Linear,
+                    Texture.TextureFilter.Linear);
+            region.setRegion(texture);
+            // o conteúdo do frame buffer fica de cabeça para baixo
+            region.flip(false, true);
+        }
+        frameBuffer.begin();
+    }
+
+    /**
+     * Volta a desenhar na tela e copia para ela o que foi desenhado no alvo.
+     *
+     * @param batch a batch da tela (que não pode estar iniciada).
+     * @param viewport a viewport da tela.
+     */
+    public void end(Batch batch, Viewport viewport) {
+        frameBuffer.end(viewport.getScreenX(), viewport.getScreenY(),
+                viewport.getScreenWidth(), viewport.getScreenHeight());
+        // a cópia só cobre a área da viewport: as barras em volta dela
+        // (letterbox) também precisam ser limpas
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        Camera camera = viewport.getCamera();
+        float worldWidth = viewport.getWorldWidth();
+        float worldHeight = viewport.getWorldHeight();
+        batch.setProjectionMatrix(camera.combined);
+        batch.begin();
+        batch.disableBlending();
+        batch.draw(region,
+                camera.position.x - worldWidth / 2,
+                camera.position.y - worldHeight / 2,
+                worldWidth, worldHeight);
+        batch.enableBlending();
+        batch.end();
+    }
+
+    @Override
+    public void dispose() {
+        if (frameBuffer != null) {
+            frameBuffer.dispose();
+            frameBuffer = null;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package br.microgamr.graphics;
+
+import br.microgamr.microgames.util.Swarm;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * Desenha um {@link Swarm} escrevendo os vértices de cada agente direto dos
+ * arrays do enxame, sem uma sprite por agente. Os vértices são enviados à
+ * batch em blocos, todos com a mesma textura, então um enxame inteiro custa
+ * tipicamente uma única chamada de desenho.
+ *
+ * Cada agente mostra o quadro da animação (em laço) correspondente ao seu
+ * tempo de vida, com a sua cor. A cor da batch é ignorada.
+ *
+ * Os vértices vão direto para a batch, então o enxame fica abaixo do que é
+ * enviado à {@link RenderQueue} na mesma camada do {@link RenderPass}.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class SwarmRenderer {
+
+    /**
+     * Quantos floats cada agente ocupa: 4 vértices de (x, y, cor, u, v).
+     */
+    public static final int SPRITE_SIZE = 20;
+    private static final int SPRITES_PER_CHUNK = 512;
+
+    private final Texture texture;
+    private final float frameDuration;
+    private final float[] u, v, u2, v2;
+    private final float[] vertices = new float[SPRITES_PER_CHUNK * SPRITE_SIZE];
+    private int writtenCount;
+
+    /**
+     * Cria um desenhista de enxames com uma animação.
+     *
+     * @param frameDuration a duração de cada quadro, em segundos.
+     * @param frames os quadros da animação, todos da mesma textura.
+     */
+    public SwarmRenderer(float frameDuration, TextureRegion... frames) {
+        if (frames.length == 0) {
+            throw new IllegalArgumentException("A animação precisa de pelo "
+                    + "menos um quadro.");
+        }
+        this.texture = frames[0].getTexture();
+        this.frameDuration = frameDuration;
+        u = new float[frames.length];
+        v = new float[frames.length];
+        u2 = new float[frames.length];
+        v2 = new float[frames.length];
+        for (int i = 0; i < frames.length; i++) {
+            if (frames[i].getTexture() != texture) {
+                throw new IllegalArgumentException("Todos os quadros devem "
+                        + "ser da mesma textura.");
+            }
+            // as mesmas coordenadas que a SpriteBatch usa para uma região
+            u[i] = frames[i].getU();
+            v[i] = frames[i].getV2();
+            u2[i] = frames[i].getU2();
+            v2[i] = frames[i].getV();
+        }
+    }
+
+    /**
+     * Desenha os agentes do enxame que estão dentro da área visível.
+     *
+     * @param batch a batch, já iniciada.
+     * @param swarm o enxame.
+     * @param culling a fila cuja área visível é usada para descartar os
+     * agentes fora da tela, ou null para desenhar todos.
+     */
+    public void draw(Batch batch, Swarm swarm, RenderQueue culling) {
+        int next = 0;
+        while (next < swarm.size()) {
+            next = writeVertices(swarm, next, culling);
+            if (writtenCount > 0) {
+                batch.draw(texture, vertices, 0, writtenCount * SPRITE_SIZE);
+            }
+        }
+    }
+
+    /**
+     * Escreve os vértices de um bloco de agentes, a partir de {@code from},
+     * no array de vértices (veja {@link #getVertices()}).
+     *
+     * @param swarm o enxame.
+     * @param from o índice do primeiro agente do bloco.
+     * @param culling a fila cuja área visível é usada para descartar os
+     * agentes fora da tela, ou null para escrever todos.
+     * @return o índice do primeiro agente do próximo bloco.
+     */
+    public int writeVertices(Swarm swarm, int from, RenderQueue culling) {
+        float width = swarm.getAgentWidth();
+        float height = swarm.getAgentHeight();
+        float[] xs = swarm.x, ys = swarm.y, times = swarm.time;
+        float[] colors = swarm.color;
+        float[] vertices = this.vertices;
+        int frames = u.length;
+        int size = swarm.size();
+        int written = 0;
+        int i = from;
+        for (; i < size && written < SPRITES_PER_CHUNK; i++) {
+            float x = xs[i];
+            float y = ys[i];
+            if (culling != null && !culling.isVisible(x, y, width, height)) {
+                continue;
+            }
+            int frame = (int) (times[i] / frameDuration) % frames;
+            float x2 = x + width;
+            float y2 = y + height;
+            float color = colors[i];
+            int k = written * SPRITE_SIZE;
+            vertices[k] = x;
+            vertices[k + 1] = y;
+            vertices[k + 2] = color;
+            vertices[k + 3] = u[frame];
+            vertices[k + 4] = v[frame];
+            vertices[k + 5] = x;
+            vertices[k + 6] = y2;
+            vertices[k + 7] = color;
+            vertices[k + 8] = u[frame];
+            vertices[k + 9] = v2[frame];
+            vertices[k + 10] = x2;
+            vertices[k + 11] = y2;
+            vertices[k + 12] = color;
+            vertices[k + 13] = u2[frame];
+            vertices[k + 14] = v2[frame];
+            vertices[k + 15] = x2;
+            vertices[k + 16] = y;
+            vertices[k + 17] = color;
+            vertices[k + 18] = u2[frame];
+            vertices[k + 19] = v[frame];
+            written++;
+        }
+        writtenCount = written;
+        return i;
+    }
+
+    /**
+     * Retorna os vértices escritos pela última chamada a
+     * {@link #writeVertices(Swarm, int, RenderQueue)}.
+     *
+     * @return o array de vértices.
+     */
+    public float[] getVertices() {
+        return vertices;
+    }
+
+    /**
+     * Retorna quantos agentes foram escritos pela última chamada a
+     * {@link #writeVertices(Swarm, int, RenderQueue)}.
+     *
+     * @return o número de agentes.
+     */
+    public int getWrittenCount() {
+        return writtenCount;
+    }
+}
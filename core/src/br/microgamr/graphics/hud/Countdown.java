@@ -4,9 +4,11 @@ import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Interpolation;
 import com.badlogic.gdx.scenes.scene2d.Action;
-import com.badlogic.gdx.scenes.scene2d.actions.Actions;
 import com.badlogic.gdx.scenes.scene2d.actions.DelayAction;
+import com.badlogic.gdx.scenes.scene2d.actions.RepeatAction;
 import com.badlogic.gdx.scenes.scene2d.actions.ScaleToAction;
+import com.badlogic.gdx.scenes.scene2d.actions.SequenceAction;
+import com.badlogic.gdx.scenes.scene2d.actions.VisibleAction;
 import com.badlogic.gdx.scenes.scene2d.ui.Image;
 import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
@@ -19,6 +21,8 @@ import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 public class Countdown extends Image {
 
     private final TextureRegionDrawable[] steps;
+    private final SequenceAction animation;
+    private final NextFrameAction nextFrame;
     private static final int COUNTDOWN_STEP_HEIGHT = 200;
     private static final int COUNTDOWN_STEP_NUMBER_WIDTH = 180;
     private static final int COUNTDOWN_STEP_FINAL_WIDTH = 540;
@@ -51,11 +55,25 @@ public class Countdown extends Image {
 
         setWidth(COUNTDOWN_STEP_FINAL_WIDTH);
         setHeight(COUNTDOWN_STEP_HEIGHT);
+        nextFrame = new NextFrameAction(steps);
+        animation = createAnimation(steps, nextFrame);
     }
 
+    /**
+     * Inicia a animação da contagem regressiva. A animação é montada uma só
+     * vez, no construtor, e apenas reiniciada aqui: a transição entre
+     * microgames não aloca ações novas.
+     */
     public void start() {
-        Integer frameCounter = 0;
+        removeAction(animation);
+        scaleBy(1f / COUNTDOWN_NUMBER_STEPS, 1f);
+        animation.restart();
+        nextFrame.rewind();
+        addAction(animation);
+    }
 
+    private static SequenceAction createAnimation(Drawable[] steps,
+            NextFrameAction nextFrame) {
         ScaleToAction reduce = new ScaleToAction();
         reduce.setScale(0.5f / COUNTDOWN_NUMBER_STEPS, 0.5f);
         reduce.setDuration(0.5f);
@@ -65,35 +83,56 @@ public class Countdown extends Image {
         reset.setScale(1f / COUNTDOWN_NUMBER_STEPS, 1f);
         reset.setDuration(0);
 
-        DelayAction delay = new DelayAction(0.5f);
-
-        NextFrameAction next = new NextFrameAction(frameCounter, steps);
-        SetDrawableAction first = new SetDrawableAction(steps[0]);
-
-        scaleBy(1f / COUNTDOWN_NUMBER_STEPS, 1f);
+        SequenceAction step = new SequenceAction();
+        step.addAction(reset);
+        step.addAction(reduce);
+        step.addAction(new DelayAction(0.5f));
+        step.addAction(nextFrame);
+
+        RepeatAction repeat = new RepeatAction();
+        repeat.setCount(COUNTDOWN_NUMBER_STEPS);
+        repeat.setAction(step);
+
+        ScaleToAction grow = new ScaleToAction();
+        grow.setScale(1, 1);
+
+        ScaleToAction shrink = new ScaleToAction();
+        shrink.setScale(1f / COUNTDOWN_NUMBER_STEPS, 1);
+
+        // as ações são criadas com "new" (e não com Actions.*, que as tira
+        // de pools) para que não sejam devolvidas a um pool e resetadas
+        // quando a animação termina
+        SequenceAction animation = new SequenceAction();
+        animation.addAction(new SetDrawableAction(steps[0]));
+        animation.addAction(visible(true));
+        animation.addAction(repeat);
+        animation.addAction(grow);
+        animation.addAction(new DelayAction(0.5f));
+        animation.addAction(visible(false));
+        animation.addAction(shrink);
+        return animation;
+    }
 
-        addAction(Actions.sequence(
-                first,
-                Actions.show(),
-                Actions.repeat(
-                        COUNTDOWN_NUMBER_STEPS,
-                        Actions.sequence(reset, reduce, delay, next)),
-                Actions.scaleTo(1, 1),
-                Actions.delay(0.5f),
-                Actions.hide(),
-                Actions.scaleTo(1f / COUNTDOWN_NUMBER_STEPS, 1)
-        ));
+    private static VisibleAction visible(boolean visible) {
+        VisibleAction action = new VisibleAction();
+        action.setVisible(visible);
+        return action;
     }
 
-    class NextFrameAction extends SetDrawableAction {
+    /**
+     * Mostra o próximo quadro da contagem a cada vez que é executada. Não
+     * volta ao primeiro quadro no restart, já que o RepeatAction reinicia
+     * esta ação a cada repetição: quem reinicia a animação inteira deve
+     * chamar {@link #rewind()}.
+     */
+    static class NextFrameAction extends SetDrawableAction {
 
         private final Drawable[] drawables;
-        private Integer frame;
+        private int frame;
 
-        public NextFrameAction(Integer frame, Drawable[] drawables) {
+        public NextFrameAction(Drawable[] drawables) {
             super(drawables[0]);
             this.drawables = drawables;
-            this.frame = frame;
         }
 
         @Override
@@ -103,9 +142,15 @@ public class Countdown extends Image {
             return super.act(delta);
         }
 
+        /**
+         * Volta ao primeiro quadro da contagem.
+         */
+        public void rewind() {
+            frame = 0;
+        }
     }
 
-    class SetDrawableAction extends Action {
+    static class SetDrawableAction extends Action {
 
         private Drawable drawable;
 
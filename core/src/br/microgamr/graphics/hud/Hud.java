@@ -1,15 +1,24 @@
 package br.microgamr.graphics.hud;
 
 import br.microgamr.Config;
+import br.microgamr.assets.AssetBundle;
+import br.microgamr.assets.TextureFormat;
+import br.microgamr.diagnostics.LeakTracker;
+import br.microgamr.graphics.RenderPass;
+import br.microgamr.graphics.RenderPass.Layer;
 import br.microgamr.microgames.util.MicroGameStateObserver;
 import br.microgamr.screens.BaseScreen;
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.InputProcessor;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
 import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Group;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.Touchable;
 import com.badlogic.gdx.scenes.scene2d.ui.Button;
@@ -23,14 +32,45 @@ import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener.ChangeEvent;
 import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.StringBuilder;
 
 /**
  * Controla a HUD do jogo.
+ *
+ * Os assets da HUD formam um pacote ({@link #ASSETS}) que fica residente no
+ * {@link br.microgamr.assets.AssetCache} desde a splash até o fim do jogo,
+ * então uma nova partida apenas reconstrói os atores a partir deles, sem
+ * reler o <em>skin</em> nem as texturas.
  * 
  * @author Flávio Coutinho <fegemo@cefetmg.br>
  */
 public class Hud {
 
+    /**
+     * Os assets usados pela HUD. As texturas maiores ficam residentes com 16
+     * bits por pixel.
+     */
+    public static final AssetBundle ASSETS = new AssetBundle("hud")
+            .add("hud/countdown.png", Texture.class,
+                    linear(TextureFormat.RGBA4444))
+            .add("hud/gray-mask.png", Texture.class,
+                    linear(TextureFormat.RGBA8888))
+            .add("hud/unpause-button.png", Texture.class,
+                    linear(TextureFormat.RGBA8888))
+            .add("hud/pause-button.png", Texture.class,
+                    linear(TextureFormat.RGBA8888))
+            .add("hud/lives.png", Texture.class,
+                    linear(TextureFormat.RGBA4444))
+            .add("hud/clock.png", Texture.class,
+                    linear(TextureFormat.RGBA4444))
+            .add("hud/uiskin.json", Skin.class)
+            .add("hud/tick-tock.mp3", Sound.class);
+
+    private static TextureLoader.TextureParameter linear(
+            TextureFormat format) {
+        return format.parameter(TextureFilter.Linear);
+    }
+
     private final BaseScreen screen;
     private final MicroGameStateObserver stateObserver;
     private final Stage stage;
@@ -39,6 +79,7 @@ public class Hud {
     private Label centeredLabel;
     private Label sequenceIndexLabel;
     private HorizontalGroup livesGroup;
+    private final StringBuilder gameIndexText = new StringBuilder(4);
 
     private Countdown countdown;
     private Texture lifeTexture;
@@ -54,15 +95,21 @@ public class Hud {
     public Hud(BaseScreen screen, MicroGameStateObserver stateObserver) {
         this.screen = screen;
         this.stateObserver = stateObserver;
-        stage = new Stage(screen.viewport, screen.batch);
+        stage = LeakTracker.track(screen,
+                new Stage(screen.viewport, screen.batch));
     }
 
     public void create() {
-        skin = new Skin(Gdx.files.internal("hud/uiskin.json"));
-        skin.add("unpause", screen.assets.get("hud/unpause-button.png",
-                Texture.class));
-        skin.add("pause", screen.assets.get("hud/pause-button.png",
-                Texture.class));
+        skin = screen.assets.get("hud/uiskin.json", Skin.class);
+        // o skin é compartilhado entre as partidas e descartado pelo
+        // AssetCache, então recebe regiões (e não as texturas, que ele
+        // descartaria junto) apenas na primeira vez
+        if (!skin.has("unpause", TextureRegion.class)) {
+            skin.add("unpause", new TextureRegion(screen.assets.get(
+                    "hud/unpause-button.png", Texture.class)));
+            skin.add("pause", new TextureRegion(screen.assets.get(
+                    "hud/pause-button.png", Texture.class)));
+        }
         lifeTexture = screen.assets.get("hud/lives.png");
         clockTexture = screen.assets.get("hud/clock.png");
 
@@ -116,7 +163,7 @@ public class Hud {
         table.setFillParent(true);
 
         sequenceIndexLabel = new Label(
-                String.format("%d", 1), new LabelStyle(
+                "1", new LabelStyle(
                 screen.assets.get("fonts/snaphand-v1-free.ttf", BitmapFont.class),
                  Color.WHITE));
 
@@ -142,14 +189,35 @@ public class Hud {
 
     }
 
+    /**
+     * Libera o stage da HUD (o skin e as texturas são do AssetCache, e a
+     * batch, da tela).
+     */
+    public void dispose() {
+        LeakTracker.release(stage);
+    }
+
     public void update(float dt) {
         if (!isPaused) {
             stage.act(dt);
         }
     }
 
-    public void draw() {
-        stage.draw();
+    /**
+     * Desenha a HUD na camada {@link Layer#HUD} do passo de renderização da
+     * tela, sem iniciar outro par begin/end na batch (como faria
+     * {@link Stage#draw()}).
+     *
+     * @param pass o passo de renderização em andamento.
+     */
+    public void draw(RenderPass pass) {
+        Camera camera = stage.getCamera();
+        camera.update();
+        pass.enter(Layer.HUD, camera.combined);
+        Group root = stage.getRoot();
+        if (root.isVisible()) {
+            root.draw(pass.getBatch(), 1);
+        }
     }
 
     public InputProcessor getInputProcessor() {
@@ -157,7 +225,11 @@ public class Hud {
     }
 
     public void setGameIndex(int index) {
-        sequenceIndexLabel.setText(String.format("%d", index));
+        // reusa o mesmo StringBuilder para não alocar uma string por
+        // microgame
+        gameIndexText.setLength(0);
+        gameIndexText.append(index);
+        sequenceIndexLabel.setText(gameIndexText);
     }
 
     public void setLives(int lives) {
@@ -205,6 +277,10 @@ public class Hud {
         countdown.start();
     }
 
+    public boolean isPaused() {
+        return isPaused;
+    }
+
     public void showPauseButton() {
         pauseButton.setVisible(true);
     }
@@ -1,6 +1,7 @@
 package br.microgamr.graphics.hud;
 
 import br.microgamr.graphics.MultiAnimatedSprite;
+import br.microgamr.graphics.QualityManager;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.Batch;
@@ -25,8 +26,9 @@ class LifeHeart extends Actor {
     LifeHeart(Texture lifeTexture) {
         TextureRegion[][] frames = TextureRegion
                 .split(lifeTexture, FRAME_WIDTH, FRAME_HEIGHT);
-        Animation alive = new Animation(1f, frames[3][4]);
-        Animation dying = new Animation(0.025f,
+        Animation<TextureRegion> alive
+                = new Animation<TextureRegion>(1f, frames[3][4]);
+        Animation<TextureRegion> dying = new Animation<TextureRegion>(0.025f,
                 frames[3][4], frames[3][3], frames[3][2], frames[3][1],
                 frames[3][0], frames[2][7], frames[2][6], frames[2][5],
                 frames[2][4], frames[2][3], frames[2][2], frames[2][1],
@@ -36,10 +38,13 @@ class LifeHeart extends Actor {
                 frames[0][4], frames[0][3], frames[0][2], frames[0][1],
                 frames[0][0]
         );
-        HashMap<String, Animation> animations
-                = new HashMap<String, Animation>();
+        HashMap<String, Animation<TextureRegion>> animations
+                = new HashMap<String, Animation<TextureRegion>>();
+        Animation<TextureRegion> dead
+                = new Animation<TextureRegion>(1f, frames[0][0]);
         animations.put("alive", alive);
         animations.put("dying", dying);
+        animations.put("dead", dead);
 
         sprite = new MultiAnimatedSprite(animations, "alive");
         sprite.setCenterFrames(true);
@@ -67,7 +72,9 @@ class LifeHeart extends Actor {
     }
 
     public void die() {
-        sprite.startAnimation("dying");
+        // em máquinas mais fracas, a vida some sem a animação
+        sprite.startAnimation(QualityManager.getTier().cosmeticEffects
+                ? "dying" : "dead");
     }
 
     public void alive() {
@@ -0,0 +1,104 @@
+package br.microgamr.logic;
+
+import java.util.Random;
+
+/**
+ * Tabela para sorteio ponderado em tempo constante (método "alias" de
+ * Walker, na construção de Vose).
+ *
+ * Construir a tabela custa O(n), mas cada sorteio custa O(1) e usa apenas
+ * dois números aleatórios, não importa quantos itens existam.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class AliasTable {
+
+    private final float[] probability;
+    private final int[] alias;
+
+    /**
+     * Cria a tabela a partir dos pesos dos itens.
+     *
+     * @param weights os pesos (positivos) de cada item. O item i é sorteado
+     * com probabilidade weights[i] / soma(weights).
+     */
+    public AliasTable(float[] weights) {
+        int n = weights.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("Tentou-se criar uma "
+                    + "AliasTable sem itens. Deve haver ao menos 1.");
+        }
+        probability = new float[n];
+        alias = new int[n];
+
+        double sum = 0;
+        for (float weight : weights) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Os pesos de uma "
+                        + "AliasTable devem ser positivos.");
+            }
+            sum += weight;
+        }
+
+        // escala os pesos para que a média seja 1 e separa os itens em
+        // "pequenos" (< 1) e "grandes" (>= 1)
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / sum;
+            if (scaled[i] < 1) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        // cada coluna é preenchida por um item pequeno e completada por um
+        // grande, que perde o que doou e pode virar pequeno
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probability[less] = (float) scaled[less];
+            alias[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1;
+            if (scaled[more] < 1) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+
+        // o que sobrar (inclusive por erro de arredondamento) ocupa a coluna
+        // inteira
+        while (largeCount > 0) {
+            probability[large[--largeCount]] = 1;
+        }
+        while (smallCount > 0) {
+            probability[small[--smallCount]] = 1;
+        }
+    }
+
+    /**
+     * Sorteia um item.
+     *
+     * @param random o gerador de números aleatórios.
+     * @return o índice do item sorteado.
+     */
+    public int sample(Random random) {
+        int column = random.nextInt(probability.length);
+        return random.nextFloat() < probability[column]
+                ? column : alias[column];
+    }
+
+    /**
+     * Retorna o número de itens da tabela.
+     *
+     * @return o número de itens.
+     */
+    public int size() {
+        return probability.length;
+    }
+}
@@ -1,11 +1,13 @@
 package br.microgamr.logic;
 
+import br.microgamr.Config;
+import br.microgamr.assets.AssetFootprint;
+import br.microgamr.assets.PreloadAssets;
 import br.microgamr.microgames.MicroGame;
 import br.microgamr.microgames.factories.MicroGameFactory;
 import br.microgamr.microgames.util.MicroGameStateObserver;
 import br.microgamr.screens.BaseScreen;
-import com.badlogic.gdx.assets.AssetManager;
-import java.util.HashMap;
+import com.badlogic.gdx.Gdx;
 import java.util.Map;
 import java.util.Set;
 
@@ -19,6 +21,7 @@ import java.util.Set;
 public abstract class BaseGameSequencer {
 
     protected final Set<MicroGameFactory> availableGames;
+    private MicroGameFactory currentFactory;
 
     /**
      * Cria um algoritmo sequenciador que pega um conjunto de microgames
@@ -34,19 +37,87 @@ public abstract class BaseGameSequencer {
     /**
      * Pré-carrega os <em>assets</em> dos microgames que foram selecionados.
      *
-     * @param assets o <code>AssetManager</code> da tela responsável pelos
-     * microgames.
+     * @param screen a tela responsável pelos microgames.
      */
-    public void preloadAssets(AssetManager assets) {
-        HashMap<String, Class> allAssets = new HashMap<String, Class>();
+    public void preloadAssets(BaseScreen screen) {
+        PreloadAssets allAssets = new PreloadAssets();
 
-        for (MicroGameFactory factory : availableGames) {
+        for (MicroGameFactory factory : getSelectedFactories()) {
             allAssets.putAll(factory.getAssetsToPreload());
         }
 
-        for (Map.Entry<String, Class> asset : allAssets.entrySet()) {
-            assets.load(asset.getKey(), asset.getValue());
+        checkMemoryBudget(allAssets);
+        loadAll(screen, allAssets);
+    }
+
+    /**
+     * Retorna as fábricas dos microgames que podem aparecer na sequência, ou
+     * seja, aquelas cujos <em>assets</em> devem ser pré-carregados.
+     *
+     * @return as fábricas selecionadas para a sequência.
+     */
+    public Set<MicroGameFactory> getSelectedFactories() {
+        return availableGames;
+    }
+
+    /**
+     * Verifica se os <em>assets</em> da sequência cabem em
+     * {@link Config#SEQUENCE_MEMORY_BUDGET}. Caso não caibam, recusa a
+     * sequência ou apenas avisa, dependendo de
+     * {@link Config#REFUSE_SEQUENCES_OVER_MEMORY_BUDGET}.
+     *
+     * @param allAssets os <em>assets</em> da sequência (caminho -> tipo).
+     */
+    protected void checkMemoryBudget(Map<String, Class<?>> allAssets) {
+        long footprint = AssetFootprint.estimate(allAssets);
+        if (footprint <= Config.SEQUENCE_MEMORY_BUDGET) {
+            return;
         }
+
+        String message = "Os assets da sequência de microgames ocupam "
+                + footprint / 1024 + " KB, mais do que o limite de "
+                + Config.SEQUENCE_MEMORY_BUDGET / 1024 + " KB.";
+        if (Config.REFUSE_SEQUENCES_OVER_MEMORY_BUDGET) {
+            throw new IllegalStateException(message);
+        }
+        Gdx.app.error(getClass().getSimpleName(), message);
+    }
+
+    /**
+     * Solicita à tela o carregamento de todos os <em>assets</em>. As texturas
+     * são carregadas no formato declarado para elas (veja
+     * {@link br.microgamr.assets.PreloadAssets}).
+     *
+     * @param screen a tela responsável pelos microgames.
+     * @param allAssets os <em>assets</em> (caminho -> tipo).
+     */
+    protected void loadAll(BaseScreen screen, Map<String, Class<?>> allAssets) {
+        screen.loadAssets(allAssets);
+    }
+
+    /**
+     * Cria o microgame de {@code factory}, que passa a ser o jogo atual da
+     * sequência.
+     *
+     * @param factory a fábrica do microgame.
+     * @param screen a tela responsável pelos microgames.
+     * @param observer quem observa o estado do microgame.
+     * @param difficulty a dificuldade do microgame.
+     * @return o microgame.
+     */
+    protected MicroGame create(MicroGameFactory factory, BaseScreen screen,
+            MicroGameStateObserver observer, float difficulty) {
+        currentFactory = factory;
+        return factory.createMicroGame(screen, observer, difficulty);
+    }
+
+    /**
+     * Retorna a fábrica do último jogo criado por {@link #nextGame}.
+     *
+     * @return a fábrica, ou null se nenhum jogo foi criado ainda.
+     */
+    public MicroGameFactory getCurrentFactory() {
+        return currentFactory;
     }
 
     /**
@@ -0,0 +1,274 @@
+package br.microgamr.logic;
+
+import br.microgamr.assets.PreloadAssets;
+import br.microgamr.microgames.MicroGame;
+import br.microgamr.microgames.factories.MicroGameFactory;
+import br.microgamr.microgames.util.Curve;
+import br.microgamr.microgames.util.MicroGameStateObserver;
+import br.microgamr.screens.BaseScreen;
+import com.badlogic.gdx.math.MathUtils;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Monta uma sequência sem fim de microgames, sorteados de um
+ * {@link MicroGameRegistry} à medida que são necessários.
+ *
+ * Apenas os próximos {@code lookahead} microgames são sorteados de antemão e
+ * têm seus assets carregados. Quando um microgame é substituído pelo
+ * próximo, os assets dele são descarregados (o <code>AssetManager</code>
+ * conta as referências, então os que ainda forem usados continuam
+ * carregados). Assim, a memória e o custo de cada jogo são os mesmos no
+ * jogo 5 ou no jogo 5.000.
+ *
+ * A dificuldade cresce de {@code initialDifficulty} até
+ * {@code finalDifficulty} ao longo dos primeiros
+ * {@code gamesToMaxDifficulty} jogos, de acordo com uma
+ * {@link Curve}, e depois se mantém.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class EndlessGameSequencer extends BaseGameSequencer {
+
+    /**
+     * Quantas vezes se tenta sortear pela tabela um microgame fora da janela
+     * de não repetição antes de escolher apenas entre os que estão fora dela.
+     */
+    private static final int MAX_SAMPLING_ATTEMPTS = 8;
+
+    private final MicroGameRegistry registry;
+    private final int noRepeatWindow;
+    private final int lookahead;
+    private final int gamesToMaxDifficulty;
+    private final Curve curve;
+    private final float initialDifficulty;
+    private final float finalDifficulty;
+    private final Random random;
+
+    // histórico circular: a posição p da sequência fica em ring[p % length].
+    // Guarda os microgames já sorteados mas ainda não jogados, o atual e os
+    // da janela de não repetição
+    private final int[] ring;
+    private int drawnCount;
+    private int gameNumber;
+
+    /**
+     * Cria um novo sequenciador sem fim.
+     *
+     * @param registry o catálogo de microgames disponíveis.
+     * @param noRepeatWindow em quantos jogos consecutivos um microgame não
+     * pode se repetir (limitado ao número de microgames do catálogo menos 1).
+     * @param lookahead quantos microgames são sorteados (e têm seus assets
+     * carregados) antes de serem jogados. Deve ser ao menos 1.
+     * @param gamesToMaxDifficulty em quantos jogos a dificuldade chega a
+     * {@code finalDifficulty}.
+     * @param curve a curva que a dificuldade segue até lá.
+     * @param initialDifficulty dificuldade usada para o primeiro MicroGame.
+     * Deve estar entre 0 e 1.
+     * @param finalDifficulty dificuldade máxima. Deve estar entre 0 e 1.
+     */
+    public EndlessGameSequencer(MicroGameRegistry registry, int noRepeatWindow,
+            int lookahead, int gamesToMaxDifficulty, Curve curve,
+            float initialDifficulty, float finalDifficulty) {
+        this(registry, noRepeatWindow, lookahead, gamesToMaxDifficulty, curve,
+                initialDifficulty, finalDifficulty, MathUtils.random);
+    }
+
+    /**
+     * Cria um novo sequenciador sem fim que usa o gerador de números
+     * aleatórios {@code random}.
+     *
+     * @param registry o catálogo de microgames disponíveis.
+     * @param noRepeatWindow em quantos jogos consecutivos um microgame não
+     * pode se repetir.
+     * @param lookahead quantos microgames são sorteados antes de serem
+     * jogados.
+     * @param gamesToMaxDifficulty em quantos jogos a dificuldade chega a
+     * {@code finalDifficulty}.
+     * @param curve a curva que a dificuldade segue até lá.
+     * @param initialDifficulty dificuldade usada para o primeiro MicroGame.
+     * @param finalDifficulty dificuldade máxima.
+     * @param random o gerador de números aleatórios.
+     */
+    public EndlessGameSequencer(MicroGameRegistry registry, int noRepeatWindow,
+            int lookahead, int gamesToMaxDifficulty, Curve curve,
+            float initialDifficulty, float finalDifficulty, Random random) {
+        super(registry.asSet());
+        if (registry.size() == 0) {
+            throw new IllegalArgumentException("Tentou-se criar um "
+                    + "EndlessGameSequencer sem microgames disponíveis.");
+        }
+        if (lookahead < 1) {
+            throw new IllegalArgumentException("O EndlessGameSequencer deve "
+                    + "sortear ao menos 1 microgame de antemão.");
+        }
+        this.registry = registry;
+        this.noRepeatWindow = Math.max(0,
+                Math.min(noRepeatWindow, registry.size() - 1));
+        this.lookahead = lookahead;
+        this.gamesToMaxDifficulty = Math.max(1, gamesToMaxDifficulty);
+        this.curve = curve;
+        this.initialDifficulty = initialDifficulty;
+        this.finalDifficulty = finalDifficulty;
+        this.random = random;
+        ring = new int[Math.max(1, this.noRepeatWindow) + lookahead];
+
+        for (int i = 0; i < lookahead; i++) {
+            drawNext();
+        }
+    }
+
+    private void drawNext() {
+        AliasTable table = registry.getAliasTable();
+        int index = -1;
+        for (int attempt = 0; attempt < MAX_SAMPLING_ATTEMPTS; attempt++) {
+            int candidate = table.sample(random);
+            if (!isInWindow(candidate)) {
+                index = candidate;
+                break;
+            }
+        }
+        if (index == -1) {
+            index = drawOutsideWindow();
+        }
+        ring[drawnCount % ring.length] = index;
+        drawnCount++;
+    }
+
+    private boolean isInWindow(int index) {
+        for (int p = Math.max(0, drawnCount - noRepeatWindow); p < drawnCount; p++) {
+            if (ring[p % ring.length] == index) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int drawOutsideWindow() {
+        double total = 0;
+        for (int i = 0; i < registry.size(); i++) {
+            if (!isInWindow(i)) {
+                total += registry.getWeight(i);
+            }
+        }
+        double target = random.nextDouble() * total;
+        int last = -1;
+        for (int i = 0; i < registry.size(); i++) {
+            if (!isInWindow(i)) {
+                last = i;
+                target -= registry.getWeight(i);
+                if (target < 0) {
+                    return i;
+                }
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Pré-carrega os <em>assets</em> dos microgames já sorteados. Cada
+     * microgame sorteado carrega os seus assets uma vez, mesmo que outro igual
+     * também tenha sido sorteado, para que eles possam ser descarregados
+     * individualmente.
+     *
+     * @param screen a tela responsável pelos microgames.
+     */
+    @Override
+    public void preloadAssets(BaseScreen screen) {
+        PreloadAssets allAssets = new PreloadAssets();
+        for (MicroGameFactory factory : getSelectedFactories()) {
+            allAssets.putAll(factory.getAssetsToPreload());
+        }
+        checkMemoryBudget(allAssets);
+
+        for (int p = gameNumber; p < drawnCount; p++) {
+            loadAll(screen, registry.get(ring[p % ring.length])
+                    .getAssetsToPreload());
+        }
+    }
+
+    /**
+     * Retorna as fábricas dos microgames sorteados mas ainda não jogados.
+     *
+     * @return as fábricas sorteadas.
+     */
+    @Override
+    public Set<MicroGameFactory> getSelectedFactories() {
+        LinkedHashSet<MicroGameFactory> selected
+                = new LinkedHashSet<MicroGameFactory>();
+        for (int p = gameNumber; p < drawnCount; p++) {
+            selected.add(registry.get(ring[p % ring.length]));
+        }
+        return selected;
+    }
+
+    /**
+     * Sempre há um próximo jogo: a sequência só termina quando o jogador
+     * perde todas as vidas.
+     *
+     * @return true.
+     */
+    @Override
+    public boolean hasNextGame() {
+        return true;
+    }
+
+    /**
+     * Retorna uma instância do próximo jogo. Antes, descarrega os assets do
+     * jogo anterior, sorteia mais um microgame e pede o carregamento dos
+     * assets dele.
+     *
+     * @return uma instância do próximo jogo.
+     */
+    @Override
+    public MicroGame nextGame(BaseScreen screen, MicroGameStateObserver observer) {
+        if (gameNumber > 0) {
+            unloadAll(screen, registry.get(ring[(gameNumber - 1) % ring.length])
+                    .getAssetsToPreload());
+        }
+        drawNext();
+        loadAll(screen, registry.get(ring[(drawnCount - 1) % ring.length])
+                .getAssetsToPreload());
+
+        MicroGameFactory factory = registry.get(ring[gameNumber % ring.length]);
+        Map<String, Class<?>> assets = factory.getAssetsToPreload();
+        // se o jogador foi rápido demais, termina de carregar o que falta
+        for (String path : assets.keySet()) {
+            if (!screen.assets.isLoaded(path)) {
+                screen.assets.finishLoadingAsset(path);
+            }
+        }
+
+        float difficulty = curve.getCurveValueBetween(
+                Math.min(1, (float) gameNumber / gamesToMaxDifficulty),
+                initialDifficulty, finalDifficulty);
+        gameNumber++;
+
+        return create(factory, screen, observer, difficulty);
+    }
+
+    /**
+     * Solicita à tela o descarregamento dos <em>assets</em> de um microgame
+     * que já foi jogado.
+     *
+     * @param screen a tela responsável pelos microgames.
+     * @param assets os <em>assets</em> (caminho -> tipo).
+     */
+    protected void unloadAll(BaseScreen screen, Map<String, Class<?>> assets) {
+        for (String path : assets.keySet()) {
+            screen.unloadAsset(path);
+        }
+    }
+
+    /**
+     * Retorna o índice deste jogo na série de jogos criados para o jogador.
+     *
+     * @return o índice deste jogo na série de jogos criados para o jogador.
+     */
+    @Override
+    public int getGameNumber() {
+        return gameNumber;
+    }
+}
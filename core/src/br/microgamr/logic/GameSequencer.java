@@ -5,13 +5,10 @@ import br.microgamr.microgames.factories.MicroGameFactory;
 import br.microgamr.microgames.util.DifficultyCurve;
 import br.microgamr.microgames.util.MicroGameStateObserver;
 import br.microgamr.screens.BaseScreen;
-import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.math.MathUtils;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 
 /**
@@ -22,6 +19,10 @@ import java.util.Set;
 public class GameSequencer extends BaseGameSequencer {
 
     private final int numberOfGames;
+    /**
+     * As fábricas disponíveis, na ordem em que os índices foram sorteados.
+     */
+    private final MicroGameFactory[] games;
     private final ArrayList<MicroGameFactory> previousGames;
     private Integer[] indexSequence;
     private float finalDifficulty;
@@ -48,6 +49,8 @@ public class GameSequencer extends BaseGameSequencer {
                     + "GameSequencer com 0 jogos. Deve haver ao menos 1.");
         }
         this.numberOfGames = numberOfGames;
+        this.games = availableGames.toArray(
+                new MicroGameFactory[availableGames.size()]);
         this.initialDifficulty = initialDifficulty;
         this.finalDifficulty = finalDifficulty;
         previousGames = new ArrayList<MicroGameFactory>();
@@ -81,25 +84,20 @@ public class GameSequencer extends BaseGameSequencer {
     }
 
     /**
-     * Pré-carrega os <em>assets</em> dos microgames que foram selecionados.
+     * Retorna apenas as fábricas que foram sorteadas para a sequência.
      *
-     * @param assets o <code>AssetManager</code> da tela responsável pelos
-     * microgames.
+     * @return as fábricas sorteadas.
      */
     @Override
-    public void preloadAssets(AssetManager assets) {
-        HashMap<String, Class> allAssets = new HashMap<String, Class>();
+    public Set<MicroGameFactory> getSelectedFactories() {
+        HashSet<MicroGameFactory> selected = new HashSet<MicroGameFactory>();
         HashSet<Integer> allFactoriesIndices = new HashSet<Integer>(
                 Arrays.asList(indexSequence));
 
         for (Integer i : allFactoriesIndices) {
-            allAssets.putAll(((MicroGameFactory) availableGames.toArray()[i])
-                    .getAssetsToPreload());
-        }
-
-        for (Map.Entry<String, Class> asset : allAssets.entrySet()) {
-            assets.load(asset.getKey(), asset.getValue());
+            selected.add(games[i]);
         }
+        return selected;
     }
 
     /**
@@ -109,13 +107,12 @@ public class GameSequencer extends BaseGameSequencer {
      */
     @Override
     public MicroGame nextGame(BaseScreen screen, MicroGameStateObserver observer) {
-        MicroGameFactory factory = (MicroGameFactory) availableGames
-                .toArray()[indexSequence[getGameNumber()]];
+        MicroGameFactory factory = games[indexSequence[getGameNumber()]];
         float difficulty = DifficultyCurve.S.getCurveValueBetween(
                 getSequenceProgress(), initialDifficulty, finalDifficulty);
         previousGames.add(factory);
 
-        return factory.createMicroGame(screen, observer, difficulty);
+        return create(factory, screen, observer, difficulty);
     }
 
     /**
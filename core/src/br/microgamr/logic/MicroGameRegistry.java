@@ -0,0 +1,147 @@
+package br.microgamr.logic;
+
+import br.microgamr.microgames.factories.MicroGameFactory;
+import com.badlogic.gdx.utils.FloatArray;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Um catálogo indexado das fábricas de microgames, cada uma com um peso que
+ * define o quão frequentemente ela é sorteada.
+ *
+ * Os índices seguem a ordem de registro e nunca mudam, de forma que uma
+ * sequência sorteada com a mesma semente é sempre a mesma, independente da
+ * ordem de iteração de um <code>HashSet</code>.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class MicroGameRegistry {
+
+    public static final float DEFAULT_WEIGHT = 1;
+
+    private final ArrayList<MicroGameFactory> factories;
+    private final FloatArray weights;
+    private final HashMap<MicroGameFactory, Integer> indices;
+    private AliasTable aliasTable;
+    private Set<MicroGameFactory> factoriesAsSet;
+
+    /**
+     * Cria um catálogo vazio.
+     */
+    public MicroGameRegistry() {
+        factories = new ArrayList<MicroGameFactory>();
+        weights = new FloatArray();
+        indices = new HashMap<MicroGameFactory, Integer>();
+    }
+
+    /**
+     * Cria um catálogo com as fábricas {@code factories}, todas com o peso
+     * {@link #DEFAULT_WEIGHT}, na ordem em que aparecem na lista.
+     *
+     * @param factories as fábricas dos microgames.
+     */
+    public MicroGameRegistry(List<MicroGameFactory> factories) {
+        this();
+        for (MicroGameFactory factory : factories) {
+            register(factory, DEFAULT_WEIGHT);
+        }
+    }
+
+    /**
+     * Registra uma fábrica com o peso {@code weight}.
+     *
+     * @param factory a fábrica do microgame.
+     * @param weight o peso (positivo) da fábrica no sorteio.
+     * @return o índice da fábrica no catálogo.
+     */
+    public int register(MicroGameFactory factory, float weight) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("O peso de "
+                    + factory.getClass().getSimpleName()
+                    + " deve ser positivo.");
+        }
+        if (indices.containsKey(factory)) {
+            throw new IllegalArgumentException(
+                    factory.getClass().getSimpleName()
+                    + " já foi registrada.");
+        }
+        int index = factories.size();
+        factories.add(factory);
+        weights.add(weight);
+        indices.put(factory, index);
+        aliasTable = null;
+        factoriesAsSet = null;
+        return index;
+    }
+
+    /**
+     * Retorna o número de fábricas registradas.
+     *
+     * @return o número de fábricas.
+     */
+    public int size() {
+        return factories.size();
+    }
+
+    /**
+     * Retorna a fábrica de índice {@code index}.
+     *
+     * @param index o índice da fábrica.
+     * @return a fábrica.
+     */
+    public MicroGameFactory get(int index) {
+        return factories.get(index);
+    }
+
+    /**
+     * Retorna o peso da fábrica de índice {@code index}.
+     *
+     * @param index o índice da fábrica.
+     * @return o peso.
+     */
+    public float getWeight(int index) {
+        return weights.get(index);
+    }
+
+    /**
+     * Retorna o índice de uma fábrica, ou -1 se ela não foi registrada.
+     *
+     * @param factory a fábrica.
+     * @return o índice da fábrica.
+     */
+    public int indexOf(MicroGameFactory factory) {
+        Integer index = indices.get(factory);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Retorna a tabela de sorteio ponderado das fábricas, construindo-a
+     * novamente apenas se alguma fábrica foi registrada desde a última vez.
+     *
+     * @return a tabela de sorteio.
+     */
+    public AliasTable getAliasTable() {
+        if (aliasTable == null) {
+            aliasTable = new AliasTable(weights.toArray());
+        }
+        return aliasTable;
+    }
+
+    /**
+     * Retorna as fábricas como um conjunto (não modificável) que mantém a
+     * ordem de registro.
+     *
+     * @return as fábricas registradas.
+     */
+    public Set<MicroGameFactory> asSet() {
+        if (factoriesAsSet == null) {
+            factoriesAsSet = Collections.unmodifiableSet(
+                    new LinkedHashSet<MicroGameFactory>(factories));
+        }
+        return factoriesAsSet;
+    }
+}
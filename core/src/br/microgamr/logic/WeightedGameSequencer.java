@@ -0,0 +1,210 @@
+package br.microgamr.logic;
+
+import br.microgamr.microgames.MicroGame;
+import br.microgamr.microgames.factories.MicroGameFactory;
+import br.microgamr.microgames.util.DifficultyCurve;
+import br.microgamr.microgames.util.MicroGameStateObserver;
+import br.microgamr.screens.BaseScreen;
+import com.badlogic.gdx.math.MathUtils;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Monta uma sequência finita de microgames sorteados de um
+ * {@link MicroGameRegistry}, de acordo com o peso de cada um.
+ *
+ * Cada sorteio custa O(1) (veja {@link AliasTable}), de forma que o
+ * sequenciador continua rápido mesmo com milhares de microgames. Um microgame
+ * não se repete dentro de uma janela de {@code noRepeatWindow} jogos
+ * consecutivos.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class WeightedGameSequencer extends BaseGameSequencer {
+
+    /**
+     * Quantas vezes se tenta sortear pela tabela um microgame fora da janela
+     * de não repetição antes de escolher apenas entre os que estão fora dela.
+     */
+    private static final int MAX_SAMPLING_ATTEMPTS = 8;
+
+    private final MicroGameRegistry registry;
+    private final int numberOfGames;
+    private final int noRepeatWindow;
+    private final int[] indexSequence;
+    private final float initialDifficulty;
+    private final float finalDifficulty;
+    private final Random random;
+    private int gameNumber;
+
+    /**
+     * Cria um novo sequenciador com um número de microgames igual a
+     * {@code numberOfGames}, sorteados do catálogo {@code registry}.
+     *
+     * @param numberOfGames total de jogos que será criado para o jogador.
+     * @param registry o catálogo de microgames disponíveis.
+     * @param noRepeatWindow em quantos jogos consecutivos um microgame não
+     * pode se repetir (limitado ao número de microgames do catálogo menos 1).
+     * @param initialDifficulty dificuldade usada para o primeiro MicroGame.
+     * Deve estar entre 0 e 1.
+     * @param finalDifficulty dificuldade usada para o último MicroGame. Deve
+     * estar entre 0 e 1.
+     */
+    public WeightedGameSequencer(int numberOfGames, MicroGameRegistry registry,
+            int noRepeatWindow, float initialDifficulty,
+            float finalDifficulty) {
+        this(numberOfGames, registry, noRepeatWindow, initialDifficulty,
+                finalDifficulty, MathUtils.random);
+    }
+
+    /**
+     * Cria um novo sequenciador que usa o gerador de números aleatórios
+     * {@code random}. Com a mesma semente, a sequência é sempre a mesma.
+     *
+     * @param numberOfGames total de jogos que será criado para o jogador.
+     * @param registry o catálogo de microgames disponíveis.
+     * @param noRepeatWindow em quantos jogos consecutivos um microgame não
+     * pode se repetir.
+     * @param initialDifficulty dificuldade usada para o primeiro MicroGame.
+     * @param finalDifficulty dificuldade usada para o último MicroGame.
+     * @param random o gerador de números aleatórios.
+     */
+    public WeightedGameSequencer(int numberOfGames, MicroGameRegistry registry,
+            int noRepeatWindow, float initialDifficulty,
+            float finalDifficulty, Random random) {
+        super(registry.asSet());
+        if (numberOfGames <= 0) {
+            throw new IllegalArgumentException("Tentou-se criar um "
+                    + "WeightedGameSequencer com 0 jogos. Deve haver ao "
+                    + "menos 1.");
+        }
+        if (registry.size() == 0) {
+            throw new IllegalArgumentException("Tentou-se criar um "
+                    + "WeightedGameSequencer sem microgames disponíveis.");
+        }
+        this.registry = registry;
+        this.numberOfGames = numberOfGames;
+        this.noRepeatWindow = Math.max(0,
+                Math.min(noRepeatWindow, registry.size() - 1));
+        this.initialDifficulty = initialDifficulty;
+        this.finalDifficulty = finalDifficulty;
+        this.random = random;
+        indexSequence = new int[numberOfGames];
+        determineGameSequence();
+    }
+
+    private void determineGameSequence() {
+        AliasTable table = registry.getAliasTable();
+        for (int i = 0; i < numberOfGames; i++) {
+            indexSequence[i] = drawIndex(table, i);
+        }
+    }
+
+    /**
+     * Sorteia o microgame da posição {@code position}. Na grande maioria das
+     * vezes basta um sorteio pela tabela; só quando os microgames da janela
+     * concentram quase todo o peso é que se recorre à busca linear.
+     */
+    private int drawIndex(AliasTable table, int position) {
+        for (int attempt = 0; attempt < MAX_SAMPLING_ATTEMPTS; attempt++) {
+            int index = table.sample(random);
+            if (!isInWindow(index, position)) {
+                return index;
+            }
+        }
+        return drawOutsideWindow(position);
+    }
+
+    private boolean isInWindow(int index, int position) {
+        for (int i = Math.max(0, position - noRepeatWindow); i < position; i++) {
+            if (indexSequence[i] == index) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int drawOutsideWindow(int position) {
+        double total = 0;
+        for (int i = 0; i < registry.size(); i++) {
+            if (!isInWindow(i, position)) {
+                total += registry.getWeight(i);
+            }
+        }
+        double target = random.nextDouble() * total;
+        int last = -1;
+        for (int i = 0; i < registry.size(); i++) {
+            if (!isInWindow(i, position)) {
+                last = i;
+                target -= registry.getWeight(i);
+                if (target < 0) {
+                    return i;
+                }
+            }
+        }
+        return last;
+    }
+
+    @Override
+    public boolean hasNextGame() {
+        return gameNumber < numberOfGames;
+    }
+
+    private float getSequenceProgress() {
+        if (numberOfGames == 1) {
+            return 1;
+        }
+        return Math.min(1, ((float) gameNumber) / (numberOfGames - 1));
+    }
+
+    /**
+     * Retorna apenas as fábricas que foram sorteadas para a sequência, na
+     * ordem em que aparecem pela primeira vez.
+     *
+     * @return as fábricas sorteadas.
+     */
+    @Override
+    public Set<MicroGameFactory> getSelectedFactories() {
+        LinkedHashSet<MicroGameFactory> selected
+                = new LinkedHashSet<MicroGameFactory>();
+        for (int index : indexSequence) {
+            selected.add(registry.get(index));
+        }
+        return selected;
+    }
+
+    /**
+     * Retorna uma instância do próximo jogo.
+     *
+     * @return uma instância do próximo jogo.
+     */
+    @Override
+    public MicroGame nextGame(BaseScreen screen, MicroGameStateObserver observer) {
+        MicroGameFactory factory = registry.get(indexSequence[gameNumber]);
+        float difficulty = DifficultyCurve.S.getCurveValueBetween(
+                getSequenceProgress(), initialDifficulty, finalDifficulty);
+        gameNumber++;
+
+        return create(factory, screen, observer, difficulty);
+    }
+
+    /**
+     * Retorna o índice deste jogo na série de jogos criados para o jogador.
+     *
+     * @return o índice deste jogo na série de jogos criados para o jogador.
+     */
+    @Override
+    public int getGameNumber() {
+        return gameNumber;
+    }
+
+    /**
+     * Retorna os índices (no catálogo) dos microgames da sequência.
+     *
+     * @return os índices sorteados.
+     */
+    public int[] getIndexSequence() {
+        return indexSequence.clone();
+    }
+}
@@ -0,0 +1,126 @@
+package br.microgamr.microgames;
+
+import br.microgamr.microgames.ecs.AnimationSystem;
+import br.microgamr.microgames.ecs.CollisionListener;
+import br.microgamr.microgames.ecs.CollisionSystem;
+import br.microgamr.microgames.ecs.MovementSystem;
+import br.microgamr.microgames.ecs.RenderSystem;
+import br.microgamr.microgames.util.MicroGameStateObserver;
+import br.microgamr.microgames.util.TimeoutBehavior;
+import br.microgamr.screens.BaseScreen;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.PooledEngine;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Um microgame organizado como entidades, componentes e sistemas (ECS), com
+ * o Ashley. Em vez de listas de objetos com posição, sprite etc., o
+ * microgame cria entidades no {@link #engine} e lhes dá componentes (veja o
+ * pacote {@code br.microgamr.microgames.ecs}). Os sistemas percorrem apenas
+ * as entidades que têm os componentes de que precisam.
+ *
+ * O microgame já vem com os sistemas de movimento, de animação, de colisão
+ * (que avisa {@link #onCollision(Entity, Entity)}) e de desenho (que envia
+ * as entidades à {@link br.microgamr.graphics.RenderQueue}). As entidades e
+ * os componentes vêm de pools do {@link PooledEngine}, então criar e remover
+ * entidades durante o jogo não gera lixo.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public abstract class EcsMicroGame extends MicroGame
+        implements CollisionListener {
+
+    // prioridades dos sistemas (menor executa antes)
+    public static final int PRIORITY_LOGIC = 0;
+    public static final int PRIORITY_MOVEMENT = 10;
+    public static final int PRIORITY_COLLISION = 20;
+    public static final int PRIORITY_ANIMATION = 30;
+
+    protected final PooledEngine engine;
+    private final Array<EntitySystem> drawSystems = new Array<EntitySystem>();
+
+    /**
+     * Instancia um microgame com entidades.
+     *
+     * @param screen a tela dona deste microgame.
+     * @param observer alguém interessado no estado deste microgame.
+     * @param difficulty dificuldade [0,1] que esta instância deve ter.
+     * @param maxDuration quanto tempo este microgame vai durar.
+     * @param endOfGameSituation o que acontece quando o tempo acaba.
+     */
+    public EcsMicroGame(BaseScreen screen, MicroGameStateObserver observer,
+            float difficulty, float maxDuration,
+            TimeoutBehavior endOfGameSituation) {
+        super(screen, observer, difficulty, maxDuration, endOfGameSituation);
+        engine = new PooledEngine();
+        engine.addSystem(new MovementSystem(PRIORITY_MOVEMENT));
+        engine.addSystem(new CollisionSystem(PRIORITY_COLLISION, this));
+        engine.addSystem(new AnimationSystem(PRIORITY_ANIMATION));
+        addDrawSystem(new RenderSystem(renderQueue));
+    }
+
+    /**
+     * Adiciona um sistema que é executado ao desenhar, em vez de ao
+     * atualizar, na ordem em que foi adicionado.
+     *
+     * @param system o sistema.
+     */
+    protected final void addDrawSystem(EntitySystem system) {
+        system.setProcessing(false);
+        engine.addSystem(system);
+        drawSystems.add(system);
+    }
+
+    /**
+     * Executa os sistemas de lógica (em ordem de prioridade) e então chama
+     * {@link #onSystemsUpdated(float)}.
+     *
+     * @param dt tempo (em segundos) desde a última atualização.
+     */
+    @Override
+    public final void onUpdate(float dt) {
+        engine.update(dt);
+        onSystemsUpdated(dt);
+    }
+
+    /**
+     * Executa os sistemas de desenho.
+     */
+    @Override
+    public final void onDrawGame() {
+        for (int i = 0; i < drawSystems.size; i++) {
+            drawSystems.get(i).update(0);
+        }
+    }
+
+    /**
+     * Devolve as entidades e os componentes aos pools e os esvazia.
+     */
+    @Override
+    protected void onDispose() {
+        engine.removeAllEntities();
+        engine.clearPools();
+    }
+
+    /**
+     * Chamada quando a entidade {@code a} (cuja
+     * {@link br.microgamr.microgames.ecs.CollisionComponent#mask} inclui o
+     * grupo de {@code b}) toca {@code b}. Se as duas se incluem mutuamente,
+     * é chamada uma vez para cada. Por padrão, não faz nada.
+     *
+     * @param a a entidade interessada na colisão.
+     * @param b a entidade tocada.
+     */
+    @Override
+    public void onCollision(Entity a, Entity b) {
+    }
+
+    /**
+     * Chamada o tempo todo, depois dos sistemas, para atualizar a lógica do
+     * jogo.
+     *
+     * @param dt tempo (em segundos) desde a última atualização.
+     */
+    protected abstract void onSystemsUpdated(float dt);
+}
@@ -1,8 +1,10 @@
 package br.microgamr.microgames;
 
+import br.microgamr.assets.CollisionMask;
 import br.microgamr.graphics.MultiAnimatedSprite;
 import br.microgamr.microgames.util.DifficultyCurve;
 import br.microgamr.microgames.util.MicroGameStateObserver;
+import br.microgamr.microgames.util.PixelCollision;
 import br.microgamr.microgames.util.TimeoutBehavior;
 import br.microgamr.screens.BaseScreen;
 import com.badlogic.gdx.Gdx;
@@ -35,7 +37,12 @@ public class ExpelTheMonsters extends MicroGame {
     private Texture toothbrushTexture;
     private ToothBrush toothBrush;
     private Texture monsterTexture;
+    private TextureRegion[][] monsterFrames;
     private Texture toothTexture;
+
+    // máscaras de colisão de cada quadro das spritesheets
+    private CollisionMask[][] monsterMasks;
+    private CollisionMask[][] toothMasks;
     
     // efeitos sonoros e música de fundo
     private Array<Sound> monsterAppearingSound;
@@ -79,16 +86,29 @@ public class ExpelTheMonsters extends MicroGame {
     }
 
     @Override
-    protected void onStart() {
+    protected boolean onPrepare(int step) {
         // texturas
         toothbrushTexture = assets.get(
                 "expel-the-monsters/toothbrush-spritesheet.png", Texture.class);
         toothBrush = new ToothBrush(toothbrushTexture);
         monsterTexture = assets.get(
                 "expel-the-monsters/monster-spritesheet.png", Texture.class);
+        // os quadros dos monstros são divididos uma só vez, e não a cada
+        // monstro que surge
+        monsterFrames = TextureRegion.split(monsterTexture,
+                Tartarus.FRAME_WIDTH, Tartarus.FRAME_HEIGHT);
         toothTexture = assets.get(
                 "expel-the-monsters/tooth.png", Texture.class);
 
+        // máscaras de colisão
+        monsterMasks = frameMasks(assets.get(CollisionMask.pathFor(
+                "expel-the-monsters/monster-spritesheet.png"),
+                CollisionMask.class), monsterFrames);
+        toothMasks = frameMasks(assets.get(CollisionMask.pathFor(
+                "expel-the-monsters/tooth.png"), CollisionMask.class),
+                TextureRegion.split(toothTexture,
+                        Tooth.FRAME_WIDTH, Tooth.FRAME_HEIGHT));
+
         // efeitos sonoros
         monsterAppearingSound = new Array<Sound>(3);
         monsterAppearingSound.addAll(assets.get(
@@ -102,18 +122,24 @@ public class ExpelTheMonsters extends MicroGame {
 
         // música
         backgroundMusic = assets.get("expel-the-monsters/music.mp3", Music.class);
-        backgroundMusic.play();
 
         // objetos do jogo
         enemies = new Array<Tartarus>();
         teeth = new Array<Tooth>();
+
+        // cria os dentes que devem ser protegidos
+        initializeTeeth();
+        return true;
+    }
+
+    @Override
+    protected void onStart() {
+        backgroundMusic.play();
         
         // estado inicial do jogo
         numberOfBrokenTeeth = 0;
         
-        // cria os dentes que devem ser protegidos e registra o surgimento do
-        // primeiro monstro
-        initializeTeeth();
+        // registra o surgimento do primeiro monstro
         timer.scheduleTask(new Task() {
             @Override
             public void run() {
@@ -155,10 +181,14 @@ public class ExpelTheMonsters extends MicroGame {
             Tartarus tart = this.enemies.get(i);
             tart.update(dt);
 
-            // verifica se este inimigo está colidindo com algum dente
+            // verifica se este inimigo está colidindo com algum dente (se
+            // algum pixel opaco de um toca um pixel opaco do outro)
+            CollisionMask tartMask = maskOf(tart, monsterMasks,
+                    Tartarus.FRAME_WIDTH, Tartarus.FRAME_HEIGHT);
             for (Tooth tooth : this.teeth) {
-                if (tart.getBoundingRectangle()
-                        .overlaps(tooth.getBoundingRectangle())) {
+                if (PixelCollision.overlaps(tart, tartMask, tooth,
+                        maskOf(tooth, toothMasks,
+                                Tooth.FRAME_WIDTH, Tooth.FRAME_HEIGHT))) {
                     toothWasHurt(tooth, tart);
                 }
             }
@@ -167,14 +197,16 @@ public class ExpelTheMonsters extends MicroGame {
 
     @Override
     public void onDrawGame() {
-        // desenha os dentes, os inimigos e a escova
-        for (Tooth tooth : this.teeth) {
-            tooth.draw(batch);
+        // desenha os dentes, os inimigos e a escova, nessa ordem de camadas
+        // (os monstros mais abaixo na tela ficam por cima dos outros)
+        for (int i = 0; i < teeth.size; i++) {
+            renderQueue.submit(teeth.get(i), 0, 0);
         }
-        for (Tartarus tart : this.enemies) {
-            tart.draw(batch);
+        for (int i = 0; i < enemies.size; i++) {
+            Tartarus tart = enemies.get(i);
+            renderQueue.submit(tart, 1, -tart.getY());
         }
-        toothBrush.draw(batch);
+        renderQueue.submit(toothBrush, 2, 0);
     }
 
     @Override
@@ -187,6 +219,30 @@ public class ExpelTheMonsters extends MicroGame {
         return true;
     }
 
+    /**
+     * Recorta, da máscara de uma spritesheet, a máscara de cada quadro.
+     */
+    private static CollisionMask[][] frameMasks(CollisionMask sheetMask,
+            TextureRegion[][] frames) {
+        CollisionMask[][] masks = new CollisionMask[frames.length][];
+        for (int row = 0; row < frames.length; row++) {
+            masks[row] = new CollisionMask[frames[row].length];
+            for (int column = 0; column < frames[row].length; column++) {
+                masks[row][column] = sheetMask.region(frames[row][column]);
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * Retorna a máscara do quadro que a sprite está mostrando.
+     */
+    private static CollisionMask maskOf(Sprite sprite,
+            CollisionMask[][] masks, int frameWidth, int frameHeight) {
+        return masks[sprite.getRegionY() / frameHeight]
+                [sprite.getRegionX() / frameWidth];
+    }
+
     private void initializeTeeth() {
         // posiciona e cria os dentes
         TextureRegion[][] frames = TextureRegion.split(toothTexture,
@@ -273,7 +329,7 @@ public class ExpelTheMonsters extends MicroGame {
                 .nor()
                 .scl(this.minimumEnemySpeed);
 
-        Tartarus enemy = new Tartarus(monsterTexture);
+        Tartarus enemy = new Tartarus(monsterFrames);
         enemy.setPosition(tartarusPosition.x, tartarusPosition.y);
         enemy.setSpeed(tartarusSpeed);
         enemies.add(enemy);
@@ -344,13 +400,11 @@ public class ExpelTheMonsters extends MicroGame {
         static final int FRAME_WIDTH = 28;
         static final int FRAME_HEIGHT = 36;
 
-        public Tartarus(final Texture tartarusSpritesheet) {
-            super(new HashMap<String, Animation>() {
+        public Tartarus(final TextureRegion[][] frames) {
+            super(new HashMap<String, Animation<TextureRegion>>() {
                 {
-                    TextureRegion[][] frames = TextureRegion
-                            .split(tartarusSpritesheet,
-                                    FRAME_WIDTH, FRAME_HEIGHT);
-                    Animation walking = new Animation(0.2f,
+                    Animation<TextureRegion> walking
+                            = new Animation<TextureRegion>(0.2f,
                             frames[0][0],
                             frames[0][1],
                             frames[0][2],
@@ -363,7 +417,12 @@ public class ExpelTheMonsters extends MicroGame {
 
         @Override
         public void update(float dt) {
-            super.update(dt);
+            // fora da tela (chegando ou fugindo), o monstro só se move: a
+            // animação não é atualizada porque ele nem vai ser desenhado
+            if (renderQueue.isVisible(getX(), getY(), getWidth(),
+                    getHeight())) {
+                super.update(dt);
+            }
             super.setPosition(super.getX() + this.speed.x * dt,
                     super.getY() + this.speed.y * dt);
         }
@@ -0,0 +1,398 @@
+package br.microgamr.microgames;
+
+import br.microgamr.microgames.ecs.AnimationComponent;
+import br.microgamr.microgames.ecs.CollisionComponent;
+import br.microgamr.microgames.ecs.RenderComponent;
+import br.microgamr.microgames.ecs.TransformComponent;
+import br.microgamr.microgames.ecs.VelocityComponent;
+import br.microgamr.microgames.util.DifficultyCurve;
+import br.microgamr.microgames.util.MicroGameStateObserver;
+import br.microgamr.microgames.util.TimeoutBehavior;
+import br.microgamr.screens.BaseScreen;
+import com.badlogic.ashley.core.Component;
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool.Poolable;
+import com.badlogic.gdx.utils.Timer.Task;
+
+/**
+ * O microgame {@link ExpelTheMonsters} escrito com entidades, componentes e
+ * sistemas (veja {@link EcsMicroGame}). Serve de referência para novos
+ * microgames nesse estilo: as regras são as mesmas, mas os monstros, os
+ * dentes e a escova são entidades, e o movimento, a animação, as colisões e
+ * o desenho ficam a cargo dos sistemas.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class ExpelTheMonstersEcs extends EcsMicroGame {
+
+    // grupos de colisão
+    private static final int MONSTERS = 1;
+    private static final int TEETH = 2;
+
+    // camadas de desenho
+    private static final int TEETH_LAYER = 0;
+    private static final int MONSTERS_LAYER = 1;
+    private static final int BRUSH_LAYER = 2;
+
+    // largura e altura de cada quadro das spritesheets
+    private static final int BRUSH_WIDTH = 120;
+    private static final int BRUSH_HEIGHT = 280;
+    private static final int MONSTER_WIDTH = 28;
+    private static final int MONSTER_HEIGHT = 36;
+    private static final int TOOTH_WIDTH = 64;
+    private static final int TOOTH_HEIGHT = 64;
+
+    private static final float FLEEING_DISTANCE = 30;
+
+    /**
+     * Um dente que deve ser defendido.
+     */
+    public static class ToothComponent implements Component, Poolable {
+
+        public TextureRegion hurt;
+        public TextureRegion broken;
+        public int lives;
+
+        @Override
+        public void reset() {
+            hurt = null;
+            broken = null;
+            lives = 0;
+        }
+    }
+
+    /**
+     * Um monstrinho.
+     */
+    public static class MonsterComponent implements Component, Poolable {
+
+        public boolean fleeing;
+
+        @Override
+        public void reset() {
+            fleeing = false;
+        }
+    }
+
+    private final ComponentMapper<TransformComponent> transforms
+            = ComponentMapper.getFor(TransformComponent.class);
+    private final ComponentMapper<VelocityComponent> velocities
+            = ComponentMapper.getFor(VelocityComponent.class);
+    private final ComponentMapper<RenderComponent> renders
+            = ComponentMapper.getFor(RenderComponent.class);
+    private final ComponentMapper<ToothComponent> teethComponents
+            = ComponentMapper.getFor(ToothComponent.class);
+    private final ComponentMapper<MonsterComponent> monsterComponents
+            = ComponentMapper.getFor(MonsterComponent.class);
+
+    // animações e quadros
+    private Animation<TextureRegion> brushAnimation;
+    private Animation<TextureRegion> monsterAnimation;
+    private TextureRegion[][] toothFrames;
+
+    // efeitos sonoros e música de fundo
+    private Array<Sound> monsterAppearingSound;
+    private Sound toothBreakingSound;
+    private Music backgroundMusic;
+
+    // entidades do jogo
+    private Entity toothBrush;
+    private ImmutableArray<Entity> monsters;
+    private ImmutableArray<Entity> teeth;
+
+    // estado do jogo
+    private int numberOfBrokenTeeth;
+    private final Vector3 pointer = new Vector3();
+    private final Vector2 vector = new Vector2();
+
+    // variáveis do desafio - variam com a dificuldade do microgame
+    private float minimumEnemySpeed;
+    private float maximumEnemySpeed;
+    private float spawnInterval;
+    private int totalTeeth;
+
+    @SuppressWarnings("unchecked")
+    public ExpelTheMonstersEcs(BaseScreen screen,
+            MicroGameStateObserver observer, float difficulty) {
+        super(screen, observer, difficulty, 10f,
+                TimeoutBehavior.WINS_WHEN_MICROGAME_ENDS);
+        monsters = engine.getEntitiesFor(Family.all(MonsterComponent.class,
+                TransformComponent.class).get());
+        teeth = engine.getEntitiesFor(Family.all(ToothComponent.class,
+                TransformComponent.class).get());
+    }
+
+    @Override
+    protected void configureDifficultyParameters(float difficulty) {
+        this.minimumEnemySpeed = DifficultyCurve.LINEAR
+                .getCurveValueBetween(difficulty, 120, 220);
+        this.maximumEnemySpeed = DifficultyCurve.LINEAR
+                .getCurveValueBetween(difficulty, 240, 340);
+        this.spawnInterval = DifficultyCurve.LINEAR_NEGATIVE
+                .getCurveValueBetween(difficulty, 0.25f, 1.5f);
+        this.totalTeeth = (int) Math.ceil(DifficultyCurve.LINEAR
+                .getCurveValueBetween(difficulty, 0, 2)) + 1;
+    }
+
+    @Override
+    protected boolean onPrepare(int step) {
+        // animações
+        TextureRegion[][] brushFrames = TextureRegion.split(
+                assets.get("expel-the-monsters/toothbrush-spritesheet.png",
+                        Texture.class),
+                BRUSH_WIDTH, BRUSH_HEIGHT);
+        brushAnimation = new Animation<TextureRegion>(0.1f,
+                brushFrames[0][0], brushFrames[0][1], brushFrames[0][2],
+                brushFrames[0][3]);
+        brushAnimation.setPlayMode(Animation.PlayMode.LOOP);
+        TextureRegion[][] monsterFrames = TextureRegion.split(
+                assets.get("expel-the-monsters/monster-spritesheet.png",
+                        Texture.class),
+                MONSTER_WIDTH, MONSTER_HEIGHT);
+        monsterAnimation = new Animation<TextureRegion>(0.2f,
+                monsterFrames[0][0], monsterFrames[0][1], monsterFrames[0][2],
+                monsterFrames[0][1]);
+        monsterAnimation.setPlayMode(Animation.PlayMode.LOOP);
+        toothFrames = TextureRegion.split(
+                assets.get("expel-the-monsters/tooth.png", Texture.class),
+                TOOTH_WIDTH, TOOTH_HEIGHT);
+
+        // efeitos sonoros
+        monsterAppearingSound = new Array<Sound>(3);
+        monsterAppearingSound.addAll(
+                assets.get("expel-the-monsters/appearing1.wav", Sound.class),
+                assets.get("expel-the-monsters/appearing2.wav", Sound.class),
+                assets.get("expel-the-monsters/appearing3.wav", Sound.class));
+        toothBreakingSound = assets.get(
+                "expel-the-monsters/tooth-breaking.wav", Sound.class);
+
+        // música
+        backgroundMusic = assets.get("expel-the-monsters/music.mp3",
+                Music.class);
+
+        // entidades
+        toothBrush = createToothBrush();
+        initializeTeeth();
+        return true;
+    }
+
+    @Override
+    protected void onStart() {
+        backgroundMusic.play();
+        numberOfBrokenTeeth = 0;
+
+        timer.scheduleTask(new Task() {
+            @Override
+            public void run() {
+                spawnEnemy();
+            }
+
+        }, 0, this.spawnInterval);
+    }
+
+    @Override
+    protected void onEnd() {
+        backgroundMusic.stop();
+    }
+
+    @Override
+    public void onHandlePlayingInput() {
+        // a escova segue o mouse
+        pointer.set(Gdx.input.getX(), Gdx.input.getY(), 0);
+        viewport.unproject(pointer);
+        TransformComponent brush = transforms.get(toothBrush);
+        brush.setCenter(pointer.x, pointer.y);
+
+        // espanta os monstros próximos da cabeça da escova
+        float headX = brush.x + brush.width * 0.5f;
+        float headY = brush.y + brush.height * 0.8f;
+        for (int i = 0; i < monsters.size(); i++) {
+            Entity monster = monsters.get(i);
+            TransformComponent transform = transforms.get(monster);
+            if (Vector2.dst(headX, headY, transform.x, transform.y)
+                    <= FLEEING_DISTANCE) {
+                startFleeing(monster, headX, headY);
+            }
+        }
+    }
+
+    private void startFleeing(Entity monster, float fromX, float fromY) {
+        MonsterComponent state = monsterComponents.get(monster);
+        if (state.fleeing) {
+            return;
+        }
+        state.fleeing = true;
+        TransformComponent transform = transforms.get(monster);
+        vector.set(transform.x - fromX, transform.y - fromY)
+                .nor().scl(maximumEnemySpeed);
+        velocities.get(monster).set(vector.x, vector.y);
+        renders.get(monster).packedColor = Color.YELLOW.toFloatBits();
+    }
+
+    @Override
+    protected void onSystemsUpdated(float dt) {
+    }
+
+    @Override
+    public void onCollision(Entity monster, Entity tooth) {
+        // apenas monstros têm os dentes na máscara de colisão
+        if (monster.isScheduledForRemoval()) {
+            return;
+        }
+        engine.removeEntity(monster);
+
+        ToothComponent state = teethComponents.get(tooth);
+        state.lives--;
+        renders.get(tooth).region = state.lives > 0
+                ? state.hurt : state.broken;
+        numberOfBrokenTeeth += state.lives == 0 ? 1 : 0;
+        if (numberOfBrokenTeeth >= totalTeeth) {
+            super.challengeFailed();
+        }
+        toothBreakingSound.play();
+    }
+
+    @Override
+    public String getInstructions() {
+        return "Espante os monstros";
+    }
+
+    @Override
+    public boolean shouldHideMousePointer() {
+        return true;
+    }
+
+    private Entity createToothBrush() {
+        Entity entity = engine.createEntity();
+        TransformComponent transform
+                = engine.createComponent(TransformComponent.class);
+        transform.width = BRUSH_WIDTH;
+        transform.height = BRUSH_HEIGHT;
+        entity.add(transform);
+        RenderComponent render = engine.createComponent(RenderComponent.class);
+        render.layer = BRUSH_LAYER;
+        entity.add(render);
+        AnimationComponent animation
+                = engine.createComponent(AnimationComponent.class);
+        animation.animation = brushAnimation;
+        entity.add(animation);
+        engine.addEntity(entity);
+        return entity;
+    }
+
+    private void initializeTeeth() {
+        float centerX = viewport.getWorldWidth() / 2f;
+        float centerY = viewport.getWorldHeight() / 2f;
+        switch (this.totalTeeth) {
+            case 1:
+                // o único dente fica no centro da tela
+                createTooth(centerX, centerY);
+                break;
+            case 2:
+                // os dois dentes ficam em 3/7 e 4/7 da largura da tela
+                for (int i = 0; i < this.totalTeeth; i++) {
+                    createTooth(viewport.getWorldWidth() / 7f * (i + 3),
+                            centerY);
+                }
+                break;
+            case 3:
+            default:
+                // 3 ou mais dentes ficam em um círculo ao redor do centro
+                for (int i = 0; i < this.totalTeeth; i++) {
+                    float angle = (360f / this.totalTeeth) * i;
+                    final float radius = 90f;
+                    createTooth(centerX + MathUtils.cosDeg(angle) * radius,
+                            centerY + MathUtils.sinDeg(angle) * radius);
+                }
+                break;
+        }
+    }
+
+    private void createTooth(float centerX, float centerY) {
+        Entity entity = engine.createEntity();
+        TransformComponent transform
+                = engine.createComponent(TransformComponent.class);
+        transform.width = TOOTH_WIDTH;
+        transform.height = TOOTH_HEIGHT;
+        transform.setCenter(centerX, centerY);
+        entity.add(transform);
+        RenderComponent render = engine.createComponent(RenderComponent.class);
+        render.region = toothFrames[0][0];
+        render.layer = TEETH_LAYER;
+        entity.add(render);
+        ToothComponent tooth = engine.createComponent(ToothComponent.class);
+        tooth.hurt = toothFrames[0][1];
+        tooth.broken = toothFrames[0][2];
+        tooth.lives = 2;
+        entity.add(tooth);
+        CollisionComponent collision
+                = engine.createComponent(CollisionComponent.class);
+        collision.group = TEETH;
+        collision.mask = 0;
+        entity.add(collision);
+        engine.addEntity(entity);
+    }
+
+    private void spawnEnemy() {
+        // surge em uma posição aleatória fora da tela, indo para um dos dentes
+        TransformComponent goal = transforms.get(
+                teeth.get(MathUtils.random(teeth.size() - 1)));
+        float x, y;
+        if (MathUtils.randomBoolean()) {
+            x = MathUtils.randomBoolean()
+                    ? -MONSTER_WIDTH : viewport.getWorldWidth();
+            y = MathUtils.random(-MONSTER_HEIGHT, viewport.getWorldHeight());
+        } else {
+            y = MathUtils.randomBoolean()
+                    ? -MONSTER_HEIGHT : viewport.getWorldHeight();
+            x = MathUtils.random(-MONSTER_WIDTH, viewport.getWorldWidth());
+        }
+        vector.set(goal.getCenterX() - x, goal.getCenterY() - y)
+                .nor().scl(minimumEnemySpeed);
+
+        Entity entity = engine.createEntity();
+        TransformComponent transform
+                = engine.createComponent(TransformComponent.class);
+        transform.x = x;
+        transform.y = y;
+        transform.width = MONSTER_WIDTH;
+        transform.height = MONSTER_HEIGHT;
+        entity.add(transform);
+        VelocityComponent velocity
+                = engine.createComponent(VelocityComponent.class);
+        velocity.set(vector.x, vector.y);
+        entity.add(velocity);
+        RenderComponent render = engine.createComponent(RenderComponent.class);
+        render.layer = MONSTERS_LAYER;
+        entity.add(render);
+        AnimationComponent animation
+                = engine.createComponent(AnimationComponent.class);
+        animation.animation = monsterAnimation;
+        entity.add(animation);
+        entity.add(engine.createComponent(MonsterComponent.class));
+        CollisionComponent collision
+                = engine.createComponent(CollisionComponent.class);
+        collision.group = MONSTERS;
+        collision.mask = TEETH;
+        entity.add(collision);
+        engine.addEntity(entity);
+
+        Sound sound = monsterAppearingSound.random();
+        long id = sound.play(0.5f);
+        sound.setPan(id, x < viewport.getWorldWidth() ? -1 : 1, 1);
+    }
+}
@@ -1,8 +1,14 @@
 package br.microgamr.microgames;
 
 import br.microgamr.Config;
+import br.microgamr.diagnostics.FlightRecorder;
+import br.microgamr.diagnostics.FlightRecorder.EventType;
+import br.microgamr.diagnostics.GameEvents;
+import br.microgamr.graphics.RenderQueue;
+import br.microgamr.microgames.util.JobSystem;
 import br.microgamr.microgames.util.MicroGameState;
 import br.microgamr.microgames.util.MicroGameStateObserver;
+import br.microgamr.microgames.util.MicroGameTimings;
 import br.microgamr.microgames.util.TimeoutBehavior;
 import br.microgamr.screens.BaseScreen;
 import com.badlogic.gdx.Gdx;
@@ -23,10 +29,15 @@ import java.util.Random;
  * <li><code>configureDifficultyParameters(float difficulty)</code>: configurar
  * os parâmetros específicos deste microgame de acordo com a dificuldade
  * solicitada.</li>
- * <li><code>onStart()</code>: criar os objetos que compõem a cena do jogo.</li>
+ * <li><code>onPrepare(int step)</code>: buscar os assets e criar os objetos
+ * que compõem a cena do jogo, enquanto as instruções são mostradas.</li>
+ * <li><code>onStart()</code>: iniciar o jogo (música, timers), no quadro em
+ * que o jogador ganha o controle. Deve ser rápido.</li>
  * <li><code>onEnd()</code>: interromper coisas em andamento, como música de
  * fundo.</li>
- * <li><code>onDrawGame()</code>: desenhar o jogo.</li>
+ * <li><code>onDrawGame()</code>: desenhar o jogo, na <code>batch</code> ou
+ * enviando as sprites à <code>renderQueue</code>, que as ordena por camada e
+ * textura.</li>
  * <li><code>onUpdate(float dt)</code>: atualizar a lógica do jogo.</li>
  * <li><code>onHandlePlayingInput()</code>: verificar se comandos foram emitidos
  * pelo jogador.</li>
@@ -39,6 +50,7 @@ public abstract class MicroGame {
     protected final AssetManager assets;
     protected final Viewport viewport;
     protected final SpriteBatch batch;
+    protected final RenderQueue renderQueue;
     protected long remainingTime;
     protected float maxDuration;
     private float timeSpentOnInstructions;
@@ -46,6 +58,7 @@ public abstract class MicroGame {
     private MicroGameState state;
     protected Random rand;
     protected final Timer timer;
+    protected final JobSystem jobs;
     private boolean isPaused;
 
     private boolean challengeSolved;
@@ -53,6 +66,9 @@ public abstract class MicroGame {
     private long timeWhenPausedLastTime;
     private InputProcessor microGameInputProcessor;
     private float difficulty;
+    private boolean prepared;
+    private int preparationStep;
+    private long preparationNanos;
 
     /**
      * Instancia um microgame.
@@ -78,6 +94,7 @@ public abstract class MicroGame {
         this.assets = screen.assets;
         this.viewport = screen.viewport;
         this.batch = screen.batch;
+        this.renderQueue = screen.renderPass.getQueue();
         this.challengeSolved = endOfGameSituation
                 == TimeoutBehavior.WINS_WHEN_MICROGAME_ENDS;
         this.maxDuration = maxDuration;
@@ -87,6 +104,7 @@ public abstract class MicroGame {
         this.rand = new Random();
         this.timer = new Timer();
         this.timer.stop();
+        this.jobs = JobSystem.getShared();
         this.difficulty = difficulty;
         state = MicroGameState.SHOWING_INSTRUCTIONS;
     }
@@ -162,6 +180,8 @@ public abstract class MicroGame {
 
         switch (this.state) {
             case SHOWING_INSTRUCTIONS:
+                // aproveita o tempo das instruções para preparar a cena
+                prepare(Config.MICROGAME_PREPARATION_BUDGET_PER_FRAME);
                 this.timeSpentOnInstructions += dt;
                 if (timeSpentOnInstructions
                         > Config.TIME_SHOWING_MICROGAME_INSTRUCTIONS) {
@@ -184,9 +204,11 @@ public abstract class MicroGame {
 
     /**
      * Desenha o jogo ou então apenas as mensagens de <em>countdown</em>,
-     * dependendo do estado do microgame.
+     * dependendo do estado do microgame. Antes, espera os jobs agendados em
+     * {@link #jobs} terminarem.
      */
     public final void draw() {
+        jobs.sync();
         switch (this.state) {
             case PLAYING:
                 onDrawGame();
@@ -199,6 +221,28 @@ public abstract class MicroGame {
         }
     }
 
+    /**
+     * Libera os recursos do microgame. É chamado pela tela de jogo quando ele
+     * é substituído pelo próximo ou quando a tela é descartada.
+     */
+    public final void dispose() {
+        // as tarefas agendadas seguram o microgame (e os seus assets)
+        timer.stop();
+        timer.clear();
+        jobs.sync();
+        onDispose();
+    }
+
+    /**
+     * Retorna a dificuldade com que este microgame foi criado (e.g., para a
+     * telemetria).
+     *
+     * @return a dificuldade, entre 0 e 1.
+     */
+    public final float getDifficulty() {
+        return difficulty;
+    }
+
     /**
      * Retorna se o microgame está pausado.
      *
@@ -238,6 +282,20 @@ public abstract class MicroGame {
         return state;
     }
 
+    /**
+     * Executa passos da preparação do microgame até que ela termine ou que
+     * {@code budgetNanos} se esgote. Ao menos um passo é executado.
+     *
+     * @param budgetNanos o tempo disponível, em nanossegundos.
+     */
+    private void prepare(long budgetNanos) {
+        long start = TimeUtils.nanoTime();
+        while (!prepared && TimeUtils.timeSinceNanos(start) < budgetNanos) {
+            prepared = onPrepare(preparationStep++);
+        }
+        preparationNanos += TimeUtils.timeSinceNanos(start);
+    }
+
     /**
      * Muda o estado do microgame para um novo
      * {@link br.microgamr.microgames.util.MicroGameState}. s
@@ -247,11 +305,20 @@ public abstract class MicroGame {
     private void transitionTo(MicroGameState newState) {
         switch (newState) {
             case PLAYING:
+                // termina a preparação, caso as instruções tenham sido
+                // curtas demais, e mede quanto custa ativar o microgame
+                prepare(Long.MAX_VALUE);
+                long activationStart = TimeUtils.nanoTime();
                 this.onStart();
+                MicroGameTimings.record(getClass().getSimpleName(),
+                        preparationNanos,
+                        TimeUtils.timeSinceNanos(activationStart));
 
                 this.timer.scheduleTask(new Task() {
                     @Override
                     public void run() {
+                        FlightRecorder.record(EventType.TIMER_TASK,
+                                "MicroGame.onTimeEnding", 0);
                         stateObserver.onTimeEnding();
                     }
                 }, (maxDuration - Config.MICROGAME_COUNTDOWN_ON_HUD_BEGIN_AT));
@@ -266,6 +333,8 @@ public abstract class MicroGame {
                 break;
         }
         this.state = newState;
+        FlightRecorder.record(EventType.MICROGAME_STATE, newState.name(), 0);
+        GameEvents.microGameStateChanged(getClass(), newState, difficulty);
         this.stateObserver.onStateChanged(state);
     }
 
@@ -307,7 +376,26 @@ public abstract class MicroGame {
     protected abstract void configureDifficultyParameters(float difficulty);
 
     /**
-     * Inicializa o jogo - jogador, inimigos, timers etc.
+     * Prepara o jogo enquanto as instruções são mostradas: busca os assets,
+     * divide texturas, cria animações, jogador, inimigos etc. É chamado
+     * depois de {@link #configureDifficultyParameters(float)}.
+     *
+     * Uma preparação demorada pode ser dividida em passos: este método é
+     * chamado com {@code step} = 0, 1, 2... (alguns por quadro, de acordo com
+     * {@link Config#MICROGAME_PREPARATION_BUDGET_PER_FRAME}) até que retorne
+     * true.
+     *
+     * @param step o número do passo da preparação, começando de 0.
+     * @return true se a preparação terminou, false se há mais passos.
+     */
+    protected boolean onPrepare(int step) {
+        return true;
+    }
+
+    /**
+     * Inicia o jogo - música, timers etc. É chamado no quadro em que o jogador
+     * ganha o controle, por isso deve apenas ativar o que já foi preparado em
+     * {@link #onPrepare(int)}.
      */
     protected abstract void onStart();
 
@@ -317,6 +405,13 @@ public abstract class MicroGame {
      */
     protected abstract void onEnd();
 
+    /**
+     * Libera recursos que não são assets (que são descarregados pela tela),
+     * como um mundo do Box2D. Por padrão, não faz nada.
+     */
+    protected void onDispose() {
+    }
+
     /**
      * É chamado pelo próprio MicroGame quando ele é pausado/resumido pelo
      * jogador. Pode ser usado para interromper/retomar a música de fundo, por
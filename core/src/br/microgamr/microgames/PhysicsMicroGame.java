@@ -0,0 +1,300 @@
+package br.microgamr.microgames;
+
+import br.microgamr.Config;
+import br.microgamr.diagnostics.LeakTracker;
+import br.microgamr.microgames.util.BodyPool;
+import br.microgamr.microgames.util.MicroGameStateObserver;
+import br.microgamr.microgames.util.TimeoutBehavior;
+import br.microgamr.screens.BaseScreen;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.ContactImpulse;
+import com.badlogic.gdx.physics.box2d.ContactListener;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+import com.badlogic.gdx.physics.box2d.Manifold;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Um microgame com física do Box2D. Em vez de mover os objetos e verificar
+ * as colisões "na mão", o microgame cria corpos no {@link #world} e
+ * associa sprites a eles (veja {@link #bind(Body, Sprite)}).
+ *
+ * A simulação avança em passos de tamanho fixo
+ * ({@link Config#PHYSICS_TIME_STEP}), quantos couberem no tempo do quadro,
+ * antes de {@link #onPhysicsUpdate(float)}. Depois dos passos, as sprites
+ * associadas a corpos acordados recebem a posição e a rotação deles, sem
+ * alocar memória.
+ *
+ * Os contatos entre corpos são entregues depois de cada passo, a
+ * {@link #onBeginContact(Object, Object)} e
+ * {@link #onEndContact(Object, Object)}, com os dados dos corpos (veja
+ * {@link Body#setUserData(Object)}). Como a simulação já terminou o passo,
+ * os tratadores podem criar e remover corpos à vontade.
+ *
+ * Corpos que surgem e somem muitas vezes devem vir de um {@link BodyPool}
+ * (veja {@link #createBodyPool(BodyDef, FixtureDef...)}). O mundo é
+ * destruído quando o microgame é descartado.
+ *
+ * As coordenadas do Box2D são em metros: use {@link #toMeters(float)} e
+ * {@link #toPixels(float)} para converter.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public abstract class PhysicsMicroGame extends MicroGame {
+
+    private static final int VELOCITY_ITERATIONS = 6;
+    private static final int POSITION_ITERATIONS = 2;
+    private static final int INITIAL_CONTACT_CAPACITY = 64;
+
+    protected final World world;
+    private float accumulator;
+
+    // sprites associadas a corpos, em arrays paralelos
+    private final Array<Body> boundBodies = new Array<Body>();
+    private final Array<Sprite> boundSprites = new Array<Sprite>();
+
+    // contatos gravados durante um passo, entregues depois dele
+    private Object[] contactsA = new Object[INITIAL_CONTACT_CAPACITY];
+    private Object[] contactsB = new Object[INITIAL_CONTACT_CAPACITY];
+    private boolean[] contactsBegan = new boolean[INITIAL_CONTACT_CAPACITY];
+    private int contactCount;
+
+    /**
+     * Instancia um microgame com física, sem gravidade.
+     *
+     * @param screen a tela dona deste microgame.
+     * @param observer alguém interessado no estado deste microgame.
+     * @param difficulty dificuldade [0,1] que esta instância deve ter.
+     * @param maxDuration quanto tempo este microgame vai durar.
+     * @param endOfGameSituation o que acontece quando o tempo acaba.
+     */
+    public PhysicsMicroGame(BaseScreen screen, MicroGameStateObserver observer,
+            float difficulty, float maxDuration,
+            TimeoutBehavior endOfGameSituation) {
+        this(screen, observer, difficulty, maxDuration, endOfGameSituation,
+                Vector2.Zero);
+    }
+
+    /**
+     * Instancia um microgame com física.
+     *
+     * @param screen a tela dona deste microgame.
+     * @param observer alguém interessado no estado deste microgame.
+     * @param difficulty dificuldade [0,1] que esta instância deve ter.
+     * @param maxDuration quanto tempo este microgame vai durar.
+     * @param endOfGameSituation o que acontece quando o tempo acaba.
+     * @param gravity a gravidade, em metros/s².
+     */
+    public PhysicsMicroGame(BaseScreen screen, MicroGameStateObserver observer,
+            float difficulty, float maxDuration,
+            TimeoutBehavior endOfGameSituation, Vector2 gravity) {
+        super(screen, observer, difficulty, maxDuration, endOfGameSituation);
+        Box2D.init();
+        // corpos parados "dormem" e deixam de ser simulados
+        world = LeakTracker.track(screen, new World(gravity, true));
+        world.setContactListener(new ContactListener() {
+            @Override
+            public void beginContact(Contact contact) {
+                recordContact(contact, true);
+            }
+
+            @Override
+            public void endContact(Contact contact) {
+                recordContact(contact, false);
+            }
+
+            @Override
+            public void preSolve(Contact contact, Manifold oldManifold) {
+            }
+
+            @Override
+            public void postSolve(Contact contact, ContactImpulse impulse) {
+            }
+        });
+    }
+
+    /**
+     * Cria um pool de corpos neste mundo.
+     *
+     * @param bodyDef o molde dos corpos.
+     * @param fixtureDefs os moldes das fixtures de cada corpo.
+     * @return o pool.
+     */
+    protected BodyPool createBodyPool(BodyDef bodyDef,
+            FixtureDef... fixtureDefs) {
+        return new BodyPool(world, bodyDef, fixtureDefs);
+    }
+
+    /**
+     * Faz com que a sprite acompanhe a posição e a rotação do corpo. A origem
+     * da sprite passa a ser o seu centro, que fica sobre a posição do corpo.
+     *
+     * @param body o corpo.
+     * @param sprite a sprite.
+     */
+    protected void bind(Body body, Sprite sprite) {
+        sprite.setOriginCenter();
+        boundBodies.add(body);
+        boundSprites.add(sprite);
+        syncSprite(body, sprite);
+    }
+
+    /**
+     * Desfaz a associação entre um corpo e a sua sprite.
+     *
+     * @param body o corpo.
+     */
+    protected void unbind(Body body) {
+        int index = boundBodies.indexOf(body, true);
+        if (index != -1) {
+            boundBodies.removeIndex(index);
+            boundSprites.removeIndex(index);
+        }
+    }
+
+    private void recordContact(Contact contact, boolean began) {
+        if (contactCount == contactsA.length) {
+            int capacity = contactCount * 2;
+            Object[] a = new Object[capacity];
+            Object[] b = new Object[capacity];
+            boolean[] c = new boolean[capacity];
+            System.arraycopy(contactsA, 0, a, 0, contactCount);
+            System.arraycopy(contactsB, 0, b, 0, contactCount);
+            System.arraycopy(contactsBegan, 0, c, 0, contactCount);
+            contactsA = a;
+            contactsB = b;
+            contactsBegan = c;
+        }
+        contactsA[contactCount] = contact.getFixtureA().getBody().getUserData();
+        contactsB[contactCount] = contact.getFixtureB().getBody().getUserData();
+        contactsBegan[contactCount] = began;
+        contactCount++;
+    }
+
+    private void dispatchContacts() {
+        for (int i = 0; i < contactCount; i++) {
+            if (contactsBegan[i]) {
+                onBeginContact(contactsA[i], contactsB[i]);
+            } else {
+                onEndContact(contactsA[i], contactsB[i]);
+            }
+            contactsA[i] = null;
+            contactsB[i] = null;
+        }
+        contactCount = 0;
+    }
+
+    /**
+     * Avança a simulação em passos fixos, sincroniza as sprites e então
+     * chama {@link #onPhysicsUpdate(float)}.
+     *
+     * @param dt tempo (em segundos) desde a última atualização.
+     */
+    @Override
+    public final void onUpdate(float dt) {
+        accumulator = Math.min(accumulator + dt,
+                Config.PHYSICS_TIME_STEP * Config.PHYSICS_MAX_STEPS_PER_FRAME);
+        while (accumulator >= Config.PHYSICS_TIME_STEP) {
+            onFixedStep(Config.PHYSICS_TIME_STEP);
+            world.step(Config.PHYSICS_TIME_STEP, VELOCITY_ITERATIONS,
+                    POSITION_ITERATIONS);
+            accumulator -= Config.PHYSICS_TIME_STEP;
+            dispatchContacts();
+        }
+        syncSprites();
+        onPhysicsUpdate(dt);
+    }
+
+    private void syncSprites() {
+        Body[] bodies = boundBodies.items;
+        Sprite[] sprites = boundSprites.items;
+        for (int i = 0; i < boundBodies.size; i++) {
+            if (bodies[i].isAwake()) {
+                syncSprite(bodies[i], sprites[i]);
+            }
+        }
+    }
+
+    private static void syncSprite(Body body, Sprite sprite) {
+        // getPosition() reusa o mesmo vetor a cada chamada
+        Vector2 position = body.getPosition();
+        sprite.setPosition(
+                toPixels(position.x) - sprite.getOriginX(),
+                toPixels(position.y) - sprite.getOriginY());
+        sprite.setRotation(body.getAngle() * MathUtils.radiansToDegrees);
+    }
+
+    /**
+     * Destrói o mundo (e todos os seus corpos).
+     */
+    @Override
+    protected void onDispose() {
+        boundBodies.clear();
+        boundSprites.clear();
+        LeakTracker.release(world);
+    }
+
+    /**
+     * Converte uma medida do mundo de jogo (pixels) para metros.
+     *
+     * @param pixels a medida em pixels.
+     * @return a medida em metros.
+     */
+    public static float toMeters(float pixels) {
+        return pixels / Config.PHYSICS_PIXELS_PER_METER;
+    }
+
+    /**
+     * Converte uma medida em metros para o mundo de jogo (pixels).
+     *
+     * @param meters a medida em metros.
+     * @return a medida em pixels.
+     */
+    public static float toPixels(float meters) {
+        return meters * Config.PHYSICS_PIXELS_PER_METER;
+    }
+
+    /**
+     * Chamada antes de cada passo da simulação. Pode ser usada para aplicar
+     * forças de forma independente da taxa de quadros. Por padrão, não faz
+     * nada.
+     *
+     * @param step a duração do passo, em segundos.
+     */
+    protected void onFixedStep(float step) {
+    }
+
+    /**
+     * Chamada depois de cada passo quando dois corpos começam a se tocar.
+     * Por padrão, não faz nada.
+     *
+     * @param userDataA o dado do primeiro corpo.
+     * @param userDataB o dado do segundo corpo.
+     */
+    protected void onBeginContact(Object userDataA, Object userDataB) {
+    }
+
+    /**
+     * Chamada depois de cada passo quando dois corpos deixam de se tocar.
+     * Por padrão, não faz nada.
+     *
+     * @param userDataA o dado do primeiro corpo.
+     * @param userDataB o dado do segundo corpo.
+     */
+    protected void onEndContact(Object userDataA, Object userDataB) {
+    }
+
+    /**
+     * Chamada o tempo todo, depois da simulação, para atualizar a lógica do
+     * jogo.
+     *
+     * @param dt tempo (em segundos) desde a última atualização.
+     */
+    protected abstract void onPhysicsUpdate(float dt);
+}
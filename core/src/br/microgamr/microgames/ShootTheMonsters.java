@@ -1,7 +1,9 @@
 package br.microgamr.microgames;
 
+import br.microgamr.assets.CollisionMask;
 import br.microgamr.microgames.util.DifficultyCurve;
 import br.microgamr.microgames.util.MicroGameStateObserver;
+import br.microgamr.microgames.util.PixelCollision;
 import br.microgamr.microgames.util.TimeoutBehavior;
 import br.microgamr.screens.BaseScreen;
 import com.badlogic.gdx.Gdx;
@@ -25,6 +27,7 @@ public class ShootTheMonsters extends MicroGame {
     // texturas
     private Texture monsterTexture;
     private Texture targetTexture;
+    private CollisionMask monsterMask;
     
     // efeitos sonoros e música de fundo
     private Sound monsterAppearingSound;
@@ -52,12 +55,14 @@ public class ShootTheMonsters extends MicroGame {
     }
 
     @Override
-    protected void onStart() {
+    protected boolean onPrepare(int step) {
         // texturas
         monsterTexture = assets.get(
                 "shoot-the-monsters/monster.png", Texture.class);
         targetTexture = assets.get(
                 "shoot-the-monsters/target.png", Texture.class);
+        monsterMask = assets.get(CollisionMask.pathFor(
+                "shoot-the-monsters/monster.png"), CollisionMask.class);
         // efeitos sonoros
         monsterAppearingSound = assets.get(
                 "shoot-the-monsters/monster1.mp3", Sound.class);
@@ -66,12 +71,17 @@ public class ShootTheMonsters extends MicroGame {
         
         // música de fundo
         backgroundMusic = assets.get("shoot-the-monsters/music.mp3", Music.class);
-        backgroundMusic.play();
         
         // objeto do jogo
         target = new Sprite(targetTexture);
         target.setOriginCenter();
-        enemies = new Array<Sprite>();
+        enemies = new Array<Sprite>(totalEnemies);
+        return true;
+    }
+
+    @Override
+    protected void onStart() {
+        backgroundMusic.play();
         
         // estado inicial do microgame
         enemiesKilled = 0;
@@ -111,17 +121,18 @@ public class ShootTheMonsters extends MicroGame {
 
         // verifica se matou um inimigo
         if (Gdx.input.justTouched()) {
-            // itera no array de inimigos
-            for (int i = 0; i < enemies.size; i++) {
+            // itera no array de inimigos, do que está por cima (o último
+            // desenhado) para o que está por baixo
+            for (int i = enemies.size - 1; i >= 0; i--) {
                 Sprite sprite = enemies.get(i);
-                // se há interseção entre o retângulo da sprite e do alvo,
-                // o tiro acertou
-                if (sprite.getBoundingRectangle().overlaps(
-                        target.getBoundingRectangle())) {
+                // o tiro acerta se o centro da mira está sobre um pixel
+                // opaco do monstro (e não só dentro do seu retângulo)
+                if (PixelCollision.contains(sprite, monsterMask,
+                        click.x, click.y)) {
                     // contabiliza um inimigo morto
                     this.enemiesKilled++;
                     // remove o inimigo do array
-                    this.enemies.removeValue(sprite, true);
+                    this.enemies.removeIndex(i);
                     monsterDyingSound.play();
                     // se tiver matado todos os inimigos, o desafio
                     // está resolvido
@@ -158,11 +169,11 @@ public class ShootTheMonsters extends MicroGame {
     @Override
     public void onDrawGame() {
 
+        // os monstros ficam na camada 0 e a mira, por cima, na 1
         for (int i = 0; i < enemies.size; i++) {
-            Sprite sprite = enemies.get(i);
-            sprite.draw(batch);
+            renderQueue.submit(enemies.get(i), 0, 0);
         }
-        target.draw(batch);
+        renderQueue.submit(target, 1, 0);
     }
 
     @Override
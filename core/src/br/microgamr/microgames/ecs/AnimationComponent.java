@@ -0,0 +1,24 @@
+package br.microgamr.microgames.ecs;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Pool.Poolable;
+
+/**
+ * Uma animação que define a região desenhada de uma entidade (veja
+ * {@link RenderComponent}).
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class AnimationComponent implements Component, Poolable {
+
+    public Animation<TextureRegion> animation;
+    public float time;
+
+    @Override
+    public void reset() {
+        animation = null;
+        time = 0;
+    }
+}
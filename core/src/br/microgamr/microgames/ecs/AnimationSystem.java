@@ -0,0 +1,37 @@
+package br.microgamr.microgames.ecs;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+
+/**
+ * Avança as animações e define a região desenhada de cada entidade. As
+ * entidades que estavam fora da área visível no último quadro só têm o
+ * tempo da animação avançado.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class AnimationSystem extends IteratingSystem {
+
+    private final ComponentMapper<AnimationComponent> animations
+            = ComponentMapper.getFor(AnimationComponent.class);
+    private final ComponentMapper<RenderComponent> renders
+            = ComponentMapper.getFor(RenderComponent.class);
+
+    @SuppressWarnings("unchecked")
+    public AnimationSystem(int priority) {
+        super(Family.all(AnimationComponent.class, RenderComponent.class)
+                .get(), priority);
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float dt) {
+        AnimationComponent animation = animations.get(entity);
+        RenderComponent render = renders.get(entity);
+        animation.time += dt;
+        if (render.visible) {
+            render.region = animation.animation.getKeyFrame(animation.time);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package br.microgamr.microgames.ecs;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool.Poolable;
+
+/**
+ * Faz uma entidade colidir com outras. O retângulo de colisão é o do
+ * {@link TransformComponent}.
+ *
+ * Duas entidades só são testadas se o grupo de uma estiver na máscara da
+ * outra (e.g., monstros, grupo 1, com máscara 2, e dentes, grupo 2).
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class CollisionComponent implements Component, Poolable {
+
+    public int group = 1;
+    public int mask = ~0;
+
+    @Override
+    public void reset() {
+        group = 1;
+        mask = ~0;
+    }
+}
@@ -0,0 +1,20 @@
+package br.microgamr.microgames.ecs;
+
+import com.badlogic.ashley.core.Entity;
+
+/**
+ * Alguém interessado nas colisões detectadas pelo {@link CollisionSystem}.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public interface CollisionListener {
+
+    /**
+     * Duas entidades estão se sobrepondo neste quadro. A entidade {@code a}
+     * é a que tem a outra na sua máscara de colisão.
+     *
+     * @param a uma entidade.
+     * @param b a entidade com que ela colidiu.
+     */
+    public void onCollision(Entity a, Entity b);
+}
@@ -0,0 +1,187 @@
+package br.microgamr.microgames.ecs;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import java.util.Arrays;
+
+/**
+ * Detecta sobreposições entre as entidades com {@link CollisionComponent}.
+ *
+ * Os retângulos são copiados para arrays de floats e, para cada grupo de
+ * colisão que aparece em alguma máscara, as entidades do grupo são ordenadas
+ * pelo x inicial. Cada entidade com máscara procura, por busca binária, só
+ * as entidades dos grupos da sua máscara que se sobrepõem a ela no eixo x.
+ * Assim, 20.000 monstros que só colidem com 3 dentes custam cerca de 20.000
+ * buscas em uma lista de 3 elementos, e não testes entre os próprios
+ * monstros.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class CollisionSystem extends EntitySystem {
+
+    private static final int GROUPS = 32;
+
+    private final ComponentMapper<TransformComponent> transforms
+            = ComponentMapper.getFor(TransformComponent.class);
+    private final ComponentMapper<CollisionComponent> collisions
+            = ComponentMapper.getFor(CollisionComponent.class);
+    private final Family family;
+    private final CollisionListener listener;
+    private ImmutableArray<Entity> entities;
+
+    // os retângulos e as máscaras das entidades, na ordem da família
+    private float[] minX = new float[0];
+    private float[] maxX = new float[0];
+    private float[] minY = new float[0];
+    private float[] maxY = new float[0];
+    private int[] groups = new int[0];
+    private int[] masks = new int[0];
+
+    // para cada grupo: as entidades ordenadas pelo x inicial e a maior largura
+    private final long[][] groupKeys = new long[GROUPS][];
+    private final float[][] groupMinX = new float[GROUPS][];
+    private final int[] groupSizes = new int[GROUPS];
+    private final float[] groupMaxWidth = new float[GROUPS];
+
+    @SuppressWarnings("unchecked")
+    public CollisionSystem(int priority, CollisionListener listener) {
+        super(priority);
+        this.family = Family.all(TransformComponent.class,
+                CollisionComponent.class).get();
+        this.listener = listener;
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        entities = engine.getEntitiesFor(family);
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        entities = null;
+    }
+
+    @Override
+    public void update(float dt) {
+        int count = entities.size();
+        ensureCapacity(count);
+        int allGroups = 0;
+        int allMasks = 0;
+        for (int i = 0; i < count; i++) {
+            Entity entity = entities.get(i);
+            TransformComponent transform = transforms.get(entity);
+            CollisionComponent collision = collisions.get(entity);
+            minX[i] = transform.x;
+            maxX[i] = transform.x + transform.width;
+            minY[i] = transform.y;
+            maxY[i] = transform.y + transform.height;
+            groups[i] = collision.group;
+            masks[i] = collision.mask;
+            allGroups |= collision.group;
+            allMasks |= collision.mask;
+        }
+
+        // só os grupos que alguém quer tocar precisam ser ordenados
+        int usedGroups = allGroups & allMasks;
+        if (usedGroups == 0) {
+            return;
+        }
+        for (int g = 0; g < GROUPS; g++) {
+            if ((usedGroups & (1 << g)) != 0) {
+                sortGroup(g, count);
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            int mask = masks[i] & usedGroups;
+            while (mask != 0) {
+                int g = Integer.numberOfTrailingZeros(mask);
+                mask &= mask - 1;
+                collideWithGroup(i, g);
+            }
+        }
+    }
+
+    private void sortGroup(int g, int count) {
+        int bit = 1 << g;
+        long[] keys = groupKeys[g];
+        if (keys == null || keys.length < count) {
+            keys = groupKeys[g] = new long[Math.max(count, minX.length)];
+            groupMinX[g] = new float[keys.length];
+        }
+        int size = 0;
+        float maxWidth = 0;
+        for (int i = 0; i < count; i++) {
+            if ((groups[i] & bit) != 0) {
+                // ordena pelo x inicial, levando o índice nos 32 bits de baixo
+                keys[size++] = ((long) sortableBits(minX[i]) << 32) | i;
+                maxWidth = Math.max(maxWidth, maxX[i] - minX[i]);
+            }
+        }
+        Arrays.sort(keys, 0, size);
+        float[] sortedMinX = groupMinX[g];
+        for (int k = 0; k < size; k++) {
+            sortedMinX[k] = minX[(int) keys[k]];
+        }
+        groupSizes[g] = size;
+        groupMaxWidth[g] = maxWidth;
+    }
+
+    private void collideWithGroup(int i, int g) {
+        long[] keys = groupKeys[g];
+        float[] sortedMinX = groupMinX[g];
+        int size = groupSizes[g];
+        int lowerBits = (1 << g) - 1;
+
+        // ninguém do grupo que começa antes disso alcança esta entidade
+        float from = minX[i] - groupMaxWidth[g];
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedMinX[middle] < from) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        for (int k = low; k < size && sortedMinX[k] <= maxX[i]; k++) {
+            int j = (int) keys[k];
+            if (j == i || maxX[j] < minX[i]
+                    || minY[i] > maxY[j] || minY[j] > maxY[i]) {
+                continue;
+            }
+            // se j está em mais de um grupo da máscara, avisa só no primeiro
+            if ((masks[i] & groups[j] & lowerBits) != 0) {
+                continue;
+            }
+            listener.onCollision(entities.get(i), entities.get(j));
+        }
+    }
+
+    /**
+     * Converte um float em um int com sinal que mantém a ordem dos floats.
+     */
+    private static int sortableBits(float value) {
+        int bits = Float.floatToIntBits(value);
+        return bits ^ ((bits >> 31) & 0x7FFFFFFF);
+    }
+
+    private void ensureCapacity(int count) {
+        if (minX.length >= count) {
+            return;
+        }
+        int capacity = Math.max(count, minX.length * 2);
+        minX = new float[capacity];
+        maxX = new float[capacity];
+        minY = new float[capacity];
+        maxY = new float[capacity];
+        groups = new int[capacity];
+        masks = new int[capacity];
+    }
+}
@@ -0,0 +1,33 @@
+package br.microgamr.microgames.ecs;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+
+/**
+ * Move as entidades de acordo com a sua velocidade.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class MovementSystem extends IteratingSystem {
+
+    private final ComponentMapper<TransformComponent> transforms
+            = ComponentMapper.getFor(TransformComponent.class);
+    private final ComponentMapper<VelocityComponent> velocities
+            = ComponentMapper.getFor(VelocityComponent.class);
+
+    @SuppressWarnings("unchecked")
+    public MovementSystem(int priority) {
+        super(Family.all(TransformComponent.class, VelocityComponent.class)
+                .get(), priority);
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float dt) {
+        TransformComponent transform = transforms.get(entity);
+        VelocityComponent velocity = velocities.get(entity);
+        transform.x += velocity.x * dt;
+        transform.y += velocity.y * dt;
+    }
+}
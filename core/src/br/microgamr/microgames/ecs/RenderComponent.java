@@ -0,0 +1,33 @@
+package br.microgamr.microgames.ecs;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Pool.Poolable;
+
+/**
+ * O que é desenhado para uma entidade: uma região de textura, com uma cor,
+ * em uma camada da {@link br.microgamr.graphics.RenderQueue}.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class RenderComponent implements Component, Poolable {
+
+    public TextureRegion region;
+    public float packedColor = Color.WHITE_FLOAT_BITS;
+    public int layer;
+
+    /**
+     * Se a entidade está dentro da área visível (atualizado pelo
+     * {@link RenderSystem} a cada quadro).
+     */
+    public boolean visible = true;
+
+    @Override
+    public void reset() {
+        region = null;
+        packedColor = Color.WHITE_FLOAT_BITS;
+        layer = 0;
+        visible = true;
+    }
+}
@@ -0,0 +1,47 @@
+package br.microgamr.microgames.ecs;
+
+import br.microgamr.graphics.RenderQueue;
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+
+/**
+ * Envia as entidades à {@link RenderQueue}, que as ordena por camada e
+ * textura e descarta as que estão fora da tela. A profundidade é o oposto do
+ * y, então quem está mais abaixo fica por cima dentro de uma camada.
+ *
+ * Este sistema não é processado pelo {@code engine.update()}: o
+ * {@link br.microgamr.microgames.EcsMicroGame} o executa em
+ * {@code onDrawGame()}.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class RenderSystem extends IteratingSystem {
+
+    private final ComponentMapper<TransformComponent> transforms
+            = ComponentMapper.getFor(TransformComponent.class);
+    private final ComponentMapper<RenderComponent> renders
+            = ComponentMapper.getFor(RenderComponent.class);
+    private final RenderQueue queue;
+
+    @SuppressWarnings("unchecked")
+    public RenderSystem(RenderQueue queue) {
+        super(Family.all(TransformComponent.class, RenderComponent.class)
+                .get());
+        this.queue = queue;
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float dt) {
+        TransformComponent transform = transforms.get(entity);
+        RenderComponent render = renders.get(entity);
+        render.visible = queue.isVisible(transform.x, transform.y,
+                transform.width, transform.height);
+        if (render.region != null) {
+            queue.submit(render.region, transform.x, transform.y,
+                    transform.width, transform.height, render.packedColor,
+                    render.layer, -transform.y);
+        }
+    }
+}
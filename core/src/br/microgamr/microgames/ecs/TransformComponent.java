@@ -0,0 +1,36 @@
+package br.microgamr.microgames.ecs;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool.Poolable;
+
+/**
+ * A posição (canto inferior esquerdo) e o tamanho de uma entidade, no mundo
+ * de jogo.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class TransformComponent implements Component, Poolable {
+
+    public float x;
+    public float y;
+    public float width;
+    public float height;
+
+    public void setCenter(float centerX, float centerY) {
+        x = centerX - width / 2;
+        y = centerY - height / 2;
+    }
+
+    public float getCenterX() {
+        return x + width / 2;
+    }
+
+    public float getCenterY() {
+        return y + height / 2;
+    }
+
+    @Override
+    public void reset() {
+        x = y = width = height = 0;
+    }
+}
@@ -0,0 +1,25 @@
+package br.microgamr.microgames.ecs;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool.Poolable;
+
+/**
+ * A velocidade de uma entidade, em unidades do mundo por segundo.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class VelocityComponent implements Component, Poolable {
+
+    public float x;
+    public float y;
+
+    public void set(float x, float y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    @Override
+    public void reset() {
+        x = y = 0;
+    }
+}
@@ -0,0 +1,31 @@
+package br.microgamr.microgames.factories;
+
+import br.microgamr.microgames.ExpelTheMonstersEcs;
+import br.microgamr.microgames.MicroGame;
+import br.microgamr.microgames.util.MicroGameStateObserver;
+import br.microgamr.screens.BaseScreen;
+import java.util.Map;
+
+/**
+ * Fábrica da versão com entidades do jogo ExpelTheMonsters. Usa os mesmos
+ * assets da versão original.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+@MicroGameInfo(name = "Expel the Monsters (ECS)")
+public class ExpelTheMonstersEcsFactory implements MicroGameFactory {
+
+    private final ExpelTheMonstersFactory original
+            = new ExpelTheMonstersFactory();
+
+    @Override
+    public MicroGame createMicroGame(BaseScreen screen,
+            MicroGameStateObserver observer, float difficulty) {
+        return new ExpelTheMonstersEcs(screen, observer, difficulty);
+    }
+
+    @Override
+    public Map<String, Class<?>> getAssetsToPreload() {
+        return original.getAssetsToPreload();
+    }
+}
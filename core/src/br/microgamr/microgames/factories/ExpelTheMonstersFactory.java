@@ -1,5 +1,8 @@
 package br.microgamr.microgames.factories;
 
+import br.microgamr.assets.CollisionMask;
+import br.microgamr.assets.PreloadAssets;
+import br.microgamr.assets.TextureFormat;
 import br.microgamr.microgames.ExpelTheMonsters;
 import br.microgamr.microgames.MicroGame;
 import br.microgamr.microgames.util.MicroGameStateObserver;
@@ -7,7 +10,6 @@ import br.microgamr.screens.BaseScreen;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.Texture;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -15,6 +17,7 @@ import java.util.Map;
  * 
  * @author Flávio Coutinho <fegemo@cefetmg.br>
  */
+@MicroGameInfo(name = "Expel the Monsters")
 public class ExpelTheMonstersFactory implements MicroGameFactory {
 
     @Override
@@ -24,15 +27,22 @@ public class ExpelTheMonstersFactory implements MicroGameFactory {
     }
 
     @Override
-    public Map<String, Class> getAssetsToPreload() {
-        return new HashMap<String, Class>() {
+    public Map<String, Class<?>> getAssetsToPreload() {
+        return new PreloadAssets() {
             {
                 // texturas
-                put("expel-the-monsters/toothbrush-spritesheet.png",
-                        Texture.class);
+                texture("expel-the-monsters/toothbrush-spritesheet.png",
+                        TextureFormat.RGBA4444);
                 put("expel-the-monsters/monster-spritesheet.png",
                         Texture.class);
                 put("expel-the-monsters/tooth.png", Texture.class);
+
+                // máscaras de colisão dos monstros e dos dentes
+                put(CollisionMask.pathFor(
+                        "expel-the-monsters/monster-spritesheet.png"),
+                        CollisionMask.class);
+                put(CollisionMask.pathFor("expel-the-monsters/tooth.png"),
+                        CollisionMask.class);
                 
                 // efeitos sonors
                 put("expel-the-monsters/appearing1.wav", Sound.class);
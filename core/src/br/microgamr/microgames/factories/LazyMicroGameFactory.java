@@ -0,0 +1,115 @@
+package br.microgamr.microgames.factories;
+
+import br.microgamr.assets.PreloadAssets;
+import br.microgamr.assets.TextureFormat;
+import br.microgamr.microgames.MicroGame;
+import br.microgamr.microgames.util.MicroGameStateObserver;
+import br.microgamr.screens.BaseScreen;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.badlogic.gdx.utils.reflect.ReflectionException;
+import java.util.Map;
+
+/**
+ * Uma fábrica que representa uma entrada do {@link MicroGameCatalog}.
+ *
+ * Ela conhece os metadados e os assets do microgame sem precisar da classe
+ * dele: a fábrica verdadeira (e, com ela, a classe do microgame) só é
+ * carregada quando o microgame é instanciado pela primeira vez.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class LazyMicroGameFactory implements MicroGameFactory {
+
+    private final String factoryClassName;
+    private final String name;
+    private final float weight;
+    private final PreloadAssets assets;
+    private MicroGameFactory factory;
+
+    /**
+     * Cria a fábrica a partir de uma entrada do catálogo.
+     *
+     * @param factoryClassName o nome completo da classe da fábrica.
+     * @param name o nome do microgame.
+     * @param weight o peso do microgame no sorteio.
+     * @param assets os assets do microgame (caminho -> tipo).
+     * @param textureFormats os formatos declarados para as texturas do
+     * microgame (caminho -> formato).
+     */
+    public LazyMicroGameFactory(String factoryClassName, String name,
+            float weight, Map<String, Class<?>> assets,
+            Map<String, TextureFormat> textureFormats) {
+        this.factoryClassName = factoryClassName;
+        this.name = name;
+        this.weight = weight;
+        this.assets = new PreloadAssets();
+        for (Map.Entry<String, Class<?>> asset : assets.entrySet()) {
+            TextureFormat format = textureFormats.get(asset.getKey());
+            if (format != null) {
+                this.assets.texture(asset.getKey(), format);
+            } else {
+                this.assets.put(asset.getKey(), asset.getValue());
+            }
+        }
+    }
+
+    @Override
+    public MicroGame createMicroGame(BaseScreen screen,
+            MicroGameStateObserver observer, float difficulty) {
+        return getFactory().createMicroGame(screen, observer, difficulty);
+    }
+
+    /**
+     * Retorna os assets registrados no catálogo, com os formatos das
+     * texturas. O mapa é compartilhado entre as chamadas e não deve ser
+     * modificado.
+     *
+     * @return os recursos que devem ser pré-carregados para este microgame.
+     */
+    @Override
+    public Map<String, Class<?>> getAssetsToPreload() {
+        return assets;
+    }
+
+    /**
+     * Retorna a fábrica verdadeira, carregando a classe dela na primeira
+     * chamada.
+     *
+     * @return a fábrica do microgame.
+     */
+    public MicroGameFactory getFactory() {
+        if (factory == null) {
+            try {
+                Class<?> type = ClassReflection.forName(factoryClassName);
+                factory = (MicroGameFactory) ClassReflection.newInstance(type);
+            } catch (ReflectionException ex) {
+                throw new GdxRuntimeException("Não foi possível instanciar "
+                        + "a fábrica " + factoryClassName + " do catálogo "
+                        + "de microgames.", ex);
+            }
+        }
+        return factory;
+    }
+
+    /**
+     * Retorna se a classe da fábrica já foi carregada.
+     *
+     * @return true se a fábrica verdadeira já foi instanciada.
+     */
+    public boolean isFactoryLoaded() {
+        return factory != null;
+    }
+
+    public String getFactoryClassName() {
+        return factoryClassName;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public float getWeight() {
+        return weight;
+    }
+}
@@ -0,0 +1,137 @@
+package br.microgamr.microgames.factories;
+
+import br.microgamr.assets.TextureFormat;
+import br.microgamr.logic.MicroGameRegistry;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.badlogic.gdx.utils.reflect.ReflectionException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * O catálogo dos microgames do jogo, gerado em tempo de build pela tarefa
+ * {@code generateMicroGameCatalog} do Gradle a partir da lista
+ * {@code microGameFactories} do {@code desktop/build.gradle}.
+ *
+ * Cada entrada tem o nome da classe da fábrica, os metadados de
+ * {@link MicroGameInfo} e os assets do microgame. Assim, o jogo monta o
+ * {@link MicroGameRegistry} sem carregar nenhuma classe de microgame: elas só
+ * são carregadas quando uma sequência as sorteia (veja
+ * {@link LazyMicroGameFactory}).
+ *
+ * Formato do arquivo:
+ * <pre>
+ * [
+ *   {
+ *     "factory": "br.microgamr.microgames.factories.SuperMicroJogoFactory",
+ *     "name": "Super Micro Jogo",
+ *     "weight": 1,
+ *     "assets": { "super-micro-jogo/personagem.png": "com.badlogic.gdx.graphics.Texture" },
+ *     "textureFormats": { "super-micro-jogo/personagem.png": "RGBA4444" }
+ *   }
+ * ]
+ * </pre>
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class MicroGameCatalog {
+
+    public static final String CATALOG_FILE = "microgames.json";
+
+    private static MicroGameRegistry registry;
+
+    private MicroGameCatalog() {
+    }
+
+    /**
+     * Retorna o catálogo de microgames do jogo, lendo-o de
+     * {@link #CATALOG_FILE} apenas na primeira chamada.
+     *
+     * @return o catálogo, com os microgames na ordem do arquivo.
+     */
+    public static MicroGameRegistry getRegistry() {
+        if (registry == null) {
+            registry = load(Gdx.files.internal(CATALOG_FILE));
+        }
+        return registry;
+    }
+
+    /**
+     * Lê um catálogo de microgames.
+     *
+     * @param file o arquivo do catálogo.
+     * @return o catálogo, com os microgames na ordem do arquivo.
+     */
+    public static MicroGameRegistry load(FileHandle file) {
+        if (!file.exists()) {
+            throw new GdxRuntimeException("O catálogo de microgames ("
+                    + file.path() + ") não existe. Execute a tarefa "
+                    + "generateMicroGameCatalog do Gradle.");
+        }
+        // tipos de assets são repetidos por todo o catálogo
+        HashMap<String, Class<?>> types = new HashMap<String, Class<?>>();
+
+        MicroGameRegistry catalog = new MicroGameRegistry();
+        for (JsonValue entry = new JsonReader().parse(file).child;
+                entry != null; entry = entry.next) {
+            LinkedHashMap<String, Class<?>> assets
+                    = new LinkedHashMap<String, Class<?>>();
+            for (JsonValue asset = entry.get("assets").child; asset != null;
+                    asset = asset.next) {
+                assets.put(asset.name, typeOf(asset.asString(), types));
+            }
+
+            HashMap<String, TextureFormat> formats
+                    = new HashMap<String, TextureFormat>();
+            JsonValue textureFormats = entry.get("textureFormats");
+            if (textureFormats != null) {
+                for (JsonValue format = textureFormats.child; format != null;
+                        format = format.next) {
+                    formats.put(format.name,
+                            TextureFormat.valueOf(format.asString()));
+                }
+            }
+
+            LazyMicroGameFactory factory = new LazyMicroGameFactory(
+                    entry.getString("factory"), entry.getString("name"),
+                    entry.getFloat("weight", MicroGameRegistry.DEFAULT_WEIGHT),
+                    assets, formats);
+            catalog.register(factory, factory.getWeight());
+        }
+        return catalog;
+    }
+
+    private static Class<?> typeOf(String className,
+            Map<String, Class<?>> types) {
+        Class<?> type = types.get(className);
+        if (type == null) {
+            try {
+                type = ClassReflection.forName(className);
+            } catch (ReflectionException ex) {
+                throw new GdxRuntimeException("Tipo de asset desconhecido no "
+                        + "catálogo de microgames: " + className, ex);
+            }
+            types.put(className, type);
+        }
+        return type;
+    }
+
+    /**
+     * Retorna o nome de um microgame: o do catálogo, ou o nome da classe da
+     * fábrica caso ela não tenha vindo do catálogo.
+     *
+     * @param factory a fábrica do microgame.
+     * @return o nome do microgame.
+     */
+    public static String getName(MicroGameFactory factory) {
+        if (factory instanceof LazyMicroGameFactory) {
+            return ((LazyMicroGameFactory) factory).getName();
+        }
+        return factory.getClass().getSimpleName();
+    }
+}
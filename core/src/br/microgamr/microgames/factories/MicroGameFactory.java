@@ -32,5 +32,5 @@ public interface MicroGameFactory {
      *
      * @return os recursos que devem ser pré-carregados para este MiniGame.
      */
-    public Map<String, Class> getAssetsToPreload();
+    public Map<String, Class<?>> getAssetsToPreload();
 }
@@ -0,0 +1,33 @@
+package br.microgamr.microgames.factories;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Metadados de um microgame, anotados na sua fábrica. São lidos apenas em
+ * tempo de build, quando o catálogo de microgames é gerado (veja
+ * {@link MicroGameCatalog}).
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface MicroGameInfo {
+
+    /**
+     * O nome do microgame, como deve ser mostrado ao jogador.
+     *
+     * @return o nome do microgame.
+     */
+    String name();
+
+    /**
+     * O peso do microgame no sorteio: um microgame com peso 2 aparece, em
+     * média, duas vezes mais do que um com peso 1.
+     *
+     * @return o peso do microgame.
+     */
+    float weight() default 1;
+}
@@ -1,13 +1,14 @@
 package br.microgamr.microgames.factories;
 
+import br.microgamr.assets.CollisionMask;
+import br.microgamr.assets.PreloadAssets;
+import br.microgamr.assets.TextureFormat;
 import br.microgamr.microgames.MicroGame;
 import br.microgamr.microgames.ShootTheMonsters;
 import br.microgamr.microgames.util.MicroGameStateObserver;
 import br.microgamr.screens.BaseScreen;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
-import com.badlogic.gdx.graphics.Texture;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -15,6 +16,7 @@ import java.util.Map;
  * 
  * @author fegemo <coutinho@decom.cefetmg.br>
  */
+@MicroGameInfo(name = "Shoot the Monsters")
 public class ShootTheMonstersFactory implements MicroGameFactory {
 
     /**
@@ -37,12 +39,18 @@ public class ShootTheMonstersFactory implements MicroGameFactory {
      * @return todos os <em>assets</em> usados neste microgame.
      */
     @Override
-    public Map<String, Class> getAssetsToPreload() {
-        return new HashMap<String, Class>() {
+    public Map<String, Class<?>> getAssetsToPreload() {
+        return new PreloadAssets() {
             {
                 // texturas
-                put("shoot-the-monsters/monster.png", Texture.class);
-                put("shoot-the-monsters/target.png", Texture.class);
+                texture("shoot-the-monsters/monster.png",
+                        TextureFormat.RGBA4444);
+                texture("shoot-the-monsters/target.png",
+                        TextureFormat.RGBA4444);
+
+                // máscara de colisão dos monstros
+                put(CollisionMask.pathFor("shoot-the-monsters/monster.png"),
+                        CollisionMask.class);
                 
                 // efeitos sonoros
                 put("shoot-the-monsters/monster1.mp3", Sound.class);
@@ -0,0 +1,16 @@
+package br.microgamr.microgames.util;
+
+/**
+ * Base para implementações de {@link Curve}: basta definir
+ * {@link #getCurveValue(float)}, e o valor reescalado para um intervalo é
+ * calculado a partir dele.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public abstract class AbstractCurve implements Curve {
+
+    @Override
+    public float getCurveValueBetween(float value, float min, float max) {
+        return getCurveValue(value) * (max - min) + min;
+    }
+}
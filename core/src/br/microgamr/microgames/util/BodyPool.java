@@ -0,0 +1,109 @@
+package br.microgamr.microgames.util;
+
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Um pool de corpos do Box2D criados a partir de um mesmo molde (uma
+ * {@link BodyDef} e as suas {@link FixtureDef}s). Corpos devolvidos ao pool
+ * são apenas desativados (saem da simulação) e são reativados no lugar de
+ * criar corpos e fixtures novos, o que evita alocações nativas e do lado do
+ * Java quando muitos corpos surgem e somem (e.g., tiros e inimigos).
+ *
+ * Os corpos pertencem ao mundo e são destruídos junto com ele.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class BodyPool {
+
+    private final World world;
+    private final BodyDef bodyDef;
+    private final FixtureDef[] fixtureDefs;
+    private final Array<Body> free;
+    private int created;
+
+    /**
+     * Cria um pool de corpos.
+     *
+     * @param world o mundo dos corpos.
+     * @param bodyDef o molde dos corpos. A posição e o ângulo são definidos a
+     * cada {@link #obtain(float, float, float, Object)}.
+     * @param fixtureDefs os moldes das fixtures de cada corpo. As formas
+     * (shapes) são copiadas pelo Box2D e podem ser descartadas depois que
+     * o primeiro corpo for criado.
+     */
+    public BodyPool(World world, BodyDef bodyDef, FixtureDef... fixtureDefs) {
+        this.world = world;
+        this.bodyDef = bodyDef;
+        this.fixtureDefs = fixtureDefs;
+        this.free = new Array<Body>(false, 16);
+    }
+
+    /**
+     * Retorna um corpo ativo na posição dada, reaproveitando um devolvido ao
+     * pool se houver.
+     *
+     * @param x a posição x, em metros.
+     * @param y a posição y, em metros.
+     * @param angle o ângulo, em radianos.
+     * @param userData o dado associado ao corpo (e.g., o objeto do jogo),
+     * que é informado nos contatos.
+     * @return o corpo.
+     */
+    public Body obtain(float x, float y, float angle, Object userData) {
+        Body body;
+        if (free.size > 0) {
+            body = free.pop();
+            body.setTransform(x, y, angle);
+            body.setLinearVelocity(0, 0);
+            body.setAngularVelocity(0);
+            body.setActive(true);
+            body.setAwake(true);
+        } else {
+            bodyDef.position.set(x, y);
+            bodyDef.angle = angle;
+            body = world.createBody(bodyDef);
+            for (FixtureDef fixtureDef : fixtureDefs) {
+                body.createFixture(fixtureDef);
+            }
+            created++;
+        }
+        body.setUserData(userData);
+        return body;
+    }
+
+    /**
+     * Devolve um corpo ao pool. Não deve ser chamado durante um passo da
+     * simulação (e.g., dentro de um ContactListener), mas pode ser chamado
+     * nos tratadores de contato de
+     * {@link br.microgamr.microgames.PhysicsMicroGame}.
+     *
+     * @param body o corpo, obtido deste pool.
+     */
+    public void free(Body body) {
+        body.setActive(false);
+        body.setUserData(null);
+        free.add(body);
+    }
+
+    /**
+     * Retorna quantos corpos este pool já criou (ativos ou não).
+     *
+     * @return o número de corpos criados.
+     */
+    public int getCreatedCount() {
+        return created;
+    }
+
+    /**
+     * Retorna quantos corpos estão disponíveis no pool.
+     *
+     * @return o número de corpos livres.
+     */
+    public int getFreeCount() {
+        return free.size;
+    }
+}
@@ -0,0 +1,62 @@
+package br.microgamr.microgames.util;
+
+/**
+ * Uma curva pré-calculada em uma tabela de tamanho fixo. Avaliá-la custa uma
+ * consulta à tabela e uma interpolação linear entre duas entradas, qualquer
+ * que seja a curva original (e.g., uma logística, que chamaria
+ * <code>Math.exp</code>), então ela pode ser avaliada para cada entidade a
+ * cada quadro.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public final class CompiledCurve extends AbstractCurve {
+
+    /**
+     * Em quantos intervalos o domínio [0, 1] é dividido.
+     */
+    public static final int RESOLUTION = 256;
+
+    private final float[] table;
+
+    private CompiledCurve(float[] table) {
+        this.table = table;
+    }
+
+    /**
+     * Pré-calcula a curva {@code curve}.
+     *
+     * @param curve a curva original.
+     * @return a curva compilada.
+     */
+    public static CompiledCurve compile(Curve curve) {
+        if (curve instanceof CompiledCurve) {
+            return (CompiledCurve) curve;
+        }
+        float[] table = new float[RESOLUTION + 1];
+        for (int i = 0; i <= RESOLUTION; i++) {
+            table[i] = curve.getCurveValue((float) i / RESOLUTION);
+        }
+        return new CompiledCurve(table);
+    }
+
+    /**
+     * Retorna o valor da curva. Valores de x fora de [0, 1] são limitados a
+     * esse intervalo.
+     *
+     * @param value o valor de x.
+     * @return o valor de y interpolado da tabela.
+     */
+    @Override
+    public float getCurveValue(float value) {
+        if (!(value > 0)) {
+            return table[0];
+        }
+        if (value >= 1) {
+            return table[RESOLUTION];
+        }
+        float position = value * RESOLUTION;
+        int index = (int) position;
+        float a = table[index];
+        return a + (table[index + 1] - a) * (position - index);
+    }
+}
@@ -0,0 +1,29 @@
+package br.microgamr.microgames.util;
+
+/**
+ * Uma curva que mapeia um valor de x entre 0 e 1 para um valor de y (e.g.,
+ * uma curva de dificuldade ou de aceleração). As curvas prontas estão em
+ * {@link DifficultyCurve} e outras podem ser criadas com {@link Curves}.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public interface Curve {
+
+    /**
+     * Retorna o valor da curva.
+     *
+     * @param value o valor de x, entre 0 e 1.
+     * @return o valor de y na curva para o x provido.
+     */
+    public float getCurveValue(float value);
+
+    /**
+     * Retorna o valor da curva reescalado para o intervalo [min, max].
+     *
+     * @param value o valor de x, entre 0 e 1.
+     * @param min o valor de y quando a curva vale 0.
+     * @param max o valor de y quando a curva vale 1.
+     * @return o valor de y reescalado.
+     */
+    public float getCurveValueBetween(float value, float min, float max);
+}
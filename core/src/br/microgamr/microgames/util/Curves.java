@@ -0,0 +1,267 @@
+package br.microgamr.microgames.util;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Cria curvas além das prontas em {@link DifficultyCurve}: lineares por
+ * partes, splines cúbicas e logísticas com inclinação ajustável, sempre já
+ * compiladas em uma {@link CompiledCurve}.
+ *
+ * As curvas também podem ser descritas em JSON (veja
+ * {@link #fromJson(JsonValue)}), e.g., em um arquivo de assets do
+ * microgame:
+ *
+ * <pre>
+ * {
+ *   velocidade: { type: spline, points: [0, 0, 0.3, 0.6, 1, 1] },
+ *   surgimento: { type: logistic, steepness: 10, midpoint: 0.4,
+ *                 inverted: true },
+ *   dentes: { type: linear, points: [0, 0, 0.5, 0.2, 1, 1] },
+ *   padrao: { type: preset, name: S }
+ * }
+ * </pre>
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class Curves {
+
+    private Curves() {
+    }
+
+    /**
+     * Cria uma curva linear por partes que passa pelos pontos
+     * {@code points}.
+     *
+     * @param points os pontos, como x0, y0, x1, y1..., com x crescente entre
+     * 0 e 1. Antes do primeiro e depois do último, a curva é constante.
+     * @return a curva compilada.
+     */
+    public static CompiledCurve piecewiseLinear(float... points) {
+        final float[] xs = xs(points);
+        final float[] ys = ys(points);
+        return CompiledCurve.compile(new AbstractCurve() {
+            @Override
+            public float getCurveValue(float value) {
+                int i = segmentOf(xs, value);
+                if (i < 0) {
+                    return value <= xs[0] ? ys[0] : ys[ys.length - 1];
+                }
+                float t = (value - xs[i]) / (xs[i + 1] - xs[i]);
+                return ys[i] + (ys[i + 1] - ys[i]) * t;
+            }
+        });
+    }
+
+    /**
+     * Cria uma spline cúbica que passa pelos pontos {@code points}. As
+     * tangentes são escolhidas de forma que a curva seja monotônica onde os
+     * pontos forem (Fritsch-Carlson), então ela não "passa do ponto" entre
+     * dois pontos, como uma spline natural faria.
+     *
+     * @param points os pontos, como x0, y0, x1, y1..., com x crescente entre
+     * 0 e 1. Antes do primeiro e depois do último, a curva é constante.
+     * @return a curva compilada.
+     */
+    public static CompiledCurve cubicSpline(float... points) {
+        final float[] xs = xs(points);
+        final float[] ys = ys(points);
+        final float[] tangents = monotoneTangents(xs, ys);
+        return CompiledCurve.compile(new AbstractCurve() {
+            @Override
+            public float getCurveValue(float value) {
+                int i = segmentOf(xs, value);
+                if (i < 0) {
+                    return value <= xs[0] ? ys[0] : ys[ys.length - 1];
+                }
+                float h = xs[i + 1] - xs[i];
+                float t = (value - xs[i]) / h;
+                float t2 = t * t;
+                float t3 = t2 * t;
+                return (2 * t3 - 3 * t2 + 1) * ys[i]
+                        + (t3 - 2 * t2 + t) * h * tangents[i]
+                        + (-2 * t3 + 3 * t2) * ys[i + 1]
+                        + (t3 - t2) * h * tangents[i + 1];
+            }
+        });
+    }
+
+    private static float[] monotoneTangents(float[] xs, float[] ys) {
+        int n = xs.length;
+        float[] slopes = new float[n - 1];
+        for (int i = 0; i < n - 1; i++) {
+            slopes[i] = (ys[i + 1] - ys[i]) / (xs[i + 1] - xs[i]);
+        }
+        float[] tangents = new float[n];
+        tangents[0] = slopes[0];
+        tangents[n - 1] = slopes[n - 2];
+        for (int i = 1; i < n - 1; i++) {
+            tangents[i] = slopes[i - 1] * slopes[i] <= 0
+                    ? 0 : (slopes[i - 1] + slopes[i]) / 2;
+        }
+        for (int i = 0; i < n - 1; i++) {
+            if (slopes[i] == 0) {
+                tangents[i] = 0;
+                tangents[i + 1] = 0;
+                continue;
+            }
+            float a = tangents[i] / slopes[i];
+            float b = tangents[i + 1] / slopes[i];
+            float length = a * a + b * b;
+            if (length > 9) {
+                float scale = 3 / (float) Math.sqrt(length);
+                tangents[i] = scale * a * slopes[i];
+                tangents[i + 1] = scale * b * slopes[i];
+            }
+        }
+        return tangents;
+    }
+
+    /**
+     * Cria uma curva logística (em "S"), normalizada para ir de 0 (em x = 0)
+     * a 1 (em x = 1).
+     *
+     * @param steepness a inclinação: quanto maior, mais abrupta é a subida
+     * (6 é próximo de {@link DifficultyCurve#S}).
+     * @param midpoint o valor de x em que a subida é mais rápida.
+     * @return a curva compilada.
+     */
+    public static CompiledCurve logistic(final float steepness,
+            final float midpoint) {
+        if (steepness <= 0) {
+            throw new IllegalArgumentException("A inclinação de uma curva "
+                    + "logística deve ser positiva.");
+        }
+        final double low = rawLogistic(0, steepness, midpoint);
+        final double high = rawLogistic(1, steepness, midpoint);
+        return CompiledCurve.compile(new AbstractCurve() {
+            @Override
+            public float getCurveValue(float value) {
+                return (float) ((rawLogistic(value, steepness, midpoint) - low)
+                        / (high - low));
+            }
+        });
+    }
+
+    private static double rawLogistic(float x, float steepness,
+            float midpoint) {
+        return 1 / (1 + Math.exp(-steepness * (x - midpoint)));
+    }
+
+    /**
+     * Cria a curva espelhada verticalmente (y = 1 - curva(x)).
+     *
+     * @param curve a curva original.
+     * @return a curva espelhada, compilada.
+     */
+    public static CompiledCurve inverted(final Curve curve) {
+        return CompiledCurve.compile(new AbstractCurve() {
+            @Override
+            public float getCurveValue(float value) {
+                return 1 - curve.getCurveValue(value);
+            }
+        });
+    }
+
+    /**
+     * Cria uma curva a partir da sua descrição em JSON. O campo
+     * <code>type</code> pode ser <code>linear</code> ou <code>spline</code>
+     * (com <code>points</code>), <code>logistic</code> (com
+     * <code>steepness</code> e <code>midpoint</code>, opcional, 0.5 por
+     * padrão) ou <code>preset</code> (com o <code>name</code> de uma
+     * {@link DifficultyCurve}). Qualquer uma pode ter
+     * <code>inverted: true</code>.
+     *
+     * @param json a descrição da curva.
+     * @return a curva compilada.
+     */
+    public static CompiledCurve fromJson(JsonValue json) {
+        String type = json.getString("type");
+        CompiledCurve curve;
+        if ("linear".equals(type)) {
+            curve = piecewiseLinear(json.get("points").asFloatArray());
+        } else if ("spline".equals(type)) {
+            curve = cubicSpline(json.get("points").asFloatArray());
+        } else if ("logistic".equals(type)) {
+            curve = logistic(json.getFloat("steepness"),
+                    json.getFloat("midpoint", 0.5f));
+        } else if ("preset".equals(type)) {
+            curve = CompiledCurve.compile(
+                    DifficultyCurve.valueOf(json.getString("name")));
+        } else {
+            throw new GdxRuntimeException("Tipo de curva desconhecido: "
+                    + type + ".");
+        }
+        return json.getBoolean("inverted", false) ? inverted(curve) : curve;
+    }
+
+    /**
+     * Carrega as curvas de um arquivo JSON em que cada campo é uma curva
+     * (veja {@link #fromJson(JsonValue)}).
+     *
+     * @param file o arquivo.
+     * @return as curvas, pelo nome.
+     */
+    public static ObjectMap<String, CompiledCurve> load(FileHandle file) {
+        ObjectMap<String, CompiledCurve> curves
+                = new ObjectMap<String, CompiledCurve>();
+        for (JsonValue curve = new JsonReader().parse(file).child;
+                curve != null; curve = curve.next) {
+            try {
+                curves.put(curve.name, fromJson(curve));
+            } catch (RuntimeException ex) {
+                throw new GdxRuntimeException("Curva inválida em "
+                        + file.path() + ": " + curve.name, ex);
+            }
+        }
+        return curves;
+    }
+
+    private static float[] xs(float[] points) {
+        checkPoints(points);
+        float[] xs = new float[points.length / 2];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = points[i * 2];
+        }
+        return xs;
+    }
+
+    private static float[] ys(float[] points) {
+        float[] ys = new float[points.length / 2];
+        for (int i = 0; i < ys.length; i++) {
+            ys[i] = points[i * 2 + 1];
+        }
+        return ys;
+    }
+
+    private static void checkPoints(float[] points) {
+        if (points.length < 4 || points.length % 2 != 0) {
+            throw new IllegalArgumentException("Uma curva precisa de ao menos "
+                    + "2 pontos, dados como x0, y0, x1, y1...");
+        }
+        for (int i = 2; i < points.length; i += 2) {
+            if (points[i] <= points[i - 2]) {
+                throw new IllegalArgumentException("Os valores de x dos "
+                        + "pontos de uma curva devem ser crescentes.");
+            }
+        }
+    }
+
+    /**
+     * Retorna o índice i tal que xs[i] <= value < xs[i + 1], ou -1 se value
+     * estiver fora dos pontos.
+     */
+    private static int segmentOf(float[] xs, float value) {
+        if (value < xs[0] || value >= xs[xs.length - 1]) {
+            return -1;
+        }
+        int i = 0;
+        while (value >= xs[i + 1]) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -5,9 +5,13 @@ package br.microgamr.microgames.util;
  *
  * Retorna um valor de y dado um valor de x, de acordo com o tipo da curva.
  *
+ * Para curvas avaliadas muitas vezes por quadro (e.g., por entidade), use
+ * {@link #compile()}. Outros formatos de curva podem ser criados com
+ * {@link Curves}.
+ *
  * @author fegemo <coutinho@decom.cefetmg.br>
  */
-public enum DifficultyCurve {
+public enum DifficultyCurve implements Curve {
 
     FLAT {
         @Override
@@ -51,6 +55,7 @@ public enum DifficultyCurve {
      * de x deve estar entre 0 e 1.
      * @return o valor de y na curva desejada para o valor de x provido.
      */
+    @Override
     public abstract float getCurveValue(float value);
 
     /**
@@ -63,8 +68,18 @@ public enum DifficultyCurve {
      * @return o valor de y na curva desejada para o valor de x provido. Esse
      * valor estará entre min e max.
      */
+    @Override
     public float getCurveValueBetween(float value, float min, float max) {
         return getCurveValue(value) * (max - min) + min;
     }
 
+    /**
+     * Retorna esta curva pré-calculada em uma tabela.
+     *
+     * @return a curva compilada.
+     */
+    public CompiledCurve compile() {
+        return CompiledCurve.compile(this);
+    }
+
 }
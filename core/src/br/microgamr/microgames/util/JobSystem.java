@@ -0,0 +1,368 @@
+package br.microgamr.microgames.util;
+
+import br.microgamr.Config;
+import com.badlogic.gdx.utils.Array;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executa trabalho dos microgames em paralelo, em um pool de threads de
+ * tamanho fixo. Há duas formas de usá-lo:
+ *
+ * <ul>
+ * <li>{@link #parallelFor(int, int, RangeJob)}: divide um intervalo de
+ * índices (e.g., os agentes de um {@link Swarm}) em blocos de tamanho fixo e
+ * os processa em paralelo (a thread que chamou também pega blocos),
+ * retornando quando todos terminarem.</li>
+ * <li>{@link #submit(Runnable, Job...)}: agenda um job que só começa depois
+ * que os jobs dos quais ele depende terminarem, e retorna na hora.</li>
+ * </ul>
+ *
+ * O {@link br.microgamr.microgames.MicroGame} espera todos os jobs
+ * agendados terminarem ({@link #sync()}) antes de desenhar o jogo, então os
+ * jobs de um quadro podem rodar enquanto o resto de {@code onUpdate}
+ * continua.
+ *
+ * A divisão em blocos depende apenas do número de índices e do tamanho do
+ * bloco, nunca do número de threads. Então, desde que cada bloco escreva
+ * apenas nos seus próprios índices (ou na posição do bloco em um array de
+ * resultados parciais, combinados depois em ordem), o resultado é o mesmo
+ * com 1 ou com 16 threads.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class JobSystem {
+
+    /**
+     * O trabalho feito em um bloco de índices.
+     */
+    public interface RangeJob {
+
+        /**
+         * Processa os índices de {@code from} (inclusive) a {@code to}
+         * (exclusive).
+         *
+         * @param chunk o número do bloco, de 0 a
+         * {@link JobSystem#chunkCount(int, int)} - 1.
+         * @param from o primeiro índice.
+         * @param to o índice depois do último.
+         */
+        public void run(int chunk, int from, int to);
+    }
+
+    /**
+     * Um job agendado, que pode ser usado como dependência de outros.
+     */
+    public static final class Job implements Runnable {
+
+        private final JobSystem system;
+        private final Runnable work;
+        private final AtomicInteger pendingDependencies;
+        private Array<Job> dependents;
+        private boolean done;
+
+        private Job(JobSystem system, Runnable work, int dependencies) {
+            this.system = system;
+            this.work = work;
+            // +1 para que o job não comece enquanto as dependências são
+            // registradas
+            this.pendingDependencies = new AtomicInteger(dependencies + 1);
+        }
+
+        private synchronized boolean addDependent(Job dependent) {
+            if (done) {
+                return false;
+            }
+            if (dependents == null) {
+                dependents = new Array<Job>(false, 4);
+            }
+            dependents.add(dependent);
+            return true;
+        }
+
+        private void dependencyDone() {
+            if (pendingDependencies.decrementAndGet() == 0) {
+                system.execute(this);
+            }
+        }
+
+        /**
+         * Executa o trabalho e libera os jobs que dependem deste. Chamado
+         * pelo pool: não deve ser chamado diretamente.
+         */
+        @Override
+        public void run() {
+            try {
+                work.run();
+            } catch (Throwable t) {
+                system.fail(t);
+            }
+            Array<Job> toRelease;
+            synchronized (this) {
+                done = true;
+                toRelease = dependents;
+                dependents = null;
+            }
+            if (toRelease != null) {
+                for (int i = 0; i < toRelease.size; i++) {
+                    toRelease.get(i).dependencyDone();
+                }
+            }
+            system.jobFinished();
+        }
+
+        public synchronized boolean isDone() {
+            return done;
+        }
+    }
+
+    /**
+     * Um {@link #parallelFor(int, int, RangeJob)} em andamento: cada thread
+     * que o executa pega o próximo bloco ainda não processado até que não
+     * reste nenhum.
+     */
+    private static final class RangeTask implements Runnable {
+
+        private final RangeJob job;
+        private final int chunks, count, grain;
+        private final AtomicInteger nextChunk = new AtomicInteger();
+        private int finishedChunks;
+        private Throwable failure;
+
+        RangeTask(RangeJob job, int chunks, int count, int grain) {
+            this.job = job;
+            this.chunks = chunks;
+            this.count = count;
+            this.grain = grain;
+        }
+
+        @Override
+        public void run() {
+            int chunk;
+            while ((chunk = nextChunk.getAndIncrement()) < chunks) {
+                Throwable chunkFailure = null;
+                try {
+                    runChunk(job, chunk, count, grain);
+                } catch (Throwable t) {
+                    chunkFailure = t;
+                }
+                synchronized (this) {
+                    if (failure == null) {
+                        failure = chunkFailure;
+                    }
+                    if (++finishedChunks == chunks) {
+                        notifyAll();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Espera os blocos pegos por outras threads terminarem.
+         *
+         * @return a primeira exceção lançada por um bloco, ou null.
+         */
+        synchronized Throwable await() {
+            boolean interrupted = false;
+            while (finishedChunks < chunks) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return failure;
+        }
+    }
+
+    private static JobSystem shared;
+
+    private final ExecutorService pool;
+    private final int threads;
+    private final Object lock = new Object();
+    private int outstandingJobs;
+    private Throwable failure;
+
+    /**
+     * Retorna o sistema de jobs do jogo, com {@link Config#JOB_THREADS}
+     * threads.
+     *
+     * @return o sistema de jobs compartilhado.
+     */
+    public static synchronized JobSystem getShared() {
+        if (shared == null) {
+            shared = new JobSystem(Config.JOB_THREADS > 0
+                    ? Config.JOB_THREADS
+                    : Runtime.getRuntime().availableProcessors());
+        }
+        return shared;
+    }
+
+    /**
+     * Cria um sistema de jobs.
+     *
+     * @param threads quantas threads executam os jobs. Com 1, eles são
+     * executados na thread que os agenda.
+     */
+    public JobSystem(int threads) {
+        this.threads = Math.max(1, threads);
+        this.pool = this.threads > 1
+                ? Executors.newFixedThreadPool(this.threads,
+                        new ThreadFactory() {
+                    private final AtomicInteger created = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable,
+                                "jobs-" + created.incrementAndGet());
+                        // não impedem o jogo de fechar
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                })
+                : null;
+    }
+
+    /**
+     * Retorna em quantos blocos {@code count} índices são divididos.
+     *
+     * @param count o número de índices.
+     * @param grain o tamanho de cada bloco (o último pode ser menor).
+     * @return o número de blocos.
+     */
+    public static int chunkCount(int count, int grain) {
+        return (count + grain - 1) / grain;
+    }
+
+    /**
+     * Processa os índices de 0 a {@code count} - 1 em blocos de
+     * {@code grain} índices, em paralelo, e retorna quando todos os blocos
+     * terminarem.
+     *
+     * @param count o número de índices.
+     * @param grain o tamanho de cada bloco. Blocos muito pequenos (menos de
+     * alguns milhares de operações simples) custam mais para distribuir do
+     * que para processar.
+     * @param job o trabalho de cada bloco.
+     */
+    public void parallelFor(int count, int grain, RangeJob job) {
+        if (grain < 1) {
+            throw new IllegalArgumentException("O tamanho do bloco deve ser "
+                    + "positivo, mas foi " + grain + ".");
+        }
+        int chunks = chunkCount(count, grain);
+        if (chunks <= 0) {
+            return;
+        }
+        if (pool == null || chunks == 1) {
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                runChunk(job, chunk, count, grain);
+            }
+            return;
+        }
+        RangeTask task = new RangeTask(job, chunks, count, grain);
+        for (int i = Math.min(threads, chunks) - 1; i > 0; i--) {
+            pool.execute(task);
+        }
+        // quem chamou também processa blocos: mesmo que as threads do pool
+        // estejam ocupadas (e.g., com um parallelFor dentro de um job), o
+        // laço termina
+        task.run();
+        Throwable failure = task.await();
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw new RuntimeException(failure);
+        }
+    }
+
+    private static void runChunk(RangeJob job, int chunk, int count,
+            int grain) {
+        int from = chunk * grain;
+        job.run(chunk, from, Math.min(from + grain, count));
+    }
+
+    /**
+     * Agenda um job para depois que as suas dependências terminarem.
+     *
+     * @param work o trabalho.
+     * @param dependencies os jobs que precisam terminar antes.
+     * @return o job, que pode ser dependência de outros.
+     */
+    public Job submit(Runnable work, Job... dependencies) {
+        Job job = new Job(this, work, dependencies.length);
+        synchronized (lock) {
+            outstandingJobs++;
+        }
+        for (Job dependency : dependencies) {
+            if (!dependency.addDependent(job)) {
+                job.dependencyDone();
+            }
+        }
+        job.dependencyDone();
+        return job;
+    }
+
+    private void execute(Job job) {
+        if (pool == null) {
+            job.run();
+        } else {
+            pool.execute(job);
+        }
+    }
+
+    private void fail(Throwable t) {
+        synchronized (lock) {
+            if (failure == null) {
+                failure = t;
+            }
+        }
+    }
+
+    private void jobFinished() {
+        synchronized (lock) {
+            outstandingJobs--;
+            if (outstandingJobs == 0) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Espera todos os jobs agendados terminarem. Se algum deles lançou uma
+     * exceção, ela é relançada aqui (embrulhada).
+     */
+    public void sync() {
+        Throwable jobFailure;
+        synchronized (lock) {
+            boolean interrupted = false;
+            while (outstandingJobs > 0) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            jobFailure = failure;
+            failure = null;
+        }
+        if (jobFailure != null) {
+            throw new RuntimeException("Um job do microgame falhou.",
+                    jobFailure);
+        }
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+}
@@ -0,0 +1,88 @@
+package br.microgamr.microgames.util;
+
+import br.microgamr.Config;
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Registra quanto tempo cada microgame gastou para se preparar (durante as
+ * instruções) e para se ativar (no quadro em que o jogador ganha o controle).
+ *
+ * Uma ativação mais demorada do que {@link Config#MICROGAME_ACTIVATION_BUDGET}
+ * é avisada no log, porque causa um engasgo justamente no primeiro quadro
+ * jogável. Nesse caso, o trabalho deve ser movido de
+ * <code>onStart()</code> para <code>onPrepare(int)</code>.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class MicroGameTimings {
+
+    private static final Map<String, Entry> entries
+            = new LinkedHashMap<String, Entry>();
+
+    private MicroGameTimings() {
+    }
+
+    /**
+     * Registra os tempos de uma execução de um microgame.
+     *
+     * @param microGame o nome do microgame.
+     * @param preparationNanos o tempo gasto na preparação.
+     * @param activationNanos o tempo gasto na ativação.
+     */
+    public static synchronized void record(String microGame,
+            long preparationNanos, long activationNanos) {
+        Entry entry = entries.get(microGame);
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(microGame, entry);
+        }
+        entry.count++;
+        entry.totalPreparationNanos += preparationNanos;
+        entry.totalActivationNanos += activationNanos;
+        entry.maxActivationNanos = Math.max(entry.maxActivationNanos,
+                activationNanos);
+
+        if (activationNanos > Config.MICROGAME_ACTIVATION_BUDGET) {
+            Gdx.app.error("MicroGameTimings", String.format(
+                    "%s demorou %.2f ms para ser ativado (limite: %.2f ms). "
+                    + "Mova o trabalho de onStart() para onPrepare(int).",
+                    microGame, activationNanos / 1e6,
+                    Config.MICROGAME_ACTIVATION_BUDGET / 1e6));
+        } else if (Gdx.app.getLogLevel() >= Application.LOG_DEBUG) {
+            // roda no quadro da ativação: só formata se for para o log
+            Gdx.app.debug("MicroGameTimings", String.format(
+                    "%s: preparação %.2f ms, ativação %.2f ms", microGame,
+                    preparationNanos / 1e6, activationNanos / 1e6));
+        }
+    }
+
+    /**
+     * Retorna um resumo dos tempos de cada microgame: média da preparação,
+     * média e máximo da ativação.
+     *
+     * @return o resumo, uma linha por microgame.
+     */
+    public static synchronized String toSummary() {
+        StringBuilder summary = new StringBuilder();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            Entry e = entry.getValue();
+            summary.append(String.format("%-24s x%-3d preparação %6.2f ms  "
+                    + "ativação %6.2f ms (máx. %6.2f ms)%n", entry.getKey(),
+                    e.count, e.totalPreparationNanos / 1e6 / e.count,
+                    e.totalActivationNanos / 1e6 / e.count,
+                    e.maxActivationNanos / 1e6));
+        }
+        return summary.toString();
+    }
+
+    private static class Entry {
+
+        int count;
+        long totalPreparationNanos;
+        long totalActivationNanos;
+        long maxActivationNanos;
+    }
+}
@@ -0,0 +1,229 @@
+package br.microgamr.microgames.util;
+
+import br.microgamr.assets.CollisionMask;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * Testes de colisão com precisão de pixel entre sprites, usando as suas
+ * {@link CollisionMask}s. Cada teste verifica primeiro os retângulos
+ * envolventes das sprites, que é barato e descarta a maioria dos casos, e só
+ * então olha os pixels.
+ *
+ * A posição, a origem, a escala e a rotação das sprites são consideradas.
+ * A máscara deve corresponder à região que a sprite mostra (e.g., o quadro
+ * atual de uma spritesheet, veja {@link CollisionMask#region(
+ * com.badlogic.gdx.graphics.g2d.TextureRegion)}); sprites espelhadas
+ * ({@code flip}) não são suportadas.
+ *
+ * Os testes reaproveitam arrays temporários para não alocar memória a cada
+ * quadro, então devem ser feitos apenas na thread do jogo (e.g., não dentro
+ * de um job do {@link JobSystem}).
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public final class PixelCollision {
+
+    private static final float SAME_TEXEL_SIZE_TOLERANCE = 0.001f;
+
+    // transformações do mundo para as máscaras (veja worldToMask)
+    private static final float[] toA = new float[6];
+    private static final float[] toB = new float[6];
+
+    private PixelCollision() {
+    }
+
+    /**
+     * Retorna se um ponto do mundo está sobre um pixel opaco da sprite.
+     *
+     * @param sprite a sprite.
+     * @param mask a máscara da região mostrada pela sprite.
+     * @param worldX a posição x do ponto.
+     * @param worldY a posição y do ponto.
+     * @return true se o ponto acerta a sprite.
+     */
+    public static boolean contains(Sprite sprite, CollisionMask mask,
+            float worldX, float worldY) {
+        if (!sprite.getBoundingRectangle().contains(worldX, worldY)) {
+            return false;
+        }
+        // leva o ponto para o espaço da sprite: desfaz a translação, a
+        // rotação e a escala, nessa ordem
+        float x = worldX - sprite.getX() - sprite.getOriginX();
+        float y = worldY - sprite.getY() - sprite.getOriginY();
+        float rotation = sprite.getRotation();
+        if (rotation != 0) {
+            float cos = MathUtils.cosDeg(rotation);
+            float sin = MathUtils.sinDeg(rotation);
+            float rotatedX = x * cos + y * sin;
+            y = -x * sin + y * cos;
+            x = rotatedX;
+        }
+        float localX = x / sprite.getScaleX() + sprite.getOriginX();
+        float localY = y / sprite.getScaleY() + sprite.getOriginY();
+        int column = (int) Math.floor(
+                localX * mask.getWidth() / sprite.getWidth());
+        int rowFromBottom = (int) Math.floor(
+                localY * mask.getHeight() / sprite.getHeight());
+        return mask.get(column, mask.getHeight() - 1 - rowFromBottom);
+    }
+
+    /**
+     * Retorna se duas sprites têm pixels opacos sobrepostos.
+     *
+     * Se nenhuma das duas estiver rotacionada e os seus pixels tiverem o
+     * mesmo tamanho no mundo (e.g., ambas sem escala), as máscaras são
+     * comparadas 64 pixels por vez. Do contrário, cada pixel opaco da menor
+     * máscara é testado contra a outra sprite.
+     *
+     * @param a uma sprite.
+     * @param maskA a máscara da região mostrada por {@code a}.
+     * @param b a outra sprite.
+     * @param maskB a máscara da região mostrada por {@code b}.
+     * @return true se as sprites colidem.
+     */
+    public static boolean overlaps(Sprite a, CollisionMask maskA, Sprite b,
+            CollisionMask maskB) {
+        if (!a.getBoundingRectangle().overlaps(b.getBoundingRectangle())) {
+            return false;
+        }
+        if (a.getRotation() == 0 && b.getRotation() == 0
+                && a.getScaleX() > 0 && a.getScaleY() > 0
+                && b.getScaleX() > 0 && b.getScaleY() > 0) {
+            float texelWidth = texelWidth(a, maskA);
+            float texelHeight = texelHeight(a, maskA);
+            if (Math.abs(texelWidth - texelWidth(b, maskB))
+                    < SAME_TEXEL_SIZE_TOLERANCE
+                    && Math.abs(texelHeight - texelHeight(b, maskB))
+                    < SAME_TEXEL_SIZE_TOLERANCE) {
+                int dx = Math.round((left(b) - left(a)) / texelWidth);
+                int dy = Math.round((top(a) - top(b)) / texelHeight);
+                return maskA.overlaps(maskB, dx, dy);
+            }
+        }
+        if ((long) maskA.getWidth() * maskA.getHeight()
+                <= (long) maskB.getWidth() * maskB.getHeight()) {
+            return anyPixelInside(a, maskA, b, maskB);
+        }
+        return anyPixelInside(b, maskB, a, maskA);
+    }
+
+    /**
+     * Testa o centro de cada pixel opaco de {@code a} que fica sob o
+     * retângulo envolvente de {@code b} contra a máscara de {@code b},
+     * pulando de 64 em 64 pixels transparentes.
+     */
+    private static boolean anyPixelInside(Sprite a, CollisionMask maskA,
+            Sprite b, CollisionMask maskB) {
+        if (!worldToMask(a, maskA, toA) || !worldToMask(b, maskB, toB)) {
+            return false;
+        }
+
+        // os pixels de a sob o retângulo envolvente de b
+        Rectangle bounds = b.getBoundingRectangle();
+        float minColumn = Float.MAX_VALUE, maxColumn = -Float.MAX_VALUE;
+        float minRow = Float.MAX_VALUE, maxRow = -Float.MAX_VALUE;
+        for (int corner = 0; corner < 4; corner++) {
+            float x = bounds.x + ((corner & 1) == 0 ? 0 : bounds.width);
+            float y = bounds.y + ((corner & 2) == 0 ? 0 : bounds.height);
+            float column = toA[0] + toA[1] * x + toA[2] * y;
+            float row = toA[3] + toA[4] * x + toA[5] * y;
+            minColumn = Math.min(minColumn, column);
+            maxColumn = Math.max(maxColumn, column);
+            minRow = Math.min(minRow, row);
+            maxRow = Math.max(maxRow, row);
+        }
+        int firstColumn = Math.max(0, (int) Math.floor(minColumn));
+        int lastColumn = Math.min(maskA.getWidth() - 1,
+                (int) Math.floor(maxColumn));
+        int firstRow = Math.max(0, (int) Math.floor(minRow));
+        int lastRow = Math.min(maskA.getHeight() - 1,
+                (int) Math.floor(maxRow));
+
+        // inverte a transformação de a para ir dos pixels para o mundo
+        float determinant = toA[1] * toA[5] - toA[2] * toA[4];
+        for (int row = firstRow; row <= lastRow; row++) {
+            float v = row + 0.5f - toA[3];
+            for (int word = firstColumn >>> 6; word <= lastColumn >>> 6;
+                    word++) {
+                long bits = maskA.getWord(row, word);
+                while (bits != 0) {
+                    int column = word * 64 + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    if (column < firstColumn || column > lastColumn) {
+                        continue;
+                    }
+                    float u = column + 0.5f - toA[0];
+                    float x = (toA[5] * u - toA[2] * v) / determinant;
+                    float y = (toA[1] * v - toA[4] * u) / determinant;
+                    if (maskB.get(
+                            (int) Math.floor(toB[0] + toB[1] * x + toB[2] * y),
+                            (int) Math.floor(toB[3] + toB[4] * x
+                                    + toB[5] * y))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Calcula a transformação (afim) de um ponto do mundo para a máscara de
+     * uma sprite: a coluna é {@code c[0] + c[1] * x + c[2] * y} e a linha
+     * (a partir de cima) é {@code c[3] + c[4] * x + c[5] * y}. É o mesmo
+     * cálculo de {@link #contains(Sprite, CollisionMask, float, float)}.
+     *
+     * @return false se a sprite não tem área (e.g., escala 0).
+     */
+    private static boolean worldToMask(Sprite sprite, CollisionMask mask,
+            float[] c) {
+        if (sprite.getScaleX() == 0 || sprite.getScaleY() == 0
+                || sprite.getWidth() == 0 || sprite.getHeight() == 0) {
+            return false;
+        }
+        float cos = MathUtils.cosDeg(sprite.getRotation());
+        float sin = MathUtils.sinDeg(sprite.getRotation());
+        float columnsPerUnit = mask.getWidth() / sprite.getWidth()
+                / sprite.getScaleX();
+        float rowsPerUnit = mask.getHeight() / sprite.getHeight()
+                / sprite.getScaleY();
+        float pivotX = sprite.getX() + sprite.getOriginX();
+        float pivotY = sprite.getY() + sprite.getOriginY();
+        c[1] = cos * columnsPerUnit;
+        c[2] = sin * columnsPerUnit;
+        c[0] = -pivotX * c[1] - pivotY * c[2]
+                + sprite.getOriginX() * mask.getWidth() / sprite.getWidth();
+        c[4] = sin * rowsPerUnit;
+        c[5] = -cos * rowsPerUnit;
+        c[3] = -pivotX * c[4] - pivotY * c[5] + mask.getHeight()
+                - sprite.getOriginY() * mask.getHeight() / sprite.getHeight();
+        return true;
+    }
+
+    private static float texelWidth(Sprite sprite, CollisionMask mask) {
+        return sprite.getWidth() * sprite.getScaleX() / mask.getWidth();
+    }
+
+    private static float texelHeight(Sprite sprite, CollisionMask mask) {
+        return sprite.getHeight() * sprite.getScaleY() / mask.getHeight();
+    }
+
+    /**
+     * A borda esquerda de uma sprite sem rotação, no mundo.
+     */
+    private static float left(Sprite sprite) {
+        return sprite.getX() + sprite.getOriginX()
+                - sprite.getOriginX() * sprite.getScaleX();
+    }
+
+    /**
+     * A borda de cima de uma sprite sem rotação, no mundo.
+     */
+    private static float top(Sprite sprite) {
+        return sprite.getY() + sprite.getOriginY()
+                + (sprite.getHeight() - sprite.getOriginY())
+                * sprite.getScaleY();
+    }
+}
@@ -0,0 +1,323 @@
+package br.microgamr.microgames.util;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * Um enxame de agentes iguais (e.g., tiros ou monstrinhos), guardados em
+ * arrays paralelos de tipos primitivos em vez de um objeto por agente: o
+ * agente {@code i} está na posição ({@code x[i]}, {@code y[i]}), tem a
+ * velocidade ({@code vx[i]}, {@code vy[i]}) e assim por diante.
+ *
+ * As operações em massa ({@link #integrate(float)},
+ * {@link #seek(float, float, float, int)} etc.) percorrem os arrays em
+ * sequência, o que aproveita bem a cache do processador e permite atualizar
+ * dezenas de milhares de agentes por quadro. Operações próprias de um microgame podem
+ * ser escritas da mesma forma, lendo e escrevendo os arrays diretamente
+ * (até {@link #size()}). O enxame é desenhado pelo
+ * {@link br.microgamr.graphics.SwarmRenderer}.
+ *
+ * Todos os agentes têm o mesmo tamanho, e a posição é o canto inferior
+ * esquerdo. Remover um agente move o último para o seu lugar, então os
+ * índices não são estáveis: laços que removem agentes devem andar de trás
+ * para frente.
+ *
+ * As operações em massa também existem em versões que processam só um
+ * intervalo de agentes, para serem divididas entre threads pelo
+ * {@link JobSystem}. Intervalos diferentes não compartilham nada, então o
+ * resultado é o mesmo com qualquer número de threads.
+ *
+ * Os arrays são trocados quando o enxame cresce além da capacidade, então
+ * não se deve guardar referências a eles entre quadros.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class Swarm {
+
+    public float[] x;
+    public float[] y;
+    public float[] vx;
+    public float[] vy;
+
+    /**
+     * O tempo de vida de cada agente, em segundos, usado nas animações.
+     */
+    public float[] time;
+
+    /**
+     * A cor de cada agente, empacotada (veja {@link Color#toFloatBits()}).
+     */
+    public float[] color;
+
+    /**
+     * Bits de estado livres para o microgame (e.g., se o agente está fugindo).
+     */
+    public int[] flags;
+
+    private final float agentWidth;
+    private final float agentHeight;
+    private int size;
+
+    /**
+     * Cria um enxame vazio.
+     *
+     * @param capacity quantos agentes cabem antes que os arrays cresçam.
+     * @param agentWidth a largura de cada agente.
+     * @param agentHeight a altura de cada agente.
+     */
+    public Swarm(int capacity, float agentWidth, float agentHeight) {
+        this.agentWidth = agentWidth;
+        this.agentHeight = agentHeight;
+        allocate(Math.max(capacity, 16));
+    }
+
+    private void allocate(int capacity) {
+        x = copyOf(x, capacity);
+        y = copyOf(y, capacity);
+        vx = copyOf(vx, capacity);
+        vy = copyOf(vy, capacity);
+        time = copyOf(time, capacity);
+        color = copyOf(color, capacity);
+        int[] newFlags = new int[capacity];
+        if (flags != null) {
+            System.arraycopy(flags, 0, newFlags, 0, size);
+        }
+        flags = newFlags;
+    }
+
+    private float[] copyOf(float[] array, int capacity) {
+        float[] copy = new float[capacity];
+        if (array != null) {
+            System.arraycopy(array, 0, copy, 0, size);
+        }
+        return copy;
+    }
+
+    /**
+     * Adiciona um agente, branco, sem estado e com o tempo zerado.
+     *
+     * @param x a posição x.
+     * @param y a posição y.
+     * @param vx a velocidade em x, em unidades por segundo.
+     * @param vy a velocidade em y, em unidades por segundo.
+     * @return o índice do agente.
+     */
+    public int add(float x, float y, float vx, float vy) {
+        if (size == this.x.length) {
+            allocate(size * 2);
+        }
+        int i = size++;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.vx[i] = vx;
+        this.vy[i] = vy;
+        time[i] = 0;
+        color[i] = Color.WHITE_FLOAT_BITS;
+        flags[i] = 0;
+        return i;
+    }
+
+    /**
+     * Remove um agente, movendo o último para o seu lugar.
+     *
+     * @param i o índice do agente.
+     */
+    public void remove(int i) {
+        int last = --size;
+        x[i] = x[last];
+        y[i] = y[last];
+        vx[i] = vx[last];
+        vy[i] = vy[last];
+        time[i] = time[last];
+        color[i] = color[last];
+        flags[i] = flags[last];
+    }
+
+    /**
+     * Remove todos os agentes.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Move os agentes de acordo com as suas velocidades e avança o tempo de
+     * cada um.
+     *
+     * @param dt tempo (em segundos) desde a última atualização.
+     */
+    public void integrate(float dt) {
+        integrate(dt, 0, size);
+    }
+
+    /**
+     * Como {@link #integrate(float)}, mas só para os agentes de {@code from}
+     * (inclusive) a {@code to} (exclusive), para ser usada em paralelo (veja
+     * {@link JobSystem#parallelFor(int, int, JobSystem.RangeJob)}).
+     *
+     * @param dt tempo (em segundos) desde a última atualização.
+     * @param from o primeiro agente.
+     * @param to o agente depois do último.
+     */
+    public void integrate(float dt, int from, int to) {
+        float[] x = this.x, y = this.y, vx = this.vx, vy = this.vy;
+        float[] time = this.time;
+        for (int i = from; i < to; i++) {
+            x[i] += vx[i] * dt;
+            y[i] += vy[i] * dt;
+            time[i] += dt;
+        }
+    }
+
+    /**
+     * Aponta a velocidade dos agentes para um alvo (o centro de cada agente
+     * vai na direção do ponto).
+     *
+     * @param targetX a posição x do alvo.
+     * @param targetY a posição y do alvo.
+     * @param speed a velocidade, em unidades por segundo.
+     * @param ignoredFlags os agentes com alguma destas marcas não são
+     * alterados (e.g., os que estão fugindo).
+     */
+    public void seek(float targetX, float targetY, float speed,
+            int ignoredFlags) {
+        seek(targetX, targetY, speed, ignoredFlags, 0, size);
+    }
+
+    /**
+     * Como {@link #seek(float, float, float, int)}, mas só para os agentes
+     * de {@code from} (inclusive) a {@code to} (exclusive).
+     *
+     * @param targetX a posição x do alvo.
+     * @param targetY a posição y do alvo.
+     * @param speed a velocidade, em unidades por segundo.
+     * @param ignoredFlags os agentes com alguma destas marcas não são
+     * alterados.
+     * @param from o primeiro agente.
+     * @param to o agente depois do último.
+     */
+    public void seek(float targetX, float targetY, float speed,
+            int ignoredFlags, int from, int to) {
+        float halfWidth = agentWidth / 2;
+        float halfHeight = agentHeight / 2;
+        for (int i = from; i < to; i++) {
+            if ((flags[i] & ignoredFlags) != 0) {
+                continue;
+            }
+            float dx = targetX - (x[i] + halfWidth);
+            float dy = targetY - (y[i] + halfHeight);
+            float distance2 = dx * dx + dy * dy;
+            if (distance2 > 0) {
+                float scale = speed / (float) Math.sqrt(distance2);
+                vx[i] = dx * scale;
+                vy[i] = dy * scale;
+            }
+        }
+    }
+
+    /**
+     * Faz os agentes cujo centro está a até {@code radius} de um ponto
+     * fugirem dele, marcando-os com {@code flag}. Agentes que já têm a marca
+     * não são alterados.
+     *
+     * @param fromX a posição x do ponto.
+     * @param fromY a posição y do ponto.
+     * @param radius a distância que assusta os agentes.
+     * @param speed a velocidade de fuga, em unidades por segundo.
+     * @param flag a marca dos agentes em fuga (e.g., 1).
+     * @param packedColor a cor dos agentes em fuga.
+     */
+    public void flee(float fromX, float fromY, float radius, float speed,
+            int flag, float packedColor) {
+        flee(fromX, fromY, radius, speed, flag, packedColor, 0, size);
+    }
+
+    /**
+     * Como {@link #flee(float, float, float, float, int, float)}, mas só
+     * para os agentes de {@code from} (inclusive) a {@code to} (exclusive).
+     *
+     * @param fromX a posição x do ponto.
+     * @param fromY a posição y do ponto.
+     * @param radius a distância que assusta os agentes.
+     * @param speed a velocidade de fuga, em unidades por segundo.
+     * @param flag a marca dos agentes em fuga.
+     * @param packedColor a cor dos agentes em fuga.
+     * @param from o primeiro agente.
+     * @param to o agente depois do último.
+     */
+    public void flee(float fromX, float fromY, float radius, float speed,
+            int flag, float packedColor, int from, int to) {
+        int[] flags = this.flags;
+        float[] color = this.color;
+        for (int i = from; i < to; i++) {
+            if ((flags[i] & flag) != 0) {
+                continue;
+            }
+            float dx = x[i] + agentWidth / 2 - fromX;
+            float dy = y[i] + agentHeight / 2 - fromY;
+            float distance2 = dx * dx + dy * dy;
+            if (distance2 <= radius * radius && distance2 > 0) {
+                float scale = speed / (float) Math.sqrt(distance2);
+                vx[i] = dx * scale;
+                vy[i] = dy * scale;
+                flags[i] |= flag;
+                color[i] = packedColor;
+            }
+        }
+    }
+
+    /**
+     * Remove os agentes que tocam um retângulo.
+     *
+     * @param bounds o retângulo.
+     * @return quantos agentes foram removidos.
+     */
+    public int removeOverlapping(Rectangle bounds) {
+        float left = bounds.x - agentWidth;
+        float bottom = bounds.y - agentHeight;
+        float right = bounds.x + bounds.width;
+        float top = bounds.y + bounds.height;
+        int removed = 0;
+        for (int i = size - 1; i >= 0; i--) {
+            if (x[i] > left && x[i] < right && y[i] > bottom && y[i] < top) {
+                remove(i);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Remove os agentes que estão totalmente fora de um retângulo (e.g., a
+     * área visível do mundo mais uma margem).
+     *
+     * @param bounds o retângulo.
+     * @return quantos agentes foram removidos.
+     */
+    public int removeOutside(Rectangle bounds) {
+        float left = bounds.x - agentWidth;
+        float bottom = bounds.y - agentHeight;
+        float right = bounds.x + bounds.width;
+        float top = bounds.y + bounds.height;
+        int removed = 0;
+        for (int i = size - 1; i >= 0; i--) {
+            if (x[i] < left || x[i] > right || y[i] < bottom || y[i] > top) {
+                remove(i);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public float getAgentWidth() {
+        return agentWidth;
+    }
+
+    public float getAgentHeight() {
+        return agentHeight;
+    }
+}
@@ -1,27 +1,39 @@
 package br.microgamr.screens;
 
 import br.microgamr.Config;
+import br.microgamr.assets.AssetCache;
+import br.microgamr.assets.MemoryReport;
+import br.microgamr.diagnostics.FlightRecorder;
+import br.microgamr.diagnostics.FlightRecorder.EventType;
+import br.microgamr.diagnostics.GameEvents;
+import br.microgamr.diagnostics.LeakTracker;
+import br.microgamr.graphics.QualityManager;
+import br.microgamr.graphics.RenderPass;
+import br.microgamr.graphics.RenderPass.Layer;
+import br.microgamr.graphics.ScaledRenderTarget;
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input.Keys;
 import com.badlogic.gdx.ScreenAdapter;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
 import com.badlogic.gdx.assets.AssetManager;
-import com.badlogic.gdx.assets.loaders.FileHandleResolver;
-import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
-import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGeneratorLoader;
-import com.badlogic.gdx.graphics.g2d.freetype.FreetypeFontLoader;
 import com.badlogic.gdx.graphics.g2d.freetype.FreetypeFontLoader.FreeTypeFontLoaderParameter;
 import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.badlogic.gdx.utils.viewport.FillViewport;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
+import java.util.Collections;
+import java.util.Map;
 
 /**
  * Uma tela do jogo.
@@ -30,7 +42,13 @@ import com.badlogic.gdx.utils.viewport.Viewport;
  * relativo a cada uma delas é uma instância de uma subclasse de BaseScreen.
  *
  * Cada BaseScreen possui uma {@link SpriteBatch} própria, bem como uma fonte
- * ({@link BitmapFont}) padrão para escrever texto na tela
+ * ({@link BitmapFont}) padrão para escrever texto na tela. Tudo o que a tela
+ * desenha em um quadro vai para essa batch em um único {@link RenderPass}.
+ *
+ * Os <em>assets</em> de todas as telas ficam no {@link AssetCache}
+ * compartilhado. Cada tela deve carregá-los por meio de
+ * {@link #loadAsset(String, Class)} para que sejam descarregados
+ * automaticamente quando ela não estiver mais sendo usada.
  *
  * @author Flávio Coutinho <fegemo@cefetmg.br>
  */
@@ -39,6 +57,7 @@ public abstract class BaseScreen extends ScreenAdapter {
     public final Game game;
     private final BaseScreen previous;
     public final SpriteBatch batch;
+    public final RenderPass renderPass;
     public final OrthographicCamera camera;
     public Viewport viewport;
     public Rectangle visibleWorldBounds;
@@ -47,6 +66,14 @@ public abstract class BaseScreen extends ScreenAdapter {
     private float deviceAspectRatioDivergenceFromDesired;
     private boolean wasJustDisposed = false;
     private boolean assetsFinishedLoading = false;
+    private final Array<String> ownAssets;
+    private final ScaledRenderTarget scaledTarget;
+
+    // overlay de depuração com a memória mantida pelos assets (F9)
+    private static boolean showMemoryOverlay = false;
+    private MemoryReport memoryReport;
+    private int assetsInMemoryReport = -1;
+    private BitmapFont debugFont;
 
     /**
      * Cria uma instância de tela.
@@ -58,14 +85,15 @@ public abstract class BaseScreen extends ScreenAdapter {
     public BaseScreen(Game game, BaseScreen previous) {
         this.game = game;
         this.previous = previous;
-        this.batch = new SpriteBatch();
+        this.batch = LeakTracker.track(this, new SpriteBatch());
+        this.scaledTarget = LeakTracker.track(this, new ScaledRenderTarget());
+        this.renderPass = new RenderPass(batch);
         this.camera = new OrthographicCamera();
         this.viewport = chooseBestViewport();
-        this.assets = new AssetManager();
-
-        FileHandleResolver resolver = new InternalFileHandleResolver();
-        assets.setLoader(FreeTypeFontGenerator.class, new FreeTypeFontGeneratorLoader(resolver));
-        assets.setLoader(BitmapFont.class, ".ttf", new FreetypeFontLoader(resolver));
+        renderPass.getQueue().setCullingBounds(visibleWorldBounds,
+                Config.CULLING_MARGIN);
+        this.assets = AssetCache.getManager();
+        this.ownAssets = new Array<String>();
 
         // fonte para mensagens
         FreeTypeFontLoaderParameter messagesFontParams = new FreeTypeFontLoaderParameter();
@@ -76,7 +104,80 @@ public abstract class BaseScreen extends ScreenAdapter {
         messagesFontParams.fontParameters.magFilter = Texture.TextureFilter.Linear;
         messagesFontParams.fontParameters.borderWidth = 2;
         messagesFontParams.fontParameters.borderColor = Color.BLACK;
-        assets.load("fonts/snaphand-v1-free.ttf", BitmapFont.class, messagesFontParams);
+        loadAsset("fonts/snaphand-v1-free.ttf", BitmapFont.class, messagesFontParams);
+    }
+
+    /**
+     * Pede o carregamento de um asset usado por esta tela. Ele será
+     * descarregado quando a tela for "disposed" (a menos que outra tela
+     * também o esteja usando).
+     *
+     * Texturas são carregadas com o formato do PNG (veja
+     * {@link br.microgamr.assets.TextureFormat}).
+     *
+     * @param path o caminho do asset.
+     * @param type o tipo do asset.
+     */
+    public <T> void loadAsset(String path, Class<T> type) {
+        loadAsset(path, type, AssetCache.defaultParameters(path, type));
+    }
+
+    /**
+     * Pede o carregamento de um asset usado por esta tela, com os parâmetros
+     * {@code parameters}.
+     *
+     * @param path o caminho do asset.
+     * @param type o tipo do asset.
+     * @param parameters os parâmetros de carregamento.
+     */
+    public <T> void loadAsset(String path, Class<T> type,
+            AssetLoaderParameters<T> parameters) {
+        assets.load(path, type, parameters);
+        ownAssets.add(path);
+    }
+
+    /**
+     * Pede o carregamento dos assets de um ou mais microgames, usados por
+     * esta tela. As texturas são carregadas no formato declarado para elas
+     * (veja {@link br.microgamr.assets.PreloadAssets}).
+     *
+     * @param assets os assets (caminho -> tipo).
+     */
+    public void loadAssets(Map<String, Class<?>> assets) {
+        for (Map.Entry<String, Class<?>> asset : assets.entrySet()) {
+            loadAsset(assets, asset.getKey(), asset.getValue());
+        }
+    }
+
+    private <T> void loadAsset(Map<String, Class<?>> assets, String path,
+            Class<T> type) {
+        loadAsset(path, type, AssetCache.parametersFor(assets, path, type));
+    }
+
+    /**
+     * Descarrega um asset pedido por esta tela antes que ela seja "disposed".
+     * Cada chamada desfaz uma chamada a loadAsset para o mesmo caminho.
+     *
+     * @param path o caminho do asset.
+     */
+    public void unloadAsset(String path) {
+        if (ownAssets.removeValue(path, false)) {
+            assets.unload(path);
+        }
+    }
+
+    /**
+     * Retorna se todos os assets pedidos por esta tela já foram carregados,
+     * mesmo que o {@link AssetCache} ainda esteja carregando assets de outras
+     * telas.
+     */
+    private boolean ownAssetsLoaded() {
+        for (int i = 0; i < ownAssets.size; i++) {
+            if (!assets.isLoaded(ownAssets.get(i))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -128,39 +229,81 @@ public abstract class BaseScreen extends ScreenAdapter {
 
     public void defineVisibleWorldBounds() {
         if (!shouldFillDeviceScreen()) {
+            // a FitViewport mostra o mundo inteiro
             visibleWorldBounds = new Rectangle(
                     0, 0, Config.WORLD_WIDTH, Config.WORLD_HEIGHT);
+            return;
         }
+        // a FillViewport corta o mundo nas laterais (dispositivo mais
+        // estreito) ou em cima e embaixo (dispositivo mais largo)
         float factor = this.deviceAspectRatioDivergenceFromDesired;
         boolean lastingSideways = factor > 0;
         if (lastingSideways) {
+            float width = Config.WORLD_WIDTH * (1 - factor);
             visibleWorldBounds = new Rectangle(
-                    0 + (factor / 2) * Config.WORLD_WIDTH,
+                    (Config.WORLD_WIDTH - width) / 2,
                     0,
-                    Config.WORLD_WIDTH - (factor / 2) * Config.WORLD_WIDTH,
+                    width,
                     Config.WORLD_HEIGHT
             );
 
         } else {
+            float height = Config.WORLD_HEIGHT / (1 - factor);
             visibleWorldBounds = new Rectangle(
                     0,
-                    0 + (-factor / 2) * Config.WORLD_HEIGHT,
+                    (Config.WORLD_HEIGHT - height) / 2,
                     Config.WORLD_WIDTH,
-                    Config.WORLD_HEIGHT - (-factor / 2) * Config.WORLD_HEIGHT
+                    height
             );
         }
     }
 
+    /**
+     * Recalcula a área visível do mundo a partir da viewport atualizada, já
+     * que a janela pode ter mudado de tamanho desde que a tela foi criada.
+     */
+    private void updateVisibleWorldBounds(int width, int height) {
+        float scaleX = viewport.getScreenWidth() / viewport.getWorldWidth();
+        float scaleY = viewport.getScreenHeight() / viewport.getWorldHeight();
+        if (scaleX > 0 && scaleY > 0) {
+            float visibleWidth = width / scaleX;
+            float visibleHeight = height / scaleY;
+            float left = Math.max(0,
+                    camera.position.x - visibleWidth / 2);
+            float bottom = Math.max(0,
+                    camera.position.y - visibleHeight / 2);
+            float right = Math.min(viewport.getWorldWidth(),
+                    camera.position.x + visibleWidth / 2);
+            float top = Math.min(viewport.getWorldHeight(),
+                    camera.position.y + visibleHeight / 2);
+            visibleWorldBounds.set(left, bottom, right - left, top - bottom);
+        }
+        renderPass.getQueue().setCullingBounds(visibleWorldBounds,
+                Config.CULLING_MARGIN);
+    }
+
     public Rectangle getVisibleWorldBounds() {
         return visibleWorldBounds;
     }
 
+    /**
+     * Exibe a tela. A tela anterior só é descartada depois de
+     * {@code appear()}, para que os assets que ambas usam não sejam
+     * descarregados e recarregados. Os assets esquentados por telas
+     * anteriores que já expiraram são liberados em seguida (veja
+     * {@link AssetCache#screenShown()}).
+     */
     @Override
     public final void show() {
+        GameEvents.screenShown(getClass());
+        // carregar a tela (e descartar a anterior) não é um quadro típico
+        QualityManager.ignoreNextFrame();
+        AssetCache.screenShowing();
+        this.appear();
         if (previous != null) {
             previous.dispose();
         }
-        this.appear();
+        AssetCache.screenShown();
     }
 
     /**
@@ -172,6 +315,7 @@ public abstract class BaseScreen extends ScreenAdapter {
     @Override
     public void resize(int width, int height) {
         this.viewport.update(width, height, true);
+        updateVisibleWorldBounds(width, height);
     }
 
     /**
@@ -185,7 +329,22 @@ public abstract class BaseScreen extends ScreenAdapter {
      */
     @Override
     public final void render(float dt) {
-        if (assets.update()) {
+        FlightRecorder.beginFrame();
+        QualityManager.beginFrame();
+
+        // o cache compartilhado continua carregando em segundo plano, mas a
+        // tela já pode ser executada quando os seus próprios assets chegarem
+        int loadedBefore = assets.getLoadedAssets();
+        boolean everythingLoaded = assets.update();
+        int loadedNow = assets.getLoadedAssets();
+        if (loadedNow > loadedBefore) {
+            FlightRecorder.record(EventType.ASSET_LOADED, null,
+                    loadedNow - loadedBefore);
+            // o custo de terminar um carregamento não diz nada sobre a
+            // qualidade gráfica
+            QualityManager.ignoreNextFrame();
+        }
+        if (assetsFinishedLoading || everythingLoaded || ownAssetsLoaded()) {
             if (!assetsFinishedLoading) {
                 messagesFont = assets.get("fonts/snaphand-v1-free.ttf");
                 messagesFont.getData().markupEnabled = true;
@@ -205,18 +364,96 @@ public abstract class BaseScreen extends ScreenAdapter {
                 return;
             }
 
-            // define o sistema de coordenadas (projeção) a ser usada pelo
-            // spriteBatch
-            this.batch.setProjectionMatrix(this.camera.combined);
+            // em máquinas mais fracas, o quadro é desenhado fora da tela em
+            // uma resolução menor (veja QualityManager)
+            boolean offscreen = QualityManager.shouldRenderOffscreen();
+            if (offscreen) {
+                scaledTarget.begin(viewport,
+                        QualityManager.getTier().renderScale);
+            }
 
             // limpa a tela para que possa ser redesenhada
             Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
-            // desenha o conteúdo da tela
+            // desenha o conteúdo da tela em um único passo, que começa com o
+            // sistema de coordenadas (projeção) do mundo de jogo
+            renderPass.begin(this.camera.combined);
             draw();
+            handleDebugInput();
+            if (showMemoryOverlay) {
+                renderPass.enter(Layer.DEBUG);
+                drawMemoryOverlay();
+            }
+            renderPass.end();
+            if (offscreen) {
+                scaledTarget.end(batch, viewport);
+            } else {
+                scaledTarget.dispose();
+            }
+            QualityManager.endFrame();
         }
     }
 
+    /**
+     * Mostra/esconde o <em>overlay</em> de memória (F9) e grava o relatório
+     * de memória em JSON (F10).
+     */
+    private void handleDebugInput() {
+        if (Gdx.input.isKeyJustPressed(Keys.F9)) {
+            showMemoryOverlay = !showMemoryOverlay;
+        }
+        if (Gdx.input.isKeyJustPressed(Keys.F10)) {
+            FileHandle file = Gdx.files.external(".microgamr/memory/"
+                    + getClass().getSimpleName() + "-" + TimeUtils.millis()
+                    + ".json");
+            createMemoryReport().writeTo(file);
+            Gdx.app.log("BaseScreen", "Relatório de memória gravado em "
+                    + file.file().getAbsolutePath());
+        }
+    }
+
+    private void drawMemoryOverlay() {
+        // o relatório só é refeito quando algum asset termina de carregar
+        if (memoryReport == null
+                || assets.getLoadedAssets() != assetsInMemoryReport) {
+            memoryReport = createMemoryReport();
+            assetsInMemoryReport = assets.getLoadedAssets();
+        }
+        if (debugFont == null) {
+            debugFont = LeakTracker.track(this, new BitmapFont());
+            debugFont.setColor(Color.BLACK);
+        }
+        debugFont.draw(batch, "Flushes no último quadro: "
+                + renderPass.getFlushCount() + " (sprites visíveis: "
+                + renderPass.getQueue().getLastFrameVisibleCount()
+                + ", descartadas: "
+                + renderPass.getQueue().getLastFrameCulledCount() + ")\n"
+                + memoryReport.toSummary(),
+                10, viewport.getWorldHeight() - 10);
+    }
+
+    /**
+     * Mede a memória mantida pelos assets desta tela, agrupando-os por dono
+     * (veja {@link #getAssetOwners()}).
+     *
+     * @return o relatório de memória.
+     */
+    public MemoryReport createMemoryReport() {
+        return new MemoryReport(getClass().getSimpleName(), assets,
+                getAssetOwners());
+    }
+
+    /**
+     * Retorna quem declarou cada asset carregado por esta tela (nome do dono
+     * -> assets), para o relatório de memória. Assets sem dono são
+     * atribuídos à própria tela.
+     *
+     * @return os assets de cada dono.
+     */
+    protected Map<String, Map<String, Class<?>>> getAssetOwners() {
+        return Collections.<String, Map<String, Class<?>>>emptyMap();
+    }
+
     /**
      * Escreve um texto centralizado na tela, com uma escala {@code scale} e na
      * altura {@code y}.
@@ -244,11 +481,32 @@ public abstract class BaseScreen extends ScreenAdapter {
     public final void dispose() {
         if (!wasJustDisposed) {
             wasJustDisposed = true;
-            batch.dispose();
+            GameEvents.screenDisposed(getClass());
+            LeakTracker.release(batch);
+            LeakTracker.release(scaledTarget);
+            LeakTracker.release(debugFont);
             this.cleanUp();
+            for (int i = 0; i < ownAssets.size; i++) {
+                assets.unload(ownAssets.get(i));
+            }
+            ownAssets.clear();
+            // o que a tela (ou a sua HUD, os seus microgames...) criou e não
+            // liberou aparece no log
+            LeakTracker.reportLeaks(this);
         }
     }
 
+    /**
+     * Retorna se nada na tela muda sem <em>input</em> do jogador (e.g., o
+     * jogo está pausado), caso em que ela só é redesenhada quando há
+     * <em>input</em> (veja {@link br.microgamr.graphics.IdleRendering}).
+     *
+     * @return true se a tela está estática. Por padrão, false.
+     */
+    public boolean isStatic() {
+        return false;
+    }
+
     /**
      * Executa ações de carregamento da tela. Esta função é chamada assim que a
      * tela vai ser exibida pela primeira vez.
@@ -258,9 +516,9 @@ public abstract class BaseScreen extends ScreenAdapter {
     public abstract void appear();
 
     /**
-     * Executa ações assim que todos os assets foram carregados. Ela é chamada
-     * apenas uma vez, depois de appear(), assim que todos os assets foram
-     * carregados.
+     * Executa ações assim que todos os assets desta tela foram carregados.
+     * Ela é chamada apenas uma vez, depois de appear(), assim que todos os
+     * assets pedidos por meio de loadAsset foram carregados.
      *
      * Esta função pode ser usada para carregar os elementos do jogo que
      * dependem dos assets que foram carregados (eg, uma sprite precisa de uma
@@ -292,6 +550,10 @@ public abstract class BaseScreen extends ScreenAdapter {
 
     /**
      * Desenha o conteúdo da tela.
+     *
+     * O {@link #renderPass} já está iniciado, na camada
+     * {@link Layer#WORLD}, então a tela não deve chamar
+     * {@code batch.begin()}/{@code batch.end()}.
      */
     public abstract void draw();
 
@@ -1,20 +1,30 @@
 package br.microgamr.screens;
 
 import br.microgamr.Config;
+import br.microgamr.assets.AssetCache;
 import br.microgamr.graphics.hud.Hud;
+import br.microgamr.diagnostics.FlightRecorder;
+import br.microgamr.diagnostics.FlightRecorder.EventType;
+import br.microgamr.diagnostics.GameEvents;
+import br.microgamr.diagnostics.TelemetryLog;
+import br.microgamr.diagnostics.TelemetryRecord;
+import br.microgamr.graphics.RenderPass.Layer;
 import br.microgamr.logic.BaseGameSequencer;
 import br.microgamr.microgames.MicroGame;
+import br.microgamr.microgames.factories.MicroGameCatalog;
+import br.microgamr.microgames.factories.MicroGameFactory;
 import br.microgamr.microgames.util.MicroGameState;
 import br.microgamr.microgames.util.MicroGameStateObserver;
+import br.microgamr.microgames.util.MicroGameTimings;
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.InputAdapter;
 import com.badlogic.gdx.InputMultiplexer;
-import com.badlogic.gdx.assets.loaders.TextureLoader;
-import com.badlogic.gdx.assets.loaders.TextureLoader.TextureParameter;
-import com.badlogic.gdx.audio.Sound;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.badlogic.gdx.utils.Timer;
 import com.badlogic.gdx.utils.Timer.Task;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Tela de jogo. Executa uma sequência de microgames, dada pelo
@@ -25,6 +35,15 @@ import com.badlogic.gdx.utils.Timer.Task;
 public class GameScreen extends BaseScreen
         implements MicroGameStateObserver {
 
+    /**
+     * Pede ao {@link AssetCache} que comece a carregar os assets da HUD antes
+     * mesmo de a tela de jogo ser criada. Eles ficam residentes, então as
+     * próximas partidas os encontram já carregados.
+     */
+    public static void warmUpAssets() {
+        Hud.ASSETS.keepResident();
+    }
+
     private MicroGame currentGame;
     private final BaseGameSequencer sequencer;
     private final Hud hud;
@@ -32,34 +51,51 @@ public class GameScreen extends BaseScreen
     private int lives;
     private final InputMultiplexer inputMultiplexer;
 
+    // resultado do microgame atual, gravado no registro de telemetria
+    private final TelemetryRecord outcome = new TelemetryRecord();
+    private boolean measuringOutcome;
+    private final InputAdapter inputCounter = new InputAdapter() {
+        @Override
+        public boolean keyDown(int keycode) {
+            if (measuringOutcome) {
+                outcome.keys++;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean touchDown(int screenX, int screenY, int pointer,
+                int button) {
+            if (measuringOutcome) {
+                outcome.touches++;
+            }
+            return false;
+        }
+
+    };
+
     public GameScreen(Game game, BaseScreen previous, BaseGameSequencer gameSequencer) {
         super(game, previous);
         state = GameScreenState.PLAYING;
         lives = Config.MAX_LIVES;
         sequencer = gameSequencer;
         hud = new Hud(this, this);
-        inputMultiplexer = new InputMultiplexer();
+        inputMultiplexer = new InputMultiplexer(inputCounter);
+        outcome.sessionId = TimeUtils.millis();
+        // o primeiro segmento do registro é preparado em segundo plano
+        TelemetryLog.getShared();
     }
 
     @Override
     public void appear() {
         Gdx.gl.glClearColor(1, 1, 1, 1);
 
-        TextureParameter linearFilter = new TextureLoader.TextureParameter();
-        linearFilter.minFilter = Texture.TextureFilter.Linear;
-        linearFilter.magFilter = Texture.TextureFilter.Linear;
-
-        assets.load("hud/countdown.png", Texture.class, linearFilter);
-        assets.load("hud/gray-mask.png", Texture.class, linearFilter);
-        assets.load("hud/unpause-button.png", Texture.class, linearFilter);
-        assets.load("hud/pause-button.png", Texture.class, linearFilter);
-        assets.load("hud/lives.png", Texture.class, linearFilter);
-        assets.load("hud/clock.png", Texture.class, linearFilter);
-        assets.load("hud/tick-tock.mp3", Sound.class);
+        Hud.ASSETS.keepResident();
+        Hud.ASSETS.loadInto(this);
         Gdx.input.setInputProcessor(inputMultiplexer);
 
         // avisa o game sequencer para pré-carregar os assets dos microgames
-        sequencer.preloadAssets(assets);
+        sequencer.preloadAssets(this);
     }
 
     @Override
@@ -73,7 +109,29 @@ public class GameScreen extends BaseScreen
     public void cleanUp() {
         Gdx.input.setCursorCatched(false);
         Gdx.input.setInputProcessor(null);
-        assets.dispose();
+        if (currentGame != null) {
+            currentGame.dispose();
+        }
+        hud.dispose();
+
+        // mostra quanto cada microgame demorou para se preparar e se ativar
+        Gdx.app.log("MicroGameTimings", "\n" + MicroGameTimings.toSummary());
+    }
+
+    /**
+     * Atribui os assets dos microgames aos microgames que os declararam.
+     *
+     * @return os assets de cada fábrica da sequência.
+     */
+    @Override
+    protected Map<String, Map<String, Class<?>>> getAssetOwners() {
+        Map<String, Map<String, Class<?>>> owners
+                = new LinkedHashMap<String, Map<String, Class<?>>>();
+        for (MicroGameFactory factory : sequencer.getSelectedFactories()) {
+            owners.put(MicroGameCatalog.getName(factory),
+                    factory.getAssetsToPreload());
+        }
+        return owners;
     }
 
     @Override
@@ -91,23 +149,35 @@ public class GameScreen extends BaseScreen
         }
     }
 
+    /**
+     * Enquanto o jogo está pausado pela HUD, nada se move: a tela só é
+     * redesenhada quando há <em>input</em>.
+     */
+    @Override
+    public boolean isStatic() {
+        return hud.isPaused();
+    }
+
     @Override
     public void update(float dt) {
+        if (measuringOutcome && !hud.isPaused()) {
+            outcome.addFrame(dt,
+                    dt * 1e9f > FlightRecorder.getHitchBudget());
+        }
         currentGame.update(dt);
         hud.update(dt);
     }
 
     @Override
     public void draw() {
-        super.batch.begin();
         if (currentGame != null) {
             currentGame.draw();
         }
         if (state != GameScreenState.PLAYING) {
+            renderPass.enter(Layer.OVERLAY);
             drawEndGame();
         }
-        super.batch.end();
-        hud.draw();
+        hud.draw(renderPass);
     }
 
     private void advance() {
@@ -131,7 +201,13 @@ public class GameScreen extends BaseScreen
 
     private void loadNextGame() {
         // carrega o novo jogo (pede ao sequenciador o próximo)
+        GameEvents.nextGameStarted(sequencer.getClass());
+        if (currentGame != null) {
+            currentGame.dispose();
+        }
         currentGame = sequencer.nextGame(this, this);
+        GameEvents.nextGameFinished(sequencer.getClass(),
+                currentGame.getClass(), sequencer.getGameNumber());
         currentGame.start();
 
         // atualiza o número de sequência do jogo atual na HUD
@@ -172,6 +248,8 @@ public class GameScreen extends BaseScreen
                 break;
 
             case PLAYING:
+                outcome.reset();
+                measuringOutcome = true;
                 hud.hideGameInstructions();
                 Gdx.input.setCursorCatched(currentGame.shouldHideMousePointer());
                 if (currentGame.getInputProcessor() != null) {
@@ -188,6 +266,7 @@ public class GameScreen extends BaseScreen
             // uma decisão consciente =)
 
             case PLAYER_FAILED:
+                recordOutcome(state);
                 hud.hidePauseButton();
                 hud.showMessage(state == MicroGameState.PLAYER_FAILED ? "Falhou!" : "Conseguiu!");
                 if (state == MicroGameState.PLAYER_FAILED) {
@@ -198,6 +277,8 @@ public class GameScreen extends BaseScreen
                 Timer.instance().scheduleTask(new Task() {
                     @Override
                     public void run() {
+                        FlightRecorder.record(EventType.TIMER_TASK,
+                                "GameScreen.advance", 0);
                         advance();
                     }
 
@@ -209,6 +290,25 @@ public class GameScreen extends BaseScreen
         }
     }
 
+    /**
+     * Grava o resultado do microgame atual no registro de telemetria (sem
+     * esperar pelo disco, veja {@link TelemetryLog}).
+     */
+    private void recordOutcome(MicroGameState result) {
+        measuringOutcome = false;
+        TelemetryLog log = TelemetryLog.getShared();
+        if (log == null) {
+            return;
+        }
+        outcome.timestampMillis = TimeUtils.millis();
+        outcome.sequenceIndex = sequencer.getGameNumber();
+        outcome.microGame = MicroGameCatalog.getName(
+                sequencer.getCurrentFactory());
+        outcome.difficulty = currentGame.getDifficulty();
+        outcome.result = result;
+        log.append(outcome);
+    }
+
     @Override
     public void onTimeEnding() {
         hud.startEndingTimer();
@@ -1,15 +1,19 @@
 package br.microgamr.screens;
 
 import br.microgamr.Config;
-import br.microgamr.logic.GameSequencer;
-import br.microgamr.microgames.factories.*;
+import br.microgamr.assets.AssetBundle;
+import br.microgamr.assets.AssetCache;
+import br.microgamr.assets.TextureFormat;
+import br.microgamr.logic.EndlessGameSequencer;
+import br.microgamr.logic.WeightedGameSequencer;
+import br.microgamr.microgames.factories.MicroGameCatalog;
+import br.microgamr.microgames.factories.MicroGameFactory;
+import br.microgamr.microgames.util.DifficultyCurve;
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.Input.Keys;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import java.util.Arrays;
-import java.util.HashSet;
 
 /**
  * A tela de menu principal do jogo.
@@ -19,8 +23,56 @@ import java.util.HashSet;
 public class MenuScreen extends BaseScreen {
 
     private static final int NUMBER_OF_TILED_BACKGROUND_TEXTURE = 7;
+    private static final int NUMBER_OF_GAMES_IN_SEQUENCE = 5;
+    private static final String BACKGROUND = "menu/menu-background.png";
     private TextureRegion background;
 
+    /**
+     * Os assets do menu.
+     */
+    public static final AssetBundle ASSETS = new AssetBundle("menu")
+            .add(BACKGROUND, Texture.class, TextureFormat.RGBA4444
+                    .parameter(Texture.TextureFilter.Linear));
+
+    /**
+     * A sequência sorteada de antemão para o próximo jogo, cujos primeiros
+     * microgames já começaram a ser carregados.
+     */
+    private static WeightedGameSequencer nextSequencer;
+
+    /**
+     * Pede ao {@link AssetCache} que comece a carregar o fundo do menu e os
+     * assets dos primeiros microgames antes mesmo de o menu ser criado. Para
+     * isso, a sequência do primeiro jogo é sorteada já agora, e os
+     * microgames aquecidos são exatamente os primeiros dela.
+     */
+    public static void warmUpAssets() {
+        ASSETS.warmUp();
+
+        nextSequencer = drawSequence();
+        int warmedUp = 0;
+        for (MicroGameFactory factory
+                : nextSequencer.getSelectedFactories()) {
+            if (warmedUp++ == Config.MICROGAMES_TO_WARM_UP) {
+                break;
+            }
+            AssetCache.warmUp(factory.getAssetsToPreload());
+        }
+    }
+
+    private static WeightedGameSequencer drawSequence() {
+        final float difficultyOfFirstMicrogame = 0;
+        final float difficultyOfLastMicrogame = 1;
+        // cria um sequenciador com um número de jogos em sequência e o
+        // catálogo de microgames disponíveis para serem sorteados (veja
+        // MicroGameCatalog), além de definir a dificuldade do microgame
+        // inicial e a do final
+        return new WeightedGameSequencer(NUMBER_OF_GAMES_IN_SEQUENCE,
+                MicroGameCatalog.getRegistry(),
+                Config.MICROGAMES_NO_REPEAT_WINDOW,
+                difficultyOfFirstMicrogame, difficultyOfLastMicrogame);
+    }
+
     /**
      * Cria uma nova tela de menu.
      *
@@ -40,17 +92,13 @@ public class MenuScreen extends BaseScreen {
         Gdx.input.setCursorCatched(false);
 
         // instancia a textura e a região de textura (usada para repetir)
-        TextureLoader.TextureParameter linearFilter = new TextureLoader.TextureParameter();
-        linearFilter.minFilter = Texture.TextureFilter.Linear;
-        linearFilter.magFilter = Texture.TextureFilter.Linear;
-
-        assets.load("menu/menu-background.png", Texture.class, linearFilter);
+        ASSETS.loadInto(this);
     }
 
     @Override
     protected void assetsLoaded() {
         // instancia a textura e a região de textura (usada para repetir)
-        background = new TextureRegion(assets.get("menu/menu-background.png", Texture.class));
+        background = new TextureRegion(assets.get(BACKGROUND, Texture.class));
         // configura a textura para repetir caso ela ocupe menos espaço que o
         // espaço disponível
         background.getTexture().setWrap(
@@ -75,8 +123,11 @@ public class MenuScreen extends BaseScreen {
     @Override
     public void handleInput() {
         // se qualquer interação é feita (teclado, mouse pressionado, tecla
-        // tocada), navega para a próxima tela (de jogo)
-        if (Gdx.input.justTouched()) {
+        // tocada), navega para a próxima tela (de jogo). A tecla E inicia o
+        // modo sem fim
+        if (Gdx.input.isKeyJustPressed(Keys.E)) {
+            navigateToEndlessGameScreen();
+        } else if (Gdx.input.justTouched()) {
             navigateToMicroGameScreen();
         }
     }
@@ -97,63 +148,36 @@ public class MenuScreen extends BaseScreen {
      */
     @Override
     public void draw() {
-        batch.begin();
         batch.draw(background, 0, 0,
                 viewport.getWorldWidth(),
                 viewport.getWorldHeight());
         drawCenterAlignedText("Pressione qualquer tecla para jogar",
                 viewport.getWorldHeight() * 0.35f);
-        batch.end();
+        drawCenterAlignedText("ou E para o modo sem fim",
+                viewport.getWorldHeight() * 0.25f);
     }
 
     /**
      * Navega para a tela de jogo.
      */
     private void navigateToMicroGameScreen() {
-        final float difficultyOfFirstMicrogame = 0;
-        final float difficultyOfLastMicrogame = 1;
-        final int numberOfGamesInSequence = 5;
-        // cria um sequenciador com um número de jogos em sequência e a lista
-        // de microgames disponíveis para serem sorteados, além de definir a
-        // dificuldade do microgame inicial e a do final
-        GameSequencer sequencer = new GameSequencer(numberOfGamesInSequence,
-                new HashSet<MicroGameFactory>(
-                Arrays.asList(
-                        // microgames iniciais, de exemplo
-                        // (*não devem ser removidos* ao commitar)
-                        new ShootTheMonstersFactory(),
-                        new ExpelTheMonstersFactory()
-                        // microgames do grupo 1:
-                        
-                        // microgames do grupo 2:
-                        
-                        // microgames do grupo 3:
-                        
-                        // microgames do grupo 4:
-                        
-                        // microgames do grupo 5:
-                        
-                        // microgames do grupo 6:
-                        
-                        // microgames do grupo 7:
-                        
-                        // microgames do grupo 8:
-                        
-                        // microgames do grupo 9:
-                        
-                        // microgames do grupo 10:
-                        
-                        // microgames do grupo 11:
-                        
-                        // microgames do grupo 12:
-                        
-                        // microgames do grupo 13:
-                        
-                        // microgames do grupo 14:
-                        
-                        // microgames do grupo 15:
-                )
-        ), difficultyOfFirstMicrogame, difficultyOfLastMicrogame);
+        // usa a sequência sorteada durante a splash, se ainda não foi jogada
+        WeightedGameSequencer sequencer = nextSequencer != null
+                ? nextSequencer : drawSequence();
+        nextSequencer = null;
+        game.setScreen(new GameScreen(game, this, sequencer));
+    }
+
+    /**
+     * Navega para a tela de jogo no modo sem fim, em que os microgames são
+     * sorteados até que o jogador perca todas as vidas.
+     */
+    private void navigateToEndlessGameScreen() {
+        EndlessGameSequencer sequencer = new EndlessGameSequencer(
+                MicroGameCatalog.getRegistry(),
+                Config.MICROGAMES_NO_REPEAT_WINDOW, Config.ENDLESS_LOOKAHEAD,
+                Config.ENDLESS_GAMES_TO_MAX_DIFFICULTY, DifficultyCurve.S,
+                0, 1);
         game.setScreen(new GameScreen(game, this, sequencer));
     }
 
@@ -162,7 +186,7 @@ public class MenuScreen extends BaseScreen {
      */
     @Override
     public void cleanUp() {
-        background.getTexture().dispose();
+        // a textura de fundo é descarregada pelo AssetCache
     }
 
 }
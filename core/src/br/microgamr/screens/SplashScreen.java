@@ -1,9 +1,10 @@
 package br.microgamr.screens;
 
 import br.microgamr.Config;
+import br.microgamr.assets.AssetBundle;
+import br.microgamr.assets.TextureFormat;
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.assets.loaders.TextureLoader;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.utils.TimeUtils;
@@ -15,6 +16,13 @@ import com.badlogic.gdx.utils.TimeUtils;
  */
 public class SplashScreen extends BaseScreen {
 
+    /**
+     * Os assets da splash. A logo é grande (1200x1200) e tem poucas cores.
+     */
+    public static final AssetBundle ASSETS = new AssetBundle("splash")
+            .add("splash/logo.png", Texture.class, TextureFormat.RGBA4444
+                    .parameter(Texture.TextureFilter.Linear));
+
     /**
      * Momento em que a tela foi mostrada (em milissegundos).
      */
@@ -44,11 +52,12 @@ public class SplashScreen extends BaseScreen {
         Gdx.gl.glClearColor(1, 1, 1, 1);
         timeWhenScreenShowedUp = TimeUtils.millis();
 
-        TextureLoader.TextureParameter linearFilter = new TextureLoader.TextureParameter();
-        linearFilter.minFilter = Texture.TextureFilter.Linear;
-        linearFilter.magFilter = Texture.TextureFilter.Linear;
+        ASSETS.loadInto(this);
 
-        assets.load("splash/logo.png", Texture.class, linearFilter);
+        // aproveita o tempo da splash para carregar os assets do menu, da
+        // HUD e dos primeiros microgames
+        MenuScreen.warmUpAssets();
+        GameScreen.warmUpAssets();
     }
 
     @Override
@@ -62,7 +71,7 @@ public class SplashScreen extends BaseScreen {
 
     @Override
     public void cleanUp() {
-        logo.getTexture().dispose();
+        // a textura da logo é descarregada pelo AssetCache
     }
 
     /**
@@ -91,10 +100,13 @@ public class SplashScreen extends BaseScreen {
      */
     @Override
     public void update(float dt) {
-        // verifica se o tempo em que se passou na tela é maior do que o máximo
-        // para que possamos navegar para a próxima tela.
-        if (TimeUtils.timeSinceMillis(timeWhenScreenShowedUp)
-                >= Config.TIME_ON_SPLASH_SCREEN) {
+        // navega para a próxima tela se o tempo em que se passou na tela é
+        // maior do que o máximo ou, depois do mínimo, se o AssetCache já
+        // terminou de carregar os assets das próximas telas
+        long timeOnScreen = TimeUtils.timeSinceMillis(timeWhenScreenShowedUp);
+        if (timeOnScreen >= Config.TIME_ON_SPLASH_SCREEN
+                || (timeOnScreen >= Config.MINIMUM_TIME_ON_SPLASH_SCREEN
+                && assets.isFinished())) {
             navigateToMenuScreen();
         }
     }
@@ -104,8 +116,6 @@ public class SplashScreen extends BaseScreen {
      */
     @Override
     public void draw() {
-        batch.begin();
         logo.draw(batch);
-        batch.end();
     }
 }
@@ -0,0 +1,231 @@
+package br.microgamr.assets;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Testes da {@link CollisionMask}. As sobreposições são conferidas contra
+ * uma comparação pixel a pixel, com máscaras mais largas que 64 pixels e
+ * deslocamentos que não são múltiplos de 64.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class CollisionMaskTest {
+
+    private static final int OPAQUE = 0xFFFFFFFF;
+    private static final int TRANSPARENT = 0x00000000;
+
+    @BeforeClass
+    public static void loadNatives() {
+        GdxNativesLoader.load();
+    }
+
+    @Test
+    public void usesTheAlphaThreshold() {
+        Pixmap pixmap = emptyPixmap(3, 1);
+        pixmap.drawPixel(0, 0, 0xFFFFFF7F);
+        pixmap.drawPixel(1, 0, 0x00000080);
+        pixmap.drawPixel(2, 0, TRANSPARENT);
+        CollisionMask mask = CollisionMask.fromPixmap(pixmap,
+                CollisionMask.DEFAULT_ALPHA_THRESHOLD);
+        pixmap.dispose();
+
+        assertFalse(mask.get(0, 0));
+        assertTrue(mask.get(1, 0));
+        assertFalse(mask.get(2, 0));
+    }
+
+    @Test
+    public void matchesThePixmapAcrossWords() {
+        Pixmap pixmap = randomPixmap(150, 7, new Random(1));
+        CollisionMask mask = maskOf(pixmap);
+
+        assertEquals(3, mask.getWordsPerRow());
+        for (int y = 0; y < pixmap.getHeight(); y++) {
+            for (int x = 0; x < pixmap.getWidth(); x++) {
+                assertEquals(x + ", " + y, isOpaque(pixmap, x, y),
+                        mask.get(x, y));
+            }
+        }
+        assertFalse(mask.get(-1, 0));
+        assertFalse(mask.get(150, 0));
+        assertFalse(mask.get(0, 7));
+        pixmap.dispose();
+    }
+
+    @Test
+    public void regionsMatchTheOriginalMask() {
+        Pixmap pixmap = randomPixmap(200, 5, new Random(2));
+        CollisionMask mask = maskOf(pixmap);
+        pixmap.dispose();
+
+        int[][] regions = {{0, 0, 200, 5}, {3, 1, 70, 3}, {63, 0, 65, 5},
+            {130, 2, 70, 3}, {10, 0, 1, 1}};
+        for (int[] r : regions) {
+            CollisionMask region = mask.region(r[0], r[1], r[2], r[3]);
+            assertEquals(r[2], region.getWidth());
+            assertEquals(r[3], region.getHeight());
+            for (int y = -1; y <= r[3]; y++) {
+                for (int x = -1; x <= r[2]; x++) {
+                    boolean inside = x >= 0 && y >= 0 && x < r[2]
+                            && y < r[3];
+                    assertEquals(inside && mask.get(r[0] + x, r[1] + y),
+                            region.get(x, y));
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsRegionsOutsideTheMask() {
+        Pixmap pixmap = emptyPixmap(10, 10);
+        CollisionMask mask = maskOf(pixmap);
+        pixmap.dispose();
+        mask.region(5, 5, 6, 5);
+    }
+
+    @Test
+    public void overlapsMatchesAPixelByPixelComparison() {
+        Random random = new Random(3);
+        Pixmap a = randomPixmap(140, 9, random);
+        Pixmap b = randomPixmap(70, 6, random);
+        CollisionMask maskA = sparse(maskOf(a), random);
+        CollisionMask maskB = sparse(maskOf(b), random);
+        a.dispose();
+        b.dispose();
+
+        int overlapping = 0;
+        for (int dy = -7; dy <= 10; dy++) {
+            for (int dx = -72; dx <= 142; dx++) {
+                boolean expected = overlapsByPixel(maskA, maskB, dx, dy);
+                assertEquals(dx + ", " + dy, expected,
+                        maskA.overlaps(maskB, dx, dy));
+                assertEquals(dx + ", " + dy,
+                        overlapsByPixel(maskB, maskA, -dx, -dy),
+                        maskB.overlaps(maskA, -dx, -dy));
+                if (expected) {
+                    overlapping++;
+                }
+            }
+        }
+        assertTrue(overlapping > 0);
+    }
+
+    @Test
+    public void transparentMasksNeverOverlap() {
+        Pixmap empty = emptyPixmap(100, 4);
+        Pixmap full = emptyPixmap(100, 4);
+        full.setColor(OPAQUE);
+        full.fill();
+        CollisionMask emptyMask = maskOf(empty);
+        CollisionMask fullMask = maskOf(full);
+        empty.dispose();
+        full.dispose();
+
+        assertTrue(fullMask.overlaps(fullMask, 99, 3));
+        assertFalse(fullMask.overlaps(fullMask, 100, 0));
+        assertFalse(fullMask.overlaps(emptyMask, 0, 0));
+        assertFalse(emptyMask.overlaps(fullMask, 0, 0));
+    }
+
+    @Test
+    public void writesAndReadsBackAMask() throws IOException {
+        Pixmap pixmap = randomPixmap(90, 4, new Random(4));
+        CollisionMask mask = maskOf(pixmap);
+        pixmap.dispose();
+        File file = File.createTempFile("microgamr-mask", ".mask");
+        try {
+            FileHandle handle = new FileHandle(file);
+            mask.write(handle, 0xCAFEBABEL, 100);
+
+            CollisionMask read = CollisionMask.read(handle, 0xCAFEBABEL,
+                    100);
+            assertNotNull(read);
+            assertEquals(mask.getWidth(), read.getWidth());
+            assertEquals(mask.getHeight(), read.getHeight());
+            for (int row = 0; row < mask.getHeight(); row++) {
+                for (int word = 0; word < mask.getWordsPerRow(); word++) {
+                    assertEquals(mask.getWord(row, word),
+                            read.getWord(row, word));
+                }
+            }
+            // desatualizada: outra imagem ou outro limiar
+            assertNull(CollisionMask.read(handle, 0xCAFEBABFL, 100));
+            assertNull(CollisionMask.read(handle, 0xCAFEBABEL, 128));
+        } finally {
+            file.delete();
+        }
+        assertNull(CollisionMask.read(new FileHandle(file), 0, 100));
+    }
+
+    private static CollisionMask maskOf(Pixmap pixmap) {
+        return CollisionMask.fromPixmap(pixmap,
+                CollisionMask.DEFAULT_ALPHA_THRESHOLD);
+    }
+
+    private static Pixmap emptyPixmap(int width, int height) {
+        Pixmap pixmap = new Pixmap(width, height, Pixmap.Format.RGBA8888);
+        pixmap.setBlending(Pixmap.Blending.None);
+        pixmap.setColor(TRANSPARENT);
+        pixmap.fill();
+        return pixmap;
+    }
+
+    private static Pixmap randomPixmap(int width, int height,
+            Random random) {
+        Pixmap pixmap = emptyPixmap(width, height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                pixmap.drawPixel(x, y, random.nextInt());
+            }
+        }
+        return pixmap;
+    }
+
+    /**
+     * Retorna uma máscara do mesmo tamanho com só alguns dos pixels opacos
+     * desta, para que nem todo deslocamento tenha sobreposição.
+     */
+    private static CollisionMask sparse(CollisionMask mask, Random random) {
+        Pixmap pixmap = emptyPixmap(mask.getWidth(), mask.getHeight());
+        for (int i = 0; i < 6; i++) {
+            int x = random.nextInt(mask.getWidth());
+            int y = random.nextInt(mask.getHeight());
+            if (mask.get(x, y)) {
+                pixmap.drawPixel(x, y, OPAQUE);
+            }
+        }
+        CollisionMask sparse = maskOf(pixmap);
+        pixmap.dispose();
+        return sparse;
+    }
+
+    private static boolean isOpaque(Pixmap pixmap, int x, int y) {
+        return (pixmap.getPixel(x, y) & 0xFF)
+                >= CollisionMask.DEFAULT_ALPHA_THRESHOLD;
+    }
+
+    private static boolean overlapsByPixel(CollisionMask a, CollisionMask b,
+            int dx, int dy) {
+        for (int y = 0; y < b.getHeight(); y++) {
+            for (int x = 0; x < b.getWidth(); x++) {
+                if (b.get(x, y) && a.get(x + dx, y + dy)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
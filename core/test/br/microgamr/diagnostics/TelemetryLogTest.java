@@ -0,0 +1,242 @@
+package br.microgamr.diagnostics;
+
+import br.microgamr.microgames.util.MicroGameState;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Testes do {@link TelemetryLog} junto do {@link TelemetryReader}: o que é
+ * escrito é lido de volta, igual, e registros ou segmentos estragados são
+ * pulados e relatados.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class TelemetryLogTest {
+
+    private static final int RECORDS_PER_SEGMENT = 10;
+    private static final int SEGMENT_BYTES = TelemetryLog.HEADER_SIZE
+            + RECORDS_PER_SEGMENT * TelemetryLog.RECORD_SIZE;
+    private static final long BASE_TIMESTAMP = 1500000000000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File directory;
+    private List<TelemetryRecord> read;
+    private List<String> problems;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = folder.newFolder("telemetry");
+        read = new ArrayList<TelemetryRecord>();
+        problems = new ArrayList<String>();
+    }
+
+    @Test
+    public void readsBackEveryField() {
+        TelemetryLog log = new TelemetryLog(directory, SEGMENT_BYTES, 5);
+        // até PENDING_RECORDS registros nunca são descartados
+        for (int i = 0; i < TelemetryLog.PENDING_RECORDS; i++) {
+            log.append(record(i));
+        }
+        log.close();
+
+        assertEquals(0, log.getDroppedCount());
+        assertEquals(TelemetryLog.PENDING_RECORDS, readAll());
+        assertTrue(problems.isEmpty());
+        for (int i = 0; i < read.size(); i++) {
+            assertSameRecord(record(i), read.get(i));
+        }
+    }
+
+    @Test
+    public void truncatesLongNamesAndKeepsMissingResults() {
+        TelemetryRecord record = record(0);
+        record.microGame = "UmMicrogameComUmNomeMuitoMaiorQueTrintaEDoisBytes";
+        record.result = null;
+        TelemetryLog log = new TelemetryLog(directory, SEGMENT_BYTES, 5);
+        log.append(record);
+        log.close();
+
+        assertEquals(1, readAll());
+        assertEquals(record.microGame.substring(0, TelemetryLog.NAME_BYTES),
+                read.get(0).microGame);
+        assertNull(read.get(0).result);
+    }
+
+    @Test
+    public void resumesTheNewestSegment() {
+        TelemetryLog log = new TelemetryLog(directory, SEGMENT_BYTES, 5);
+        for (int i = 0; i < 3; i++) {
+            log.append(record(i));
+        }
+        log.close();
+        log = new TelemetryLog(directory, SEGMENT_BYTES, 5);
+        for (int i = 3; i < 5; i++) {
+            log.append(record(i));
+        }
+        log.close();
+
+        assertEquals(1, TelemetryLog.listSegments(directory).length);
+        assertEquals(5, readAll());
+        for (int i = 0; i < read.size(); i++) {
+            assertSameRecord(record(i), read.get(i));
+        }
+    }
+
+    @Test
+    public void keepsOnlyTheNewestSegments() throws InterruptedException {
+        int maxSegments = 3;
+        int count = RECORDS_PER_SEGMENT * 10;
+        TelemetryLog log = new TelemetryLog(directory, SEGMENT_BYTES,
+                maxSegments);
+        for (int i = 0; i < count; i++) {
+            log.append(record(i));
+            // dá tempo para a thread de E/S preparar os segmentos
+            Thread.sleep(1);
+        }
+        log.close();
+
+        assertTrue(TelemetryLog.listSegments(directory).length
+                <= maxSegments);
+        assertEquals(count, log.getAppendedCount() + log.getDroppedCount());
+        int total = readAll();
+        assertTrue(total > 0 && total <= maxSegments * RECORDS_PER_SEGMENT);
+        assertTrue(problems.isEmpty());
+        // os mais recentes, em ordem
+        for (int i = 1; i < total; i++) {
+            assertTrue(read.get(i).timestampMillis
+                    > read.get(i - 1).timestampMillis);
+        }
+    }
+
+    @Test
+    public void skipsCorruptedRecordsAndEmptySlots() throws IOException {
+        TelemetryLog log = new TelemetryLog(directory, SEGMENT_BYTES, 5);
+        for (int i = 0; i < 5; i++) {
+            log.append(record(i));
+        }
+        log.close();
+        File segment = TelemetryLog.listSegments(directory)[0];
+        RandomAccessFile access = new RandomAccessFile(segment, "rw");
+        try {
+            // um byte trocado no registro 1
+            long difficulty = recordStart(1) + TelemetryLog.DIFFICULTY;
+            access.seek(difficulty);
+            int original = access.read();
+            access.seek(difficulty);
+            access.write(original ^ 0x10);
+            // o registro 3 nunca chegou ao disco (a página ficou com zeros)
+            access.seek(recordStart(3));
+            access.write(new byte[TelemetryLog.RECORD_SIZE]);
+        } finally {
+            access.close();
+        }
+
+        assertEquals(3, readAll());
+        assertSameRecord(record(0), read.get(0));
+        assertSameRecord(record(2), read.get(1));
+        assertSameRecord(record(4), read.get(2));
+        assertEquals(1, problems.size());
+        assertTrue(problems.get(0).contains("1 registro(s)"));
+    }
+
+    @Test
+    public void skipsSegmentsThatCannotBeRead() throws IOException {
+        TelemetryLog log = new TelemetryLog(directory, SEGMENT_BYTES, 5);
+        log.append(record(0));
+        log.close();
+        // um segmento mais antigo cheio de zeros
+        RandomAccessFile access = new RandomAccessFile(new File(directory,
+                "telemetry-0000000000000-000000" + TelemetryLog.EXTENSION),
+                "rw");
+        try {
+            access.setLength(SEGMENT_BYTES);
+        } finally {
+            access.close();
+        }
+
+        assertEquals(1, readAll());
+        assertSameRecord(record(0), read.get(0));
+        assertEquals(1, problems.size());
+    }
+
+    private int readAll() {
+        return TelemetryReader.readAll(directory,
+                new TelemetryReader.Visitor() {
+            @Override
+            public void visit(TelemetryRecord record) {
+                read.add(copy(record));
+            }
+
+        }, problems);
+    }
+
+    private static long recordStart(int index) {
+        return TelemetryLog.HEADER_SIZE + index * TelemetryLog.RECORD_SIZE;
+    }
+
+    private static TelemetryRecord record(int i) {
+        TelemetryRecord record = new TelemetryRecord();
+        record.timestampMillis = BASE_TIMESTAMP + i;
+        record.sessionId = 1000 + i / 5;
+        record.sequenceIndex = i % 5;
+        record.microGame = i % 2 == 0 ? "ShootTheMonstersFactory"
+                : "ExpelTheMonstersFactory";
+        record.difficulty = i / 20f;
+        record.result = i % 3 == 0 ? MicroGameState.PLAYER_FAILED
+                : MicroGameState.PLAYER_SUCCEEDED;
+        for (int f = 0; f < 100 + i; f++) {
+            record.addFrame(1 / 60f + (f % 7) * 0.003f, f % 7 == 6);
+        }
+        record.touches = i * 3;
+        record.keys = i;
+        return record;
+    }
+
+    private static TelemetryRecord copy(TelemetryRecord record) {
+        TelemetryRecord copy = new TelemetryRecord();
+        copy.timestampMillis = record.timestampMillis;
+        copy.sessionId = record.sessionId;
+        copy.sequenceIndex = record.sequenceIndex;
+        copy.microGame = record.microGame;
+        copy.difficulty = record.difficulty;
+        copy.result = record.result;
+        copy.seconds = record.seconds;
+        copy.touches = record.touches;
+        copy.keys = record.keys;
+        copy.frames = record.frames;
+        copy.meanFrameMillis = record.meanFrameMillis;
+        copy.maxFrameMillis = record.maxFrameMillis;
+        copy.slowFrames = record.slowFrames;
+        return copy;
+    }
+
+    private static void assertSameRecord(TelemetryRecord expected,
+            TelemetryRecord actual) {
+        assertEquals(expected.timestampMillis, actual.timestampMillis);
+        assertEquals(expected.sessionId, actual.sessionId);
+        assertEquals(expected.sequenceIndex, actual.sequenceIndex);
+        assertEquals(expected.microGame, actual.microGame);
+        assertEquals(expected.difficulty, actual.difficulty, 0);
+        assertEquals(expected.result, actual.result);
+        assertEquals(expected.seconds, actual.seconds, 0);
+        assertEquals(expected.touches, actual.touches);
+        assertEquals(expected.keys, actual.keys);
+        assertEquals(expected.frames, actual.frames);
+        assertEquals(expected.meanFrameMillis, actual.meanFrameMillis, 0);
+        assertEquals(expected.maxFrameMillis, actual.maxFrameMillis, 0);
+        assertEquals(expected.slowFrames, actual.slowFrames);
+    }
+}
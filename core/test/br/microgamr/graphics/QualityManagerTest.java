@@ -0,0 +1,160 @@
+package br.microgamr.graphics;
+
+import br.microgamr.Config;
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Testes das subidas e descidas de nível do {@link QualityManager}, com
+ * janelas de medidas sintéticas em vez do relógio.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class QualityManagerTest {
+
+    private static final float BUDGET = 1000f / Config.QUALITY_TARGET_FPS;
+    private static final float SLOW = BUDGET * 1.5f;
+    private static final float LIGHT_WORK = BUDGET * 0.25f;
+    private static final float HEAVY_WORK = BUDGET * 0.75f;
+
+    @BeforeClass
+    public static void stubApplication() {
+        // as mudanças de nível são registradas com Gdx.app.log
+        Gdx.app = RenderQueueTest.stub(Application.class, null);
+    }
+
+    @Before
+    public void resetTier() {
+        QualityManager.setTier(QualityTier.HIGH);
+    }
+
+    @Test
+    public void stepsDownWhenFramesMissTheBudget() {
+        window(SLOW, HEAVY_WORK);
+        assertEquals(QualityTier.MEDIUM, QualityManager.getTier());
+        window(SLOW, HEAVY_WORK);
+        assertEquals(QualityTier.LOW, QualityManager.getTier());
+    }
+
+    @Test
+    public void waitsForAWholeWindowBeforeStepping() {
+        for (int i = 0; i < Config.QUALITY_WINDOW_FRAMES - 1; i++) {
+            QualityManager.addSample(SLOW, HEAVY_WORK);
+        }
+        assertEquals(QualityTier.HIGH, QualityManager.getTier());
+        QualityManager.addSample(SLOW, HEAVY_WORK);
+        assertEquals(QualityTier.MEDIUM, QualityManager.getTier());
+    }
+
+    @Test
+    public void ignoresSlowFramesBelowThePercentile() {
+        int tolerated = Config.QUALITY_WINDOW_FRAMES - (int) Math.ceil(
+                Config.QUALITY_PERCENTILE * Config.QUALITY_WINDOW_FRAMES);
+        windowWithSlowFrames(tolerated, SLOW);
+        assertEquals(QualityTier.HIGH, QualityManager.getTier());
+        windowWithSlowFrames(tolerated + 1, SLOW);
+        assertEquals(QualityTier.MEDIUM, QualityManager.getTier());
+    }
+
+    @Test
+    public void staysAtTheLowestTier() {
+        QualityManager.setTier(QualityTier.LOWEST);
+        window(SLOW, HEAVY_WORK);
+        assertEquals(QualityTier.LOWEST, QualityManager.getTier());
+    }
+
+    @Test
+    public void stepsUpAfterEnoughLightWindows() {
+        QualityManager.setTier(QualityTier.LOW);
+        for (int i = 1; i < Config.QUALITY_GOOD_WINDOWS_TO_STEP_UP; i++) {
+            window(BUDGET, LIGHT_WORK);
+        }
+        assertEquals(QualityTier.LOW, QualityManager.getTier());
+        window(BUDGET, LIGHT_WORK);
+        assertEquals(QualityTier.MEDIUM, QualityManager.getTier());
+    }
+
+    @Test
+    public void heavyWindowsRestartTheCountToStepUp() {
+        QualityManager.setTier(QualityTier.LOW);
+        for (int i = 1; i < Config.QUALITY_GOOD_WINDOWS_TO_STEP_UP; i++) {
+            window(BUDGET, LIGHT_WORK);
+        }
+        window(BUDGET, HEAVY_WORK);
+        for (int i = 1; i < Config.QUALITY_GOOD_WINDOWS_TO_STEP_UP; i++) {
+            window(BUDGET, LIGHT_WORK);
+        }
+        assertEquals(QualityTier.LOW, QualityManager.getTier());
+    }
+
+    @Test
+    public void staysAtTheHighestTier() {
+        for (int i = 0; i < Config.QUALITY_GOOD_WINDOWS_TO_STEP_UP * 2;
+                i++) {
+            window(BUDGET, LIGHT_WORK);
+        }
+        assertEquals(QualityTier.HIGH, QualityManager.getTier());
+    }
+
+    @Test
+    public void aStepUpUndoneRightAwayDoublesTheWindowsToStepUp() {
+        QualityManager.setTier(QualityTier.LOW);
+        stepUp(Config.QUALITY_GOOD_WINDOWS_TO_STEP_UP);
+        window(SLOW, HEAVY_WORK);
+        assertEquals(QualityTier.LOW, QualityManager.getTier());
+
+        int required = Config.QUALITY_GOOD_WINDOWS_TO_STEP_UP * 2;
+        for (int i = 1; i < required; i++) {
+            window(BUDGET, LIGHT_WORK);
+        }
+        assertEquals(QualityTier.LOW, QualityManager.getTier());
+        window(BUDGET, LIGHT_WORK);
+        assertEquals(QualityTier.MEDIUM, QualityManager.getTier());
+    }
+
+    @Test
+    public void setTierRestartsTheAdjustment() {
+        QualityManager.setTier(QualityTier.LOW);
+        stepUp(Config.QUALITY_GOOD_WINDOWS_TO_STEP_UP);
+        window(SLOW, HEAVY_WORK);
+
+        QualityManager.setTier(QualityTier.LOW);
+        stepUp(Config.QUALITY_GOOD_WINDOWS_TO_STEP_UP);
+    }
+
+    private static void stepUp(int windows) {
+        QualityTier before = QualityManager.getTier();
+        for (int i = 0; i < windows; i++) {
+            window(BUDGET, LIGHT_WORK);
+        }
+        assertEquals(before.higher(), QualityManager.getTier());
+    }
+
+    /**
+     * Completa uma janela em que todos os quadros têm as mesmas medidas.
+     */
+    private static void window(float interval, float work) {
+        for (int i = 0; i < Config.QUALITY_WINDOW_FRAMES; i++) {
+            QualityManager.addSample(interval, work);
+        }
+    }
+
+    /**
+     * Completa uma janela de quadros no orçamento com {@code slowFrames}
+     * quadros lentos (com intervalo {@code slowInterval}).
+     */
+    private static void windowWithSlowFrames(int slowFrames,
+            float slowInterval) {
+        for (int i = 0; i < slowFrames; i++) {
+            QualityManager.addSample(slowInterval, HEAVY_WORK);
+        }
+        for (int i = slowFrames; i < Config.QUALITY_WINDOW_FRAMES; i++) {
+            QualityManager.addSample(BUDGET, HEAVY_WORK);
+        }
+    }
+}
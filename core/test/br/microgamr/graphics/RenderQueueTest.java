@@ -0,0 +1,258 @@
+package br.microgamr.graphics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Testes da ordenação da {@link RenderQueue}. Cada desenho é identificado
+ * pela sua posição x, e a batch apenas anota a ordem em que os recebeu.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class RenderQueueTest {
+
+    private static TextureRegion a;
+    private static TextureRegion b;
+    private static TextureRegion c;
+
+    private RenderQueue queue;
+    private List<Float> drawn;
+    private Batch batch;
+
+    @BeforeClass
+    public static void createTextures() {
+        // sem contexto OpenGL: as chamadas ao GL não fazem nada
+        Gdx.gl = Gdx.gl20 = stub(GL20.class, null);
+        a = new TextureRegion(new Texture(new FakeTextureData()));
+        b = new TextureRegion(new Texture(new FakeTextureData()));
+        c = new TextureRegion(new Texture(new FakeTextureData()));
+    }
+
+    @Before
+    public void createQueue() {
+        queue = new RenderQueue();
+        drawn = new ArrayList<Float>();
+        batch = stub(Batch.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("draw")
+                        && args[0] instanceof TextureRegion) {
+                    drawn.add((Float) args[1]);
+                }
+                return null;
+            }
+        });
+    }
+
+    @Test
+    public void sortsByLayerThenTextureThenDepth() {
+        queue.submit(b, 1, 0, 1, 1, 2, 0.5f);
+        queue.submit(a, 2, 0, 1, 1, 0, 3f);
+        queue.submit(a, 3, 0, 1, 1, 2, 0.1f);
+        queue.submit(b, 4, 0, 1, 1, 0, 1f);
+        queue.submit(a, 5, 0, 1, 1, 0, 2f);
+        queue.submit(c, 6, 0, 1, 1, 1, 0f);
+        queue.flush(batch);
+
+        // as texturas são numeradas na ordem em que aparecem (b, a, c), e
+        // a profundidade só ordena os desenhos de uma mesma textura
+        assertDrawn(4, 5, 2, 6, 1, 3);
+    }
+
+    @Test
+    public void keepsSubmissionOrderOnEqualDepths() {
+        for (int i = 0; i < 5; i++) {
+            queue.submit(a, i, 0, 1, 1, 0, 1f);
+        }
+        queue.flush(batch);
+
+        assertDrawn(0, 1, 2, 3, 4);
+    }
+
+    @Test
+    public void sortsNegativeDepthsBelowPositiveOnes() {
+        queue.submit(a, 1, 0, 1, 1, 0, 1f);
+        queue.submit(a, 2, 0, 1, 1, 0, -0.5f);
+        queue.submit(a, 3, 0, 1, 1, 0, 0f);
+        queue.submit(a, 4, 0, 1, 1, 0, -2.5f);
+        queue.submit(a, 5, 0, 1, 1, 0, -Float.MAX_VALUE);
+        queue.flush(batch);
+
+        assertDrawn(5, 4, 2, 3, 1);
+    }
+
+    @Test
+    public void sortsMoreCommandsThanTheInitialCapacity() {
+        Random random = new Random(42);
+        float[] depths = new float[1000];
+        for (int i = 0; i < depths.length; i++) {
+            depths[i] = (random.nextFloat() - 0.5f) * 2000;
+            queue.submit(a, depths[i], 0, 1, 1, 0, depths[i]);
+        }
+        queue.flush(batch);
+
+        Arrays.sort(depths);
+        assertEquals(depths.length, drawn.size());
+        for (int i = 0; i < depths.length; i++) {
+            assertEquals(depths[i], drawn.get(i), 0);
+        }
+    }
+
+    @Test
+    public void countsOneTextureSwitchPerTextureAndLayer() {
+        queue.submit(a, 1, 0, 1, 1, 0, 0);
+        queue.submit(b, 2, 0, 1, 1, 0, 0);
+        queue.submit(a, 3, 0, 1, 1, 0, 0);
+        queue.submit(b, 4, 0, 1, 1, 0, 0);
+        queue.submit(a, 5, 0, 1, 1, 1, 0);
+        queue.flush(batch);
+
+        assertEquals(5, queue.getLastCommandCount());
+        assertEquals(3, queue.getLastTextureSwitches());
+    }
+
+    @Test
+    public void discardsCommandsOutsideTheCullingBounds() {
+        queue.setCullingBounds(new Rectangle(0, 0, 100, 100), 10);
+        queue.beginFrame();
+        queue.submit(a, 1, 50, 5, 5, 0, 0);
+        queue.submit(a, 2, 105, 5, 5, 0, 0);
+        queue.submit(a, 200, 50, 5, 5, 0, 0);
+        queue.submit(a, -20, 50, 5, 5, 0, 0);
+        queue.flush(batch);
+        queue.beginFrame();
+
+        assertDrawn(1, 2);
+        assertEquals(2, queue.getLastFrameVisibleCount());
+        assertEquals(2, queue.getLastFrameCulledCount());
+    }
+
+    @Test
+    public void clearDiscardsPendingCommands() {
+        queue.submit(a, 1, 0, 1, 1, 0, 0);
+        queue.clear();
+        queue.submit(b, 2, 0, 1, 1, 0, 0);
+        queue.flush(batch);
+
+        assertDrawn(2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsLayersOutOfRange() {
+        queue.submit(a, 0, 0, 1, 1, RenderQueue.MAX_LAYER + 1, 0);
+    }
+
+    private void assertDrawn(float... expected) {
+        assertEquals(expected.length, drawn.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals("desenho " + i, expected[i], drawn.get(i), 0);
+        }
+    }
+
+    /**
+     * Cria uma implementação de {@code type} que repassa as chamadas a
+     * {@code handler} (se houver) e retorna o valor padrão de cada tipo.
+     */
+    static <T> T stub(Class<T> type, final InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(),
+                new Class<?>[]{type}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args)
+                    throws Throwable {
+                Object result = handler == null ? null
+                        : handler.invoke(proxy, method, args);
+                if (result != null) {
+                    return result;
+                }
+                Class<?> returned = method.getReturnType();
+                if (returned == boolean.class) {
+                    return false;
+                } else if (returned == float.class) {
+                    return 0f;
+                } else if (returned == int.class) {
+                    return 0;
+                } else if (returned == long.class) {
+                    return 0L;
+                }
+                return null;
+            }
+        }));
+    }
+
+    /**
+     * Os dados de uma textura 1x1 que não precisam ser enviados à GPU.
+     */
+    private static class FakeTextureData implements TextureData {
+
+        @Override
+        public TextureDataType getType() {
+            return TextureDataType.Custom;
+        }
+
+        @Override
+        public boolean isPrepared() {
+            return true;
+        }
+
+        @Override
+        public void prepare() {
+        }
+
+        @Override
+        public Pixmap consumePixmap() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean disposePixmap() {
+            return false;
+        }
+
+        @Override
+        public void consumeCustomData(int target) {
+        }
+
+        @Override
+        public int getWidth() {
+            return 1;
+        }
+
+        @Override
+        public int getHeight() {
+            return 1;
+        }
+
+        @Override
+        public Pixmap.Format getFormat() {
+            return Pixmap.Format.RGBA8888;
+        }
+
+        @Override
+        public boolean useMipMaps() {
+            return false;
+        }
+
+        @Override
+        public boolean isManaged() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package br.microgamr.logic;
+
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Testes da {@link AliasTable}: as frequências dos sorteios seguem os pesos
+ * e a mesma semente sorteia sempre os mesmos itens.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class AliasTableTest {
+
+    private static final int SAMPLES = 200000;
+
+    @Test
+    public void frequenciesFollowTheWeights() {
+        float[][] cases = {
+            {1, 1, 1, 1},
+            {1, 2, 3, 4},
+            {0.01f, 10, 0.5f, 3, 3, 100},
+            {7}
+        };
+        for (float[] weights : cases) {
+            assertFrequencies(weights, new AliasTable(weights),
+                    new Random(1));
+        }
+    }
+
+    @Test
+    public void sameSeedDrawsTheSameItems() {
+        AliasTable table = new AliasTable(new float[]{1, 5, 2, 0.5f, 3});
+        Random first = new Random(42);
+        Random second = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(table.sample(first), table.sample(second));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveWeights() {
+        new AliasTable(new float[]{1, 0, 2});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAnEmptyTable() {
+        new AliasTable(new float[0]);
+    }
+
+    /**
+     * Confere, para cada item, que a frequência observada está a menos de
+     * 5 desvios padrão (da binomial) da esperada.
+     */
+    static void assertFrequencies(float[] weights, AliasTable table,
+            Random random) {
+        int[] counts = new int[weights.length];
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[table.sample(random)]++;
+        }
+        float total = 0;
+        for (float weight : weights) {
+            total += weight;
+        }
+        for (int i = 0; i < weights.length; i++) {
+            double p = weights[i] / total;
+            double tolerance = 5 * Math.sqrt(SAMPLES * p * (1 - p)) + 1;
+            assertEquals("item " + i, SAMPLES * p, counts[i], tolerance);
+        }
+    }
+}
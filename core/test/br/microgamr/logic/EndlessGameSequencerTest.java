@@ -0,0 +1,144 @@
+package br.microgamr.logic;
+
+import br.microgamr.microgames.util.DifficultyCurve;
+import br.microgamr.screens.BaseScreen;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Testes do {@link EndlessGameSequencer} ao longo de milhares de jogos: a
+ * janela de não repetição vale, e cada microgame carregado é descarregado
+ * depois de jogado, de forma que só os próximos ficam carregados.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class EndlessGameSequencerTest {
+
+    private static final int GAMES = 5000;
+
+    @Test
+    public void neverRepeatsWithinTheWindow() {
+        for (int window = 1; window <= 4; window++) {
+            play(registry(1, 3, 2, 0.5f, 1, 4), window, 2);
+        }
+    }
+
+    @Test
+    public void fallsBackWhenTheWindowHoldsAlmostAllTheWeight() {
+        play(registry(1000, 1000, 1000, 0.001f), 3, 2);
+    }
+
+    @Test
+    public void worksWithALongLookahead() {
+        play(registry(1, 1, 1, 1, 1, 1, 1, 1), 2, 5);
+    }
+
+    /**
+     * Joga {@link #GAMES} jogos, conferindo a janela e que os assets
+     * carregados são sempre os do jogo atual e dos sorteados de antemão.
+     */
+    private static void play(MicroGameRegistry registry, int window,
+            int lookahead) {
+        RecordingSequencer sequencer = new RecordingSequencer(registry,
+                window, lookahead);
+        sequencer.preloadAssets(null);
+        assertEquals(lookahead, sequencer.loads.size());
+
+        int[] played = new int[GAMES];
+        for (int game = 0; game < GAMES; game++) {
+            sequencer.nextGame(null, null);
+            played[game] = registry.indexOf(sequencer.getCurrentFactory());
+            assertEquals(game + 1, sequencer.getGameNumber());
+
+            // o anterior foi descarregado e mais um foi carregado
+            assertEquals(lookahead + game + 1, sequencer.loads.size());
+            assertEquals(game, sequencer.unloads.size());
+            if (game > 0) {
+                assertSame(registry.get(played[game - 1])
+                        .getAssetsToPreload(),
+                        sequencer.unloads.get(game - 1));
+            }
+            // os carregamentos seguem a ordem do sorteio: o jogo atual é o
+            // que foi carregado na sua posição
+            assertSame(registry.get(played[game]).getAssetsToPreload(),
+                    sequencer.loads.get(game));
+            assertLoaded(sequencer, game);
+        }
+        WeightedGameSequencerTest.assertNoRepeats(played,
+                Math.min(window, registry.size() - 1));
+    }
+
+    /**
+     * Confere que os assets carregados e ainda não descarregados são
+     * exatamente os do jogo atual ({@code game}) e dos próximos já
+     * sorteados.
+     */
+    private static void assertLoaded(RecordingSequencer sequencer,
+            int game) {
+        Map<Map<String, Class<?>>, Integer> outstanding = count(
+                sequencer.loads);
+        for (Map<String, Class<?>> assets : sequencer.unloads) {
+            Integer loaded = outstanding.get(assets);
+            assertTrue(loaded != null && loaded > 0);
+            outstanding.put(assets, loaded - 1);
+        }
+        outstanding.values().removeAll(Collections.singleton(0));
+
+        assertEquals(count(sequencer.loads.subList(game,
+                sequencer.loads.size())), outstanding);
+    }
+
+    private static Map<Map<String, Class<?>>, Integer> count(
+            List<Map<String, Class<?>>> all) {
+        Map<Map<String, Class<?>>, Integer> counts
+                = new IdentityHashMap<Map<String, Class<?>>, Integer>();
+        for (Map<String, Class<?>> assets : all) {
+            Integer count = counts.get(assets);
+            counts.put(assets, count == null ? 1 : count + 1);
+        }
+        return counts;
+    }
+
+    private static MicroGameRegistry registry(float... weights) {
+        return WeightedGameSequencerTest.registry(weights);
+    }
+
+    /**
+     * Anota os carregamentos e descarregamentos em vez de pedi-los a uma
+     * tela.
+     */
+    private static class RecordingSequencer extends EndlessGameSequencer {
+
+        final List<Map<String, Class<?>>> loads
+                = new ArrayList<Map<String, Class<?>>>();
+        final List<Map<String, Class<?>>> unloads
+                = new ArrayList<Map<String, Class<?>>>();
+
+        RecordingSequencer(MicroGameRegistry registry, int window,
+                int lookahead) {
+            super(registry, window, lookahead, 100, DifficultyCurve.S, 0, 1,
+                    new Random(window * 31 + lookahead));
+        }
+
+        @Override
+        protected void loadAll(BaseScreen screen,
+                Map<String, Class<?>> assets) {
+            loads.add(assets);
+        }
+
+        @Override
+        protected void unloadAll(BaseScreen screen,
+                Map<String, Class<?>> assets) {
+            unloads.add(assets);
+        }
+    }
+}
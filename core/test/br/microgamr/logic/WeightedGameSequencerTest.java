@@ -0,0 +1,144 @@
+package br.microgamr.logic;
+
+import br.microgamr.microgames.MicroGame;
+import br.microgamr.microgames.factories.MicroGameFactory;
+import br.microgamr.microgames.util.MicroGameStateObserver;
+import br.microgamr.screens.BaseScreen;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Testes do {@link WeightedGameSequencer}: a mesma semente monta a mesma
+ * sequência, os microgames aparecem de acordo com os pesos e nunca se
+ * repetem dentro da janela.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class WeightedGameSequencerTest {
+
+    private static final int GAMES = 20000;
+
+    @Test
+    public void sameSeedDrawsTheSameSequence() {
+        MicroGameRegistry registry = registry(1, 3, 2, 0.5f, 1, 4);
+        int[] first = sequence(registry, 2, 7);
+        int[] second = sequence(registry, 2, 7);
+        int[] other = sequence(registry, 2, 8);
+
+        assertArrayEquals(first, second);
+        assertFalse(Arrays.equals(first, other));
+    }
+
+    @Test
+    public void frequenciesFollowTheWeightsWithoutAWindow() {
+        float[] weights = {1, 3, 2, 0.5f, 1, 4};
+        int[] indices = sequence(registry(weights), 0, 1);
+
+        int[] counts = new int[weights.length];
+        for (int index : indices) {
+            counts[index]++;
+        }
+        float total = 0;
+        for (float weight : weights) {
+            total += weight;
+        }
+        for (int i = 0; i < weights.length; i++) {
+            double p = weights[i] / total;
+            double tolerance = 5 * Math.sqrt(GAMES * p * (1 - p)) + 1;
+            assertEquals("microgame " + i, GAMES * p, counts[i], tolerance);
+        }
+    }
+
+    @Test
+    public void neverRepeatsWithinTheWindow() {
+        for (int window = 1; window <= 5; window++) {
+            int[] indices = sequence(registry(1, 3, 2, 0.5f, 1, 4, 0.2f),
+                    window, window);
+            assertNoRepeats(indices, window);
+        }
+    }
+
+    @Test
+    public void fallsBackWhenTheWindowHoldsAlmostAllTheWeight() {
+        // com 4 microgames e janela 3, só um fica fora dela: o de peso
+        // ínfimo raramente sai na tabela, mas tem de sair a cada 4 jogos
+        int[] indices = sequence(registry(1000, 1000, 1000, 0.001f), 3, 3);
+
+        assertNoRepeats(indices, 3);
+        int light = -1;
+        for (int i = 0; i < indices.length; i++) {
+            if (indices[i] == 3) {
+                if (light >= 0) {
+                    assertEquals(4, i - light);
+                } else {
+                    assertTrue(i < 4);
+                }
+                light = i;
+            }
+        }
+        assertTrue(light >= indices.length - 4);
+    }
+
+    @Test
+    public void limitsTheWindowToTheNumberOfMicroGames() {
+        int[] indices = sequence(registry(1, 1), 10, 5);
+        assertNoRepeats(indices, 1);
+    }
+
+    private static int[] sequence(MicroGameRegistry registry, int window,
+            long seed) {
+        return new WeightedGameSequencer(GAMES, registry, window, 0, 1,
+                new Random(seed)).getIndexSequence();
+    }
+
+    /**
+     * Confere que cada {@code window + 1} índices consecutivos são todos
+     * diferentes.
+     */
+    static void assertNoRepeats(int[] indices, int window) {
+        for (int i = 0; i < indices.length; i++) {
+            for (int j = Math.max(0, i - window); j < i; j++) {
+                assertTrue("repetiu na posição " + i,
+                        indices[i] != indices[j]);
+            }
+        }
+    }
+
+    /**
+     * Cria um catálogo com um microgame falso para cada peso. Cada fábrica
+     * tem o seu próprio mapa de assets (vazio), para que os carregamentos
+     * possam ser atribuídos a ela.
+     */
+    static MicroGameRegistry registry(float... weights) {
+        MicroGameRegistry registry = new MicroGameRegistry();
+        for (float weight : weights) {
+            registry.register(new FakeFactory(), weight);
+        }
+        return registry;
+    }
+
+    private static class FakeFactory implements MicroGameFactory {
+
+        private final Map<String, Class<?>> assets
+                = new HashMap<String, Class<?>>();
+
+        @Override
+        public MicroGame createMicroGame(BaseScreen screen,
+                MicroGameStateObserver observer, float difficulty) {
+            return null;
+        }
+
+        @Override
+        public Map<String, Class<?>> getAssetsToPreload() {
+            return assets;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package br.microgamr.microgames.util;
+
+import com.badlogic.gdx.utils.JsonReader;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Testes das curvas compiladas ({@link CompiledCurve}) e das criadas por
+ * {@link Curves}.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class CurvesTest {
+
+    private static final float EPSILON = 1e-4f;
+
+    @Test
+    public void compiledCurveMatchesTheOriginalCurve() {
+        for (DifficultyCurve curve : DifficultyCurve.values()) {
+            CompiledCurve compiled = curve.compile();
+            for (int i = 0; i <= 1000; i++) {
+                float x = i / 1000f;
+                assertEquals(curve + " em " + x, curve.getCurveValue(x),
+                        compiled.getCurveValue(x), 1e-3f);
+            }
+        }
+    }
+
+    @Test
+    public void compiledCurveIsExactOnTableEntries() {
+        CompiledCurve compiled = DifficultyCurve.S.compile();
+        for (int i = 0; i <= CompiledCurve.RESOLUTION; i++) {
+            float x = (float) i / CompiledCurve.RESOLUTION;
+            assertEquals(DifficultyCurve.S.getCurveValue(x),
+                    compiled.getCurveValue(x), 0);
+        }
+    }
+
+    @Test
+    public void compiledCurveClampsValuesOutsideTheDomain() {
+        CompiledCurve compiled = DifficultyCurve.LINEAR.compile();
+        assertEquals(0, compiled.getCurveValue(-1), 0);
+        assertEquals(0, compiled.getCurveValue(Float.NaN), 0);
+        assertEquals(1, compiled.getCurveValue(2), 0);
+        assertEquals(1, compiled.getCurveValue(Float.POSITIVE_INFINITY), 0);
+    }
+
+    @Test
+    public void compilingACompiledCurveReturnsIt() {
+        CompiledCurve compiled = DifficultyCurve.LINEAR.compile();
+        assertSame(compiled, CompiledCurve.compile(compiled));
+    }
+
+    @Test
+    public void curveValueBetweenRescalesTheValue() {
+        CompiledCurve compiled = DifficultyCurve.LINEAR.compile();
+        assertEquals(15, compiled.getCurveValueBetween(0.5f, 10, 20),
+                EPSILON);
+        assertEquals(20, compiled.getCurveValueBetween(0.5f, 30, 10),
+                EPSILON);
+    }
+
+    @Test
+    public void piecewiseLinearPassesThroughItsPoints() {
+        CompiledCurve curve = Curves.piecewiseLinear(
+                0.25f, 0.2f, 0.5f, 0.8f, 1, 1);
+        assertEquals(0.2f, curve.getCurveValue(0), EPSILON);
+        assertEquals(0.2f, curve.getCurveValue(0.25f), EPSILON);
+        assertEquals(0.5f, curve.getCurveValue(0.375f), EPSILON);
+        assertEquals(0.8f, curve.getCurveValue(0.5f), EPSILON);
+        assertEquals(0.9f, curve.getCurveValue(0.75f), EPSILON);
+        assertEquals(1, curve.getCurveValue(1), EPSILON);
+    }
+
+    @Test
+    public void cubicSplinePassesThroughItsPointsWithoutOvershooting() {
+        CompiledCurve curve = Curves.cubicSpline(
+                0, 0, 0.3f, 0.6f, 0.6f, 0.65f, 1, 1);
+        assertEquals(0, curve.getCurveValue(0), EPSILON);
+        assertEquals(0.6f, curve.getCurveValue(0.3f), EPSILON);
+        assertEquals(0.65f, curve.getCurveValue(0.6f), EPSILON);
+        assertEquals(1, curve.getCurveValue(1), EPSILON);
+        // pontos crescentes: a curva também é (sem passar do ponto)
+        float previous = curve.getCurveValue(0);
+        for (int i = 1; i <= 1000; i++) {
+            float value = curve.getCurveValue(i / 1000f);
+            assertTrue("decresce em " + i / 1000f, value >= previous);
+            previous = value;
+        }
+    }
+
+    @Test
+    public void cubicSplineIsFlatBetweenEqualPoints() {
+        CompiledCurve curve = Curves.cubicSpline(
+                0, 0, 0.4f, 0.5f, 0.6f, 0.5f, 1, 1);
+        for (int i = 40; i <= 60; i++) {
+            assertEquals(0.5f, curve.getCurveValue(i / 100f), EPSILON);
+        }
+    }
+
+    @Test
+    public void logisticGoesFromZeroToOne() {
+        CompiledCurve curve = Curves.logistic(10, 0.4f);
+        assertEquals(0, curve.getCurveValue(0), EPSILON);
+        assertEquals(1, curve.getCurveValue(1), EPSILON);
+        // a subida é mais rápida no ponto médio
+        float atMidpoint = curve.getCurveValue(0.41f)
+                - curve.getCurveValue(0.39f);
+        float elsewhere = curve.getCurveValue(0.81f)
+                - curve.getCurveValue(0.79f);
+        assertTrue(atMidpoint > elsewhere);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void logisticRejectsNonPositiveSteepness() {
+        Curves.logistic(0, 0.5f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsDecreasingPoints() {
+        Curves.piecewiseLinear(0, 0, 0.5f, 1, 0.4f, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsASinglePoint() {
+        Curves.cubicSpline(0, 0);
+    }
+
+    @Test
+    public void invertedMirrorsTheCurve() {
+        CompiledCurve curve = Curves.inverted(DifficultyCurve.LINEAR);
+        assertEquals(1, curve.getCurveValue(0), EPSILON);
+        assertEquals(0.25f, curve.getCurveValue(0.75f), EPSILON);
+    }
+
+    @Test
+    public void readsCurvesFromJson() {
+        JsonReader reader = new JsonReader();
+        CompiledCurve linear = Curves.fromJson(reader.parse(
+                "{ type: linear, points: [0, 0, 0.5, 0.2, 1, 1] }"));
+        assertEquals(0.1f, linear.getCurveValue(0.25f), EPSILON);
+
+        CompiledCurve preset = Curves.fromJson(reader.parse(
+                "{ type: preset, name: S, inverted: true }"));
+        assertEquals(DifficultyCurve.S_NEGATIVE.getCurveValue(0.3f),
+                preset.getCurveValue(0.3f), 1e-3f);
+
+        CompiledCurve logistic = Curves.fromJson(reader.parse(
+                "{ type: logistic, steepness: 8 }"));
+        assertEquals(0.5f, logistic.getCurveValue(0.5f), EPSILON);
+    }
+}
@@ -0,0 +1,210 @@
+package br.microgamr.microgames.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Testes do {@link JobSystem}: o resultado não depende do número de
+ * threads, um {@code parallelFor} dentro de um job termina, dependências
+ * são respeitadas e exceções chegam a quem chama {@code sync()}.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class JobSystemTest {
+
+    private static final int COUNT = 10000;
+    private static final int GRAIN = 256;
+
+    @Test
+    public void resultDoesNotDependOnTheNumberOfThreads() {
+        float[] expected = kernel(new JobSystem(1));
+        for (int threads : new int[]{2, 4, 8}) {
+            float[] result = kernel(new JobSystem(threads));
+            assertArrayEquals(threads + " threads", expected, result, 0);
+        }
+    }
+
+    @Test
+    public void visitsEveryIndexOnce() {
+        final AtomicInteger[] visits = new AtomicInteger[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            visits[i] = new AtomicInteger();
+        }
+        new JobSystem(4).parallelFor(COUNT, GRAIN,
+                new JobSystem.RangeJob() {
+            @Override
+            public void run(int chunk, int from, int to) {
+                assertEquals(chunk * GRAIN, from);
+                for (int i = from; i < to; i++) {
+                    visits[i].incrementAndGet();
+                }
+            }
+        });
+        for (int i = 0; i < COUNT; i++) {
+            assertEquals("índice " + i, 1, visits[i].get());
+        }
+    }
+
+    @Test
+    public void parallelForInsideAJobFinishes() {
+        final JobSystem system = new JobSystem(2);
+        final float[][] results = new float[4][];
+        // mais jobs que threads: todas ficam ocupadas com um parallelFor
+        for (int i = 0; i < results.length; i++) {
+            final int job = i;
+            system.submit(new Runnable() {
+                @Override
+                public void run() {
+                    results[job] = kernel(system);
+                }
+            });
+        }
+        system.sync();
+
+        float[] expected = kernel(new JobSystem(1));
+        for (float[] result : results) {
+            assertArrayEquals(expected, result, 0);
+        }
+    }
+
+    @Test
+    public void jobsRunAfterTheirDependencies() {
+        JobSystem system = new JobSystem(4);
+        final List<Integer> order
+                = Collections.synchronizedList(new ArrayList<Integer>());
+        JobSystem.Job previous = null;
+        for (int i = 0; i < 20; i++) {
+            final int step = i;
+            Runnable work = new Runnable() {
+                @Override
+                public void run() {
+                    order.add(step);
+                }
+            };
+            previous = previous == null ? system.submit(work)
+                    : system.submit(work, previous);
+        }
+        system.sync();
+
+        assertTrue(previous.isDone());
+        assertEquals(20, order.size());
+        for (int i = 0; i < order.size(); i++) {
+            assertEquals(i, (int) order.get(i));
+        }
+    }
+
+    @Test
+    public void jobWithSeveralDependenciesWaitsForAllOfThem() {
+        JobSystem system = new JobSystem(4);
+        final AtomicInteger finished = new AtomicInteger();
+        final AtomicInteger seenByLast = new AtomicInteger(-1);
+        JobSystem.Job[] dependencies = new JobSystem.Job[6];
+        for (int i = 0; i < dependencies.length; i++) {
+            dependencies[i] = system.submit(new Runnable() {
+                @Override
+                public void run() {
+                    kernel(new JobSystem(1));
+                    finished.incrementAndGet();
+                }
+            });
+        }
+        system.submit(new Runnable() {
+            @Override
+            public void run() {
+                seenByLast.set(finished.get());
+            }
+        }, dependencies);
+        system.sync();
+
+        assertEquals(dependencies.length, seenByLast.get());
+    }
+
+    @Test
+    public void jobExceptionsAreRethrownBySync() {
+        for (int threads : new int[]{1, 4}) {
+            JobSystem system = new JobSystem(threads);
+            final IllegalStateException thrown
+                    = new IllegalStateException("falhou");
+            JobSystem.Job failing = system.submit(new Runnable() {
+                @Override
+                public void run() {
+                    throw thrown;
+                }
+            });
+            // quem depende do job que falhou ainda roda
+            final AtomicInteger ran = new AtomicInteger();
+            system.submit(new Runnable() {
+                @Override
+                public void run() {
+                    ran.incrementAndGet();
+                }
+            }, failing);
+            try {
+                system.sync();
+                fail("sync() deveria relançar a exceção do job");
+            } catch (RuntimeException e) {
+                assertSame(thrown, e.getCause());
+            }
+            assertEquals(1, ran.get());
+            // a falha é relatada só uma vez
+            system.sync();
+        }
+    }
+
+    @Test
+    public void rangeExceptionsAreRethrownByParallelFor() {
+        final IllegalArgumentException thrown
+                = new IllegalArgumentException("falhou");
+        try {
+            new JobSystem(4).parallelFor(COUNT, GRAIN,
+                    new JobSystem.RangeJob() {
+                @Override
+                public void run(int chunk, int from, int to) {
+                    if (chunk == 7) {
+                        throw thrown;
+                    }
+                }
+            });
+            fail("parallelFor deveria relançar a exceção do bloco");
+        } catch (IllegalArgumentException e) {
+            assertSame(thrown, e);
+        }
+    }
+
+    /**
+     * Um cálculo em ponto flutuante cujo resultado depende da ordem das
+     * somas: cada bloco guarda a sua soma parcial, e as parciais são
+     * acumuladas em ordem ao final.
+     */
+    private static float[] kernel(JobSystem system) {
+        final float[] values = new float[COUNT];
+        final float[] partials = new float[JobSystem.chunkCount(COUNT,
+                GRAIN)];
+        system.parallelFor(COUNT, GRAIN, new JobSystem.RangeJob() {
+            @Override
+            public void run(int chunk, int from, int to) {
+                float sum = 0;
+                for (int i = from; i < to; i++) {
+                    values[i] = (float) Math.sin(i * 0.01) / (1 + i % 13);
+                    sum += values[i];
+                }
+                partials[chunk] = sum;
+            }
+        });
+        float[] result = new float[COUNT + 1];
+        System.arraycopy(values, 0, result, 0, COUNT);
+        for (float partial : partials) {
+            result[COUNT] += partial;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,189 @@
+package br.microgamr.desktop.jfr;
+
+import br.microgamr.diagnostics.GameEventListener;
+import br.microgamr.microgames.util.MicroGameState;
+import java.util.concurrent.ConcurrentHashMap;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Emite eventos do Java Flight Recorder para os acontecimentos do jogo, de
+ * forma que uma gravação do JFR (e.g., <code>-XX:StartFlightRecording</code>)
+ * mostre as coletas de lixo e as amostras de alocação lado a lado com as
+ * trocas de tela, os carregamentos de assets e os microgames.
+ *
+ * Sem uma gravação ativa, cada evento custa apenas a verificação de
+ * {@link Event#isEnabled()} (e o objeto do evento não chega a escapar).
+ *
+ * Esta classe só é compilada com Java 11 ou superior e é carregada por
+ * reflexão pelo {@code DesktopLauncher}.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class JfrGameEventListener implements GameEventListener {
+
+    private final ConcurrentHashMap<String, AssetLoadEvent> pendingLoads
+            = new ConcurrentHashMap<String, AssetLoadEvent>();
+    private NextGameEvent pendingNextGame;
+
+    @Override
+    public void microGameStateChanged(Class<?> microGame, MicroGameState state,
+            float difficulty) {
+        MicroGameStateEvent event = new MicroGameStateEvent();
+        if (event.isEnabled()) {
+            event.microGame = microGame;
+            event.state = state.name();
+            event.difficulty = difficulty;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void screenShown(Class<?> screen) {
+        commitScreenEvent(screen, "show");
+    }
+
+    @Override
+    public void screenDisposed(Class<?> screen) {
+        commitScreenEvent(screen, "dispose");
+    }
+
+    private void commitScreenEvent(Class<?> screen, String action) {
+        ScreenEvent event = new ScreenEvent();
+        if (event.isEnabled()) {
+            event.screen = screen;
+            event.action = action;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void assetLoadStarted(String path, Class<?> type) {
+        AssetLoadEvent event = new AssetLoadEvent();
+        if (event.isEnabled()) {
+            event.path = path;
+            event.type = type;
+            event.begin();
+            pendingLoads.put(path, event);
+        }
+    }
+
+    @Override
+    public void assetLoadFinished(String path, Class<?> type) {
+        AssetLoadEvent event = pendingLoads.remove(path);
+        if (event != null) {
+            event.end();
+            event.commit();
+        }
+    }
+
+    @Override
+    public void nextGameStarted(Class<?> sequencer) {
+        NextGameEvent event = new NextGameEvent();
+        if (event.isEnabled()) {
+            event.sequencer = sequencer;
+            event.begin();
+            pendingNextGame = event;
+        }
+    }
+
+    @Override
+    public void nextGameFinished(Class<?> sequencer, Class<?> microGame,
+            int gameNumber) {
+        NextGameEvent event = pendingNextGame;
+        pendingNextGame = null;
+        if (event != null) {
+            event.end();
+            event.microGame = microGame;
+            event.gameNumber = gameNumber;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void frameOverBudget(long frameNanos, long budgetNanos) {
+        FrameOverBudgetEvent event = new FrameOverBudgetEvent();
+        if (event.isEnabled()) {
+            event.frameDuration = frameNanos;
+            event.budget = budgetNanos;
+            event.commit();
+        }
+    }
+
+    @Name("microgamr.MicroGameState")
+    @Label("Microgame State")
+    @Category("Microgamr")
+    @StackTrace(false)
+    static class MicroGameStateEvent extends Event {
+
+        @Label("Microgame")
+        Class<?> microGame;
+
+        @Label("State")
+        String state;
+
+        @Label("Difficulty")
+        float difficulty;
+    }
+
+    @Name("microgamr.Screen")
+    @Label("Screen")
+    @Category("Microgamr")
+    @StackTrace(false)
+    static class ScreenEvent extends Event {
+
+        @Label("Screen")
+        Class<?> screen;
+
+        @Label("Action")
+        String action;
+    }
+
+    @Name("microgamr.AssetLoad")
+    @Label("Asset Load")
+    @Category("Microgamr")
+    @StackTrace(false)
+    static class AssetLoadEvent extends Event {
+
+        @Label("Path")
+        String path;
+
+        @Label("Type")
+        Class<?> type;
+    }
+
+    @Name("microgamr.NextGame")
+    @Label("Next Microgame")
+    @Category("Microgamr")
+    @StackTrace(false)
+    static class NextGameEvent extends Event {
+
+        @Label("Sequencer")
+        Class<?> sequencer;
+
+        @Label("Microgame")
+        Class<?> microGame;
+
+        @Label("Game Number")
+        int gameNumber;
+    }
+
+    @Name("microgamr.FrameOverBudget")
+    @Label("Frame Over Budget")
+    @Category("Microgamr")
+    @StackTrace(false)
+    static class FrameOverBudgetEvent extends Event {
+
+        @Label("Frame Duration")
+        @Timespan(Timespan.NANOSECONDS)
+        long frameDuration;
+
+        @Label("Budget")
+        @Timespan(Timespan.NANOSECONDS)
+        long budget;
+    }
+}
@@ -0,0 +1,158 @@
+package br.microgamr.desktop;
+
+import br.microgamr.assets.CollisionMask;
+import br.microgamr.microgames.util.PixelCollision;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import java.io.File;
+
+/**
+ * Ferramenta de linha de comando das máscaras de colisão, usada pelas
+ * tarefas {@code buildCollisionMasks} e {@code benchmarkCollisionMasks} do
+ * Gradle.
+ *
+ * <ul>
+ * <li><code>build &lt;assets&gt; &lt;imagens...&gt;</code>: gera a máscara
+ * de cada imagem ao lado dela (veja {@link CollisionMask#pathFor(String)}),
+ * para que seja distribuída junto do jogo.</li>
+ * <li><code>benchmark &lt;assets&gt; &lt;imagens...&gt;</code>: mostra a
+ * memória de cada máscara (comparada à da textura em RGBA8888) e mede
+ * quantos testes de colisão por segundo são feitos com retângulos, com
+ * pontos e com máscaras (64 pixels por vez, e pixel a pixel quando há escala
+ * ou rotação).</li>
+ * </ul>
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class CollisionMaskTool {
+
+    private static final int TESTS = 200000;
+    private static final int ROUNDS = 10;
+
+    // conta os acertos para que o JIT não elimine os testes
+    private static long sink;
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Uso: CollisionMaskTool build|benchmark "
+                    + "<pasta-de-assets> <imagem> [<imagem>...]");
+            System.exit(1);
+        }
+        GdxNativesLoader.load();
+        File assetsDir = new File(args[1]);
+
+        if ("benchmark".equals(args[0])) {
+            System.out.printf("%-44s %10s %10s %10s %10s %10s %10s%n",
+                    "imagem", "máscara", "textura", "ret. ns", "ponto ns",
+                    "64px ns", "pixel ns");
+        }
+        for (int i = 2; i < args.length; i++) {
+            FileHandle image = new FileHandle(new File(assetsDir, args[i]));
+            if ("benchmark".equals(args[0])) {
+                benchmark(args[i], image);
+            } else {
+                build(args[i], image);
+            }
+        }
+    }
+
+    private static CollisionMask maskOf(FileHandle image) {
+        Pixmap pixmap = new Pixmap(image);
+        try {
+            return CollisionMask.fromPixmap(pixmap,
+                    CollisionMask.DEFAULT_ALPHA_THRESHOLD);
+        } finally {
+            pixmap.dispose();
+        }
+    }
+
+    private static void build(String name, FileHandle image) {
+        FileHandle target = image.sibling(image.name()
+                + CollisionMask.EXTENSION);
+        long crc = CollisionMask.crcOf(image);
+        if (CollisionMask.read(target, crc,
+                CollisionMask.DEFAULT_ALPHA_THRESHOLD) != null) {
+            System.out.println(name + ": máscara já atualizada");
+            return;
+        }
+        CollisionMask mask = maskOf(image);
+        mask.write(target, crc, CollisionMask.DEFAULT_ALPHA_THRESHOLD);
+        System.out.println(name + " -> " + target.name() + " ("
+                + mask.getMemoryBytes() + " bytes)");
+    }
+
+    private static void benchmark(String name, FileHandle image) {
+        CollisionMask mask = maskOf(image);
+        int width = mask.getWidth();
+        int height = mask.getHeight();
+
+        // duas sprites com a mesma imagem, a segunda espalhada ao redor da
+        // primeira; sem textura, só a geometria importa
+        Sprite a = sprite(width, height, 0, 0);
+        Sprite[] others = new Sprite[1024];
+        float[] pointsX = new float[others.length];
+        float[] pointsY = new float[others.length];
+        MathUtils.random.setSeed(42);
+        for (int i = 0; i < others.length; i++) {
+            others[i] = sprite(width, height,
+                    MathUtils.random(-width, width),
+                    MathUtils.random(-height, height));
+            pointsX[i] = MathUtils.random(0f, width);
+            pointsY[i] = MathUtils.random(0f, height);
+        }
+
+        long rectangle = measure(a, mask, others, pointsX, pointsY, 0);
+        long point = measure(a, mask, others, pointsX, pointsY, 1);
+        long words = measure(a, mask, others, pointsX, pointsY, 2);
+        for (Sprite other : others) {
+            other.setScale(0.9f);
+            other.setRotation(30);
+        }
+        long pixels = measure(a, mask, others, pointsX, pointsY, 2);
+
+        System.out.printf("%-44s %10s %10s %10.1f %10.1f %10.1f %10.1f%n",
+                name, mask.getMemoryBytes() + " B", width * height * 4 + " B",
+                (double) rectangle / TESTS, (double) point / TESTS,
+                (double) words / TESTS, (double) pixels / TESTS);
+    }
+
+    private static Sprite sprite(float width, float height, float x,
+            float y) {
+        Sprite sprite = new Sprite();
+        sprite.setBounds(x, y, width, height);
+        sprite.setOriginCenter();
+        return sprite;
+    }
+
+    /**
+     * Retorna o tempo (em ns) de {@link #TESTS} testes do tipo pedido (0:
+     * retângulos, 1: ponto, 2: máscaras), na melhor de algumas rodadas.
+     */
+    private static long measure(Sprite a, CollisionMask mask,
+            Sprite[] others, float[] pointsX, float[] pointsY, int kind) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = TimeUtils.nanoTime();
+            for (int i = 0; i < TESTS; i++) {
+                int k = i & (others.length - 1);
+                boolean hit;
+                if (kind == 0) {
+                    hit = a.getBoundingRectangle()
+                            .overlaps(others[k].getBoundingRectangle());
+                } else if (kind == 1) {
+                    hit = PixelCollision.contains(a, mask, pointsX[k],
+                            pointsY[k]);
+                } else {
+                    hit = PixelCollision.overlaps(a, mask, others[k], mask);
+                }
+                sink += hit ? 1 : 0;
+            }
+            best = Math.min(best, TimeUtils.timeSinceNanos(start));
+        }
+        return best;
+    }
+}
@@ -0,0 +1,85 @@
+package br.microgamr.desktop;
+
+import br.microgamr.microgames.util.Curve;
+import br.microgamr.microgames.util.Curves;
+import br.microgamr.microgames.util.DifficultyCurve;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Mede quanto custa avaliar as curvas de dificuldade do enum
+ * {@link DifficultyCurve} e as suas versões compiladas em tabela, além das
+ * curvas criadas com {@link Curves}. Informa também o maior erro das
+ * versões compiladas. Usada pela tarefa {@code benchmarkCurves} do Gradle.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class CurveBenchmarkTool {
+
+    private static final int EVALUATIONS = 1000000;
+    private static final int WARM_UP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 20;
+
+    // acumula os resultados para que o JIT não elimine as avaliações
+    private static float sink;
+
+    public static void main(String[] args) {
+        float[] inputs = new float[EVALUATIONS];
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = (i * 0.6180339f) % 1f;
+        }
+
+        System.out.printf("%-24s %12s %12s%n", "curva", "ns/avaliação",
+                "erro máx.");
+        for (DifficultyCurve curve : DifficultyCurve.values()) {
+            report(curve.name(), curve, null, inputs);
+            report(curve.name() + " (tabela)", curve.compile(), curve,
+                    inputs);
+        }
+        report("logistic(10, 0.4)", Curves.logistic(10, 0.4f), null, inputs);
+        report("spline (4 pontos)", Curves.cubicSpline(
+                0, 0, 0.3f, 0.6f, 0.7f, 0.7f, 1, 1), null, inputs);
+        report("linear (3 pontos)", Curves.piecewiseLinear(
+                0, 0, 0.5f, 0.2f, 1, 1), null, inputs);
+        System.out.println("(" + sink + ")");
+    }
+
+    private static void report(String name, Curve curve, Curve reference,
+            float[] inputs) {
+        double nanos = measure(curve, inputs);
+        String error = "";
+        if (reference != null) {
+            float maxError = 0;
+            for (int i = 0; i < inputs.length; i++) {
+                maxError = Math.max(maxError, Math.abs(
+                        curve.getCurveValue(inputs[i])
+                        - reference.getCurveValue(inputs[i])));
+            }
+            error = String.format("%.2e", maxError);
+        }
+        System.out.printf("%-24s %12.2f %12s%n", name, nanos, error);
+    }
+
+    /**
+     * Retorna o tempo médio, em nanossegundos, de uma avaliação da curva,
+     * depois de algumas rodadas de aquecimento.
+     */
+    private static double measure(Curve curve, float[] inputs) {
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            evaluate(curve, inputs);
+        }
+        long start = TimeUtils.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            evaluate(curve, inputs);
+        }
+        return (double) TimeUtils.timeSinceNanos(start)
+                / MEASURED_ROUNDS / inputs.length;
+    }
+
+    private static void evaluate(Curve curve, float[] inputs) {
+        float sum = 0;
+        for (int i = 0; i < inputs.length; i++) {
+            sum += curve.getCurveValue(inputs[i]);
+        }
+        sink += sum;
+    }
+}
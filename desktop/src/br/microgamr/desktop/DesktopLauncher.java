@@ -4,6 +4,14 @@ import com.badlogic.gdx.backends.lwjgl.LwjglApplication;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
 import br.microgamr.Microgamr;
 import br.microgamr.Config;
+import br.microgamr.assets.PcmSoundCache;
+import br.microgamr.diagnostics.FlightRecorder;
+import br.microgamr.diagnostics.GameEventListener;
+import br.microgamr.diagnostics.GameEvents;
+import br.microgamr.graphics.QualityManager;
+import br.microgamr.graphics.QualityTier;
+import com.badlogic.gdx.files.FileHandle;
+import java.io.File;
 
 public class DesktopLauncher {
 
@@ -22,10 +30,38 @@ public class DesktopLauncher {
             config.width /= 1.5f;
             config.height = (int) (config.width / Config.DESIRED_ASPECT_RATIO);
         }
-        config.samples = 4;
+        // o nível de qualidade ajustado na última execução nesta máquina
+        // define o antisserrilhamento (veja QualityManager)
+        QualityTier quality = QualityManager.load(new FileHandle(new File(
+                System.getProperty("user.home"),
+                ".microgamr/quality.properties")));
+        config.samples = quality.samples;
         config.vSyncEnabled = true;
         config.title = "Microgamr";
 
+        // efeitos sonoros em mp3 são decodificados uma única vez e guardados
+        // em um cache de PCM
+        PcmSoundCache.setDecoder(new Mp3PcmDecoder());
+
+        // as coletas de lixo aparecem nos arquivos de engasgos
+        FlightRecorder.setGcMonitor(new MXBeanGcMonitor());
+
+        // com Java 11+, os acontecimentos do jogo viram eventos do JFR
+        installJfrListener();
+
         new LwjglApplication(new Microgamr(), config);
     }
+
+    private static void installJfrListener() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            GameEvents.setListener((GameEventListener) Class.forName(
+                    "br.microgamr.desktop.jfr.JfrGameEventListener")
+                    .newInstance());
+        } catch (Exception noJfr) {
+            // JVM antiga ou build sem o source set "jfr": sem eventos
+        } catch (LinkageError noJfr) {
+            // classes compiladas para um Java mais novo: sem eventos
+        }
+    }
 }
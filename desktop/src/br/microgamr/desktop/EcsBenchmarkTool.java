@@ -0,0 +1,169 @@
+package br.microgamr.desktop;
+
+import br.microgamr.microgames.EcsMicroGame;
+import br.microgamr.microgames.ecs.CollisionComponent;
+import br.microgamr.microgames.ecs.CollisionListener;
+import br.microgamr.microgames.ecs.CollisionSystem;
+import br.microgamr.microgames.ecs.MovementSystem;
+import br.microgamr.microgames.ecs.TransformComponent;
+import br.microgamr.microgames.ecs.VelocityComponent;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.PooledEngine;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Compara o custo de um quadro de lógica (movimento e colisão de monstros
+ * com dentes, como em ExpelTheMonsters) feito com sprites que têm a própria
+ * lógica e com os sistemas de {@link EcsMicroGame}, para 1.000, 5.000 e
+ * 20.000 monstros. Não abre janela. Usada pela tarefa
+ * {@code benchmarkEcs} do Gradle.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class EcsBenchmarkTool {
+
+    private static final int[] ENTITY_COUNTS = {1000, 5000, 20000};
+    private static final int TEETH = 3;
+    private static final float WORLD_WIDTH = 1280;
+    private static final float WORLD_HEIGHT = 720;
+    private static final float DT = 1 / 60f;
+    private static final int WARM_UP_FRAMES = 1000;
+    private static final int MEASURED_FRAMES = 600;
+
+    // conta as colisões para que o JIT não elimine os testes
+    private static long sink;
+
+    public static void main(String[] args) {
+        System.out.printf("%-10s %16s %16s %16s%n", "monstros",
+                "sprites (µs)", "ECS (µs)", "ECS só mov. (µs)");
+        for (int count : ENTITY_COUNTS) {
+            double sprites = measureSprites(count);
+            double ecs = measureEcs(count, true);
+            double movement = measureEcs(count, false);
+            System.out.printf("%-10d %16.1f %16.1f %16.1f%n", count, sprites,
+                    ecs, movement);
+        }
+        System.out.println("(" + sink + ")");
+    }
+
+    /**
+     * Um monstro no estilo "orientado a objetos": uma sprite com a própria
+     * velocidade, atualizada e testada contra cada dente.
+     */
+    private static class Monster extends Sprite {
+
+        final Vector2 speed = new Vector2();
+
+        void update(float dt) {
+            setPosition(getX() + speed.x * dt, getY() + speed.y * dt);
+        }
+    }
+
+    private static double measureSprites(int count) {
+        MathUtils.random.setSeed(42);
+        Array<Sprite> teeth = new Array<Sprite>();
+        for (int i = 0; i < TEETH; i++) {
+            Sprite tooth = new Sprite();
+            tooth.setBounds(MathUtils.random(WORLD_WIDTH),
+                    MathUtils.random(WORLD_HEIGHT), 64, 64);
+            teeth.add(tooth);
+        }
+        Array<Monster> monsters = new Array<Monster>();
+        for (int i = 0; i < count; i++) {
+            Monster monster = new Monster();
+            monster.setBounds(MathUtils.random(WORLD_WIDTH),
+                    MathUtils.random(WORLD_HEIGHT), 28, 36);
+            monster.speed.setToRandomDirection().scl(120);
+            monsters.add(monster);
+        }
+
+        for (int i = 0; i < WARM_UP_FRAMES; i++) {
+            updateSprites(monsters, teeth);
+        }
+        long start = TimeUtils.nanoTime();
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            updateSprites(monsters, teeth);
+        }
+        return TimeUtils.timeSinceNanos(start) / 1000.0 / MEASURED_FRAMES;
+    }
+
+    private static void updateSprites(Array<Monster> monsters,
+            Array<Sprite> teeth) {
+        for (int i = 0; i < monsters.size; i++) {
+            Monster monster = monsters.get(i);
+            monster.update(DT);
+            for (int j = 0; j < teeth.size; j++) {
+                if (monster.getBoundingRectangle()
+                        .overlaps(teeth.get(j).getBoundingRectangle())) {
+                    sink++;
+                }
+            }
+        }
+    }
+
+    private static double measureEcs(int count, boolean collisions) {
+        MathUtils.random.setSeed(42);
+        PooledEngine engine = new PooledEngine();
+        engine.addSystem(new MovementSystem(
+                EcsMicroGame.PRIORITY_MOVEMENT));
+        if (collisions) {
+            engine.addSystem(new CollisionSystem(
+                    EcsMicroGame.PRIORITY_COLLISION, new CollisionListener() {
+                @Override
+                public void onCollision(Entity a, Entity b) {
+                    sink++;
+                }
+            }));
+        }
+        for (int i = 0; i < TEETH; i++) {
+            Entity tooth = engine.createEntity();
+            TransformComponent transform
+                    = engine.createComponent(TransformComponent.class);
+            transform.x = MathUtils.random(WORLD_WIDTH);
+            transform.y = MathUtils.random(WORLD_HEIGHT);
+            transform.width = transform.height = 64;
+            tooth.add(transform);
+            CollisionComponent collision
+                    = engine.createComponent(CollisionComponent.class);
+            collision.group = 2;
+            collision.mask = 0;
+            tooth.add(collision);
+            engine.addEntity(tooth);
+        }
+        Vector2 speed = new Vector2();
+        for (int i = 0; i < count; i++) {
+            Entity monster = engine.createEntity();
+            TransformComponent transform
+                    = engine.createComponent(TransformComponent.class);
+            transform.x = MathUtils.random(WORLD_WIDTH);
+            transform.y = MathUtils.random(WORLD_HEIGHT);
+            transform.width = 28;
+            transform.height = 36;
+            monster.add(transform);
+            VelocityComponent velocity
+                    = engine.createComponent(VelocityComponent.class);
+            speed.setToRandomDirection().scl(120);
+            velocity.set(speed.x, speed.y);
+            monster.add(velocity);
+            CollisionComponent collision
+                    = engine.createComponent(CollisionComponent.class);
+            collision.group = 1;
+            collision.mask = 2;
+            monster.add(collision);
+            engine.addEntity(monster);
+        }
+
+        for (int i = 0; i < WARM_UP_FRAMES; i++) {
+            engine.update(DT);
+        }
+        long start = TimeUtils.nanoTime();
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            engine.update(DT);
+        }
+        return TimeUtils.timeSinceNanos(start) / 1000.0 / MEASURED_FRAMES;
+    }
+}
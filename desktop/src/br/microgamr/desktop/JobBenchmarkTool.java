@@ -0,0 +1,82 @@
+package br.microgamr.desktop;
+
+import br.microgamr.microgames.util.JobSystem;
+import br.microgamr.microgames.util.Swarm;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Mede o tempo de atualização de um enxame grande (perseguir um alvo, fugir
+ * de um ponto e mover) com 1 até N threads do {@link JobSystem}, sendo N o
+ * número de núcleos. Também mostra um
+ * <em>checksum</em> das posições finais, que deve ser o mesmo para qualquer
+ * número de threads. Não abre janela. Usada pela tarefa {@code benchmarkJobs}
+ * do Gradle.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class JobBenchmarkTool {
+
+    private static final int AGENTS = 500000;
+    private static final int GRAIN = 8192;
+    private static final float DT = 1 / 60f;
+    private static final int WARM_UP_FRAMES = 100;
+    private static final int MEASURED_FRAMES = 200;
+    private static final int FLEEING = 1;
+
+    public static void main(String[] args) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%d agentes, blocos de %d, %d núcleos%n", AGENTS,
+                GRAIN, cores);
+        System.out.printf("%-8s %14s %10s %18s%n", "threads", "µs/quadro",
+                "speedup", "checksum");
+        double baseline = 0;
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            baseline = report(threads, baseline);
+            if (threads * 2 > cores && threads != cores) {
+                report(cores, baseline);
+            }
+        }
+    }
+
+    private static double report(int threads, double baseline) {
+        JobSystem jobs = new JobSystem(threads);
+        final Swarm swarm = new Swarm(AGENTS, 28, 36);
+        MathUtils.random.setSeed(42);
+        for (int i = 0; i < AGENTS; i++) {
+            swarm.add(MathUtils.random(1280f), MathUtils.random(720f), 0, 0);
+        }
+        final float yellow = Color.YELLOW.toFloatBits();
+        long start = 0;
+        for (int frame = 0; frame < WARM_UP_FRAMES + MEASURED_FRAMES;
+                frame++) {
+            if (frame == WARM_UP_FRAMES) {
+                start = TimeUtils.nanoTime();
+            }
+            final float brushX = 640 + MathUtils.cos(frame * 0.05f) * 200;
+            final float brushY = 360 + MathUtils.sin(frame * 0.05f) * 200;
+            jobs.parallelFor(swarm.size(), GRAIN, new JobSystem.RangeJob() {
+                @Override
+                public void run(int chunk, int from, int to) {
+                    swarm.flee(brushX, brushY, 60, 300, FLEEING, yellow,
+                            from, to);
+                    swarm.seek(640, 360, 150, FLEEING, from, to);
+                    swarm.integrate(DT, from, to);
+                }
+            });
+        }
+        double micros = TimeUtils.timeSinceNanos(start) / 1000.0
+                / MEASURED_FRAMES;
+
+        long checksum = 0;
+        for (int i = 0; i < swarm.size(); i++) {
+            checksum = checksum * 31 + Float.floatToIntBits(swarm.x[i])
+                    + Float.floatToIntBits(swarm.y[i]);
+        }
+        double reference = baseline == 0 ? micros : baseline;
+        System.out.printf("%-8d %14.1f %9.2fx %18x%n", threads, micros,
+                reference / micros, checksum);
+        return reference;
+    }
+}
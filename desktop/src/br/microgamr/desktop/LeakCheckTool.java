@@ -0,0 +1,114 @@
+package br.microgamr.desktop;
+
+import br.microgamr.Config;
+import br.microgamr.assets.AssetCache;
+import br.microgamr.assets.PcmSoundCache;
+import br.microgamr.diagnostics.LeakTracker;
+import br.microgamr.diagnostics.LeakTracker.Snapshot;
+import br.microgamr.logic.WeightedGameSequencer;
+import br.microgamr.microgames.factories.MicroGameCatalog;
+import br.microgamr.screens.BaseScreen;
+import br.microgamr.screens.GameScreen;
+import br.microgamr.screens.MenuScreen;
+import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl.LwjglApplication;
+import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Alterna entre o menu e a tela de jogo várias vezes, sem <em>input</em>, e
+ * verifica se os recursos nativos vivos (veja {@link LeakTracker}) voltam ao
+ * mesmo valor a cada volta ao menu. A primeira volta é descartada, já que
+ * nela os caches (e.g., os assets residentes da HUD) são preenchidos. Abre
+ * uma janela pequena e termina com status 1 se algo cresceu. Usada pela
+ * tarefa {@code checkLeaks} do Gradle.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class LeakCheckTool extends Game {
+
+    private static final int CYCLES = 8;
+    private static final int FRAMES_PER_SCREEN = 180;
+
+    private final List<Snapshot> snapshots = new ArrayList<Snapshot>();
+    private int frames;
+    private boolean leaked;
+
+    public static void main(String[] args) {
+        if (!Config.LEAK_TRACKER_ENABLED) {
+            System.err.println("Config.LEAK_TRACKER_ENABLED está desligado "
+                    + "(use -Dmicrogamr.leakTracker=true): só os assets "
+                    + "serão comparados.");
+        }
+        LwjglApplicationConfiguration config
+                = new LwjglApplicationConfiguration();
+        config.width = 640;
+        config.height = (int) (config.width / Config.DESIRED_ASPECT_RATIO);
+        config.title = "Microgamr - vazamentos";
+        config.forceExit = false;
+        PcmSoundCache.setDecoder(new Mp3PcmDecoder());
+        new LwjglApplication(new LeakCheckTool(), config);
+    }
+
+    @Override
+    public void create() {
+        MenuScreen.warmUpAssets();
+        GameScreen.warmUpAssets();
+        setScreen(new MenuScreen(this, null));
+    }
+
+    @Override
+    public void render() {
+        super.render();
+        if (++frames < FRAMES_PER_SCREEN) {
+            return;
+        }
+        frames = 0;
+        BaseScreen current = (BaseScreen) getScreen();
+        if (current instanceof MenuScreen) {
+            setScreen(new GameScreen(this, current, new WeightedGameSequencer(
+                    5, MicroGameCatalog.getRegistry(),
+                    Config.MICROGAMES_NO_REPEAT_WINDOW, 0, 1)));
+            return;
+        }
+        // a tela de jogo foi descartada ao mostrar o menu
+        setScreen(new MenuScreen(this, current));
+        snapshots.add(LeakTracker.snapshot());
+        System.out.printf("volta %d: %s%n", snapshots.size(),
+                snapshots.get(snapshots.size() - 1));
+        if (snapshots.size() == CYCLES) {
+            compare();
+            Gdx.app.exit();
+        }
+    }
+
+    private void compare() {
+        Snapshot first = snapshots.get(1);
+        Snapshot last = snapshots.get(snapshots.size() - 1);
+        List<String> growth = last.growthSince(first);
+        if (growth.isEmpty()) {
+            System.out.printf("Nada cresceu entre as voltas 2 e %d.%n",
+                    snapshots.size());
+            return;
+        }
+        leaked = true;
+        System.out.printf("Cresceu entre as voltas 2 e %d:%n",
+                snapshots.size());
+        for (String line : growth) {
+            System.out.println("  " + line);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (getScreen() != null) {
+            getScreen().dispose();
+        }
+        AssetCache.dispose();
+        if (leaked) {
+            System.exit(1);
+        }
+    }
+}
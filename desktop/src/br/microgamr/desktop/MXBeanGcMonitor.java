@@ -0,0 +1,50 @@
+package br.microgamr.desktop;
+
+import br.microgamr.diagnostics.FlightRecorder;
+import br.microgamr.diagnostics.FlightRecorder.EventType;
+import br.microgamr.diagnostics.GcMonitor;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Monitor de coletas de lixo do desktop, que consulta os
+ * {@link GarbageCollectorMXBean} da JVM.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class MXBeanGcMonitor implements GcMonitor {
+
+    private final GarbageCollectorMXBean[] collectors;
+    private final String[] names;
+    private final long[] lastCounts;
+    private final long[] lastTimes;
+
+    public MXBeanGcMonitor() {
+        List<GarbageCollectorMXBean> beans
+                = ManagementFactory.getGarbageCollectorMXBeans();
+        collectors = beans.toArray(new GarbageCollectorMXBean[beans.size()]);
+        names = new String[collectors.length];
+        lastCounts = new long[collectors.length];
+        lastTimes = new long[collectors.length];
+        for (int i = 0; i < collectors.length; i++) {
+            names[i] = collectors[i].getName();
+            lastCounts[i] = collectors[i].getCollectionCount();
+            lastTimes[i] = collectors[i].getCollectionTime();
+        }
+    }
+
+    @Override
+    public void poll() {
+        for (int i = 0; i < collectors.length; i++) {
+            long count = collectors[i].getCollectionCount();
+            if (count != lastCounts[i]) {
+                long time = collectors[i].getCollectionTime();
+                FlightRecorder.record(EventType.GC, names[i],
+                        time - lastTimes[i]);
+                lastCounts[i] = count;
+                lastTimes[i] = time;
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package br.microgamr.desktop;
+
+import br.microgamr.assets.PreloadAssets;
+import br.microgamr.assets.TextureFormat;
+import br.microgamr.microgames.factories.MicroGameCatalog;
+import br.microgamr.microgames.factories.MicroGameFactory;
+import br.microgamr.microgames.factories.MicroGameInfo;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.JsonWriter;
+import com.badlogic.gdx.utils.JsonWriter.OutputType;
+import java.io.File;
+import java.io.StringWriter;
+import java.util.Map;
+
+/**
+ * Gera o catálogo de microgames ({@link MicroGameCatalog}) a partir das
+ * fábricas, usada pela tarefa {@code generateMicroGameCatalog} do Gradle.
+ *
+ * <p>Uso: <code>MicroGameCatalogTool &lt;assets&gt; &lt;fábricas...&gt;</code>.
+ * As fábricas entram no catálogo na ordem em que são passadas.</p>
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class MicroGameCatalogTool {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Uso: MicroGameCatalogTool <pasta-de-assets> "
+                    + "[<fábrica>...]");
+            System.exit(1);
+        }
+        File assetsDir = new File(args[0]);
+
+        StringWriter buffer = new StringWriter();
+        JsonWriter json = new JsonWriter(buffer);
+        json.setOutputType(OutputType.json);
+        json.array();
+        for (int i = 1; i < args.length; i++) {
+            writeEntry(json, Class.forName(args[i]));
+        }
+        json.pop();
+        json.close();
+
+        FileHandle target = new FileHandle(new File(assetsDir,
+                MicroGameCatalog.CATALOG_FILE));
+        target.writeString(new JsonReader().parse(buffer.toString())
+                .prettyPrint(OutputType.json, 0) + "\n", false, "UTF-8");
+        System.out.println(target.path() + ": " + (args.length - 1)
+                + " microgames");
+    }
+
+    private static void writeEntry(JsonWriter json, Class<?> type)
+            throws Exception {
+        MicroGameFactory factory = (MicroGameFactory) type.newInstance();
+        MicroGameInfo info = type.getAnnotation(MicroGameInfo.class);
+        String name = info != null ? info.name()
+                : type.getSimpleName().replaceFirst("Factory$", "");
+        float weight = info != null ? info.weight() : 1;
+        if (info == null) {
+            System.err.println(type.getSimpleName() + " não tem a anotação "
+                    + "@MicroGameInfo. Usando o nome \"" + name + "\".");
+        }
+
+        // os formatos das texturas vêm junto dos assets (PreloadAssets)
+        Map<String, Class<?>> assets = factory.getAssetsToPreload();
+
+        json.object();
+        json.set("factory", type.getName());
+        json.set("name", name);
+        json.set("weight", weight);
+        json.object("assets");
+        for (Map.Entry<String, Class<?>> asset : assets.entrySet()) {
+            json.set(asset.getKey(), asset.getValue().getName());
+        }
+        json.pop();
+        json.object("textureFormats");
+        for (Map.Entry<String, Class<?>> asset : assets.entrySet()) {
+            TextureFormat format = PreloadAssets.formatOf(assets,
+                    asset.getKey());
+            if (asset.getValue() == Texture.class
+                    && format != TextureFormat.RGBA8888) {
+                json.set(asset.getKey(), format.name());
+            }
+        }
+        json.pop();
+        json.pop();
+    }
+}
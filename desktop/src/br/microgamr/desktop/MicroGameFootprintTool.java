@@ -0,0 +1,48 @@
+package br.microgamr.desktop;
+
+import br.microgamr.assets.AssetFootprint;
+import br.microgamr.assets.PcmSoundCache;
+import br.microgamr.microgames.factories.MicroGameFactory;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl.LwjglFiles;
+import java.util.Map;
+
+/**
+ * Estima, sem abrir o jogo, quanta memória os assets de cada microgame
+ * manterão residentes. Usada pela tarefa {@code reportMicroGameMemory} do
+ * Gradle para saber o custo de um microgame antes de incluí-lo no jogo.
+ *
+ * <p>Uso: <code>MicroGameFootprintTool &lt;fábricas...&gt;</code>, executado
+ * a partir da pasta de assets.</p>
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class MicroGameFootprintTool {
+
+    public static void main(String[] args) throws Exception {
+        Gdx.files = new LwjglFiles();
+        PcmSoundCache.setDecoder(new Mp3PcmDecoder());
+
+        long total = 0;
+        for (String className : args) {
+            Class<?> type = Class.forName(className);
+            if (!MicroGameFactory.class.isAssignableFrom(type)) {
+                continue;
+            }
+            MicroGameFactory factory = (MicroGameFactory) type.newInstance();
+            long factoryBytes = 0;
+            System.out.println(type.getSimpleName());
+            for (Map.Entry<String, Class<?>> asset
+                    : factory.getAssetsToPreload().entrySet()) {
+                long bytes = AssetFootprint.estimate(asset.getKey(),
+                        asset.getValue());
+                factoryBytes += bytes;
+                System.out.printf("  %-50s %8d KB%n", asset.getKey(),
+                        bytes / 1024);
+            }
+            System.out.printf("  %-50s %8d KB%n", "total", factoryBytes / 1024);
+            total += factoryBytes;
+        }
+        System.out.printf("%-52s %8d KB%n", "todos os microgames", total / 1024);
+    }
+}
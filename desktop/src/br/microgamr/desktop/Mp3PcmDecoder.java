@@ -0,0 +1,62 @@
+package br.microgamr.desktop;
+
+import br.microgamr.assets.PcmDecoder;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import java.io.ByteArrayOutputStream;
+import javazoom.jl.decoder.Bitstream;
+import javazoom.jl.decoder.Header;
+import javazoom.jl.decoder.MP3Decoder;
+import javazoom.jl.decoder.OutputBuffer;
+
+/**
+ * Decodifica mp3 para PCM usando o jlayer, o mesmo decodificador usado pelo
+ * <em>backend</em> LWJGL ao carregar um {@link com.badlogic.gdx.audio.Sound}.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class Mp3PcmDecoder implements PcmDecoder {
+
+    @Override
+    public boolean accepts(String extension) {
+        return "mp3".equals(extension);
+    }
+
+    @Override
+    public Pcm decode(FileHandle file) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(4096);
+        Bitstream bitstream = new Bitstream(file.read());
+        MP3Decoder decoder = new MP3Decoder();
+        OutputBuffer buffer = null;
+        int channels = -1;
+        int sampleRate = -1;
+
+        try {
+            while (true) {
+                Header header = bitstream.readFrame();
+                if (header == null) {
+                    break;
+                }
+                if (buffer == null) {
+                    channels = header.mode() == Header.SINGLE_CHANNEL ? 1 : 2;
+                    buffer = new OutputBuffer(channels, false);
+                    decoder.setOutputBuffer(buffer);
+                    sampleRate = header.getSampleRate();
+                }
+                try {
+                    decoder.decodeFrame(header, bitstream);
+                } catch (Exception ignored) {
+                    // assim como no backend, quadros corrompidos são pulados
+                }
+                bitstream.closeFrame();
+                output.write(buffer.getBuffer(), 0, buffer.reset());
+            }
+            bitstream.close();
+        } catch (Throwable ex) {
+            throw new GdxRuntimeException("Erro ao decodificar "
+                    + file.path() + ".", ex);
+        }
+
+        return new Pcm(output.toByteArray(), channels, sampleRate);
+    }
+}
@@ -0,0 +1,141 @@
+package br.microgamr.desktop;
+
+import br.microgamr.assets.PcmSoundCache;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.backends.lwjgl.LwjglNativesLoader;
+import com.badlogic.gdx.backends.lwjgl.audio.OpenALAudio;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.TimeUtils;
+import java.io.File;
+import org.lwjgl.openal.AL;
+
+/**
+ * Ferramenta de linha de comando do cache de PCM, usada pelas tarefas
+ * {@code predecodeSounds} e {@code benchmarkSoundCache} do Gradle.
+ *
+ * <ul>
+ * <li><code>predecode &lt;assets&gt; &lt;arquivos...&gt;</code>: decodifica os
+ * sons e grava as entradas em {@code assets/pcm-cache}, para que sejam
+ * distribuídas junto do jogo.</li>
+ * <li><code>benchmark &lt;assets&gt; &lt;arquivos...&gt;</code>: mede o tempo
+ * de criar cada {@link Sound} (no OpenAL) sem o cache (o <em>backend</em>
+ * decodifica o mp3), com o cache frio (decodificando e gravando o PCM) e
+ * quente (a partir do PCM já decodificado).</li>
+ * </ul>
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class PcmCacheTool {
+
+    private static final int BENCHMARK_ROUNDS = 10;
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Uso: PcmCacheTool predecode|benchmark "
+                    + "<pasta-de-assets> <arquivo> [<arquivo>...]");
+            System.exit(1);
+        }
+        PcmSoundCache.setDecoder(new Mp3PcmDecoder());
+        File assetsDir = new File(args[1]);
+        OpenALAudio audio = null;
+        if ("benchmark".equals(args[0])) {
+            LwjglNativesLoader.load();
+            audio = new OpenALAudio();
+            Gdx.audio = audio;
+            if (!AL.isCreated()) {
+                System.err.println("Nenhum dispositivo de áudio: os sons "
+                        + "não seriam carregados de verdade.");
+                System.exit(1);
+            }
+        }
+
+        for (int i = 2; i < args.length; i++) {
+            FileHandle source = new FileHandle(new File(assetsDir, args[i]));
+            if ("benchmark".equals(args[0])) {
+                benchmark(args[i], source);
+            } else {
+                predecode(assetsDir, args[i], source);
+            }
+        }
+        if (audio != null) {
+            audio.dispose();
+        }
+    }
+
+    private static void predecode(File assetsDir, String name,
+            FileHandle source) {
+        FileHandle target = new FileHandle(new File(assetsDir,
+                PcmSoundCache.SHIPPED_CACHE_DIR))
+                .child(PcmSoundCache.shippedKeyOf(name, source));
+        // a chave distribuída leva o CRC do original: se ele mudou, a
+        // entrada tem outro nome
+        if (target.exists()) {
+            System.out.println(name + ": já decodificado");
+            return;
+        }
+        deleteStaleEntries(target, source.length());
+        PcmSoundCache.decodeTo(source, target);
+        System.out.println(name + " -> " + target.name()
+                + " (" + target.length() / 1024 + " KB)");
+    }
+
+    /**
+     * Apaga as entradas distribuídas geradas a partir de versões anteriores
+     * do mesmo som, que não seriam mais encontradas.
+     */
+    private static void deleteStaleEntries(FileHandle target, long length) {
+        String key = target.name();
+        String prefix = key.substring(0,
+                key.lastIndexOf("-" + length + "-crc") + 1);
+        for (FileHandle entry : target.parent().list()) {
+            String rest = entry.name().substring(
+                    Math.min(prefix.length(), entry.name().length()));
+            if (entry.name().startsWith(prefix)
+                    && rest.matches("\\d+-crc[0-9a-f]+-.*\\.wav")) {
+                System.out.println("  apagando " + entry.name());
+                entry.delete();
+            }
+        }
+    }
+
+    private static void benchmark(String name, FileHandle source) {
+        FileHandle target = new FileHandle(new File(
+                System.getProperty("java.io.tmpdir"), "microgamr-pcm-cache"))
+                .child(PcmSoundCache.keyOf(source));
+        long directNanos = 0;
+        long coldNanos = 0;
+        long warmNanos = 0;
+
+        for (int round = 0; round < BENCHMARK_ROUNDS; round++) {
+            // sem cache: o backend decodifica o mp3
+            long start = TimeUtils.nanoTime();
+            Sound sound = Gdx.audio.newSound(source);
+            directNanos += TimeUtils.timeSinceNanos(start);
+            sound.dispose();
+
+            // frio: calcula a chave, decodifica, grava e carrega a entrada
+            target.delete();
+            start = TimeUtils.nanoTime();
+            PcmSoundCache.keyOf(source);
+            PcmSoundCache.decodeTo(source, target);
+            sound = Gdx.audio.newSound(target);
+            coldNanos += TimeUtils.timeSinceNanos(start);
+            sound.dispose();
+
+            // quente: calcula a chave e carrega o PCM já decodificado
+            start = TimeUtils.nanoTime();
+            PcmSoundCache.keyOf(source);
+            sound = Gdx.audio.newSound(target);
+            warmNanos += TimeUtils.timeSinceNanos(start);
+            sound.dispose();
+        }
+        target.delete();
+
+        System.out.printf("%-40s sem cache: %7.2f ms  frio: %7.2f ms  "
+                + "quente: %7.2f ms%n", name,
+                directNanos / 1e6 / BENCHMARK_ROUNDS,
+                coldNanos / 1e6 / BENCHMARK_ROUNDS,
+                warmNanos / 1e6 / BENCHMARK_ROUNDS);
+    }
+}
@@ -0,0 +1,115 @@
+package br.microgamr.desktop;
+
+import br.microgamr.logic.GameSequencer;
+import br.microgamr.logic.MicroGameRegistry;
+import br.microgamr.logic.WeightedGameSequencer;
+import br.microgamr.microgames.MicroGame;
+import br.microgamr.microgames.factories.MicroGameFactory;
+import br.microgamr.microgames.util.MicroGameStateObserver;
+import br.microgamr.screens.BaseScreen;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.TimeUtils;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mede quanto custa montar uma sequência de microgames e obter as fábricas
+ * sorteadas (o que é feito no pré-carregamento), com o
+ * {@link GameSequencer} e o {@link WeightedGameSequencer}, para catálogos de
+ * 2 a 10.000 microgames. Usada pela tarefa {@code benchmarkSequencer} do
+ * Gradle.
+ *
+ * <p>Uso: <code>SequencerBenchmarkTool [&lt;jogos-na-sequência&gt;]</code></p>
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class SequencerBenchmarkTool {
+
+    private static final int[] POOL_SIZES = {2, 10, 100, 1000, 10000};
+    private static final int WARM_UP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 1000;
+    private static final int NO_REPEAT_WINDOW = 3;
+
+    public static void main(String[] args) {
+        int numberOfGames = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+
+        System.out.printf("%-10s %20s %20s%n", "microgames",
+                "GameSequencer", "WeightedGameSequencer");
+        for (int poolSize : POOL_SIZES) {
+            List<MicroGameFactory> factories = createFactories(poolSize);
+            LinkedHashSet<MicroGameFactory> set
+                    = new LinkedHashSet<MicroGameFactory>(factories);
+            MicroGameRegistry registry = new MicroGameRegistry(factories);
+            RandomXS128 random = new RandomXS128(42);
+
+            double oldMicros = measure(oldSequencer(numberOfGames, set));
+            double newMicros = measure(newSequencer(numberOfGames, registry,
+                    random));
+            System.out.printf("%-10d %17.2f us %17.2f us%n", poolSize,
+                    oldMicros, newMicros);
+        }
+    }
+
+    private static Runnable oldSequencer(final int numberOfGames,
+            final LinkedHashSet<MicroGameFactory> set) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                new GameSequencer(numberOfGames, set, 0, 1)
+                        .getSelectedFactories();
+            }
+        };
+    }
+
+    private static Runnable newSequencer(final int numberOfGames,
+            final MicroGameRegistry registry, final RandomXS128 random) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                new WeightedGameSequencer(numberOfGames, registry,
+                        NO_REPEAT_WINDOW, 0, 1, random)
+                        .getSelectedFactories();
+            }
+        };
+    }
+
+    /**
+     * Retorna o tempo médio, em microssegundos, de uma execução de
+     * {@code task}, depois de algumas execuções de aquecimento (para que o
+     * JIT já tenha compilado o código medido).
+     */
+    private static double measure(Runnable task) {
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            task.run();
+        }
+        long start = TimeUtils.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            task.run();
+        }
+        return TimeUtils.timeSinceNanos(start) / 1e3 / MEASURED_ROUNDS;
+    }
+
+    private static List<MicroGameFactory> createFactories(int count) {
+        ArrayList<MicroGameFactory> factories
+                = new ArrayList<MicroGameFactory>(count);
+        for (int i = 0; i < count; i++) {
+            factories.add(new MicroGameFactory() {
+                @Override
+                public MicroGame createMicroGame(BaseScreen screen,
+                        MicroGameStateObserver observer, float difficulty) {
+                    return null;
+                }
+
+                @Override
+                public Map<String, Class<?>> getAssetsToPreload() {
+                    return new HashMap<String, Class<?>>();
+                }
+            });
+        }
+        return Collections.unmodifiableList(factories);
+    }
+}
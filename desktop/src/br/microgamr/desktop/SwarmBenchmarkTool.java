@@ -0,0 +1,162 @@
+package br.microgamr.desktop;
+
+import br.microgamr.graphics.SwarmRenderer;
+import br.microgamr.microgames.util.Swarm;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Compara o custo de um quadro de um enxame (perseguir um alvo, fugir da
+ * escova, mover, tocar o alvo e gerar os vértices) com uma sprite por agente
+ * e com um {@link Swarm}, para 10.000 e 50.000 agentes. Não abre janela:
+ * os vértices são gerados mas não enviados à GPU, e as sprites não trocam de
+ * quadro de animação (o que só favorece as sprites). Assim como o enxame,
+ * as sprites não alocam vetores por quadro e são removidas trocando de lugar
+ * com a última (a ordem não importa). Usada pela tarefa
+ * {@code benchmarkSwarm} do Gradle.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class SwarmBenchmarkTool {
+
+    private static final int[] AGENT_COUNTS = {10000, 50000};
+    private static final float WORLD_WIDTH = 1280;
+    private static final float WORLD_HEIGHT = 720;
+    private static final float DT = 1 / 60f;
+    private static final int WARM_UP_FRAMES = 500;
+    private static final int MEASURED_FRAMES = 500;
+    private static final int FLEEING = 1;
+
+    private static final Rectangle TARGET = new Rectangle(
+            WORLD_WIDTH / 2 - 32, WORLD_HEIGHT / 2 - 32, 64, 64);
+
+    // acumula resultados para que o JIT não elimine o trabalho
+    private static double sink;
+
+    public static void main(String[] args) {
+        System.out.printf("%-10s %16s %16s%n", "agentes", "sprites (µs)",
+                "enxame (µs)");
+        for (int count : AGENT_COUNTS) {
+            System.out.printf("%-10d %16.1f %16.1f%n", count,
+                    measureSprites(count), measureSwarm(count));
+        }
+        System.out.println("(" + sink + ")");
+    }
+
+    /**
+     * Posição do "mouse" no quadro, andando em círculos.
+     */
+    private static float brushX(int frame) {
+        return WORLD_WIDTH / 2 + MathUtils.cos(frame * 0.05f) * 200;
+    }
+
+    private static float brushY(int frame) {
+        return WORLD_HEIGHT / 2 + MathUtils.sin(frame * 0.05f) * 200;
+    }
+
+    /**
+     * Um agente no estilo "orientado a objetos".
+     */
+    private static class Agent extends Sprite {
+
+        final Vector2 speed = new Vector2();
+        boolean fleeing;
+    }
+
+    private static double measureSprites(int count) {
+        MathUtils.random.setSeed(42);
+        // sem ordem: a remoção troca o agente pelo último, como no Swarm
+        Array<Agent> agents = new Array<Agent>(false, count);
+        Vector2 brush = new Vector2();
+        Vector2 center = new Vector2();
+        float[] vertices = new float[count * SwarmRenderer.SPRITE_SIZE];
+        int frame = 0;
+        long start = 0;
+        for (; frame < WARM_UP_FRAMES + MEASURED_FRAMES; frame++) {
+            if (frame == WARM_UP_FRAMES) {
+                start = TimeUtils.nanoTime();
+            }
+            while (agents.size < count) {
+                Agent agent = new Agent();
+                agent.setBounds(randomEdgeX(), MathUtils.random(WORLD_HEIGHT),
+                        28, 36);
+                agents.add(agent);
+            }
+            brush.set(brushX(frame), brushY(frame));
+            for (int i = agents.size - 1; i >= 0; i--) {
+                Agent agent = agents.get(i);
+                center.set(agent.getX() + agent.getWidth() / 2,
+                        agent.getY() + agent.getHeight() / 2);
+                if (!agent.fleeing && center.dst(brush) <= 30) {
+                    agent.fleeing = true;
+                    agent.speed.set(center).sub(brush).nor().scl(300);
+                    agent.setColor(Color.YELLOW);
+                } else if (!agent.fleeing) {
+                    agent.speed.set(TARGET.x + TARGET.width / 2,
+                            TARGET.y + TARGET.height / 2)
+                            .sub(center).nor().scl(150);
+                }
+                agent.setPosition(agent.getX() + agent.speed.x * DT,
+                        agent.getY() + agent.speed.y * DT);
+                if (agent.getBoundingRectangle().overlaps(TARGET)) {
+                    agents.removeIndex(i);
+                    continue;
+                }
+                System.arraycopy(agent.getVertices(), 0, vertices,
+                        i * SwarmRenderer.SPRITE_SIZE,
+                        SwarmRenderer.SPRITE_SIZE);
+            }
+            sink += vertices[0];
+        }
+        return TimeUtils.timeSinceNanos(start) / 1000.0 / MEASURED_FRAMES;
+    }
+
+    private static double measureSwarm(int count) {
+        MathUtils.random.setSeed(42);
+        Swarm swarm = new Swarm(count, 28, 36);
+        SwarmRenderer renderer = new SwarmRenderer(0.2f, new TextureRegion() {
+            @Override
+            public float getU2() {
+                return 1;
+            }
+
+            @Override
+            public float getV2() {
+                return 1;
+            }
+        });
+        float yellow = Color.YELLOW.toFloatBits();
+        int frame = 0;
+        long start = 0;
+        for (; frame < WARM_UP_FRAMES + MEASURED_FRAMES; frame++) {
+            if (frame == WARM_UP_FRAMES) {
+                start = TimeUtils.nanoTime();
+            }
+            while (swarm.size() < count) {
+                swarm.add(randomEdgeX(), MathUtils.random(WORLD_HEIGHT), 0, 0);
+            }
+            swarm.flee(brushX(frame), brushY(frame), 30, 300, FLEEING,
+                    yellow);
+            swarm.seek(TARGET.x + TARGET.width / 2,
+                    TARGET.y + TARGET.height / 2, 150, FLEEING);
+            swarm.integrate(DT);
+            swarm.removeOverlapping(TARGET);
+            int next = 0;
+            while (next < swarm.size()) {
+                next = renderer.writeVertices(swarm, next, null);
+                sink += renderer.getVertices()[0];
+            }
+        }
+        return TimeUtils.timeSinceNanos(start) / 1000.0 / MEASURED_FRAMES;
+    }
+
+    private static float randomEdgeX() {
+        return MathUtils.randomBoolean() ? -28 : WORLD_WIDTH;
+    }
+}
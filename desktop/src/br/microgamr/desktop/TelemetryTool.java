@@ -0,0 +1,204 @@
+package br.microgamr.desktop;
+
+import br.microgamr.diagnostics.TelemetryLog;
+import br.microgamr.diagnostics.TelemetryReader;
+import br.microgamr.diagnostics.TelemetryReader.Summary;
+import br.microgamr.diagnostics.TelemetryRecord;
+import br.microgamr.microgames.util.MicroGameState;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Ferramenta do registro de telemetria ({@link TelemetryLog}). Não abre
+ * janela. Modos:
+ * <ul>
+ * <li><code>report [diretório]</code>: resume os resultados por microgame
+ * (por padrão, de {@code ~/.microgamr/telemetry});</li>
+ * <li><code>benchmark</code>: mede quanto custa acrescentar um registro
+ * (com segmentos pequenos, para forçar a rotação) e confere se tudo o que
+ * foi escrito é lido de volta.</li>
+ * </ul>
+ * Usada pelas tarefas {@code reportTelemetry} e {@code benchmarkTelemetry}
+ * do Gradle.
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class TelemetryTool {
+
+    private static final int BENCHMARK_RECORDS = 200000;
+    private static final int BENCHMARK_SEGMENT_BYTES = 64 * 1024;
+    private static final int BENCHMARK_MAX_SEGMENTS = 1000;
+    private static final int WARM_UP_RECORDS = 20000;
+    private static final long BASE_TIMESTAMP = 1500000000000L;
+    private static final String[] NAMES = {
+        "ShootTheMonstersFactory", "ExpelTheMonstersFactory",
+        "UmMicrogameComUmNomeMuitoMaiorQueTrintaEDoisBytes"
+    };
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && "benchmark".equals(args[0])) {
+            benchmark();
+            return;
+        }
+        File directory = args.length > 1 ? new File(args[1])
+                : new File(System.getProperty("user.home"),
+                        ".microgamr/telemetry");
+        report(directory);
+    }
+
+    private static void report(File directory) {
+        List<String> problems = new ArrayList<String>();
+        Map<String, Summary> summaries = TelemetryReader.summarize(directory,
+                problems);
+        for (String problem : problems) {
+            System.err.println(problem);
+        }
+        if (summaries.isEmpty()) {
+            System.out.println("Nenhum resultado em " + directory);
+            return;
+        }
+        System.out.printf("%-32s %7s %8s %8s %8s %8s %10s %10s %8s%n",
+                "microgame", "vezes", "vitórias", "dific.", "segundos",
+                "inputs", "ms/quadro", "máx. ms", "lentos");
+        for (Summary summary : summaries.values()) {
+            System.out.printf(
+                    "%-32s %7d %7.0f%% %8.2f %8.1f %8.1f %10.2f %10.1f %7.1f%%%n",
+                    summary.microGame, summary.plays,
+                    summary.getSuccessRate() * 100,
+                    summary.getMeanDifficulty(), summary.getMeanSeconds(),
+                    summary.getMeanInputs(), summary.getMeanFrameMillis(),
+                    summary.maxFrameMillis,
+                    summary.getSlowFrameRate() * 100);
+        }
+    }
+
+    private static void benchmark() throws IOException, InterruptedException {
+        File directory = File.createTempFile("microgamr-telemetry", "");
+        if (!directory.delete() || !directory.mkdirs()) {
+            throw new IOException("Não foi possível criar " + directory);
+        }
+        TelemetryLog log = new TelemetryLog(directory,
+                BENCHMARK_SEGMENT_BYTES, BENCHMARK_MAX_SEGMENTS);
+        // dá tempo para o primeiro segmento ficar pronto, como no jogo
+        Thread.sleep(200);
+
+        Random random = new Random(42);
+        TelemetryRecord record = new TelemetryRecord();
+        // aquece o JIT com um registro em um diretório descartável
+        File warmUpDirectory = new File(directory, "warm-up");
+        TelemetryLog warmUp = new TelemetryLog(warmUpDirectory,
+                BENCHMARK_SEGMENT_BYTES, 2);
+        for (int i = 0; i < WARM_UP_RECORDS; i++) {
+            fill(record, i, random);
+            warmUp.append(record);
+        }
+        warmUp.close();
+        for (File file : TelemetryLog.listSegments(warmUpDirectory)) {
+            file.delete();
+        }
+        warmUpDirectory.delete();
+
+        final int[] expectedFrames = new int[BENCHMARK_RECORDS];
+        final float[] expectedSeconds = new float[BENCHMARK_RECORDS];
+        final MicroGameState[] expectedResults
+                = new MicroGameState[BENCHMARK_RECORDS];
+        long[] nanos = new long[BENCHMARK_RECORDS];
+        for (int i = 0; i < BENCHMARK_RECORDS; i++) {
+            fill(record, i, random);
+            expectedFrames[i] = record.frames;
+            expectedSeconds[i] = record.seconds;
+            expectedResults[i] = record.result;
+            long start = System.nanoTime();
+            log.append(record);
+            nanos[i] = System.nanoTime() - start;
+        }
+        log.close();
+
+        Arrays.sort(nanos);
+        long total = 0;
+        for (long n : nanos) {
+            total += n;
+        }
+        int segments = TelemetryLog.listSegments(directory).length;
+        System.out.printf("%d registros de %d bytes em %d segmentos de "
+                + "%d KB%n", BENCHMARK_RECORDS, TelemetryLog.RECORD_SIZE,
+                segments, BENCHMARK_SEGMENT_BYTES / 1024);
+        System.out.printf("acréscimo: média %.0f ns, p50 %d ns, p99 %d ns, "
+                + "p99.99 %d ns, máximo %.1f µs%n",
+                (double) total / BENCHMARK_RECORDS,
+                nanos[BENCHMARK_RECORDS / 2],
+                nanos[(int) (BENCHMARK_RECORDS * 0.99)],
+                nanos[(int) (BENCHMARK_RECORDS * 0.9999)],
+                nanos[BENCHMARK_RECORDS - 1] / 1e3);
+        int processors = Runtime.getRuntime().availableProcessors();
+        if (processors == 1) {
+            System.out.println("(só 1 processador: a cauda inclui as vezes "
+                    + "em que a thread de E/S tomou a vez de quem escreve)");
+        }
+        System.out.printf("escritos: %d, descartados: %d%n",
+                log.getAppendedCount(), log.getDroppedCount());
+
+        // o horário de cada registro é a sua posição no laço (veja fill)
+        final int[] mismatches = {0};
+        final long[] previous = {0};
+        List<String> problems = new ArrayList<String>();
+        int read = TelemetryReader.readAll(directory,
+                new TelemetryReader.Visitor() {
+            @Override
+            public void visit(TelemetryRecord record) {
+                int i = (int) (record.timestampMillis - BASE_TIMESTAMP);
+                if (record.timestampMillis <= previous[0] || i < 0
+                        || i >= BENCHMARK_RECORDS
+                        || record.sequenceIndex != i % 5
+                        || record.frames != expectedFrames[i]
+                        || record.seconds != expectedSeconds[i]
+                        || record.result != expectedResults[i]
+                        || !NAMES[i % NAMES.length].startsWith(
+                                record.microGame)) {
+                    mismatches[0]++;
+                }
+                previous[0] = record.timestampMillis;
+            }
+
+        }, problems);
+        System.out.printf("lidos: %d, diferentes ou fora de ordem: %d%n",
+                read, mismatches[0]);
+        for (String problem : problems) {
+            System.out.println(problem);
+        }
+        boolean ok = read == log.getAppendedCount() && mismatches[0] == 0
+                && problems.isEmpty();
+
+        for (File file : TelemetryLog.listSegments(directory)) {
+            file.delete();
+        }
+        directory.delete();
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    private static void fill(TelemetryRecord record, int i, Random random) {
+        record.reset();
+        record.timestampMillis = BASE_TIMESTAMP + i;
+        record.sessionId = i / 5;
+        record.sequenceIndex = i % 5;
+        record.microGame = NAMES[i % NAMES.length];
+        record.difficulty = random.nextFloat();
+        record.result = random.nextBoolean()
+                ? MicroGameState.PLAYER_SUCCEEDED
+                : MicroGameState.PLAYER_FAILED;
+        int frames = 300 + random.nextInt(300);
+        for (int f = 0; f < frames; f++) {
+            float dt = 1 / 60f + random.nextFloat() * 0.004f;
+            record.addFrame(dt, dt > 0.033f);
+        }
+        record.touches = random.nextInt(20);
+        record.keys = random.nextInt(5);
+    }
+}
@@ -0,0 +1,144 @@
+package br.microgamr.desktop;
+
+import br.microgamr.assets.AssetBundle;
+import br.microgamr.assets.ConvertedTextureLoader;
+import br.microgamr.assets.PreloadAssets;
+import br.microgamr.assets.TextureFormat;
+import br.microgamr.microgames.factories.MicroGameFactory;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.graphics.glutils.ETC1;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Ferramenta de linha de comando que converte as texturas declaradas com um
+ * {@link TextureFormat} reduzido, usada pela tarefa {@code convertTextures}
+ * do Gradle.
+ *
+ * <p>Uso: <code>TextureFormatTool convert|report &lt;assets&gt;
+ * &lt;classes...&gt;</code>, em que as classes são as fábricas (formatos
+ * declarados em {@link PreloadAssets}) e as telas (formatos declarados nos
+ * {@link AssetBundle}s públicos e estáticos delas). Imagens cuja conversão
+ * já está atualizada não são convertidas de novo. No modo
+ * <code>report</code>, apenas mostra a memória de vídeo ocupada pelas
+ * texturas antes e depois da conversão.</p>
+ *
+ * @author Flávio Coutinho <fegemo@cefetmg.br>
+ */
+public class TextureFormatTool {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Uso: TextureFormatTool convert|report "
+                    + "<pasta-de-assets> <classe> [<classe>...]");
+            System.exit(1);
+        }
+        GdxNativesLoader.load();
+        boolean convert = "convert".equals(args[0]);
+        File assetsDir = new File(args[1]);
+
+        Map<String, TextureFormat> declared
+                = new LinkedHashMap<String, TextureFormat>();
+        for (int i = 2; i < args.length; i++) {
+            collectDeclarations(Class.forName(args[i]), declared);
+        }
+
+        long totalBefore = 0;
+        long totalAfter = 0;
+        for (Map.Entry<String, TextureFormat> declaration
+                : declared.entrySet()) {
+            if (declaration.getValue() == TextureFormat.RGBA8888) {
+                continue;
+            }
+            String path = declaration.getKey();
+            FileHandle source = new FileHandle(new File(assetsDir, path));
+            Pixmap pixmap = new Pixmap(source);
+            TextureFormat format = declaration.getValue();
+            if (format == TextureFormat.ETC1 && !isOpaque(pixmap)) {
+                format = TextureFormat.RGBA4444;
+            }
+
+            long before = TextureFormat.RGBA8888.residentBytes(
+                    pixmap.getWidth(), pixmap.getHeight());
+            long after = format.residentBytes(
+                    pixmap.getWidth(), pixmap.getHeight());
+            totalBefore += before;
+            totalAfter += after;
+            System.out.printf("%-50s %-9s %6d KB -> %6d KB%n", path, format,
+                    before / 1024, after / 1024);
+
+            FileHandle target = source.sibling(
+                    source.name() + format.getConvertedExtension());
+            if (convert && !ConvertedTextureLoader.isUpToDate(target, source)) {
+                if (format == TextureFormat.ETC1) {
+                    writeEtc1(pixmap, target);
+                } else {
+                    writeCim(pixmap, format.getPixmapFormat(), target);
+                }
+            }
+            pixmap.dispose();
+        }
+        System.out.printf("%-50s %-9s %6d KB -> %6d KB%n", "total", "",
+                totalBefore / 1024, totalAfter / 1024);
+    }
+
+    private static void collectDeclarations(Class<?> type,
+            Map<String, TextureFormat> declared) throws Exception {
+        if (MicroGameFactory.class.isAssignableFrom(type)) {
+            Map<String, Class<?>> assets
+                    = ((MicroGameFactory) type.newInstance())
+                    .getAssetsToPreload();
+            if (assets instanceof PreloadAssets) {
+                declared.putAll(((PreloadAssets) assets).getTextureFormats());
+            }
+            return;
+        }
+        for (Field field : type.getFields()) {
+            if (Modifier.isStatic(field.getModifiers())
+                    && field.getType() == AssetBundle.class) {
+                declared.putAll(((AssetBundle) field.get(null))
+                        .getTextureFormats());
+            }
+        }
+    }
+
+    private static boolean isOpaque(Pixmap pixmap) {
+        for (int y = 0; y < pixmap.getHeight(); y++) {
+            for (int x = 0; x < pixmap.getWidth(); x++) {
+                if ((pixmap.getPixel(x, y) & 0xFF) != 0xFF) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static Pixmap convertTo(Pixmap source, Pixmap.Format format) {
+        Pixmap converted = new Pixmap(source.getWidth(), source.getHeight(),
+                format);
+        converted.setBlending(Pixmap.Blending.None);
+        converted.drawPixmap(source, 0, 0);
+        return converted;
+    }
+
+    private static void writeCim(Pixmap source, Pixmap.Format format,
+            FileHandle target) {
+        Pixmap converted = convertTo(source, format);
+        PixmapIO.writeCIM(target, converted);
+        converted.dispose();
+    }
+
+    private static void writeEtc1(Pixmap source, FileHandle target) {
+        Pixmap rgb = convertTo(source, Pixmap.Format.RGB888);
+        ETC1.ETC1Data data = ETC1.encodeImagePKM(rgb);
+        data.write(target);
+        data.dispose();
+        rgb.dispose();
+    }
+}